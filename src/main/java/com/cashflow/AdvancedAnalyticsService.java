@@ -1,11 +1,10 @@
 package com.cashflow;
 
-import javafx.scene.chart.*;
 import javafx.scene.layout.VBox;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.control.Label;
-import javafx.scene.paint.Color;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Arc;
 import javafx.scene.shape.ArcType;
@@ -35,63 +34,53 @@ import java.util.logging.Level;
 public class AdvancedAnalyticsService {
     private static final Logger logger = Logger.getLogger(AdvancedAnalyticsService.class.getName());
     
+    private static final int HEATMAP_DEFAULT_WEEKS = 26;
+    private static final double HEATMAP_MAX_VIEWPORT_WIDTH = 820;
+
     private DatabaseManager dbManager;
-    private ThemeManager.Theme currentTheme;
 
     public AdvancedAnalyticsService(DatabaseManager dbManager) {
         this.dbManager = dbManager;
-        this.currentTheme = ThemeManager.getInstance().getCurrentTheme();
     }
 
     // 1. Trendline Chart - Thu nhập vs Chi tiêu theo thời gian
     public VBox createTrendlineChart() {
         VBox chartContainer = new VBox(20);
         chartContainer.setPadding(new Insets(25));
-        chartContainer.setStyle(createCardStyle());
+        chartContainer.getStyleClass().add("card");
 
         Label title = new Label("📈 Income vs Expenses Trend");
-        title.setTextFill(currentTheme.getTextPrimary());
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
 
-        // Create line chart
-        CategoryAxis xAxis = new CategoryAxis();
-        NumberAxis yAxis = new NumberAxis();
-        LineChart<String, Number> lineChart = new LineChart<>(xAxis, yAxis);
-        
-        xAxis.setLabel("Month");
-        yAxis.setLabel("Amount ($)");
-        lineChart.setTitle("Financial Trend Analysis");
-        lineChart.setCreateSymbols(true);
-        lineChart.setAnimated(true);
-        lineChart.setPrefHeight(350);
-
-        // Income series
-        XYChart.Series<String, Number> incomeSeries = new XYChart.Series<>();
-        incomeSeries.setName("Income");
-        
-        // Expenses series
-        XYChart.Series<String, Number> expensesSeries = new XYChart.Series<>();
-        expensesSeries.setName("Expenses");
-
-        // Net worth series
-        XYChart.Series<String, Number> netWorthSeries = new XYChart.Series<>();
-        netWorthSeries.setName("Net Worth");
-
         // Get data for last 12 months
         List<MonthlyData> monthlyData = dbManager.getEnhancedMonthlyChartData();
         Collections.reverse(monthlyData); // Oldest first for trend
 
-        for (MonthlyData data : monthlyData) {
-            String monthLabel = data.getMonth();
-            incomeSeries.getData().add(new XYChart.Data<>(monthLabel, data.getIncome()));
-            expensesSeries.getData().add(new XYChart.Data<>(monthLabel, data.getOutcome()));
-            netWorthSeries.getData().add(new XYChart.Data<>(monthLabel, data.getBalance()));
+        int count = monthlyData.size();
+        double[] months = new double[count];
+        double[] income = new double[count];
+        double[] expenses = new double[count];
+        double[] netWorth = new double[count];
+        String[] monthLabels = new String[count];
+        for (int i = 0; i < count; i++) {
+            MonthlyData data = monthlyData.get(i);
+            months[i] = i;
+            income[i] = data.getIncome();
+            expenses[i] = data.getOutcome();
+            netWorth[i] = data.getBalance();
+            monthLabels[i] = data.getMonth();
         }
 
-        lineChart.getData().addAll(incomeSeries, expensesSeries, netWorthSeries);
-
-        // Style the chart
-        applyChartStyling(lineChart);
+        CanvasChart lineChart = new CanvasChart(ThemeManager.getInstance().getCurrentTheme());
+        lineChart.setPrefHeight(350);
+        lineChart.setXLabelFormatter(x -> categoryLabel(monthLabels, x));
+        lineChart.setAxisTitles("Month", "Amount ($)");
+        lineChart.setSeries(List.of(
+            CanvasChart.Series.line("Income", ThemeManager.Theme::getAccentGreen, months, income),
+            CanvasChart.Series.line("Expenses", ThemeManager.Theme::getAccentPink, months, expenses),
+            CanvasChart.Series.line("Net Worth", ThemeManager.Theme::getAccentPurple, months, netWorth)
+        ));
 
         chartContainer.getChildren().addAll(title, lineChart);
         return chartContainer;
@@ -101,10 +90,10 @@ public class AdvancedAnalyticsService {
     public VBox createSavingsGoalChart() {
         VBox chartContainer = new VBox(20);
         chartContainer.setPadding(new Insets(25));
-        chartContainer.setStyle(createCardStyle());
+        chartContainer.getStyleClass().add("card");
 
         Label title = new Label("🎯 Savings Goals Progress");
-        title.setTextFill(currentTheme.getTextPrimary());
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
 
         HBox goalsContainer = new HBox(30);
@@ -112,9 +101,9 @@ public class AdvancedAnalyticsService {
 
         // Mock savings goals data
         List<SavingsGoal> goals = Arrays.asList(
-            new SavingsGoal("Emergency Fund", 10000, 6500, currentTheme.getSuccess()),
-            new SavingsGoal("Vacation", 5000, 2800, currentTheme.getWarning()),
-            new SavingsGoal("New Car", 25000, 15000, currentTheme.getAccentPurple())
+            new SavingsGoal("Emergency Fund", 10000, 6500, "accent-success"),
+            new SavingsGoal("Vacation", 5000, 2800, "accent-warning"),
+            new SavingsGoal("New Car", 25000, 15000, "accent-purple")
         );
 
         for (SavingsGoal goal : goals) {
@@ -128,15 +117,20 @@ public class AdvancedAnalyticsService {
 
     // 3. Heatmap Calendar - Spending Activity
     public VBox createSpendingHeatmap() {
+        LocalDate today = LocalDate.now();
+        return createSpendingHeatmap(today.minusWeeks(HEATMAP_DEFAULT_WEEKS).plusDays(1), today);
+    }
+
+    public VBox createSpendingHeatmap(LocalDate startDate, LocalDate endDate) {
         VBox chartContainer = new VBox(20);
         chartContainer.setPadding(new Insets(25));
-        chartContainer.setStyle(createCardStyle());
+        chartContainer.getStyleClass().add("card");
 
         Label title = new Label("🔥 Spending Activity Heatmap");
-        title.setTextFill(currentTheme.getTextPrimary());
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
 
-        VBox heatmapContainer = createCalendarHeatmap();
+        VBox heatmapContainer = createCalendarHeatmap(startDate, endDate);
         chartContainer.getChildren().addAll(title, heatmapContainer);
         return chartContainer;
     }
@@ -145,40 +139,60 @@ public class AdvancedAnalyticsService {
     public VBox createCashFlowWaterfallChart() {
         VBox chartContainer = new VBox(20);
         chartContainer.setPadding(new Insets(25));
-        chartContainer.setStyle(createCardStyle());
+        chartContainer.getStyleClass().add("card");
 
         Label title = new Label("🌊 Cash Flow Waterfall");
-        title.setTextFill(currentTheme.getTextPrimary());
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
 
-        CategoryAxis xAxis = new CategoryAxis();
-        NumberAxis yAxis = new NumberAxis();
-        StackedBarChart<String, Number> waterfallChart = new StackedBarChart<>(xAxis, yAxis);
-        
-        waterfallChart.setTitle("Monthly Cash Flow Breakdown");
-        waterfallChart.setAnimated(true);
-        waterfallChart.setPrefHeight(350);
-
         // Get top categories data
         List<CategoryData> incomeCategories = dbManager.getTopIncomeCategories(3);
         List<CategoryData> expenseCategories = dbManager.getTopExpenseCategories(5);
 
-        // Create series for each category
-        for (CategoryData category : incomeCategories) {
-            XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.setName(category.getCategory());
-            series.getData().add(new XYChart.Data<>("Income", category.getTotalAmount()));
-            waterfallChart.getData().add(series);
+        // Mỗi category là một bậc từ tổng tích luỹ trước đó, cột cuối là dòng tiền ròng
+        int count = incomeCategories.size() + expenseCategories.size();
+        String[] steps = new String[count + 1];
+        double[] running = new double[count + 2];
+        for (int i = 0; i < count; i++) {
+            CategoryData category = i < incomeCategories.size()
+                ? incomeCategories.get(i)
+                : expenseCategories.get(i - incomeCategories.size());
+            double amount = i < incomeCategories.size() ? category.getTotalAmount() : -category.getTotalAmount();
+            steps[i] = category.getCategory();
+            running[i + 1] = running[i] + amount;
         }
-
-        for (CategoryData category : expenseCategories) {
-            XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.setName(category.getCategory());
-            series.getData().add(new XYChart.Data<>("Expenses", -category.getTotalAmount()));
-            waterfallChart.getData().add(series);
+        steps[count] = "Net";
+
+        double[] incomeX = new double[incomeCategories.size()];
+        double[] incomeFrom = new double[incomeX.length];
+        double[] incomeTo = new double[incomeX.length];
+        for (int i = 0; i < incomeX.length; i++) {
+            incomeX[i] = i;
+            incomeFrom[i] = running[i];
+            incomeTo[i] = running[i + 1];
+        }
+        double[] expenseX = new double[expenseCategories.size()];
+        double[] expenseFrom = new double[expenseX.length];
+        double[] expenseTo = new double[expenseX.length];
+        for (int i = 0; i < expenseX.length; i++) {
+            int step = incomeX.length + i;
+            expenseX[i] = step;
+            expenseFrom[i] = running[step];
+            expenseTo[i] = running[step + 1];
         }
 
-        applyChartStyling(waterfallChart);
+        CanvasChart waterfallChart = new CanvasChart(ThemeManager.getInstance().getCurrentTheme());
+        waterfallChart.setPrefHeight(350);
+        waterfallChart.setXLabelFormatter(x -> categoryLabel(steps, x));
+        waterfallChart.setSeries(List.of(
+            CanvasChart.Series.bars("Income", ThemeManager.Theme::getAccentGreen, incomeX, incomeFrom, incomeTo)
+                .withLabels(Arrays.copyOfRange(steps, 0, incomeX.length)),
+            CanvasChart.Series.bars("Expenses", ThemeManager.Theme::getAccentPink, expenseX, expenseFrom, expenseTo)
+                .withLabels(Arrays.copyOfRange(steps, incomeX.length, count)),
+            CanvasChart.Series.bars("Net", ThemeManager.Theme::getAccentPurple,
+                new double[] { count }, new double[] { 0 }, new double[] { running[count] })
+        ));
+
         chartContainer.getChildren().addAll(title, waterfallChart);
         return chartContainer;
     }
@@ -187,42 +201,44 @@ public class AdvancedAnalyticsService {
     public VBox createCategoryBubbleChart() {
         VBox chartContainer = new VBox(20);
         chartContainer.setPadding(new Insets(25));
-        chartContainer.setStyle(createCardStyle());
+        chartContainer.getStyleClass().add("card");
 
         Label title = new Label("🎈 Category Spending Analysis");
-        title.setTextFill(currentTheme.getTextPrimary());
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
 
-        NumberAxis xAxis = new NumberAxis();
-        NumberAxis yAxis = new NumberAxis();
-        BubbleChart<Number, Number> bubbleChart = new BubbleChart<>(xAxis, yAxis);
-        
-        xAxis.setLabel("Frequency (Transactions)");
-        yAxis.setLabel("Average Amount ($)");
-        bubbleChart.setTitle("Spending Patterns by Category");
-        bubbleChart.setAnimated(true);
-        bubbleChart.setPrefHeight(350);
-
-        XYChart.Series<Number, Number> series = new XYChart.Series<>();
-        series.setName("Categories");
-
         // Analyze expense categories
         List<CategoryData> categories = dbManager.getTopExpenseCategories(10);
-        for (CategoryData category : categories) {
+        int count = categories.size();
+        double[] frequency = new double[count];
+        double[] average = new double[count];
+        double[] size = new double[count];
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            CategoryData category = categories.get(i);
             // Mock transaction count and average (would need real calculation)
             int transactionCount = (int)(Math.random() * 50) + 5;
-            double avgAmount = category.getTotalAmount() / transactionCount;
-            
-            XYChart.Data<Number, Number> data = new XYChart.Data<>(
-                transactionCount, avgAmount, category.getTotalAmount() / 100
-            );
-            series.getData().add(data);
+            frequency[i] = transactionCount;
+            average[i] = category.getTotalAmount() / transactionCount;
+            size[i] = category.getTotalAmount() / 100;
+            names[i] = category.getCategory();
         }
 
-        bubbleChart.getData().add(series);
-        applyChartStyling(bubbleChart);
-
-        chartContainer.getChildren().addAll(title, bubbleChart);
+        CanvasChart bubbleChart = new CanvasChart(ThemeManager.getInstance().getCurrentTheme());
+        bubbleChart.setPrefHeight(350);
+        bubbleChart.setLegendVisible(false);
+        bubbleChart.setAxisTitles("Frequency (Transactions)", "Average Amount ($)");
+        bubbleChart.setXLabelFormatter(x -> x < 0 ? "" : String.format("%.0f tx", x));
+        bubbleChart.setSeries(List.of(
+            CanvasChart.Series.bubbles("Categories", ThemeManager.Theme::getAccentPurple, frequency, average, size)
+                .withLabels(names)
+        ));
+
+        Label axisCaption = new Label("Frequency (Transactions) vs Average Amount ($)");
+        axisCaption.getStyleClass().add("text-muted");
+        axisCaption.setFont(Font.font("Segoe UI", 12));
+
+        chartContainer.getChildren().addAll(title, bubbleChart, axisCaption);
         return chartContainer;
     }
 
@@ -232,26 +248,18 @@ public class AdvancedAnalyticsService {
         card.setAlignment(Pos.CENTER);
         card.setPadding(new Insets(20));
         card.setPrefWidth(200);
-        card.setStyle(
-            "-fx-background-color: " + ThemeManager.toRgbaString(currentTheme.getCardBg(), 0.8) + ";" +
-            "-fx-background-radius: 15;" +
-            "-fx-border-radius: 15;" +
-            "-fx-border-color: " + ThemeManager.toRgbaString(goal.color, 0.3) + ";" +
-            "-fx-border-width: 2;"
-        );
+        card.getStyleClass().addAll("goal-card", goal.accentClass);
 
         // Progress circle
         Circle backgroundCircle = new Circle(60);
-        backgroundCircle.setFill(Color.TRANSPARENT);
-        backgroundCircle.setStroke(ThemeManager.toRgbaColor(goal.color, 0.2));
+        backgroundCircle.getStyleClass().add("progress-track");
         backgroundCircle.setStrokeWidth(8);
 
         double progress = goal.current / goal.target;
         Arc progressArc = new Arc(0, 0, 60, 60, 90, -progress * 360);
         progressArc.setType(ArcType.OPEN);
-        progressArc.setStroke(goal.color);
+        progressArc.getStyleClass().add("progress-arc");
         progressArc.setStrokeWidth(8);
-        progressArc.setFill(Color.TRANSPARENT);
 
         VBox circleContainer = new VBox();
         circleContainer.setAlignment(Pos.CENTER);
@@ -259,64 +267,54 @@ public class AdvancedAnalyticsService {
 
         // Labels
         Label nameLabel = new Label(goal.name);
-        nameLabel.setTextFill(currentTheme.getTextPrimary());
+        nameLabel.getStyleClass().add("text-primary");
         nameLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 14));
 
         Label progressLabel = new Label(String.format("%.0f%%", progress * 100));
-        progressLabel.setTextFill(goal.color);
+        progressLabel.getStyleClass().add("text-accent");
         progressLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
 
         Label amountLabel = new Label(String.format("$%.0f / $%.0f", goal.current, goal.target));
-        amountLabel.setTextFill(currentTheme.getTextSecondary());
+        amountLabel.getStyleClass().add("text-secondary");
         amountLabel.setFont(Font.font("Segoe UI", 12));
 
         card.getChildren().addAll(circleContainer, nameLabel, progressLabel, amountLabel);
         return card;
     }
 
-    private VBox createCalendarHeatmap() {
+    private VBox createCalendarHeatmap(LocalDate startDate, LocalDate endDate) {
         VBox heatmapContainer = new VBox(10);
         heatmapContainer.setAlignment(Pos.CENTER);
 
-        // Create a 7x4 grid for 4 weeks
-        for (int week = 0; week < 4; week++) {
-            HBox weekRow = new HBox(5);
-            weekRow.setAlignment(Pos.CENTER);
-
-            for (int day = 0; day < 7; day++) {
-                // Mock spending intensity (0-1)
-                double intensity = Math.random();
-                Color cellColor = ThemeManager.toRgbaColor(currentTheme.getAccentPurple(), intensity * 0.8);
-                
-                VBox dayCell = new VBox();
-                dayCell.setPrefSize(30, 30);
-                dayCell.setStyle(
-                    "-fx-background-color: " + ThemeManager.toHexString(cellColor) + ";" +
-                    "-fx-background-radius: 4;"
-                );
-                weekRow.getChildren().add(dayCell);
-            }
-            heatmapContainer.getChildren().add(weekRow);
-        }
-
+        // One aggregate query for the whole range, drawn on a single canvas
+        Map<LocalDate, Double> dailyTotals = dbManager.getDailyOutcomeTotals(startDate, endDate);
+        SpendingHeatmapCanvas heatmap = new SpendingHeatmapCanvas(dailyTotals, startDate, endDate,
+            ThemeManager.getInstance().getCurrentTheme());
+
+        ScrollPane scrollPane = new ScrollPane(heatmap);
+        scrollPane.setFitToHeight(true);
+        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
+        scrollPane.getStyleClass().add("transparent-scroll");
+        scrollPane.setMinViewportHeight(heatmap.getHeight());
+        scrollPane.setPrefViewportWidth(Math.min(heatmap.getWidth(), HEATMAP_MAX_VIEWPORT_WIDTH));
+
+        double total = dailyTotals.values().stream().mapToDouble(Double::doubleValue).sum();
+        Label summary = new Label(String.format("%d active days · $%.0f spent", dailyTotals.size(), total));
+        summary.getStyleClass().add("text-secondary");
+        summary.setFont(Font.font("Segoe UI", 12));
+
+        heatmapContainer.getChildren().addAll(scrollPane, summary);
         return heatmapContainer;
     }
 
-    private void applyChartStyling(Chart chart) {
-        chart.setStyle(
-            "-fx-background-color: transparent;" +
-            "-fx-text-fill: " + ThemeManager.toHexString(currentTheme.getTextPrimary()) + ";" +
-            "-fx-stroke: " + ThemeManager.toHexString(currentTheme.getAccentPurple()) + ";"
-        );
-    }
-
-    private String createCardStyle() {
-        return "-fx-background-color: " + ThemeManager.toHexString(currentTheme.getCardBg()) + ";" +
-               "-fx-background-radius: 15;" +
-               "-fx-border-radius: 15;" +
-               "-fx-border-color: " + ThemeManager.toRgbaString(currentTheme.getTextMuted(), 0.3) + ";" +
-               "-fx-border-width: 1;" +
-               "-fx-effect: dropshadow(gaussian, " + ThemeManager.toRgbaString(currentTheme.getShadowColor(), 0.1) + ", 15, 0, 0, 5);";
+    // Nhãn trục X cho chart dạng category: chỉ ghi nhãn tại các vị trí nguyên
+    private static String categoryLabel(String[] labels, double x) {
+        int index = (int) Math.round(x);
+        if (Math.abs(x - index) > 1e-6 || index < 0 || index >= labels.length) {
+            return "";
+        }
+        return labels[index];
     }
 
     // Data classes
@@ -324,13 +322,13 @@ public class AdvancedAnalyticsService {
         String name;
         double target;
         double current;
-        Color color;
+        String accentClass;
 
-        public SavingsGoal(String name, double target, double current, Color color) {
+        public SavingsGoal(String name, double target, double current, String accentClass) {
             this.name = name;
             this.target = target;
             this.current = current;
-            this.color = color;
+            this.accentClass = accentClass;
         }
     }
 } 
\ No newline at end of file
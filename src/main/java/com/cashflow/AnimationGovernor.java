@@ -0,0 +1,175 @@
+package com.cashflow;
+
+import javafx.animation.Animation;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.util.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Điều phối animation của toàn ứng dụng để pulse không bận khi không có gì thay đổi.
+ *
+ * - Animation một lần (entrance, fade...) bị giới hạn số lượng chạy đồng thời; vượt giới hạn thì
+ *   nhảy thẳng tới trạng thái cuối.
+ * - Animation lặp vô hạn gắn với một node và chỉ chạy khi node đang nằm trong cửa sổ đang hiển thị,
+ *   tự dừng khi trang bị ẩn hoặc cửa sổ bị thu nhỏ.
+ * - Danh sách lớn hơn LARGE_LIST_ROWS dòng thì tắt animation theo dòng.
+ *
+ * Mọi method phải gọi trên FX thread.
+ */
+public class AnimationGovernor {
+    public static final int LARGE_LIST_ROWS = 200;
+    private static final int MAX_CONCURRENT_ANIMATIONS = 24;
+    // Thời lượng một frame, dùng khi tua nhanh animation bị vượt giới hạn
+    private static final double FRAME_MILLIS = 16;
+    private static final String INFINITE_KEY = "animationGovernor.infinite";
+    private static AnimationGovernor instance;
+
+    // Node sở hữu animation vô hạn; weak để trang bị bỏ khỏi cache vẫn được thu hồi
+    private final Set<Node> infiniteOwners = Collections.newSetFromMap(new WeakHashMap<>());
+    private int runningAnimations;
+    private boolean windowIconified;
+
+    private AnimationGovernor() {
+    }
+
+    public static synchronized AnimationGovernor getInstance() {
+        if (instance == null) {
+            instance = new AnimationGovernor();
+        }
+        return instance;
+    }
+
+    /**
+     * Theo dõi cửa sổ chính: thu nhỏ thì dừng mọi animation vô hạn
+     */
+    public void attachStage(Stage stage) {
+        stage.iconifiedProperty().addListener((obs, wasIconified, iconified) -> {
+            windowIconified = iconified;
+            updateAll();
+        });
+        stage.showingProperty().addListener((obs, wasShowing, showing) -> updateAll());
+        windowIconified = stage.isIconified();
+        updateAll();
+    }
+
+    /**
+     * Chạy một animation hữu hạn, tính vào giới hạn animation đồng thời
+     */
+    public void play(Animation animation) {
+        if (animation.getStatus() == Animation.Status.RUNNING) {
+            return;
+        }
+        if (runningAnimations >= MAX_CONCURRENT_ANIMATIONS) {
+            finishImmediately(animation);
+            return;
+        }
+
+        runningAnimations++;
+        animation.statusProperty().addListener(new ChangeListener<Animation.Status>() {
+            @Override
+            public void changed(ObservableValue<? extends Animation.Status> obs,
+                                Animation.Status oldStatus, Animation.Status newStatus) {
+                if (newStatus == Animation.Status.STOPPED) {
+                    runningAnimations--;
+                    obs.removeListener(this);
+                }
+            }
+        });
+        animation.play();
+    }
+
+    /**
+     * Chạy animation lặp vô hạn của owner; animation chỉ chạy khi owner đang được hiển thị
+     */
+    public void playInfinite(Node owner, Animation animation) {
+        @SuppressWarnings("unchecked")
+        List<Animation> animations = (List<Animation>) owner.getProperties().get(INFINITE_KEY);
+        if (animations == null) {
+            animations = new ArrayList<>();
+            owner.getProperties().put(INFINITE_KEY, animations);
+            // Scene của node đổi khi trang chứa nó được gắn vào hoặc gỡ khỏi content area
+            owner.sceneProperty().addListener((obs, oldScene, newScene) -> update(owner));
+            infiniteOwners.add(owner);
+        }
+        animations.add(animation);
+        update(owner);
+    }
+
+    /**
+     * Danh sách có rowCount dòng có nên animate từng dòng không
+     */
+    public boolean allowsRowAnimation(int rowCount) {
+        return rowCount <= LARGE_LIST_ROWS && runningAnimations < MAX_CONCURRENT_ANIMATIONS;
+    }
+
+    public int getRunningAnimations() {
+        return runningAnimations;
+    }
+
+    private void updateAll() {
+        for (Node owner : new ArrayList<>(infiniteOwners)) {
+            update(owner);
+        }
+    }
+
+    private void update(Node owner) {
+        @SuppressWarnings("unchecked")
+        List<Animation> animations = (List<Animation>) owner.getProperties().get(INFINITE_KEY);
+        if (animations == null) {
+            return;
+        }
+        boolean showing = isShowing(owner);
+        for (Animation animation : animations) {
+            if (showing && animation.getStatus() != Animation.Status.RUNNING) {
+                animation.play();
+            } else if (!showing && animation.getStatus() == Animation.Status.RUNNING) {
+                // Animation đang chạy bị pulse giữ tham chiếu; pause để node có thể được thu hồi
+                animation.pause();
+            }
+        }
+    }
+
+    private boolean isShowing(Node owner) {
+        Scene scene = owner.getScene();
+        if (scene == null || windowIconified) {
+            return false;
+        }
+        Window window = scene.getWindow();
+        return window != null && window.isShowing();
+    }
+
+    /**
+     * Bỏ delay và tăng tốc để animation kết thúc trong khoảng một frame, vẫn áp dụng trạng thái cuối.
+     * Rate và delay gốc được trả lại khi animation dừng, để lần play sau (dưới giới hạn) chạy bình thường.
+     */
+    private static void finishImmediately(Animation animation) {
+        double totalMillis = animation.getTotalDuration().toMillis();
+        double originalRate = animation.getRate();
+        Duration originalDelay = animation.getDelay();
+        animation.statusProperty().addListener(new ChangeListener<Animation.Status>() {
+            @Override
+            public void changed(ObservableValue<? extends Animation.Status> obs,
+                                Animation.Status oldStatus, Animation.Status newStatus) {
+                if (newStatus == Animation.Status.STOPPED) {
+                    obs.removeListener(this);
+                    animation.setRate(originalRate);
+                    animation.setDelay(originalDelay);
+                }
+            }
+        });
+        animation.setDelay(Duration.ZERO);
+        if (!Double.isInfinite(totalMillis) && totalMillis > FRAME_MILLIS) {
+            animation.setRate(originalRate * totalMillis / FRAME_MILLIS);
+        }
+        animation.play();
+    }
+}
@@ -0,0 +1,573 @@
+package com.cashflow;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Định dạng file backup (.cbk): các entry được chia thành chunk, mỗi chunk nén deflate độc lập trên
+ * pool CPU của TaskScheduler và mang CRC32C của cả dữ liệu nén lẫn dữ liệu gốc.
+ *
+ * Bố cục file:
+ * - Header HEADER_SIZE byte ở offset 0: magic, phiên bản, kích thước chunk, offset / độ dài / CRC32C của manifest.
+ * - Dữ liệu các chunk, ghi nối tiếp theo thứ tự.
+ * - Manifest: danh sách entry, mỗi entry gồm kích thước và danh sách chunk (offset, độ dài, CRC32C).
+ *
+ * Vì header nằm ở vị trí cố định, kiểm tra file chỉ cần đọc header + manifest rồi so CRC32C của từng chunk
+ * nén song song, không phải giải nén. Khi đọc entry, mỗi chunk được giải nén và so với CRC32C dữ liệu gốc.
+ *
+ * File được ghi vào file tạm rồi đổi tên, nên không bao giờ có file backup ghi dở.
+ */
+public final class BackupArchive {
+    private static final Logger logger = Logger.getLogger(BackupArchive.class.getName());
+    // "CFBK"
+    private static final int MAGIC = 0x4346424B;
+    private static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    // Mức nén mặc định, đổi được bằng -Dcashflow.backup.level=0..9
+    public static final int DEFAULT_LEVEL = 6;
+    private static final byte METHOD_STORED = 0;
+    private static final byte METHOD_DEFLATE = 1;
+    // Số chunk đang xử lý cùng lúc: giới hạn bộ nhớ (mỗi chunk tối đa ~2 lần chunkSize)
+    private static final int WINDOW = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+    public interface ProgressListener {
+        void onProgress(long bytesDone, long bytesTotal);
+    }
+
+    private BackupArchive() {
+    }
+
+    /**
+     * Mức nén từ system property cashflow.backup.level, ngoài khoảng 0..9 thì dùng DEFAULT_LEVEL
+     */
+    public static int configuredLevel() {
+        int level = Integer.getInteger("cashflow.backup.level", DEFAULT_LEVEL);
+        return level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION ? level : DEFAULT_LEVEL;
+    }
+
+    /**
+     * File có phải định dạng này không (chỉ đọc magic), để phân biệt với các bản backup ZIP cũ
+     */
+    public static boolean isArchive(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            return readFully(channel, magic, 0) && magic.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static Writer create(Path target, int level) throws IOException {
+        return new Writer(target, level, DEFAULT_CHUNK_SIZE);
+    }
+
+    public static Reader open(Path file) throws IOException {
+        return new Reader(file);
+    }
+
+    private static final class Chunk {
+        final long offset;
+        final byte method;
+        final int storedLength;
+        final int rawLength;
+        final int storedCrc;
+        final int rawCrc;
+        // Dữ liệu nén, chỉ có trong lúc ghi
+        final byte[] data;
+
+        Chunk(long offset, byte method, int storedLength, int rawLength, int storedCrc, int rawCrc, byte[] data) {
+            this.offset = offset;
+            this.method = method;
+            this.storedLength = storedLength;
+            this.rawLength = rawLength;
+            this.storedCrc = storedCrc;
+            this.rawCrc = rawCrc;
+            this.data = data;
+        }
+    }
+
+    private static final class Entry {
+        final String name;
+        final List<Chunk> chunks = new ArrayList<>();
+        long size;
+
+        Entry(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Ghi archive: thêm entry bằng addFile / addBytes rồi gọi finish() để ghi manifest và đổi tên vào target.
+     * close() mà chưa finish() thì bỏ file tạm.
+     */
+    public static final class Writer implements Closeable {
+        private final Path target;
+        private final Path temp;
+        private final int level;
+        private final int chunkSize;
+        private final FileChannel channel;
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+        private long position = HEADER_SIZE;
+        private boolean finished;
+
+        private Writer(Path target, int level, int chunkSize) throws IOException {
+            this.target = target.toAbsolutePath();
+            this.temp = this.target.resolveSibling(this.target.getFileName() + ".tmp");
+            this.level = level;
+            this.chunkSize = chunkSize;
+            if (this.target.getParent() != null) {
+                Files.createDirectories(this.target.getParent());
+            }
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        /**
+         * Đọc file tuần tự theo chunk, nén song song (tối đa WINDOW chunk cùng lúc) và ghi theo đúng thứ tự
+         */
+        public void addFile(String name, Path source, ProgressListener listener) throws IOException {
+            Entry entry = newEntry(name);
+            long total = Files.size(source);
+            long done = 0;
+            Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+                while (true) {
+                    byte[] raw = new byte[chunkSize];
+                    int length = readChunk(in, raw);
+                    if (length <= 0) {
+                        break;
+                    }
+                    inFlight.add(submit("backup-compress", () -> compress(raw, length, level)));
+                    if (inFlight.size() >= WINDOW) {
+                        done += write(entry, await(inFlight.removeFirst()));
+                        report(listener, done, total);
+                    }
+                }
+                while (!inFlight.isEmpty()) {
+                    done += write(entry, await(inFlight.removeFirst()));
+                    report(listener, done, total);
+                }
+            } finally {
+                for (Future<Chunk> pending : inFlight) {
+                    pending.cancel(false);
+                }
+            }
+        }
+
+        public void addBytes(String name, byte[] data) throws IOException {
+            Entry entry = newEntry(name);
+            for (int start = 0; start < data.length; start += chunkSize) {
+                int length = Math.min(chunkSize, data.length - start);
+                byte[] raw = new byte[length];
+                System.arraycopy(data, start, raw, 0, length);
+                write(entry, compress(raw, length, level));
+            }
+        }
+
+        /**
+         * Ghi manifest và header, fsync rồi đổi tên file tạm thành target
+         */
+        public void finish() throws IOException {
+            ByteArrayOutputStream manifestBytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(manifestBytes)) {
+                out.writeInt(entries.size());
+                for (Entry entry : entries.values()) {
+                    out.writeUTF(entry.name);
+                    out.writeLong(entry.size);
+                    out.writeInt(entry.chunks.size());
+                    for (Chunk chunk : entry.chunks) {
+                        out.writeLong(chunk.offset);
+                        out.writeByte(chunk.method);
+                        out.writeInt(chunk.storedLength);
+                        out.writeInt(chunk.rawLength);
+                        out.writeInt(chunk.storedCrc);
+                        out.writeInt(chunk.rawCrc);
+                    }
+                }
+            }
+            byte[] manifest = manifestBytes.toByteArray();
+            long manifestOffset = position;
+            writeAt(ByteBuffer.wrap(manifest), manifestOffset);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putInt(FORMAT_VERSION);
+            header.putInt(chunkSize);
+            header.putLong(manifestOffset);
+            header.putInt(manifest.length);
+            header.putInt(crc32c(manifest, 0, manifest.length));
+            header.flip();
+            writeAt(header, 0);
+            channel.force(true);
+            channel.close();
+
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            finished = true;
+            logger.info(String.format("Backup archive written to %s (%d entries, %d bytes, level %d)",
+                target, entries.size(), manifestOffset + manifest.length, level));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                channel.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private Entry newEntry(String name) {
+            if (entries.containsKey(name)) {
+                throw new IllegalArgumentException("Duplicate archive entry: " + name);
+            }
+            Entry entry = new Entry(name);
+            entries.put(name, entry);
+            return entry;
+        }
+
+        private int write(Entry entry, Chunk compressed) throws IOException {
+            writeAt(ByteBuffer.wrap(compressed.data, 0, compressed.storedLength), position);
+            entry.chunks.add(new Chunk(position, compressed.method, compressed.storedLength, compressed.rawLength,
+                compressed.storedCrc, compressed.rawCrc, null));
+            entry.size += compressed.rawLength;
+            position += compressed.storedLength;
+            return compressed.rawLength;
+        }
+
+        private void writeAt(ByteBuffer buffer, long offset) throws IOException {
+            while (buffer.hasRemaining()) {
+                offset += channel.write(buffer, offset);
+            }
+        }
+    }
+
+    /**
+     * Đọc archive. Các thao tác đọc dùng positional read nên verify() đọc song song trên cùng một channel.
+     */
+    public static final class Reader implements Closeable {
+        private final Path file;
+        private final FileChannel channel;
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+        private Reader(Path file) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                readManifest();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public Set<String> getEntryNames() {
+            return Collections.unmodifiableSet(entries.keySet());
+        }
+
+        public boolean hasEntry(String name) {
+            return entries.containsKey(name);
+        }
+
+        public long getEntrySize(String name) throws IOException {
+            return entry(name).size;
+        }
+
+        /**
+         * So CRC32C của mọi chunk nén song song, không giải nén. Ném IOException ở chunk hỏng đầu tiên.
+         */
+        public void verify() throws IOException {
+            long started = System.nanoTime();
+            int chunkCount = 0;
+            Deque<Future<Boolean>> inFlight = new ArrayDeque<>();
+            try {
+                for (Entry entry : entries.values()) {
+                    for (int i = 0; i < entry.chunks.size(); i++) {
+                        Chunk chunk = entry.chunks.get(i);
+                        String label = entry.name + " chunk " + i;
+                        inFlight.add(submit("backup-verify", () -> {
+                            byte[] stored = readStored(chunk);
+                            if (crc32c(stored, 0, stored.length) != chunk.storedCrc) {
+                                throw new IOException("Checksum mismatch in " + label + " of " + file);
+                            }
+                            return true;
+                        }));
+                        chunkCount++;
+                        if (inFlight.size() >= WINDOW) {
+                            await(inFlight.removeFirst());
+                        }
+                    }
+                }
+                while (!inFlight.isEmpty()) {
+                    await(inFlight.removeFirst());
+                }
+            } finally {
+                for (Future<Boolean> pending : inFlight) {
+                    pending.cancel(false);
+                }
+            }
+            logger.fine(String.format("Verified %d chunks of %s in %d ms", chunkCount, file,
+                (System.nanoTime() - started) / 1_000_000));
+        }
+
+        /**
+         * Stream dữ liệu gốc của entry; mỗi chunk được kiểm tra CRC32C sau khi giải nén
+         */
+        public InputStream openEntry(String name) throws IOException {
+            return new EntryInputStream(entry(name));
+        }
+
+        public byte[] readEntry(String name) throws IOException {
+            try (InputStream in = openEntry(name)) {
+                return in.readAllBytes();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private Entry entry(String name) throws IOException {
+            Entry entry = entries.get(name);
+            if (entry == null) {
+                throw new IOException("Archive " + file + " has no entry " + name);
+            }
+            return entry;
+        }
+
+        private void readManifest() throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (!readFully(channel, header, 0) || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a Cashflow backup archive: " + file);
+            }
+            int version = header.getInt(4);
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported backup archive version " + version + ": " + file);
+            }
+            long manifestOffset = header.getLong(12);
+            int manifestLength = header.getInt(20);
+            int manifestCrc = header.getInt(24);
+            if (manifestOffset < HEADER_SIZE || manifestLength < 0
+                || manifestOffset + manifestLength > channel.size()) {
+                throw new IOException("Backup archive manifest is out of range: " + file);
+            }
+
+            ByteBuffer manifest = ByteBuffer.allocate(manifestLength);
+            if (!readFully(channel, manifest, manifestOffset)
+                || crc32c(manifest.array(), 0, manifestLength) != manifestCrc) {
+                throw new IOException("Backup archive manifest is corrupt: " + file);
+            }
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(manifest.array()))) {
+                int entryCount = in.readInt();
+                for (int e = 0; e < entryCount; e++) {
+                    Entry entry = new Entry(in.readUTF());
+                    entry.size = in.readLong();
+                    int chunkCount = in.readInt();
+                    for (int c = 0; c < chunkCount; c++) {
+                        Chunk chunk = new Chunk(in.readLong(), in.readByte(), in.readInt(), in.readInt(),
+                            in.readInt(), in.readInt(), null);
+                        if (chunk.offset < HEADER_SIZE || chunk.offset + chunk.storedLength > manifestOffset) {
+                            throw new IOException("Chunk of " + entry.name + " is out of range: " + file);
+                        }
+                        entry.chunks.add(chunk);
+                    }
+                    entries.put(entry.name, entry);
+                }
+            }
+        }
+
+        private byte[] readStored(Chunk chunk) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(chunk.storedLength);
+            if (!readFully(channel, buffer, chunk.offset)) {
+                throw new IOException("Backup archive is truncated: " + file);
+            }
+            return buffer.array();
+        }
+
+        private byte[] readRaw(Entry entry, int index) throws IOException {
+            Chunk chunk = entry.chunks.get(index);
+            byte[] stored = readStored(chunk);
+            byte[] raw = chunk.method == METHOD_STORED ? stored : inflate(stored, chunk.rawLength);
+            if (raw.length != chunk.rawLength || crc32c(raw, 0, raw.length) != chunk.rawCrc) {
+                throw new IOException("Checksum mismatch in " + entry.name + " chunk " + index + " of " + file);
+            }
+            return raw;
+        }
+
+        private final class EntryInputStream extends InputStream {
+            private final Entry entry;
+            private int nextChunk;
+            private byte[] current = new byte[0];
+            private int position;
+
+            EntryInputStream(Entry entry) {
+                this.entry = entry;
+            }
+
+            @Override
+            public int read() throws IOException {
+                if (!fill()) {
+                    return -1;
+                }
+                return current[position++] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+                if (!fill()) {
+                    return -1;
+                }
+                int count = Math.min(length, current.length - position);
+                System.arraycopy(current, position, buffer, offset, count);
+                position += count;
+                return count;
+            }
+
+            private boolean fill() throws IOException {
+                while (position >= current.length) {
+                    if (nextChunk >= entry.chunks.size()) {
+                        return false;
+                    }
+                    current = readRaw(entry, nextChunk++);
+                    position = 0;
+                }
+                return true;
+            }
+        }
+    }
+
+    // Nén một chunk; nếu nén không nhỏ hơn dữ liệu gốc thì lưu nguyên
+    private static Chunk compress(byte[] raw, int length, int level) {
+        int rawCrc = crc32c(raw, 0, length);
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(raw, 0, length);
+            deflater.finish();
+            byte[] out = new byte[length];
+            int size = 0;
+            while (!deflater.finished() && size < out.length) {
+                size += deflater.deflate(out, size, out.length - size);
+            }
+            if (deflater.finished() && size < length) {
+                return new Chunk(0, METHOD_DEFLATE, size, length, crc32c(out, 0, size), rawCrc, out);
+            }
+        } finally {
+            deflater.end();
+        }
+        return new Chunk(0, METHOD_STORED, length, length, rawCrc, rawCrc, raw);
+    }
+
+    private static byte[] inflate(byte[] stored, int rawLength) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(stored);
+            byte[] raw = new byte[rawLength];
+            int size = 0;
+            while (size < rawLength && !inflater.finished()) {
+                int count = inflater.inflate(raw, size, rawLength - size);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Backup archive chunk ends early");
+                }
+                size += count;
+            }
+            return size == rawLength ? raw : Arrays.copyOf(raw, size);
+        } catch (DataFormatException e) {
+            throw new IOException("Backup archive chunk is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // Chạy trên pool CPU; hàng đợi đầy thì chạy ngay trên thread hiện tại thay vì thất bại
+    private static <T> Future<T> submit(String name, Callable<T> work) {
+        try {
+            return TaskScheduler.getInstance().submit(TaskScheduler.Pool.CPU, TaskScheduler.TaskPriority.PREFETCH,
+                name, work);
+        } catch (RejectedExecutionException e) {
+            FutureTask<T> inline = new FutureTask<>(work);
+            inline.run();
+            return inline;
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing backup archive", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Backup archive chunk failed", cause);
+        }
+    }
+
+    private static void report(ProgressListener listener, long done, long total) {
+        if (listener != null) {
+            listener.onProgress(done, total);
+        }
+    }
+
+    private static int readChunk(FileChannel in, byte[] raw) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(raw);
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                break;
+            }
+        }
+        return buffer.position();
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, offset);
+            if (count < 0) {
+                return false;
+            }
+            offset += count;
+        }
+        return true;
+    }
+
+    static int crc32c(byte[] data, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(data, offset, length);
+        return (int) crc.getValue();
+    }
+}
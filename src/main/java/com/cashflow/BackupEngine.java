@@ -0,0 +1,92 @@
+package com.cashflow;
+
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteErrorCode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * Tạo bản sao nhất quán của database đang chạy bằng online backup API của SQLite.
+ *
+ * Backup chạy trên một connection riêng giữ một read transaction trong suốt quá trình copy: ở chế độ WAL
+ * connection đó luôn thấy cùng một snapshot (kể cả dữ liệu mới nằm trong file -wal) và không chặn
+ * connection ghi của DatabaseManager. Trang được copy theo từng đợt PAGES_PER_STEP, nghỉ giữa các đợt
+ * để nhường I/O, và báo tiến trình sau mỗi đợt.
+ *
+ * Không gọi trên FX thread.
+ */
+public class BackupEngine {
+    private static final Logger logger = Logger.getLogger(BackupEngine.class.getName());
+    private static final int PAGES_PER_STEP = 256;
+    private static final int STEP_SLEEP_MS = 5;
+    // Số lần thử lại khi database nguồn bận trước khi bỏ cuộc
+    private static final int BUSY_RETRIES = 200;
+
+    public interface ProgressListener {
+        void onProgress(long pagesCopied, long pageCount);
+    }
+
+    private final String databaseUrl;
+
+    public BackupEngine(String databaseUrl) {
+        this.databaseUrl = databaseUrl;
+    }
+
+    public String getDatabaseUrl() {
+        return databaseUrl;
+    }
+
+    /**
+     * Ghi snapshot vào file tạm cạnh target rồi đổi tên, nên target hoặc là bản cũ hoặc là snapshot đầy đủ
+     */
+    public void snapshot(Path target, ProgressListener listener) throws SQLException, IOException {
+        Path absoluteTarget = target.toAbsolutePath();
+        Path temp = absoluteTarget.resolveSibling(absoluteTarget.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        if (absoluteTarget.getParent() != null) {
+            Files.createDirectories(absoluteTarget.getParent());
+        }
+
+        long started = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(databaseUrl)) {
+            // Mở read transaction: mọi bước backup đọc cùng một snapshot thay vì bắt đầu lại khi có ghi mới
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeQuery("SELECT count(*) FROM sqlite_master").close();
+            }
+
+            SQLiteConnection sqlite = connection.unwrap(SQLiteConnection.class);
+            int result = sqlite.getDatabase().backup("main", temp.toString(),
+                (remaining, pageCount) -> {
+                    if (listener != null) {
+                        listener.onProgress(pageCount - remaining, pageCount);
+                    }
+                },
+                STEP_SLEEP_MS, BUSY_RETRIES, PAGES_PER_STEP);
+            connection.rollback();
+            if (result != SQLiteErrorCode.SQLITE_OK.code) {
+                throw new SQLException("SQLite backup failed with code " + result);
+            }
+            // Bản sao mang header WAL của nguồn; chuyển về rollback journal để file backup tự đủ, không cần -wal
+            try (Connection copy = DriverManager.getConnection("jdbc:sqlite:" + temp);
+                 Statement stmt = copy.createStatement()) {
+                stmt.execute("PRAGMA journal_mode = DELETE");
+            }
+        } catch (SQLException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, absoluteTarget, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info(String.format("Database snapshot written to %s (%d bytes) in %d ms", absoluteTarget,
+            Files.size(absoluteTarget), (System.nanoTime() - started) / 1_000_000));
+    }
+}
@@ -16,10 +16,11 @@ import javafx.scene.text.FontWeight;
 
 import java.io.*;
 import java.nio.file.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 import java.util.zip.ZipInputStream;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -30,6 +31,11 @@ import java.nio.file.StandardCopyOption;
 
 public class BackupManager {
     private static final Logger logger = Logger.getLogger(BackupManager.class.getName());
+    private static final String DATABASE_ENTRY = "database/cashflow.db";
+    private static final String METADATA_ENTRY = "metadata.json";
+    private static final String SETTINGS_ENTRY = "settings.properties";
+    // File tạm cạnh cashflow.db để đổi tên vào chỗ bằng một thao tác atomic
+    private static final String RESTORE_FILE = "cashflow.db.restore";
     private DatabaseManager dbManager;
     private Stage parentStage;
 
@@ -73,7 +79,7 @@ public class BackupManager {
         Task<Boolean> backupTask = new Task<Boolean>() {
             @Override
             protected Boolean call() throws Exception {
-                return performBackup(saveFile.getAbsolutePath());
+                return performBackup(saveFile.getAbsolutePath(), this::updateProgress);
             }
 
             @Override
@@ -95,7 +101,8 @@ public class BackupManager {
             }
         };
 
-        new Thread(backupTask).start();
+        progressIndicator.progressProperty().bind(backupTask.progressProperty());
+        TaskScheduler.getInstance().execute(TaskScheduler.Pool.IO, "backup", backupTask);
     }
 
     /**
@@ -136,11 +143,20 @@ public class BackupManager {
             "Cashflow Backup (*.cbk)", "*.cbk");
         fileChooser.getExtensionFilters().add(filter);
 
+        // Điểm khôi phục của auto backup (base / delta)
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+            "Auto Backup Restore Point (*.db)", "*.db"));
+        File autoBackupDir = dbManager.getIncrementalBackup().getDirectory().toFile();
+        if (autoBackupDir.isDirectory()) {
+            fileChooser.setInitialDirectory(autoBackupDir);
+        }
+
         File backupFile = fileChooser.showOpenDialog(parentStage);
         if (backupFile == null) return;
+        IncrementalBackup.RestorePoint restorePoint = IncrementalBackup.fromFile(backupFile.toPath());
 
         // Validate backup file
-        if (!validateBackupFile(backupFile)) {
+        if (restorePoint == null && !validateBackupFile(backupFile)) {
             showErrorAlert("Invalid Backup File", 
                 "The selected file is not a valid Cashflow backup.");
             return;
@@ -162,17 +178,39 @@ public class BackupManager {
 
         // Restore task
         Task<Boolean> restoreTask = new Task<Boolean>() {
+            private volatile boolean invalidBackup;
+
             @Override
             protected Boolean call() throws Exception {
-                return performRestore(backupFile.getAbsolutePath());
+                dbManager.setRestoreInProgress(true);
+                try {
+                    // Checksum toàn bộ archive đọc hết file nên chạy ở đây, trước khi tạo điểm khôi phục an toàn
+                    if (restorePoint == null && !verifyBackupArchive(backupFile)) {
+                        invalidBackup = true;
+                        return false;
+                    }
+                    return restorePoint != null
+                        ? performRestore(restorePoint)
+                        : performRestore(backupFile.getAbsolutePath());
+                } finally {
+                    dbManager.setRestoreInProgress(false);
+                }
             }
 
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
                     progressDialog.close();
-                    showSuccessAlert("Restore completed!", 
-                        "Data has been restored successfully.\nPlease restart the application.");
+                    if (invalidBackup) {
+                        showErrorAlert("Invalid Backup File", 
+                            "The selected file is not a valid Cashflow backup.");
+                    } else if (Boolean.TRUE.equals(getValue())) {
+                        showSuccessAlert("Restore completed!", 
+                            "Data has been restored successfully.");
+                    } else {
+                        showErrorAlert("Restore failed!", 
+                            "The backup could not be restored. See the log for details.");
+                    }
                 });
             }
 
@@ -186,66 +224,56 @@ public class BackupManager {
             }
         };
 
-        new Thread(restoreTask).start();
+        TaskScheduler.getInstance().execute(TaskScheduler.Pool.IO, "restore", restoreTask);
     }
 
     /**
-     * Tự động backup theo lịch
+     * Tự động backup theo lịch: khởi động BackupScheduler chạy nền (không backup ngay lúc khởi động).
+     * Người gọi giữ scheduler để dừng khi thoát ứng dụng.
      */
-    public void setupAutoBackup() {
-        // Tạo thư mục auto backup
-        Path autoBackupDir = Paths.get("backups", "auto");
-        try {
-            Files.createDirectories(autoBackupDir);
-        } catch (IOException e) {
-            logger.log(Level.WARNING, "Could not create auto backup directory", e);
-            return;
+    public BackupScheduler setupAutoBackup() {
+        // Cleanup các bản ZIP auto backup kiểu cũ (keep only 5 latest)
+        Path autoBackupDir = dbManager.getIncrementalBackup().getDirectory();
+        if (Files.isDirectory(autoBackupDir)) {
+            cleanupOldAutoBackups(autoBackupDir);
         }
 
-        // Schedule auto backup (chạy mỗi khi app khởi động)
-        Platform.runLater(() -> {
-            try {
-                String timestamp = LocalDateTime.now().format(
-                    DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-                String autoBackupPath = autoBackupDir.resolve(
-                    "auto_backup_" + timestamp + ".cbk").toString();
-                
-                performBackup(autoBackupPath);
-                logger.info("Auto backup created: " + autoBackupPath);
-                
-                // Cleanup old auto backups (keep only 5 latest)
-                cleanupOldAutoBackups(autoBackupDir);
-                
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "Auto backup failed", e);
-            }
-        });
+        BackupScheduler scheduler = new BackupScheduler(dbManager);
+        scheduler.attachStage(parentStage);
+        scheduler.start();
+        return scheduler;
     }
 
     /**
-     * Thực hiện backup
+     * Thực hiện backup: chụp snapshot nhất quán của database (BackupEngine) rồi nén snapshot đó vào BackupArchive
+     * (nén song song theo chunk, có CRC32C), không đọc thẳng file cashflow.db đang được ghi.
+     * Tiến trình: nửa đầu là snapshot, nửa sau là nén.
      */
-    private boolean performBackup(String backupPath) {
+    private boolean performBackup(String backupPath, BackupEngine.ProgressListener listener) {
+        Path snapshot = Paths.get(backupPath + ".snapshot");
         try {
+            dbManager.getBackupEngine().snapshot(snapshot, listener == null ? null
+                : (copied, pageCount) -> listener.onProgress(copied, pageCount * 2));
+
             // Tạo backup metadata
             BackupMetadata metadata = new BackupMetadata();
             metadata.setVersion("2.1.0");
             metadata.setCreatedDate(LocalDateTime.now());
             metadata.setRecordCounts(getRecordCounts());
 
-            // Tạo ZIP file
-            try (FileOutputStream fos = new FileOutputStream(backupPath);
-                 ZipOutputStream zos = new ZipOutputStream(fos)) {
-
-                // Add database file
-                addFileToZip(zos, "cashflow.db", "database/cashflow.db");
+            try (BackupArchive.Writer archive = BackupArchive.create(Paths.get(backupPath),
+                    BackupArchive.configuredLevel())) {
+                // Add database snapshot
+                archive.addFile(DATABASE_ENTRY, snapshot, listener == null ? null
+                    : (done, total) -> listener.onProgress(total + done, total * 2));
                 
                 // Add metadata
-                addMetadataToZip(zos, metadata);
+                archive.addBytes(METADATA_ENTRY, metadata.toJson().getBytes(StandardCharsets.UTF_8));
                 
                 // Add settings (nếu có)
-                addSettingsToZip(zos);
+                archive.addBytes(SETTINGS_ENTRY, settingsProperties().getBytes(StandardCharsets.UTF_8));
 
+                archive.finish();
                 logger.info("Backup created successfully: " + backupPath);
                 return true;
             }
@@ -253,42 +281,95 @@ public class BackupManager {
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Backup failed", e);
             return false;
+        } finally {
+            try {
+                Files.deleteIfExists(snapshot);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to delete backup snapshot " + snapshot, e);
+            }
         }
     }
 
     /**
-     * Thực hiện restore
+     * Thực hiện restore: giải nén database ra file tạm (BackupArchive kiểm tra checksum từng chunk),
+     * rồi DatabaseManager kiểm tra schema và thay file đang dùng bằng một lần đổi tên atomic.
+     * Database hiện tại không bị đụng tới cho đến khi bản khôi phục đã hợp lệ.
      */
     private boolean performRestore(String backupPath) {
+        Path restored = Paths.get(RESTORE_FILE);
         try {
-            // Backup current data first
-            String currentBackupPath = "current_backup_before_restore_" + 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".cbk";
-            performBackup(currentBackupPath);
-
-            // Extract backup
-            try (FileInputStream fis = new FileInputStream(backupPath);
-                 ZipInputStream zis = new ZipInputStream(fis)) {
-
-                ZipEntry entry;
-                while ((entry = zis.getNextEntry()) != null) {
-                    if (entry.getName().equals("database/cashflow.db")) {
-                        // Restore database
-                        restoreDatabaseFromZip(zis);
-                    } else if (entry.getName().equals("metadata.json")) {
-                        // Validate metadata
-                        validateMetadataFromZip(zis);
+            createSafetyRestorePoint();
+
+            if (BackupArchive.isArchive(Paths.get(backupPath))) {
+                try (BackupArchive.Reader archive = BackupArchive.open(Paths.get(backupPath))) {
+                    logger.info("Backup metadata: "
+                        + new String(archive.readEntry(METADATA_ENTRY), StandardCharsets.UTF_8));
+                    try (InputStream in = archive.openEntry(DATABASE_ENTRY)) {
+                        Files.copy(in, restored, StandardCopyOption.REPLACE_EXISTING);
                     }
-                    zis.closeEntry();
                 }
-
-                logger.info("Restore completed successfully");
-                return true;
+            } else {
+                // Bản backup ZIP kiểu cũ
+                extractDatabaseFromZip(backupPath, restored);
             }
 
+            dbManager.replaceDatabase(restored);
+            logger.info("Restore completed successfully");
+            return true;
+
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Restore failed", e);
             return false;
+        } finally {
+            deleteRestoreFile(restored);
+        }
+    }
+
+    /**
+     * Restore từ điểm khôi phục của auto backup: dựng lại database từ base + delta rồi thay file hiện tại
+     */
+    private boolean performRestore(IncrementalBackup.RestorePoint point) {
+        Path restored = Paths.get(RESTORE_FILE);
+        try {
+            createSafetyRestorePoint();
+
+            IncrementalBackup.materialize(point, restored);
+            dbManager.replaceDatabase(restored);
+            logger.info("Restore completed successfully from " + point);
+            return true;
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Restore failed", e);
+            return false;
+        } finally {
+            deleteRestoreFile(restored);
+        }
+    }
+
+    // So checksum các chunk song song, không giải nén; bản ZIP kiểu cũ không có checksum riêng
+    private boolean verifyBackupArchive(File file) {
+        if (!BackupArchive.isArchive(file.toPath())) {
+            return true;
+        }
+        try (BackupArchive.Reader archive = BackupArchive.open(file.toPath())) {
+            archive.verify();
+            return true;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Backup file failed validation: " + file, e);
+            return false;
+        }
+    }
+
+    // Bản an toàn trước khi restore: một điểm khôi phục của auto backup (thường chỉ là delta nhỏ), không phải ZIP đầy đủ
+    private void createSafetyRestorePoint() throws SQLException, IOException {
+        IncrementalBackup.RestorePoint point = dbManager.getIncrementalBackup().backup();
+        logger.info("Restore point before restore: " + point);
+    }
+
+    private void deleteRestoreFile(Path restored) {
+        try {
+            Files.deleteIfExists(restored);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to delete " + restored, e);
         }
     }
 
@@ -317,16 +398,30 @@ public class BackupManager {
         alert.showAndWait();
     }
 
+    /**
+     * Kiểm tra nhanh trên FX thread. BackupArchive: chỉ đọc manifest và kiểm tra có đủ entry,
+     * checksum các chunk được kiểm tra trong restore task (verifyBackupArchive).
+     * Bản ZIP kiểu cũ: kiểm tra có đủ entry.
+     */
     private boolean validateBackupFile(File file) {
+        if (BackupArchive.isArchive(file.toPath())) {
+            try (BackupArchive.Reader archive = BackupArchive.open(file.toPath())) {
+                return archive.hasEntry(DATABASE_ENTRY) && archive.hasEntry(METADATA_ENTRY);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Backup file failed validation: " + file, e);
+                return false;
+            }
+        }
+
         try (ZipInputStream zis = new ZipInputStream(new FileInputStream(file))) {
             ZipEntry entry;
             boolean hasDatabase = false;
             boolean hasMetadata = false;
 
             while ((entry = zis.getNextEntry()) != null) {
-                if (entry.getName().equals("database/cashflow.db")) {
+                if (entry.getName().equals(DATABASE_ENTRY)) {
                     hasDatabase = true;
-                } else if (entry.getName().equals("metadata.json")) {
+                } else if (entry.getName().equals(METADATA_ENTRY)) {
                     hasMetadata = true;
                 }
                 zis.closeEntry();
@@ -338,55 +433,32 @@ public class BackupManager {
         }
     }
 
-    private void addFileToZip(ZipOutputStream zos, String sourceFile, String entryName) throws IOException {
-        File file = new File(sourceFile);
-        if (!file.exists()) return;
-
-        ZipEntry entry = new ZipEntry(entryName);
-        zos.putNextEntry(entry);
-
-        try (FileInputStream fis = new FileInputStream(file)) {
-            byte[] buffer = new byte[1024];
-            int length;
-            while ((length = fis.read(buffer)) > 0) {
-                zos.write(buffer, 0, length);
-            }
-        }
-        zos.closeEntry();
-    }
-
-    private void addMetadataToZip(ZipOutputStream zos, BackupMetadata metadata) throws IOException {
-        ZipEntry entry = new ZipEntry("metadata.json");
-        zos.putNextEntry(entry);
-        
-        String json = metadata.toJson();
-        zos.write(json.getBytes());
-        zos.closeEntry();
-    }
-
-    private void addSettingsToZip(ZipOutputStream zos) throws IOException {
-        // Add application settings if any
-        ZipEntry entry = new ZipEntry("settings.properties");
-        zos.putNextEntry(entry);
-        
-        String settings = "version=2.1.0\nbackup_date=" + 
+    private String settingsProperties() {
+        // Application settings if any
+        return "version=2.1.0\nbackup_date=" + 
             LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        zos.write(settings.getBytes());
-        zos.closeEntry();
     }
 
-    private void restoreDatabaseFromZip(ZipInputStream zis) throws IOException {
-        // Close current database connection
-        dbManager.close();
-        
-        // Replace database file
-        try (FileOutputStream fos = new FileOutputStream("cashflow.db")) {
-            byte[] buffer = new byte[1024];
-            int length;
-            while ((length = zis.read(buffer)) > 0) {
-                fos.write(buffer, 0, length);
+    private void extractDatabaseFromZip(String backupPath, Path restored) throws IOException {
+        boolean hasDatabase = false;
+        try (FileInputStream fis = new FileInputStream(backupPath);
+             ZipInputStream zis = new ZipInputStream(fis)) {
+
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                if (entry.getName().equals(DATABASE_ENTRY)) {
+                    Files.copy(zis, restored, StandardCopyOption.REPLACE_EXISTING);
+                    hasDatabase = true;
+                } else if (entry.getName().equals(METADATA_ENTRY)) {
+                    // Validate metadata
+                    validateMetadataFromZip(zis);
+                }
+                zis.closeEntry();
             }
         }
+        if (!hasDatabase) {
+            throw new IOException("Backup " + backupPath + " has no " + DATABASE_ENTRY);
+        }
     }
 
     private void validateMetadataFromZip(ZipInputStream zis) throws IOException {
@@ -0,0 +1,132 @@
+package com.cashflow;
+
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.stage.Stage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lịch auto backup chạy nền: định kỳ kiểm tra xem có cần tạo điểm khôi phục mới (IncrementalBackup) không.
+ *
+ * Backup đến hạn khi đã BACKUP_INTERVAL kể từ lần trước, hoặc sớm hơn khi change_log đã có CHANGE_THRESHOLD
+ * thay đổi chưa backup. Khi đến hạn thì chờ tới lúc ứng dụng rảnh (không có thao tác người dùng hay ghi
+ * dữ liệu trong IDLE_MS), nhưng không hoãn quá MAX_DEFER. Lần kiểm tra đầu tiên chạy sau INITIAL_DELAY
+ * nên khởi động không phải chờ backup.
+ *
+ * Chạy trên một thread riêng độ ưu tiên thấp thay vì pool IO của TaskScheduler, để backup không chiếm
+ * thread mà các trang dùng để tải dữ liệu. Tạm dừng khi đang restore.
+ */
+public class BackupScheduler {
+    private static final Logger logger = Logger.getLogger(BackupScheduler.class.getName());
+    private static final long INITIAL_DELAY_MS = TimeUnit.MINUTES.toMillis(2);
+    private static final long CHECK_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final Duration BACKUP_INTERVAL = Duration.ofHours(1);
+    private static final long CHANGE_THRESHOLD = 200;
+    private static final long IDLE_MS = 30_000;
+    private static final Duration MAX_DEFER = Duration.ofMinutes(30);
+
+    private final DatabaseManager dbManager;
+    private final EventHandler<Event> activityFilter = event -> markActivity();
+    private volatile long lastActivity = System.nanoTime();
+    private volatile LocalDateTime lastAttempt;
+    private LocalDateTime dueSince;
+    private ScheduledExecutorService executor;
+    private LedgerEventBus.Subscription ledgerSubscription;
+
+    public BackupScheduler(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "backup-scheduler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        // Ghi dữ liệu cũng tính là đang bận
+        ledgerSubscription = dbManager.getEventBus().subscribe(LedgerEvent.class, event -> markActivity());
+        executor.scheduleWithFixedDelay(this::check, INITIAL_DELAY_MS, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        logger.info("Backup scheduler started");
+    }
+
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        executor = null;
+        ledgerSubscription.unsubscribe();
+        ledgerSubscription = null;
+    }
+
+    /**
+     * Theo dõi thao tác bàn phím, chuột, cuộn trên cửa sổ để biết khi nào người dùng đang làm việc
+     */
+    public void attachStage(Stage stage) {
+        stage.addEventFilter(KeyEvent.KEY_PRESSED, activityFilter);
+        stage.addEventFilter(MouseEvent.MOUSE_PRESSED, activityFilter);
+        stage.addEventFilter(ScrollEvent.SCROLL, activityFilter);
+    }
+
+    public void markActivity() {
+        lastActivity = System.nanoTime();
+    }
+
+    private boolean isIdle() {
+        return System.nanoTime() - lastActivity >= TimeUnit.MILLISECONDS.toNanos(IDLE_MS);
+    }
+
+    private void check() {
+        if (dbManager.isRestoreInProgress()) {
+            logger.fine("Restore in progress, skipping auto backup check");
+            return;
+        }
+        try {
+            IncrementalBackup backup = dbManager.getIncrementalBackup();
+            LocalDateTime now = LocalDateTime.now();
+            IncrementalBackup.RestorePoint latest = backup.latestRestorePoint();
+            long pending = backup.pendingChanges();
+
+            LocalDateTime last = latest == null ? null : latest.getCreatedAt();
+            if (last != null && lastAttempt != null && lastAttempt.isAfter(last)) {
+                last = lastAttempt;
+            }
+            boolean due = last == null
+                || pending >= CHANGE_THRESHOLD
+                || !now.isBefore(last.plus(BACKUP_INTERVAL));
+            if (!due) {
+                dueSince = null;
+                return;
+            }
+            if (dueSince == null) {
+                dueSince = now;
+            }
+            if (!isIdle() && now.isBefore(dueSince.plus(MAX_DEFER))) {
+                logger.fine("Backup due but application is busy, deferring");
+                return;
+            }
+
+            lastAttempt = now;
+            dueSince = null;
+            IncrementalBackup.RestorePoint point = backup.backup();
+            logger.info("Auto backup restore point: " + point
+                + (pending == Long.MAX_VALUE ? " (new backup chain)" : " (" + pending + " pending changes)"));
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Auto backup failed", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.cashflow;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Chỉ mục prefix-sum cho số dư theo ngày, giữ riêng cho từng sổ cái (income/outcome)
+ * và từng category. Cập nhật mỗi lần ghi, truy vấn số dư tại một ngày hoặc
+ * tổng trong một khoảng ngày trong O(log n) thay vì quét toàn bảng.
+ */
+public class BalanceIndex {
+    private final Map<LedgerType, DayFenwickTree> ledgers = new EnumMap<>(LedgerType.class);
+    private final Map<LedgerType, Map<String, DayFenwickTree>> categoryLedgers = new EnumMap<>(LedgerType.class);
+
+    public BalanceIndex() {
+        for (LedgerType type : LedgerType.values()) {
+            ledgers.put(type, new DayFenwickTree());
+            categoryLedgers.put(type, new HashMap<>());
+        }
+    }
+
+    /**
+     * Ghi nhận một thay đổi; amount âm khi xóa hoặc khi gỡ giá trị cũ của bản ghi được sửa
+     */
+    public synchronized void record(LedgerType type, String category, LocalDate date, double amount) {
+        long epochDay = date.toEpochDay();
+        long cents = toCents(amount);
+        ledgers.get(type).add(epochDay, cents);
+        categoryLedgers.get(type)
+            .computeIfAbsent(category, key -> new DayFenwickTree())
+            .add(epochDay, cents);
+    }
+
+    public synchronized void clear() {
+        for (LedgerType type : LedgerType.values()) {
+            ledgers.put(type, new DayFenwickTree());
+            categoryLedgers.get(type).clear();
+        }
+    }
+
+    // Số dư (thu - chi) tính đến hết ngày date
+    public synchronized double getBalanceAsOf(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        return fromCents(ledgers.get(LedgerType.INCOME).prefixSum(epochDay)
+            - ledgers.get(LedgerType.OUTCOME).prefixSum(epochDay));
+    }
+
+    // Dòng tiền ròng trong đoạn [from, to]
+    public synchronized double getNetFlow(LocalDate from, LocalDate to) {
+        return getRangeSum(LedgerType.INCOME, from, to) - getRangeSum(LedgerType.OUTCOME, from, to);
+    }
+
+    public synchronized double getRangeSum(LedgerType type, LocalDate from, LocalDate to) {
+        return fromCents(ledgers.get(type).rangeSum(from.toEpochDay(), to.toEpochDay()));
+    }
+
+    public synchronized double getCategoryRangeSum(LedgerType type, String category, LocalDate from, LocalDate to) {
+        DayFenwickTree tree = categoryLedgers.get(type).get(category);
+        if (tree == null) {
+            return 0.0;
+        }
+        return fromCents(tree.rangeSum(from.toEpochDay(), to.toEpochDay()));
+    }
+
+    public synchronized double getTotal(LedgerType type) {
+        return fromCents(ledgers.get(type).getTotal());
+    }
+
+    /**
+     * Chuỗi số dư cuối mỗi ngày trong [from, to] - một prefix sum rồi cộng dồn theo ngày
+     */
+    public synchronized Map<LocalDate, Double> getRunningBalanceSeries(LocalDate from, LocalDate to) {
+        Map<LocalDate, Double> series = new LinkedHashMap<>();
+        DayFenwickTree income = ledgers.get(LedgerType.INCOME);
+        DayFenwickTree outcome = ledgers.get(LedgerType.OUTCOME);
+
+        long balance = income.prefixSum(from.toEpochDay() - 1) - outcome.prefixSum(from.toEpochDay() - 1);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            long epochDay = day.toEpochDay();
+            balance += income.valueAt(epochDay) - outcome.valueAt(epochDay);
+            series.put(day, fromCents(balance));
+        }
+        return series;
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private static double fromCents(long cents) {
+        return cents / 100.0;
+    }
+}
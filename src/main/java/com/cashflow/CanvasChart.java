@@ -0,0 +1,687 @@
+package com.cashflow;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Stop;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import javafx.util.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+
+/**
+ * Chart vẽ trên Canvas thay cho XYChart: số node không đổi theo số điểm dữ liệu.
+ *
+ * - Series LINE/AREA dài hơn số pixel của vùng vẽ được rút gọn bằng LTTB (Largest-Triangle-Three-Buckets)
+ *   trước khi vẽ; tooltip vẫn tra trên dữ liệu gốc nên giá trị hiển thị luôn chính xác.
+ * - Lớp series chỉ vẽ lại khi dữ liệu hoặc kích thước đổi; điểm đang hover vẽ trên một canvas overlay riêng.
+ * - Buffer toạ độ được giữ lại giữa các lần vẽ.
+ *
+ * X của series LINE/AREA/BAR phải tăng dần. Chart có thể được dựng ở background, nhưng sau khi lên scene
+ * mọi method phải gọi trên FX thread.
+ */
+public class CanvasChart extends Region {
+    private static final double LEFT_MARGIN = 56;
+    private static final double RIGHT_MARGIN = 14;
+    private static final double TOP_MARGIN = 26;
+    private static final double BOTTOM_MARGIN = 24;
+    private static final int Y_TICKS = 5;
+    private static final int MIN_X_TICK_SPACING = 70;
+    private static final double HIT_RADIUS = 12;
+    private static final double MAX_BUBBLE_RADIUS = 28;
+    private static final double BAR_WIDTH_RATIO = 0.6;
+    // Chỗ dành cho tiêu đề trục khi có
+    private static final double AXIS_TITLE_SPACE = 16;
+
+    public enum SeriesType { LINE, AREA, BAR, BUBBLE }
+
+    /**
+     * Một dãy điểm dạng mảng double. BAR dùng extra làm đáy cột, BUBBLE dùng extra làm kích thước.
+     * Màu lấy từ theme lúc vẽ (vd. ThemeManager.Theme::getAccentPurple) nên đổi theme không cần dựng lại series.
+     */
+    public static final class Series {
+        private final String name;
+        private final SeriesType type;
+        private final Function<ThemeManager.Theme, Color> color;
+        private final double[] x;
+        private final double[] y;
+        private final double[] extra;
+        private String[] labels;
+
+        private Series(String name, SeriesType type, Function<ThemeManager.Theme, Color> color, double[] x, double[] y, double[] extra) {
+            if (x.length != y.length || (extra != null && extra.length != x.length)) {
+                throw new IllegalArgumentException("Series " + name + " has arrays of different lengths");
+            }
+            this.name = name;
+            this.type = type;
+            this.color = color;
+            this.x = x;
+            this.y = y;
+            this.extra = extra;
+        }
+
+        public static Series line(String name, Function<ThemeManager.Theme, Color> color, double[] x, double[] y) {
+            return new Series(name, SeriesType.LINE, color, x, y, null);
+        }
+
+        public static Series area(String name, Function<ThemeManager.Theme, Color> color, double[] x, double[] y) {
+            return new Series(name, SeriesType.AREA, color, x, y, null);
+        }
+
+        public static Series bars(String name, Function<ThemeManager.Theme, Color> color, double[] x, double[] from, double[] to) {
+            return new Series(name, SeriesType.BAR, color, x, to, from);
+        }
+
+        public static Series bubbles(String name, Function<ThemeManager.Theme, Color> color, double[] x, double[] y, double[] size) {
+            return new Series(name, SeriesType.BUBBLE, color, x, y, size);
+        }
+
+        /**
+         * Nhãn riêng cho từng điểm, hiển thị trong tooltip thay cho tên series
+         */
+        public Series withLabels(String[] labels) {
+            if (labels.length != x.length) {
+                throw new IllegalArgumentException("Series " + name + " needs one label per point");
+            }
+            this.labels = labels;
+            return this;
+        }
+
+        public String getName() { return name; }
+        public int size() { return x.length; }
+    }
+
+    private ThemeManager.Theme theme;
+    private final ChangeListener<ThemeManager.Theme> themeListener = (obs, oldTheme, newTheme) -> setTheme(newTheme);
+    private final Canvas plotCanvas = new Canvas();
+    private final Canvas overlayCanvas = new Canvas();
+    private List<Series> series = new ArrayList<>();
+    private DoubleFunction<String> xLabelFormatter = x -> String.format("%.0f", x);
+    private DoubleFunction<String> yLabelFormatter = y -> String.format("$%.0f", y);
+    private boolean legendVisible = true;
+    private String xAxisTitle;
+    private String yAxisTitle;
+
+    // Miền giá trị, tính lại khi đổi series
+    private double xMin;
+    private double xMax;
+    private double yMin;
+    private double yMax;
+    private double bubbleSizeMax;
+    private double barSlot;
+
+    // Buffer dùng lại giữa các lần vẽ
+    private int[] sampleBuffer = new int[0];
+    private double[] xPixelBuffer = new double[0];
+    private double[] yPixelBuffer = new double[0];
+
+    private boolean dirty = true;
+    private Tooltip tooltip;
+    private boolean tooltipInstalled;
+
+    public CanvasChart(ThemeManager.Theme theme) {
+        this.theme = theme;
+        // Overlay chỉ để vẽ, chuột được xử lý trên Region
+        overlayCanvas.setMouseTransparent(true);
+        getChildren().addAll(plotCanvas, overlayCanvas);
+        setMinSize(0, 0);
+        setOnMouseMoved(e -> updateHover(e.getX(), e.getY()));
+        setOnMouseExited(e -> clearHover());
+        ThemeManager.getInstance().themeProperty().addListener(new WeakChangeListener<>(themeListener));
+    }
+
+    public void setSeries(List<Series> newSeries) {
+        this.series = new ArrayList<>(newSeries);
+        computeRanges();
+        dirty = true;
+        requestLayout();
+    }
+
+    public List<Series> getSeries() {
+        return series;
+    }
+
+    public void setXLabelFormatter(DoubleFunction<String> formatter) {
+        this.xLabelFormatter = formatter;
+        dirty = true;
+        requestLayout();
+    }
+
+    public void setYLabelFormatter(DoubleFunction<String> formatter) {
+        this.yLabelFormatter = formatter;
+        dirty = true;
+        requestLayout();
+    }
+
+    // Canvas vẽ bằng Color nên phải vẽ lại khi đổi theme
+    public void setTheme(ThemeManager.Theme theme) {
+        this.theme = theme;
+        dirty = true;
+        requestLayout();
+    }
+
+    public void setAxisTitles(String xAxisTitle, String yAxisTitle) {
+        this.xAxisTitle = xAxisTitle;
+        this.yAxisTitle = yAxisTitle;
+        dirty = true;
+        requestLayout();
+    }
+
+    public void setLegendVisible(boolean legendVisible) {
+        this.legendVisible = legendVisible;
+        dirty = true;
+        requestLayout();
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return 400;
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return 300;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = Math.floor(getWidth());
+        double height = Math.floor(getHeight());
+        if (plotCanvas.getWidth() != width || plotCanvas.getHeight() != height) {
+            plotCanvas.setWidth(width);
+            plotCanvas.setHeight(height);
+            overlayCanvas.setWidth(width);
+            overlayCanvas.setHeight(height);
+            dirty = true;
+        }
+        if (dirty) {
+            dirty = false;
+            draw();
+        }
+    }
+
+    private void computeRanges() {
+        xMin = Double.POSITIVE_INFINITY;
+        xMax = Double.NEGATIVE_INFINITY;
+        yMin = Double.POSITIVE_INFINITY;
+        yMax = Double.NEGATIVE_INFINITY;
+        bubbleSizeMax = 0;
+        boolean hasBars = false;
+        double minBarGap = Double.POSITIVE_INFINITY;
+
+        for (Series s : series) {
+            for (int i = 0; i < s.x.length; i++) {
+                xMin = Math.min(xMin, s.x[i]);
+                xMax = Math.max(xMax, s.x[i]);
+                yMin = Math.min(yMin, s.y[i]);
+                yMax = Math.max(yMax, s.y[i]);
+            }
+            if (s.type == SeriesType.BAR) {
+                hasBars = true;
+                for (int i = 1; i < s.x.length; i++) {
+                    minBarGap = Math.min(minBarGap, s.x[i] - s.x[i - 1]);
+                }
+                for (double base : s.extra) {
+                    yMin = Math.min(yMin, base);
+                    yMax = Math.max(yMax, base);
+                }
+            } else if (s.type == SeriesType.BUBBLE) {
+                for (double size : s.extra) {
+                    bubbleSizeMax = Math.max(bubbleSizeMax, Math.abs(size));
+                }
+            }
+            // Area và cột luôn tính từ trục 0
+            if (s.type == SeriesType.AREA || s.type == SeriesType.BAR) {
+                yMin = Math.min(yMin, 0);
+                yMax = Math.max(yMax, 0);
+            }
+        }
+
+        if (xMin > xMax) {
+            xMin = 0;
+            xMax = 1;
+        }
+        if (yMin > yMax) {
+            yMin = 0;
+            yMax = 1;
+        }
+        // Cột được đặt giữa ô của nó, chừa nửa ô ở hai đầu trục
+        barSlot = 0;
+        if (hasBars) {
+            barSlot = minBarGap > 0 && !Double.isInfinite(minBarGap) ? minBarGap : 1;
+            xMin -= barSlot / 2;
+            xMax += barSlot / 2;
+        }
+        if (xMax == xMin) {
+            xMin -= 0.5;
+            xMax += 0.5;
+        }
+        // Bubble có bán kính: nới miền giá trị để bubble ở mép không bị cắt
+        if (bubbleSizeMax > 0) {
+            double xPad = (xMax - xMin) * 0.1;
+            double yPad = (yMax - yMin) * 0.15;
+            xMin -= xPad;
+            xMax += xPad;
+            yMin = yMin >= 0 ? Math.max(0, yMin - yPad) : yMin - yPad;
+            yMax += yPad;
+        }
+
+        double step = niceStep((yMax - yMin) / Y_TICKS);
+        yMin = Math.floor(yMin / step) * step;
+        yMax = Math.ceil(yMax / step) * step;
+        if (yMax == yMin) {
+            yMax = yMin + step;
+        }
+    }
+
+    private void draw() {
+        double width = plotCanvas.getWidth();
+        double height = plotCanvas.getHeight();
+        GraphicsContext gc = plotCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, width, height);
+        overlayCanvas.getGraphicsContext2D().clearRect(0, 0, width, height);
+        if (plotWidth() <= 0 || plotHeight() <= 0) {
+            return;
+        }
+
+        drawAxes(gc);
+
+        gc.save();
+        gc.beginPath();
+        gc.rect(leftMargin(), TOP_MARGIN, plotWidth(), plotHeight());
+        gc.clip();
+        for (Series s : series) {
+            switch (s.type) {
+                case LINE:
+                case AREA:
+                    drawLine(gc, s);
+                    break;
+                case BAR:
+                    drawBars(gc, s);
+                    break;
+                case BUBBLE:
+                    drawBubbles(gc, s);
+                    break;
+            }
+        }
+        gc.restore();
+
+        if (legendVisible) {
+            drawLegend(gc);
+        }
+    }
+
+    private void drawAxes(GraphicsContext gc) {
+        gc.setFont(Font.font("Segoe UI", 10));
+        gc.setLineWidth(1);
+
+        // Lưới ngang và nhãn trục Y
+        double step = (yMax - yMin) / Y_TICKS;
+        gc.setTextAlign(TextAlignment.RIGHT);
+        for (int i = 0; i <= Y_TICKS; i++) {
+            double value = yMin + i * step;
+            double py = Math.round(toPixelY(value)) + 0.5;
+            gc.setStroke(ThemeManager.toRgbaColor(theme.getTextMuted(), value == 0 ? 0.5 : 0.15));
+            gc.strokeLine(leftMargin(), py, leftMargin() + plotWidth(), py);
+            gc.setFill(theme.getTextMuted());
+            gc.fillText(yLabelFormatter.apply(value), leftMargin() - 6, py + 3);
+        }
+
+        // Nhãn trục X: bước "đẹp", không dày hơn MIN_X_TICK_SPACING pixel
+        int maxTicks = Math.max(1, (int) (plotWidth() / MIN_X_TICK_SPACING));
+        double xStep = niceStep((xMax - xMin) / maxTicks);
+        if (barSlot > 0) {
+            xStep = Math.max(xStep, barSlot);
+        }
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setFill(theme.getTextMuted());
+        double baseline = TOP_MARGIN + plotHeight() + 16;
+        for (double x = Math.ceil(xMin / xStep) * xStep; x <= xMax; x += xStep) {
+            String label = xLabelFormatter.apply(x);
+            if (label != null && !label.isEmpty()) {
+                gc.fillText(label, toPixelX(x), baseline);
+            }
+        }
+
+        gc.setFont(Font.font("Segoe UI", 11));
+        gc.setFill(theme.getTextSecondary());
+        if (hasText(xAxisTitle)) {
+            gc.fillText(xAxisTitle, leftMargin() + plotWidth() / 2, baseline + AXIS_TITLE_SPACE);
+        }
+        if (hasText(yAxisTitle)) {
+            gc.save();
+            gc.translate(12, TOP_MARGIN + plotHeight() / 2);
+            gc.rotate(-90);
+            gc.fillText(yAxisTitle, 0, 0);
+            gc.restore();
+        }
+    }
+
+    private void drawLine(GraphicsContext gc, Series s) {
+        int count = s.x.length;
+        if (count == 0) {
+            return;
+        }
+        int threshold = Math.max(3, (int) plotWidth());
+        ensureBuffers(Math.min(count, threshold) + 2);
+        int sampled = downsample(s.x, s.y, threshold, sampleBuffer);
+
+        for (int i = 0; i < sampled; i++) {
+            int index = sampleBuffer[i];
+            xPixelBuffer[i] = toPixelX(s.x[index]);
+            yPixelBuffer[i] = toPixelY(s.y[index]);
+        }
+        Color color = s.color.apply(theme);
+
+        if (s.type == SeriesType.AREA) {
+            // Khép đa giác xuống trục 0 bằng hai điểm cuối buffer
+            double zeroY = toPixelY(0);
+            xPixelBuffer[sampled] = xPixelBuffer[sampled - 1];
+            yPixelBuffer[sampled] = zeroY;
+            xPixelBuffer[sampled + 1] = xPixelBuffer[0];
+            yPixelBuffer[sampled + 1] = zeroY;
+            gc.setFill(new LinearGradient(0, TOP_MARGIN, 0, TOP_MARGIN + plotHeight(), false, CycleMethod.NO_CYCLE,
+                new Stop(0, ThemeManager.toRgbaColor(color, 0.5)),
+                new Stop(1, ThemeManager.toRgbaColor(color, 0))));
+            gc.fillPolygon(xPixelBuffer, yPixelBuffer, sampled + 2);
+        }
+
+        gc.setStroke(color);
+        gc.setLineWidth(s.type == SeriesType.AREA ? 3 : 2);
+        if (sampled == 1) {
+            gc.setFill(color);
+            gc.fillOval(xPixelBuffer[0] - 3, yPixelBuffer[0] - 3, 6, 6);
+        } else {
+            gc.strokePolyline(xPixelBuffer, yPixelBuffer, sampled);
+        }
+    }
+
+    private void drawBars(GraphicsContext gc, Series s) {
+        double barWidth = Math.max(1, barSlot / (xMax - xMin) * plotWidth() * BAR_WIDTH_RATIO);
+        gc.setFill(ThemeManager.toRgbaColor(s.color.apply(theme), 0.85));
+        for (int i = 0; i < s.x.length; i++) {
+            double top = toPixelY(Math.max(s.y[i], s.extra[i]));
+            double bottom = toPixelY(Math.min(s.y[i], s.extra[i]));
+            gc.fillRoundRect(toPixelX(s.x[i]) - barWidth / 2, top, barWidth, Math.max(1, bottom - top), 4, 4);
+        }
+    }
+
+    private void drawBubbles(GraphicsContext gc, Series s) {
+        Color color = s.color.apply(theme);
+        gc.setFill(ThemeManager.toRgbaColor(color, 0.45));
+        gc.setStroke(color);
+        gc.setLineWidth(1.5);
+        for (int i = 0; i < s.x.length; i++) {
+            double r = bubbleRadius(s.extra[i]);
+            double px = toPixelX(s.x[i]);
+            double py = toPixelY(s.y[i]);
+            gc.fillOval(px - r, py - r, r * 2, r * 2);
+            gc.strokeOval(px - r, py - r, r * 2, r * 2);
+        }
+    }
+
+    private void drawLegend(GraphicsContext gc) {
+        gc.setFont(Font.font("Segoe UI", 11));
+        gc.setTextAlign(TextAlignment.LEFT);
+        double x = leftMargin();
+        for (Series s : series) {
+            if (s.name == null || s.name.isEmpty()) {
+                continue;
+            }
+            gc.setFill(s.color.apply(theme));
+            gc.fillRoundRect(x, 6, 10, 10, 3, 3);
+            gc.setFill(theme.getTextSecondary());
+            gc.fillText(s.name, x + 14, 15);
+            x += 24 + s.name.length() * 6.5;
+        }
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets: chọn tối đa threshold điểm giữ được hình dạng của series.
+     * Ghi chỉ số điểm được chọn vào out và trả về số điểm.
+     */
+    static int downsample(double[] x, double[] y, int threshold, int[] out) {
+        int count = x.length;
+        if (threshold >= count || threshold < 3) {
+            for (int i = 0; i < count; i++) {
+                out[i] = i;
+            }
+            return count;
+        }
+
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int selected = 0;
+        int sampled = 0;
+        out[sampled++] = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Trung bình của bucket kế tiếp làm đỉnh thứ ba của tam giác
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, count);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            if (nextCount > 0) {
+                avgX /= nextCount;
+                avgY /= nextCount;
+            } else {
+                avgX = x[count - 1];
+                avgY = y[count - 1];
+            }
+
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = Math.min((int) ((bucket + 1) * bucketSize) + 1, count - 1);
+            double ax = x[selected];
+            double ay = y[selected];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((ax - avgX) * (y[i] - ay) - (ax - x[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            out[sampled++] = chosen;
+            selected = chosen;
+        }
+
+        out[sampled++] = count - 1;
+        return sampled;
+    }
+
+    private void ensureBuffers(int size) {
+        if (sampleBuffer.length < size) {
+            sampleBuffer = new int[size];
+            xPixelBuffer = new double[size];
+            yPixelBuffer = new double[size];
+        }
+    }
+
+    private void updateHover(double mouseX, double mouseY) {
+        // Tooltip được tạo khi chuột vào lần đầu (trên FX thread), chart có thể được dựng ở background
+        if (tooltip == null) {
+            tooltip = new Tooltip();
+            tooltip.setShowDelay(Duration.millis(100));
+        }
+
+        GraphicsContext gc = overlayCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, overlayCanvas.getWidth(), overlayCanvas.getHeight());
+        if (mouseX < leftMargin() || mouseX > leftMargin() + plotWidth()
+                || mouseY < TOP_MARGIN || mouseY > TOP_MARGIN + plotHeight()) {
+            showTooltip(null);
+            return;
+        }
+
+        String bubbleText = hitBubble(gc, mouseX, mouseY);
+        if (bubbleText != null) {
+            showTooltip(bubbleText);
+            return;
+        }
+
+        // Cột và đường: lấy điểm gần nhất theo X trên dữ liệu gốc của từng series
+        double dataX = fromPixelX(mouseX);
+        StringBuilder text = new StringBuilder();
+        double guideX = Double.NaN;
+        for (Series s : series) {
+            if (s.type == SeriesType.BUBBLE || s.x.length == 0) {
+                continue;
+            }
+            int index = nearestIndex(s.x, dataX);
+            double px = toPixelX(s.x[index]);
+            double tolerance = s.type == SeriesType.BAR
+                ? Math.max(HIT_RADIUS, barSlot / (xMax - xMin) * plotWidth() / 2)
+                : Math.max(HIT_RADIUS, plotWidth() / Math.max(1, s.x.length));
+            if (Math.abs(px - mouseX) > tolerance) {
+                continue;
+            }
+            if (Double.isNaN(guideX)) {
+                guideX = px;
+                text.append(xLabelFormatter.apply(s.x[index]));
+            }
+            String name = s.labels != null ? s.labels[index] : s.name;
+            text.append('\n').append(name).append(": ").append(yLabelFormatter.apply(s.y[index]));
+
+            if (s.type != SeriesType.BAR) {
+                double py = toPixelY(s.y[index]);
+                gc.setFill(s.color.apply(theme));
+                gc.fillOval(px - 4, py - 4, 8, 8);
+            }
+        }
+
+        if (!Double.isNaN(guideX)) {
+            gc.setStroke(ThemeManager.toRgbaColor(theme.getTextMuted(), 0.5));
+            gc.setLineWidth(1);
+            gc.strokeLine(Math.round(guideX) + 0.5, TOP_MARGIN, Math.round(guideX) + 0.5, TOP_MARGIN + plotHeight());
+        }
+        showTooltip(text.toString());
+    }
+
+    // Không có gì để hiển thị thì gỡ tooltip khỏi chart để không hiện popup rỗng
+    private void showTooltip(String text) {
+        if (!hasText(text)) {
+            if (tooltipInstalled) {
+                tooltip.hide();
+                Tooltip.uninstall(this, tooltip);
+                tooltipInstalled = false;
+            }
+            return;
+        }
+        tooltip.setText(text);
+        if (!tooltipInstalled) {
+            Tooltip.install(this, tooltip);
+            tooltipInstalled = true;
+        }
+    }
+
+    private String hitBubble(GraphicsContext gc, double mouseX, double mouseY) {
+        // Duyệt ngược để bubble vẽ sau (nằm trên) được ưu tiên
+        for (int k = series.size() - 1; k >= 0; k--) {
+            Series s = series.get(k);
+            if (s.type != SeriesType.BUBBLE) {
+                continue;
+            }
+            for (int i = s.x.length - 1; i >= 0; i--) {
+                double r = bubbleRadius(s.extra[i]);
+                double px = toPixelX(s.x[i]);
+                double py = toPixelY(s.y[i]);
+                if (Math.hypot(mouseX - px, mouseY - py) <= Math.max(r, 4)) {
+                    gc.setStroke(theme.getTextPrimary());
+                    gc.setLineWidth(2);
+                    gc.strokeOval(px - r, py - r, r * 2, r * 2);
+                    String name = s.labels != null ? s.labels[i] : s.name;
+                    return name + "\n" + xLabelFormatter.apply(s.x[i]) + " · " + yLabelFormatter.apply(s.y[i]);
+                }
+            }
+        }
+        return null;
+    }
+
+    private void clearHover() {
+        overlayCanvas.getGraphicsContext2D().clearRect(0, 0, overlayCanvas.getWidth(), overlayCanvas.getHeight());
+        if (tooltip != null) {
+            showTooltip(null);
+        }
+    }
+
+    private static int nearestIndex(double[] values, double target) {
+        int index = Arrays.binarySearch(values, target);
+        if (index >= 0) {
+            return index;
+        }
+        int insertion = -index - 1;
+        if (insertion == 0) {
+            return 0;
+        }
+        if (insertion >= values.length) {
+            return values.length - 1;
+        }
+        return target - values[insertion - 1] <= values[insertion] - target ? insertion - 1 : insertion;
+    }
+
+    // Bước 1/2/5 x 10^n gần nhất, để nhãn trục là số tròn
+    private static double niceStep(double rawStep) {
+        if (rawStep <= 0 || Double.isNaN(rawStep) || Double.isInfinite(rawStep)) {
+            return 1;
+        }
+        double magnitude = Math.pow(10, Math.floor(Math.log10(rawStep)));
+        double fraction = rawStep / magnitude;
+        if (fraction <= 1) return magnitude;
+        if (fraction <= 2) return 2 * magnitude;
+        if (fraction <= 5) return 5 * magnitude;
+        return 10 * magnitude;
+    }
+
+    private double bubbleRadius(double size) {
+        if (bubbleSizeMax <= 0) {
+            return 4;
+        }
+        return Math.max(4, Math.sqrt(Math.abs(size) / bubbleSizeMax) * MAX_BUBBLE_RADIUS);
+    }
+
+    private double leftMargin() {
+        return LEFT_MARGIN + (hasText(yAxisTitle) ? AXIS_TITLE_SPACE : 0);
+    }
+
+    private double bottomMargin() {
+        return BOTTOM_MARGIN + (hasText(xAxisTitle) ? AXIS_TITLE_SPACE : 0);
+    }
+
+    private static boolean hasText(String text) {
+        return text != null && !text.isEmpty();
+    }
+
+    private double plotWidth() {
+        return plotCanvas.getWidth() - leftMargin() - RIGHT_MARGIN;
+    }
+
+    private double plotHeight() {
+        return plotCanvas.getHeight() - TOP_MARGIN - bottomMargin();
+    }
+
+    private double toPixelX(double x) {
+        return leftMargin() + (x - xMin) / (xMax - xMin) * plotWidth();
+    }
+
+    private double fromPixelX(double px) {
+        return xMin + (px - leftMargin()) / plotWidth() * (xMax - xMin);
+    }
+
+    private double toPixelY(double y) {
+        return TOP_MARGIN + (yMax - y) / (yMax - yMin) * plotHeight();
+    }
+}
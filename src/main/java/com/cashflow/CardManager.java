@@ -41,12 +41,10 @@ import java.util.concurrent.CompletableFuture;
 public class CardManager {
     private static final Logger logger = Logger.getLogger(CardManager.class.getName());
     private DatabaseManager dbManager;
-    private ThemeManager.Theme currentTheme;
     private List<BankCard> cards;
 
     public CardManager(DatabaseManager dbManager) {
         this.dbManager = dbManager;
-        this.currentTheme = ThemeManager.getInstance().getCurrentTheme();
         this.cards = new ArrayList<>();
         initializeCardDatabase();
         loadCards();
@@ -55,7 +53,6 @@ public class CardManager {
     public VBox createCardManagementPage() {
         VBox mainContent = new VBox(25);
         mainContent.setPadding(new Insets(30));
-        mainContent.setStyle("-fx-background-color: " + ThemeManager.toHexString(currentTheme.getBgPrimary()) + ";");
 
         // Header
         HBox header = createCardHeader();
@@ -80,11 +77,11 @@ public class CardManager {
         VBox titleSection = new VBox(5);
         
         Label title = new Label("💳 Card Management");
-        title.setTextFill(currentTheme.getTextPrimary());
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 32));
         
         Label subtitle = new Label("Manage your bank accounts and payment cards");
-        subtitle.setTextFill(currentTheme.getTextSecondary());
+        subtitle.getStyleClass().add("text-secondary");
         subtitle.setFont(Font.font("Segoe UI", 14));
         
         titleSection.getChildren().addAll(title, subtitle);
@@ -93,7 +90,7 @@ public class CardManager {
         HBox.setHgrow(spacer, Priority.ALWAYS);
         
         Button addCardBtn = new Button("+ Add New Card");
-        addCardBtn.setStyle(createPrimaryButtonStyle());
+        addCardBtn.getStyleClass().add("button-primary");
         addCardBtn.setOnAction(e -> showAddCardDialog());
         
         header.getChildren().addAll(titleSection, spacer, addCardBtn);
@@ -103,10 +100,10 @@ public class CardManager {
     private VBox createAddCardSection() {
         VBox section = new VBox(20);
         section.setPadding(new Insets(25));
-        section.setStyle(createCardStyle());
+        section.getStyleClass().add("card");
 
         Label sectionTitle = new Label("🏦 Quick Add Account");
-        sectionTitle.setTextFill(currentTheme.getTextPrimary());
+        sectionTitle.getStyleClass().add("text-primary");
         sectionTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
 
         HBox quickAddForm = new HBox(15);
@@ -115,21 +112,21 @@ public class CardManager {
         TextField accountNameField = new TextField();
         accountNameField.setPromptText("Account Name");
         accountNameField.setPrefWidth(200);
-        accountNameField.setStyle(createTextFieldStyle());
+        accountNameField.getStyleClass().addAll("form-field", "compact");
 
         ComboBox<String> cardTypeCombo = new ComboBox<>();
         cardTypeCombo.getItems().addAll("Credit Card", "Debit Card", "Savings Account", "Checking Account");
         cardTypeCombo.setValue("Credit Card");
         cardTypeCombo.setPrefWidth(150);
-        cardTypeCombo.setStyle(createComboBoxStyle());
+        cardTypeCombo.getStyleClass().addAll("form-field", "compact");
 
         TextField balanceField = new TextField();
         balanceField.setPromptText("Balance");
         balanceField.setPrefWidth(120);
-        balanceField.setStyle(createTextFieldStyle());
+        balanceField.getStyleClass().addAll("form-field", "compact");
 
         Button quickAddBtn = new Button("➕ Add");
-        quickAddBtn.setStyle(createSecondaryButtonStyle());
+        quickAddBtn.getStyleClass().add("button-secondary");
         quickAddBtn.setOnAction(e -> quickAddCard(accountNameField, cardTypeCombo, balanceField));
 
         quickAddForm.getChildren().addAll(accountNameField, cardTypeCombo, balanceField, quickAddBtn);
@@ -141,7 +138,7 @@ public class CardManager {
         VBox section = new VBox(20);
 
         Label sectionTitle = new Label("💰 Your Accounts");
-        sectionTitle.setTextFill(currentTheme.getTextPrimary());
+        sectionTitle.getStyleClass().add("text-primary");
         sectionTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
 
         HBox cardsGrid = new HBox(20);
@@ -161,7 +158,7 @@ public class CardManager {
 
         ScrollPane scrollPane = new ScrollPane(cardsGrid);
         scrollPane.setFitToHeight(true);
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        scrollPane.getStyleClass().add("transparent-scroll");
         scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
         scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
 
@@ -198,21 +195,21 @@ public class CardManager {
         topRow.setAlignment(Pos.CENTER_LEFT);
         
         Label bankName = new Label(card.getBankName());
-        bankName.setTextFill(Color.WHITE);
+        bankName.getStyleClass().add("text-on-accent");
         bankName.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
         
         Region spacer1 = new Region();
         HBox.setHgrow(spacer1, Priority.ALWAYS);
         
         Label cardType = new Label(card.getCardType());
-        cardType.setTextFill(Color.web("#FFFFFF80"));
+        cardType.getStyleClass().addAll("text-on-accent", "dim");
         cardType.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 12));
         
         topRow.getChildren().addAll(bankName, spacer1, cardType);
 
         // Card number (masked)
         Label cardNumber = new Label(maskCardNumber(card.getCardNumber()));
-        cardNumber.setTextFill(Color.WHITE);
+        cardNumber.getStyleClass().add("text-on-accent");
         cardNumber.setFont(Font.font("Consolas", FontWeight.NORMAL, 18));
 
         // Bottom row
@@ -221,11 +218,11 @@ public class CardManager {
         
         VBox balanceSection = new VBox(3);
         Label balanceLabel = new Label("Balance");
-        balanceLabel.setTextFill(Color.web("#FFFFFF60"));
+        balanceLabel.getStyleClass().addAll("text-on-accent", "dim");
         balanceLabel.setFont(Font.font("Segoe UI", 10));
         
         Label balanceAmount = new Label("$" + String.format("%.2f", card.getBalance()));
-        balanceAmount.setTextFill(Color.WHITE);
+        balanceAmount.getStyleClass().add("text-on-accent");
         balanceAmount.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
         
         balanceSection.getChildren().addAll(balanceLabel, balanceAmount);
@@ -237,11 +234,11 @@ public class CardManager {
         expirySection.setAlignment(Pos.CENTER_RIGHT);
         
         Label expiryLabel = new Label("Expires");
-        expiryLabel.setTextFill(Color.web("#FFFFFF60"));
+        expiryLabel.getStyleClass().addAll("text-on-accent", "dim");
         expiryLabel.setFont(Font.font("Segoe UI", 10));
         
         Label expiryDate = new Label(card.getExpiryDate().format(DateTimeFormatter.ofPattern("MM/yy")));
-        expiryDate.setTextFill(Color.WHITE);
+        expiryDate.getStyleClass().add("text-on-accent");
         expiryDate.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
         
         expirySection.getChildren().addAll(expiryLabel, expiryDate);
@@ -256,15 +253,15 @@ public class CardManager {
         actions.setAlignment(Pos.CENTER);
         
         Button editBtn = new Button("✏️ Edit");
-        editBtn.setStyle(createSecondaryButtonStyle());
+        editBtn.getStyleClass().add("button-secondary");
         editBtn.setOnAction(e -> editCard(card));
         
         Button deleteBtn = new Button("🗑️ Delete");
-        deleteBtn.setStyle(createDangerButtonStyle());
+        deleteBtn.getStyleClass().addAll("button-accent", "small", "accent-error");
         deleteBtn.setOnAction(e -> deleteCard(card));
         
         Button transactionsBtn = new Button("📊 Transactions");
-        transactionsBtn.setStyle(createPrimaryButtonStyle());
+        transactionsBtn.getStyleClass().add("button-primary");
         transactionsBtn.setOnAction(e -> showCardTransactions(card));
         
         actions.getChildren().addAll(editBtn, deleteBtn, transactionsBtn);
@@ -291,40 +288,34 @@ public class CardManager {
     private VBox createCardStatsSection() {
         VBox section = new VBox(20);
         section.setPadding(new Insets(25));
-        section.setStyle(createCardStyle());
+        section.getStyleClass().add("card");
 
         Label title = new Label("📈 Account Statistics");
-        title.setTextFill(currentTheme.getTextPrimary());
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
 
         HBox statsRow = new HBox(30);
         statsRow.setAlignment(Pos.CENTER_LEFT);
 
         // Total balance
-        VBox totalBalanceCard = createStatsCard("��", "Total Balance", "$" + String.format("%.2f", calculateTotalBalance()), currentTheme.getSuccess());
+        VBox totalBalanceCard = createStatsCard("��", "Total Balance", "$" + String.format("%.2f", calculateTotalBalance()), "accent-success");
         
         // Number of accounts
-        VBox accountCountCard = createStatsCard("🏦", "Accounts", String.valueOf(cards.size()), currentTheme.getAccentPurple());
+        VBox accountCountCard = createStatsCard("🏦", "Accounts", String.valueOf(cards.size()), "accent-purple");
         
         // Average balance
-        VBox avgBalanceCard = createStatsCard("📊", "Average Balance", "$" + String.format("%.2f", calculateAverageBalance()), currentTheme.getWarning());
+        VBox avgBalanceCard = createStatsCard("📊", "Average Balance", "$" + String.format("%.2f", calculateAverageBalance()), "accent-warning");
 
         statsRow.getChildren().addAll(totalBalanceCard, accountCountCard, avgBalanceCard);
         section.getChildren().addAll(title, statsRow);
         return section;
     }
 
-    private VBox createStatsCard(String icon, String title, String value, Color accentColor) {
+    private VBox createStatsCard(String icon, String title, String value, String accentClass) {
         VBox card = new VBox(10);
         card.setPadding(new Insets(20));
         card.setPrefWidth(180);
-        card.setStyle(
-            "-fx-background-color: " + ThemeManager.toRgbaString(accentColor, 0.1) + ";" +
-            "-fx-background-radius: 12px;" +
-            "-fx-border-color: " + ThemeManager.toRgbaString(accentColor, 0.3) + ";" +
-            "-fx-border-width: 1px;" +
-            "-fx-border-radius: 12px;"
-        );
+        card.getStyleClass().addAll("tinted-card", accentClass);
 
         HBox header = new HBox(10);
         header.setAlignment(Pos.CENTER_LEFT);
@@ -333,13 +324,13 @@ public class CardManager {
         iconLabel.setFont(Font.font(18));
         
         Label titleLabel = new Label(title);
-        titleLabel.setTextFill(currentTheme.getTextSecondary());
+        titleLabel.getStyleClass().add("text-secondary");
         titleLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 12));
         
         header.getChildren().addAll(iconLabel, titleLabel);
 
         Label valueLabel = new Label(value);
-        valueLabel.setTextFill(currentTheme.getTextPrimary());
+        valueLabel.getStyleClass().add("text-primary");
         valueLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
 
         card.getChildren().addAll(header, valueLabel);
@@ -355,15 +346,15 @@ public class CardManager {
         emptyIcon.setFont(Font.font(48));
 
         Label emptyTitle = new Label("No accounts added yet");
-        emptyTitle.setTextFill(currentTheme.getTextPrimary());
+        emptyTitle.getStyleClass().add("text-primary");
         emptyTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
 
         Label emptyMessage = new Label("Add your first bank account or payment card to get started");
-        emptyMessage.setTextFill(currentTheme.getTextSecondary());
+        emptyMessage.getStyleClass().add("text-secondary");
         emptyMessage.setFont(Font.font("Segoe UI", 14));
 
         Button addFirstCardBtn = new Button("🏦 Add First Account");
-        addFirstCardBtn.setStyle(createPrimaryButtonStyle());
+        addFirstCardBtn.getStyleClass().add("button-primary");
         addFirstCardBtn.setOnAction(e -> showAddCardDialog());
 
         emptyState.getChildren().addAll(emptyIcon, emptyTitle, emptyMessage, addFirstCardBtn);
@@ -465,60 +456,6 @@ public class CardManager {
         showInfoMessage("Transactions for: " + card.getBankName());
     }
 
-    // Styling methods
-    private String createCardStyle() {
-        return "-fx-background-color: " + ThemeManager.toHexString(currentTheme.getCardBg()) + ";" +
-               "-fx-background-radius: 15;" +
-               "-fx-border-radius: 15;" +
-               "-fx-border-color: " + ThemeManager.toRgbaString(currentTheme.getTextMuted(), 0.3) + ";" +
-               "-fx-border-width: 1;" +
-               "-fx-effect: dropshadow(gaussian, " + ThemeManager.toRgbaString(currentTheme.getShadowColor(), 0.1) + ", 15, 0, 0, 5);";
-    }
-
-    private String createPrimaryButtonStyle() {
-        return "-fx-background-color: " + ThemeManager.toHexString(currentTheme.getAccentPurple()) + ";" +
-               "-fx-text-fill: white;" +
-               "-fx-background-radius: 8;" +
-               "-fx-padding: 10 20;" +
-               "-fx-font-weight: bold;" +
-               "-fx-cursor: hand;";
-    }
-
-    private String createSecondaryButtonStyle() {
-        return "-fx-background-color: " + ThemeManager.toRgbaString(currentTheme.getTextPrimary(), 0.1) + ";" +
-               "-fx-text-fill: " + ThemeManager.toHexString(currentTheme.getTextPrimary()) + ";" +
-               "-fx-background-radius: 8;" +
-               "-fx-padding: 10 20;" +
-               "-fx-font-weight: bold;" +
-               "-fx-cursor: hand;" +
-               "-fx-border-color: " + ThemeManager.toRgbaString(currentTheme.getTextPrimary(), 0.2) + ";" +
-               "-fx-border-width: 1;" +
-               "-fx-border-radius: 8;";
-    }
-
-    private String createDangerButtonStyle() {
-        return "-fx-background-color: " + ThemeManager.toHexString(currentTheme.getError()) + ";" +
-               "-fx-text-fill: white;" +
-               "-fx-background-radius: 8;" +
-               "-fx-padding: 10 20;" +
-               "-fx-font-weight: bold;" +
-               "-fx-cursor: hand;";
-    }
-
-    private String createTextFieldStyle() {
-        return "-fx-background-color: " + ThemeManager.toHexString(currentTheme.getCardBg()) + ";" +
-               "-fx-text-fill: " + ThemeManager.toHexString(currentTheme.getTextPrimary()) + ";" +
-               "-fx-background-radius: 8px;" +
-               "-fx-border-color: " + ThemeManager.toRgbaString(currentTheme.getTextPrimary(), 0.5) + ";" +
-               "-fx-border-radius: 8px;";
-    }
-
-    private String createComboBoxStyle() {
-        return "-fx-background-color: " + ThemeManager.toHexString(currentTheme.getCardBg()) + ";" +
-               "-fx-text-fill: " + ThemeManager.toHexString(currentTheme.getTextPrimary()) + ";" +
-               "-fx-background-radius: 8px;";
-    }
-
     // Message methods
     private void showSuccessMessage(String message) {
         showMessage(message, Alert.AlertType.INFORMATION);
@@ -0,0 +1,210 @@
+package com.cashflow;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Dữ liệu của dashboard dưới dạng JavaFX property. Node của dashboard được dựng một lần và bind vào
+ * đây; khi sổ cái thay đổi chỉ các giá trị khác đi mới phát sự kiện cập nhật.
+ *
+ * Mọi method public phải gọi trên FX thread.
+ */
+public class DashboardViewModel {
+    private static final Logger logger = Logger.getLogger(DashboardViewModel.class.getName());
+    private static final int RECENT_TRANSACTIONS = 3;
+
+    private final DatabaseManager dbManager;
+
+    private final ReadOnlyDoubleWrapper monthlyIncome = new ReadOnlyDoubleWrapper(this, "monthlyIncome");
+    private final ReadOnlyDoubleWrapper monthlyOutcome = new ReadOnlyDoubleWrapper(this, "monthlyOutcome");
+    private final ReadOnlyDoubleWrapper totalIncome = new ReadOnlyDoubleWrapper(this, "totalIncome");
+    private final ReadOnlyDoubleWrapper totalOutcome = new ReadOnlyDoubleWrapper(this, "totalOutcome");
+    private final ReadOnlyDoubleWrapper balance = new ReadOnlyDoubleWrapper(this, "balance");
+    private final ReadOnlyDoubleWrapper savingsRate = new ReadOnlyDoubleWrapper(this, "savingsRate");
+    private final ReadOnlyBooleanWrapper loaded = new ReadOnlyBooleanWrapper(this, "loaded");
+
+    private final ObservableList<MonthlyData> monthlyData = FXCollections.observableArrayList();
+    private final ObservableList<OutcomeRecord> recentOutcomes = FXCollections.observableArrayList();
+    // Giữ wrapper read-only làm field: wrapper chỉ nghe list gốc qua weak listener
+    private final ObservableList<MonthlyData> readOnlyMonthlyData = FXCollections.unmodifiableObservableList(monthlyData);
+    private final ObservableList<OutcomeRecord> readOnlyRecentOutcomes = FXCollections.unmodifiableObservableList(recentOutcomes);
+
+    // Generation của sổ cái tại lần tải gần nhất, -1 = chưa tải
+    private long loadedGeneration = -1;
+    // Dashboard đang hiển thị: cập nhật ngay theo event, nếu không thì đợi tới lần hiển thị sau
+    private boolean active;
+
+    public DashboardViewModel(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+        dbManager.getEventBus().subscribeOnFxThread(LedgerEvent.class, event -> {
+            if (active) {
+                refresh();
+            }
+        });
+    }
+
+    /**
+     * Gọi khi dashboard được hiển thị; chỉ tải lại nếu dữ liệu đã đổi kể từ lần tải trước
+     */
+    public void activate() {
+        active = true;
+        if (loadedGeneration != dbManager.getEventBus().getGeneration()) {
+            refresh();
+        }
+    }
+
+    public void deactivate() {
+        active = false;
+    }
+
+    /**
+     * Đọc lại số liệu ở background; các lần gọi liên tiếp trong lúc chờ được gộp lại
+     */
+    public void refresh() {
+        Task<Snapshot> loadTask = new Task<Snapshot>() {
+            @Override
+            protected Snapshot call() {
+                long generation = dbManager.getEventBus().getGeneration();
+                return new Snapshot(generation,
+                    dbManager.getDashboardStats(),
+                    dbManager.getMonthlyChartData(),
+                    dbManager.getOutcomeRecords(RECENT_TRANSACTIONS));
+            }
+
+            @Override
+            protected void succeeded() {
+                apply(getValue());
+            }
+
+            @Override
+            protected void failed() {
+                logger.log(Level.SEVERE, "Failed to load dashboard data", getException());
+            }
+        };
+
+        try {
+            TaskScheduler.getInstance().executeCoalesced(
+                TaskScheduler.Pool.IO, TaskScheduler.TaskPriority.VISIBLE, "dashboard-refresh", loadTask);
+        } catch (RejectedExecutionException e) {
+            logger.log(Level.WARNING, "Dashboard refresh was rejected", e);
+        }
+    }
+
+    private void apply(Snapshot snapshot) {
+        // Property chỉ phát sự kiện khi giá trị thật sự thay đổi
+        DashboardStats stats = snapshot.stats;
+        monthlyIncome.set(stats.getMonthlyIncome());
+        monthlyOutcome.set(stats.getMonthlyOutcome());
+        totalIncome.set(stats.getTotalIncome());
+        totalOutcome.set(stats.getTotalOutcome());
+        balance.set(stats.getBalance());
+        savingsRate.set(stats.getSavingsRate());
+
+        if (!sameMonthlyData(monthlyData, snapshot.monthlyData)) {
+            monthlyData.setAll(snapshot.monthlyData);
+        }
+        if (!sameOutcomes(recentOutcomes, snapshot.recentOutcomes)) {
+            recentOutcomes.setAll(snapshot.recentOutcomes);
+        }
+
+        loadedGeneration = snapshot.generation;
+        loaded.set(true);
+    }
+
+    private static boolean sameMonthlyData(List<MonthlyData> current, List<MonthlyData> next) {
+        if (current.size() != next.size()) {
+            return false;
+        }
+        for (int i = 0; i < current.size(); i++) {
+            MonthlyData a = current.get(i);
+            MonthlyData b = next.get(i);
+            if (!Objects.equals(a.getMonth(), b.getMonth()) || a.getYear() != b.getYear()
+                    || a.getIncome() != b.getIncome() || a.getOutcome() != b.getOutcome()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameOutcomes(List<OutcomeRecord> current, List<OutcomeRecord> next) {
+        if (current.size() != next.size()) {
+            return false;
+        }
+        for (int i = 0; i < current.size(); i++) {
+            OutcomeRecord a = current.get(i);
+            OutcomeRecord b = next.get(i);
+            if (a.getId() != b.getId() || a.getAmount() != b.getAmount()
+                    || !Objects.equals(a.getTitle(), b.getTitle())
+                    || !Objects.equals(a.getCategory(), b.getCategory())
+                    || !Objects.equals(a.getDate(), b.getDate())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public ReadOnlyDoubleProperty monthlyIncomeProperty() {
+        return monthlyIncome.getReadOnlyProperty();
+    }
+
+    public ReadOnlyDoubleProperty monthlyOutcomeProperty() {
+        return monthlyOutcome.getReadOnlyProperty();
+    }
+
+    public ReadOnlyDoubleProperty totalIncomeProperty() {
+        return totalIncome.getReadOnlyProperty();
+    }
+
+    public ReadOnlyDoubleProperty totalOutcomeProperty() {
+        return totalOutcome.getReadOnlyProperty();
+    }
+
+    public ReadOnlyDoubleProperty balanceProperty() {
+        return balance.getReadOnlyProperty();
+    }
+
+    public ReadOnlyDoubleProperty savingsRateProperty() {
+        return savingsRate.getReadOnlyProperty();
+    }
+
+    public ReadOnlyBooleanProperty loadedProperty() {
+        return loaded.getReadOnlyProperty();
+    }
+
+    public boolean isLoaded() {
+        return loaded.get();
+    }
+
+    public ObservableList<MonthlyData> getMonthlyData() {
+        return readOnlyMonthlyData;
+    }
+
+    public ObservableList<OutcomeRecord> getRecentOutcomes() {
+        return readOnlyRecentOutcomes;
+    }
+
+    private static class Snapshot {
+        private final long generation;
+        private final DashboardStats stats;
+        private final List<MonthlyData> monthlyData;
+        private final List<OutcomeRecord> recentOutcomes;
+
+        Snapshot(long generation, DashboardStats stats, List<MonthlyData> monthlyData,
+                 List<OutcomeRecord> recentOutcomes) {
+            this.generation = generation;
+            this.stats = stats;
+            this.monthlyData = monthlyData;
+            this.recentOutcomes = recentOutcomes;
+        }
+    }
+}
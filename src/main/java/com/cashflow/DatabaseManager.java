@@ -1,28 +1,52 @@
 package com.cashflow;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class DatabaseManager implements AutoCloseable {
-    private static final String DB_URL = "jdbc:sqlite:cashflow.db";
-    private static final String DB_VERSION = "1.2";
+    private static final String DB_FILE = "cashflow.db";
+    private static final String DB_URL = "jdbc:sqlite:" + DB_FILE;
+    private static final String DB_VERSION = "1.4";
     private static final Logger logger = Logger.getLogger(DatabaseManager.class.getName());
-
-    private Connection connection;
+    // Dạng SearchText.fold của các field text, tính lúc ghi để tìm kiếm không phân biệt dấu
+    private static final String[] INCOME_SEARCH_COLUMNS = { "search_source", "search_category", "search_description" };
+    private static final String[] OUTCOME_SEARCH_COLUMNS = { "search_title", "search_category", "search_description", "search_method" };
+    // Bảng được trigger ghi vào change_log để IncrementalBackup chỉ sao lưu các dòng đã đổi
+    static final String[] CHANGE_LOGGED_TABLES = { "income", "outcome", "categories", "budgets", "settings" };
+    // Bảng phải có trong một database hợp lệ (các bảng khác được tạo bù khi mở)
+    private static final String[] REQUIRED_TABLES = { "income", "outcome" };
+
+    // Được thay khi restore (replaceDatabase)
+    private volatile Connection connection;
+    // Các method dùng connection giữ read lock; replaceDatabase và close giữ write lock khi đóng / thay connection
+    private final ReentrantReadWriteLock databaseLock = new ReentrantReadWriteLock();
+    // Restore đang chạy (từ lúc kiểm tra file tới khi thay xong database): BackupScheduler tạm dừng
+    private volatile boolean restoreInProgress;
+    private final BalanceIndex balanceIndex = new BalanceIndex();
+    private final TimeRollupCube rollupCube = new TimeRollupCube();
+    private final RollingWindowAggregator rollingWindows = new RollingWindowAggregator();
+    private final LedgerEventBus eventBus = new LedgerEventBus();
+    private final BackupEngine backupEngine = new BackupEngine(DB_URL);
+    private final IncrementalBackup incrementalBackup = new IncrementalBackup(backupEngine, Paths.get("backups", "auto"));
 
     public DatabaseManager() {
         try {
-            connection = DriverManager.getConnection(DB_URL);
-            try (Statement stmt = connection.createStatement()) {
-                stmt.execute("PRAGMA foreign_keys = ON;");
-                stmt.execute("PRAGMA journal_mode = WAL;");
-            }
+            connection = openConnection();
             initializeDatabase();
+            rebuildLedgerIndexes();
             
             // Thêm dữ liệu mẫu cho tháng hiện tại nếu chưa có
             if (getMonthlyIncome(LocalDate.now()) == 0) {
@@ -36,10 +60,20 @@ public class DatabaseManager implements AutoCloseable {
         }
     }
 
+    private static Connection openConnection() throws SQLException {
+        Connection conn = FxThreadWatchdog.getInstance().guard(DriverManager.getConnection(DB_URL));
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = ON;");
+            stmt.execute("PRAGMA journal_mode = WAL;");
+        }
+        return conn;
+    }
+
     private void initializeDatabase() {
         try {
             createTablesIfNotExists(connection);
             insertSampleDataIfNeeded(connection);
+            backfillSearchColumns(connection);
             updateDatabaseVersion(connection);
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Database initialization error", e);
@@ -57,7 +91,10 @@ public class DatabaseManager implements AutoCloseable {
                 date DATE NOT NULL,
                 description TEXT,
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                search_source TEXT,
+                search_category TEXT,
+                search_description TEXT
             )
         """;
         
@@ -72,7 +109,11 @@ public class DatabaseManager implements AutoCloseable {
                 payment_method TEXT DEFAULT 'Cash',
                 is_recurring BOOLEAN DEFAULT 0,
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                search_title TEXT,
+                search_category TEXT,
+                search_description TEXT,
+                search_method TEXT
             )
         """;
 
@@ -115,16 +156,49 @@ public class DatabaseManager implements AutoCloseable {
             stmt.execute(createBudgetsTable);
             stmt.execute(createSettingsTable);
             
+            addMissingColumns(conn, "income", INCOME_SEARCH_COLUMNS);
+            addMissingColumns(conn, "outcome", OUTCOME_SEARCH_COLUMNS);
+            createChangeLog(stmt);
             createIndexes(stmt);
         }
     }
 
+    /**
+     * Nhật ký thay đổi theo dòng: mỗi lần insert / update / delete trên các bảng dữ liệu ghi (bảng, rowid).
+     * Trigger thuần SQL nên vẫn ghi nhận cả khi database được sửa bằng công cụ khác.
+     */
+    private void createChangeLog(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS change_log (
+                seq INTEGER PRIMARY KEY AUTOINCREMENT,
+                table_name TEXT NOT NULL,
+                row_id INTEGER NOT NULL,
+                op TEXT NOT NULL CHECK(op IN ('I', 'U', 'D'))
+            )
+        """);
+        for (String table : CHANGE_LOGGED_TABLES) {
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_log_insert AFTER INSERT ON " + table
+                + " BEGIN INSERT INTO change_log (table_name, row_id, op) VALUES ('" + table + "', NEW.rowid, 'I'); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_log_update AFTER UPDATE ON " + table
+                + " BEGIN INSERT INTO change_log (table_name, row_id, op) VALUES ('" + table + "', NEW.rowid, 'U'); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_log_delete AFTER DELETE ON " + table
+                + " BEGIN INSERT INTO change_log (table_name, row_id, op) VALUES ('" + table + "', OLD.rowid, 'D'); END");
+        }
+    }
+
     private void createIndexes(Statement stmt) throws SQLException {
         String[] indexes = {
             "CREATE INDEX IF NOT EXISTS idx_income_date ON income(date)",
             "CREATE INDEX IF NOT EXISTS idx_income_category ON income(category)",
             "CREATE INDEX IF NOT EXISTS idx_outcome_date ON outcome(date)",
             "CREATE INDEX IF NOT EXISTS idx_outcome_category ON outcome(category)",
+            "CREATE INDEX IF NOT EXISTS idx_outcome_date_amount ON outcome(date, amount)",
+            // Cho SearchQuery: tiền tố danh mục / phương thức trên cột đã fold (LIKE cần index NOCASE) và so sánh số tiền
+            "CREATE INDEX IF NOT EXISTS idx_income_search_category ON income(search_category COLLATE NOCASE)",
+            "CREATE INDEX IF NOT EXISTS idx_outcome_search_category ON outcome(search_category COLLATE NOCASE)",
+            "CREATE INDEX IF NOT EXISTS idx_outcome_search_method ON outcome(search_method COLLATE NOCASE)",
+            "CREATE INDEX IF NOT EXISTS idx_income_amount ON income(amount)",
+            "CREATE INDEX IF NOT EXISTS idx_outcome_amount ON outcome(amount)",
             "CREATE INDEX IF NOT EXISTS idx_budgets_category_date ON budgets(category, year, month)"
         };
 
@@ -133,6 +207,81 @@ public class DatabaseManager implements AutoCloseable {
         }
     }
 
+    // Thêm cột vào bảng của database tạo từ phiên bản cũ
+    private void addMissingColumns(Connection conn, String table, String[] columns) throws SQLException {
+        List<String> existing = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                existing.add(rs.getString("name"));
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String column : columns) {
+                if (!existing.contains(column)) {
+                    stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " TEXT");
+                    logger.info("Added column " + table + "." + column);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tính các cột search_* còn trống (database cũ, dữ liệu mẫu, hoặc dòng được ghi bởi công cụ khác).
+     * Các lần ghi của ứng dụng tự điền cột nên bình thường không có dòng nào.
+     */
+    private void backfillSearchColumns(Connection conn) throws SQLException {
+        String selectIncome = "SELECT id, source, category, description FROM income "
+            + "WHERE search_source IS NULL OR search_category IS NULL OR search_description IS NULL";
+        String updateIncome = "UPDATE income SET search_source = ?, search_category = ?, search_description = ? WHERE id = ?";
+        String selectOutcome = "SELECT id, title, category, description, payment_method FROM outcome "
+            + "WHERE search_title IS NULL OR search_category IS NULL OR search_description IS NULL OR search_method IS NULL";
+        String updateOutcome = "UPDATE outcome SET search_title = ?, search_category = ?, search_description = ?, "
+            + "search_method = ? WHERE id = ?";
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        int rows = 0;
+        try {
+            try (Statement select = conn.createStatement();
+                 PreparedStatement update = conn.prepareStatement(updateIncome)) {
+                ResultSet rs = select.executeQuery(selectIncome);
+                while (rs.next()) {
+                    update.setString(1, SearchText.fold(rs.getString("source")));
+                    update.setString(2, SearchText.fold(rs.getString("category")));
+                    update.setString(3, SearchText.fold(rs.getString("description")));
+                    update.setInt(4, rs.getInt("id"));
+                    update.addBatch();
+                    rows++;
+                }
+                update.executeBatch();
+            }
+            try (Statement select = conn.createStatement();
+                 PreparedStatement update = conn.prepareStatement(updateOutcome)) {
+                ResultSet rs = select.executeQuery(selectOutcome);
+                while (rs.next()) {
+                    update.setString(1, SearchText.fold(rs.getString("title")));
+                    update.setString(2, SearchText.fold(rs.getString("category")));
+                    update.setString(3, SearchText.fold(rs.getString("description")));
+                    update.setString(4, SearchText.fold(rs.getString("payment_method")));
+                    update.setInt(5, rs.getInt("id"));
+                    update.addBatch();
+                    rows++;
+                }
+                update.executeBatch();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        if (rows > 0) {
+            logger.info("Computed search columns for " + rows + " records");
+        }
+    }
+
     private void insertSampleDataIfNeeded(Connection conn) throws SQLException {
         if (getIncomeRecordsCount() == 0) {
             insertSampleIncomeData(conn);
@@ -254,41 +403,54 @@ public class DatabaseManager implements AutoCloseable {
     }
 
     public boolean addIncome(double amount, String source, String category, LocalDate date, String description) {
-        if (amount <= 0) {
-            System.err.println("Invalid income amount: " + amount);
-            return false;
-        }
+        databaseLock.readLock().lock();
+        try {
+            if (amount <= 0) {
+                System.err.println("Invalid income amount: " + amount);
+                return false;
+            }
         
-        if (source == null || source.trim().isEmpty()) {
-            System.err.println("Invalid income source: " + source);
-            return false;
-        }
+            if (source == null || source.trim().isEmpty()) {
+                System.err.println("Invalid income source: " + source);
+                return false;
+            }
 
-        String sql = "INSERT INTO income (amount, source, category, date, description) VALUES (?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
-            pstmt.setDouble(1, amount);
-            pstmt.setString(2, source.trim());
-            pstmt.setString(3, category != null ? category.trim() : "Other");
-            pstmt.setString(4, date != null ? date.toString() : LocalDate.now().toString());
-            pstmt.setString(5, description != null ? description.trim() : "");
-            
-            int result = pstmt.executeUpdate();
+            String sql = """
+                INSERT INTO income (amount, source, category, date, description,
+                    search_source, search_category, search_description)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+                pstmt.setDouble(1, amount);
+                pstmt.setString(2, source.trim());
+                pstmt.setString(3, category != null ? category.trim() : "Other");
+                pstmt.setString(4, date != null ? date.toString() : LocalDate.now().toString());
+                pstmt.setString(5, description != null ? description.trim() : "");
+                setIncomeSearchColumns(pstmt, 6, source, category, description);
+            
+                int result = pstmt.executeUpdate();
+            
+                if (result > 0) {
+                    applyLedgerChange(LedgerType.INCOME, category != null ? category.trim() : "Other",
+                        date != null ? date : LocalDate.now(), amount);
+                    publishRecordAdded(LedgerType.INCOME);
+                    System.out.println("✓ Income added successfully: " + source + " - $" + amount);
+                    logger.info("Income added successfully: " + source + " - $" + amount);
+                    return true;
+                } else {
+                    System.err.println("✗ Failed to add income - no rows affected");
+                    return false;
+                }
             
-            if (result > 0) {
-                System.out.println("✓ Income added successfully: " + source + " - $" + amount);
-                logger.info("Income added successfully: " + source + " - $" + amount);
-                return true;
-            } else {
-                System.err.println("✗ Failed to add income - no rows affected");
+            } catch (SQLException e) {
+                System.err.println("✗ SQL Error adding income: " + e.getMessage());
+                logger.log(Level.SEVERE, "Failed to add income: " + source, e);
+                e.printStackTrace();
                 return false;
             }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ SQL Error adding income: " + e.getMessage());
-            logger.log(Level.SEVERE, "Failed to add income: " + source, e);
-            e.printStackTrace();
-            return false;
+        } finally {
+            databaseLock.readLock().unlock();
         }
     }
 
@@ -297,179 +459,168 @@ public class DatabaseManager implements AutoCloseable {
     }
 
     public List<IncomeRecord> getIncomeRecords(int limit) {
-        List<IncomeRecord> records = new ArrayList<>();
-        String sql = "SELECT * FROM income ORDER BY date DESC, id DESC LIMIT ?";
+        databaseLock.readLock().lock();
+        try {
+            List<IncomeRecord> records = new ArrayList<>();
+            String sql = "SELECT * FROM income ORDER BY date DESC, id DESC LIMIT ?";
         
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
             
-            pstmt.setInt(1, limit);
-            ResultSet rs = pstmt.executeQuery();
+                pstmt.setInt(1, limit);
+                ResultSet rs = pstmt.executeQuery();
             
-            while (rs.next()) {
-                records.add(new IncomeRecord(
-                    rs.getInt("id"),
-                    rs.getDouble("amount"),
-                    rs.getString("source"),
-                    rs.getString("category"),
-                    LocalDate.parse(rs.getString("date")),
-                    rs.getString("description"),
-                    rs.getTimestamp("created_at").toLocalDateTime(),
-                    rs.getTimestamp("updated_at") != null ? 
-                        rs.getTimestamp("updated_at").toLocalDateTime() : null
-                ));
-            }
+                while (rs.next()) {
+                    records.add(mapIncomeRecord(rs));
+                }
             
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get income records", e);
-        }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to get income records", e);
+            }
         
-        return records;
+            return records;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Record khớp các điều kiện có cấu trúc của truy vấn, mới nhất trước.
+     * Truy vấn không có điều kiện nào thì giống getIncomeRecords(limit).
+     */
+    public List<IncomeRecord> searchIncomeRecords(SearchQuery query, int limit) {
+        return searchIncomeRecords(query, FilterManager.Filter.ALL, limit);
+    }
+
+    // Thêm các điều kiện của filter (khoảng ngày, số tiền, danh mục...) vào cùng câu truy vấn
+    public List<IncomeRecord> searchIncomeRecords(SearchQuery query, FilterManager.Filter filter, int limit) {
+        databaseLock.readLock().lock();
+        try {
+            List<IncomeRecord> records = new ArrayList<>();
+            List<Object> params = new ArrayList<>();
+            String sql = "SELECT * FROM income WHERE " + query.toSql(LedgerType.INCOME, params)
+                + " AND " + filter.toSql(LedgerType.INCOME, params)
+                + " ORDER BY date DESC, id DESC LIMIT ?";
+
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+                bindSearchParams(pstmt, params, limit);
+                ResultSet rs = pstmt.executeQuery();
+
+                while (rs.next()) {
+                    records.add(mapIncomeRecord(rs));
+                }
+
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to search income records: " + query + " " + filter, e);
+            }
+
+            return records;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     public List<IncomeRecord> getIncomeRecordsByCategory(String category) {
-        List<IncomeRecord> records = new ArrayList<>();
-        String sql = "SELECT * FROM income WHERE category = ? ORDER BY date DESC";
-        
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
-            
-            pstmt.setString(1, category);
-            ResultSet rs = pstmt.executeQuery();
+        databaseLock.readLock().lock();
+        try {
+            List<IncomeRecord> records = new ArrayList<>();
+            String sql = "SELECT * FROM income WHERE category = ? ORDER BY date DESC";
+        
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+            
+                pstmt.setString(1, category);
+                ResultSet rs = pstmt.executeQuery();
+            
+                while (rs.next()) {
+                    records.add(new IncomeRecord(
+                        rs.getInt("id"),
+                        rs.getDouble("amount"),
+                        rs.getString("source"),
+                        rs.getString("category"),
+                        LocalDate.parse(rs.getString("date")),
+                        rs.getString("description"),
+                        rs.getTimestamp("created_at").toLocalDateTime()
+                    ));
+                }
             
-            while (rs.next()) {
-                records.add(new IncomeRecord(
-                    rs.getInt("id"),
-                    rs.getDouble("amount"),
-                    rs.getString("source"),
-                    rs.getString("category"),
-                    LocalDate.parse(rs.getString("date")),
-                    rs.getString("description"),
-                    rs.getTimestamp("created_at").toLocalDateTime()
-                ));
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to get income records by category: " + category, e);
             }
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get income records by category: " + category, e);
-        }
         
-        return records;
+            return records;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     // Enhanced analytics methods
     public double getMonthlyIncome(LocalDate date) {
-        String sql = """
-            SELECT COALESCE(SUM(amount), 0) as total
-            FROM income
-            WHERE strftime('%Y-%m', date) = strftime('%Y-%m', ?)
-        """;
-        
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
-            pstmt.setString(1, date.toString());
-            
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                double result = rs.getDouble("total");
-                System.out.println("Month " + date.getMonthValue() + "/" + date.getYear() + " Income: " + result);
-                return result;
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get monthly income", e);
-        }
-        
-        return 0.0;
+        return rollupCube.getTotal(LedgerType.INCOME, TimeGrain.MONTH, date);
     }
 
     public double getWeeklyIncome(LocalDate date) {
         // Thử lấy tuần hiện tại trước
-        LocalDate weekStart = date.minusDays(date.getDayOfWeek().getValue() - 1);
-        LocalDate weekEnd = weekStart.plusDays(6);
-        
-        String currentWeekSql = """
-            SELECT COALESCE(SUM(amount), 0) as total 
-            FROM income 
-            WHERE date >= ? AND date <= ?
-        """;
-        
-        try (PreparedStatement pstmt = this.connection.prepareStatement(currentWeekSql)) {
-            pstmt.setString(1, weekStart.toString());
-            pstmt.setString(2, weekEnd.toString());
-            
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                double currentResult = rs.getDouble("total");
-                if (currentResult > 0) {
-                    System.out.println("Current Week Income: " + currentResult);
-                    return currentResult;
-                }
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get current week income", e);
+        double currentResult = rollupCube.getTotal(LedgerType.INCOME, TimeGrain.WEEK, date);
+        if (currentResult > 0) {
+            return currentResult;
         }
         
         // Nếu tuần hiện tại không có dữ liệu, lấy tuần gần nhất
-        String latestWeekSql = """
-            SELECT COALESCE(SUM(amount), 0) as total
-            FROM income
-            WHERE date >= (SELECT MAX(date) FROM income) - 6
-        """;
-        
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(latestWeekSql)) {
-            
-            if (rs.next()) {
-                double result = rs.getDouble("total");
-                System.out.println("Latest Week Income: " + result);
-                return result;
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get latest week income", e);
-        }
-        
-        return 0.0;
+        return getLatestWeekIncome();
     }
 
     // Enhanced outcome operations
     public boolean addOutcome(double amount, String title, String category, LocalDate date, 
                              String description, String paymentMethod, boolean isRecurring) {
-        if (amount <= 0) {
-            System.err.println("Invalid outcome amount: " + amount);
-            return false;
-        }
+        databaseLock.readLock().lock();
+        try {
+            if (amount <= 0) {
+                System.err.println("Invalid outcome amount: " + amount);
+                return false;
+            }
         
-        if (title == null || title.trim().isEmpty()) {
-            System.err.println("Invalid outcome title: " + title);
-            return false;
-        }
+            if (title == null || title.trim().isEmpty()) {
+                System.err.println("Invalid outcome title: " + title);
+                return false;
+            }
 
-        String sql = """
-            INSERT INTO outcome (amount, title, category, date, description, payment_method, is_recurring) 
-            VALUES (?, ?, ?, ?, ?, ?, ?)
-        """;
-        
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
-            pstmt.setDouble(1, amount);
-            pstmt.setString(2, title.trim());
-            pstmt.setString(3, category != null ? category.trim() : "Other");
-            pstmt.setString(4, date != null ? date.toString() : LocalDate.now().toString());
-            pstmt.setString(5, description != null ? description.trim() : "");
-            pstmt.setString(6, paymentMethod != null ? paymentMethod.trim() : "Cash");
-            pstmt.setBoolean(7, isRecurring);
-            
-            int result = pstmt.executeUpdate();
+            String sql = """
+                INSERT INTO outcome (amount, title, category, date, description, payment_method, is_recurring,
+                    search_title, search_category, search_description, search_method)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+                pstmt.setDouble(1, amount);
+                pstmt.setString(2, title.trim());
+                pstmt.setString(3, category != null ? category.trim() : "Other");
+                pstmt.setString(4, date != null ? date.toString() : LocalDate.now().toString());
+                pstmt.setString(5, description != null ? description.trim() : "");
+                pstmt.setString(6, paymentMethod != null ? paymentMethod.trim() : "Cash");
+                pstmt.setBoolean(7, isRecurring);
+                setOutcomeSearchColumns(pstmt, 8, title, category, description, paymentMethod);
+            
+                int result = pstmt.executeUpdate();
+            
+                if (result > 0) {
+                    applyLedgerChange(LedgerType.OUTCOME, category != null ? category.trim() : "Other",
+                        date != null ? date : LocalDate.now(), amount);
+                    publishRecordAdded(LedgerType.OUTCOME);
+                    System.out.println("✓ Outcome added successfully: " + title + " - $" + amount);
+                    logger.info("Outcome added successfully: " + title + " - $" + amount);
+                    return true;
+                } else {
+                    System.err.println("✗ Failed to add outcome - no rows affected");
+                    return false;
+                }
             
-            if (result > 0) {
-                System.out.println("✓ Outcome added successfully: " + title + " - $" + amount);
-                logger.info("Outcome added successfully: " + title + " - $" + amount);
-                return true;
-            } else {
-                System.err.println("✗ Failed to add outcome - no rows affected");
+            } catch (SQLException e) {
+                System.err.println("✗ SQL Error adding outcome: " + e.getMessage());
+                logger.log(Level.SEVERE, "Failed to add outcome: " + title, e);
+                e.printStackTrace();
                 return false;
             }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ SQL Error adding outcome: " + e.getMessage());
-            logger.log(Level.SEVERE, "Failed to add outcome: " + title, e);
-            e.printStackTrace();
-            return false;
+        } finally {
+            databaseLock.readLock().unlock();
         }
     }
 
@@ -478,527 +629,742 @@ public class DatabaseManager implements AutoCloseable {
         return addOutcome(amount, title, category, date, description, "Cash", false);
     }
 
+    public IncomeRecord getIncomeRecordById(int id) {
+        databaseLock.readLock().lock();
+        try {
+            String sql = "SELECT * FROM income WHERE id = ?";
+        
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                ResultSet rs = pstmt.executeQuery();
+                if (rs.next()) {
+                    return mapIncomeRecord(rs);
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to get income record: ID " + id, e);
+            }
+        
+            return null;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
+    }
+
+    public OutcomeRecord getOutcomeRecordById(int id) {
+        databaseLock.readLock().lock();
+        try {
+            String sql = "SELECT * FROM outcome WHERE id = ?";
+        
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                ResultSet rs = pstmt.executeQuery();
+                if (rs.next()) {
+                    return mapOutcomeRecord(rs);
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to get outcome record: ID " + id, e);
+            }
+        
+            return null;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
+    }
+
+    // Cùng giá trị mặc định như khi ghi cột gốc (trim, "Other", "", "Cash")
+    private static void setIncomeSearchColumns(PreparedStatement pstmt, int firstIndex, String source,
+                                               String category, String description) throws SQLException {
+        pstmt.setString(firstIndex, SearchText.fold(source.trim()));
+        pstmt.setString(firstIndex + 1, SearchText.fold(category != null ? category.trim() : "Other"));
+        pstmt.setString(firstIndex + 2, SearchText.fold(description != null ? description.trim() : ""));
+    }
+
+    private static void setOutcomeSearchColumns(PreparedStatement pstmt, int firstIndex, String title, String category,
+                                                String description, String paymentMethod) throws SQLException {
+        pstmt.setString(firstIndex, SearchText.fold(title.trim()));
+        pstmt.setString(firstIndex + 1, SearchText.fold(category != null ? category.trim() : "Other"));
+        pstmt.setString(firstIndex + 2, SearchText.fold(description != null ? description.trim() : ""));
+        pstmt.setString(firstIndex + 3, SearchText.fold(paymentMethod != null ? paymentMethod.trim() : "Cash"));
+    }
+
+    private static IncomeRecord mapIncomeRecord(ResultSet rs) throws SQLException {
+        IncomeRecord record = new IncomeRecord(
+            rs.getInt("id"),
+            rs.getDouble("amount"),
+            rs.getString("source"),
+            rs.getString("category"),
+            LocalDate.parse(rs.getString("date")),
+            rs.getString("description"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getTimestamp("updated_at") != null ? 
+                rs.getTimestamp("updated_at").toLocalDateTime() : null
+        );
+        String searchSource = rs.getString("search_source");
+        if (searchSource != null) {
+            record.setSearchText(SearchText.join(searchSource, rs.getString("search_category"),
+                rs.getString("search_description"), record.getDate().toString()));
+        }
+        return record;
+    }
+
+    private static OutcomeRecord mapOutcomeRecord(ResultSet rs) throws SQLException {
+        OutcomeRecord record = new OutcomeRecord(
+            rs.getInt("id"),
+            rs.getDouble("amount"),
+            rs.getString("title"),
+            rs.getString("category"),
+            LocalDate.parse(rs.getString("date")),
+            rs.getString("description"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getTimestamp("updated_at") != null ? 
+                rs.getTimestamp("updated_at").toLocalDateTime() : null,
+            rs.getString("payment_method"),
+            rs.getBoolean("is_recurring")
+        );
+        String searchTitle = rs.getString("search_title");
+        if (searchTitle != null) {
+            record.setSearchText(SearchText.join(searchTitle, rs.getString("search_category"),
+                rs.getString("search_description"), rs.getString("search_method"), record.getDate().toString()));
+        }
+        return record;
+    }
+
     public List<OutcomeRecord> getOutcomeRecords() {
         return getOutcomeRecords(100);
     }
 
     public List<OutcomeRecord> getOutcomeRecords(int limit) {
-        List<OutcomeRecord> records = new ArrayList<>();
-        String sql = "SELECT * FROM outcome ORDER BY date DESC, id DESC LIMIT ?";
+        databaseLock.readLock().lock();
+        try {
+            List<OutcomeRecord> records = new ArrayList<>();
+            String sql = "SELECT * FROM outcome ORDER BY date DESC, id DESC LIMIT ?";
         
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
             
-            pstmt.setInt(1, limit);
-            ResultSet rs = pstmt.executeQuery();
+                pstmt.setInt(1, limit);
+                ResultSet rs = pstmt.executeQuery();
             
-            while (rs.next()) {
-                records.add(new OutcomeRecord(
-                    rs.getInt("id"),
-                    rs.getDouble("amount"),
-                    rs.getString("title"),
-                    rs.getString("category"),
-                    LocalDate.parse(rs.getString("date")),
-                    rs.getString("description"),
-                    rs.getTimestamp("created_at").toLocalDateTime(),
-                    rs.getTimestamp("updated_at") != null ? 
-                        rs.getTimestamp("updated_at").toLocalDateTime() : null,
-                    rs.getString("payment_method"),
-                    rs.getBoolean("is_recurring")
-                ));
-            }
+                while (rs.next()) {
+                    records.add(mapOutcomeRecord(rs));
+                }
             
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get outcome records", e);
-        }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to get outcome records", e);
+            }
         
-        return records;
+            return records;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
-    public double getMonthlyOutcome(LocalDate date) {
-        String sql = """
-            SELECT COALESCE(SUM(amount), 0) as total
-            FROM outcome
-            WHERE strftime('%Y-%m', date) = strftime('%Y-%m', ?)
-        """;
-        
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
-            pstmt.setString(1, date.toString());
-            
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                double result = rs.getDouble("total");
-                System.out.println("Month " + date.getMonthValue() + "/" + date.getYear() + " Outcome: " + result);
-                return result;
+    public List<OutcomeRecord> searchOutcomeRecords(SearchQuery query, int limit) {
+        return searchOutcomeRecords(query, FilterManager.Filter.ALL, limit);
+    }
+
+    // Thêm các điều kiện của filter (khoảng ngày, số tiền, danh mục...) vào cùng câu truy vấn
+    public List<OutcomeRecord> searchOutcomeRecords(SearchQuery query, FilterManager.Filter filter, int limit) {
+        databaseLock.readLock().lock();
+        try {
+            List<OutcomeRecord> records = new ArrayList<>();
+            List<Object> params = new ArrayList<>();
+            String sql = "SELECT * FROM outcome WHERE " + query.toSql(LedgerType.OUTCOME, params)
+                + " AND " + filter.toSql(LedgerType.OUTCOME, params)
+                + " ORDER BY date DESC, id DESC LIMIT ?";
+
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+                bindSearchParams(pstmt, params, limit);
+                ResultSet rs = pstmt.executeQuery();
+
+                while (rs.next()) {
+                    records.add(mapOutcomeRecord(rs));
+                }
+
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to search outcome records: " + query + " " + filter, e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get monthly outcome", e);
+
+            return records;
+        } finally {
+            databaseLock.readLock().unlock();
         }
-        
-        return 0.0;
+    }
+
+    private static void bindSearchParams(PreparedStatement pstmt, List<Object> params, int limit) throws SQLException {
+        int index = 1;
+        for (Object param : params) {
+            pstmt.setObject(index++, param);
+        }
+        pstmt.setInt(index, limit);
+    }
+
+    public double getMonthlyOutcome(LocalDate date) {
+        return rollupCube.getTotal(LedgerType.OUTCOME, TimeGrain.MONTH, date);
     }
 
     public double getWeeklyOutcome(LocalDate date) {
         // Thử lấy tuần hiện tại trước
-        LocalDate weekStart = date.minusDays(date.getDayOfWeek().getValue() - 1);
-        LocalDate weekEnd = weekStart.plusDays(6);
-        
-        String currentWeekSql = """
-            SELECT COALESCE(SUM(amount), 0) as total 
-            FROM outcome 
-            WHERE date >= ? AND date <= ?
-        """;
-        
-        try (PreparedStatement pstmt = this.connection.prepareStatement(currentWeekSql)) {
-            pstmt.setString(1, weekStart.toString());
-            pstmt.setString(2, weekEnd.toString());
-            
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                double currentResult = rs.getDouble("total");
-                if (currentResult > 0) {
-                    System.out.println("Current Week Outcome: " + currentResult);
-                    return currentResult;
-                }
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get current week outcome", e);
+        double currentResult = rollupCube.getTotal(LedgerType.OUTCOME, TimeGrain.WEEK, date);
+        if (currentResult > 0) {
+            return currentResult;
         }
         
         // Nếu tuần hiện tại không có dữ liệu, lấy tuần gần nhất
-        String latestWeekSql = """
-            SELECT COALESCE(SUM(amount), 0) as total
-            FROM outcome
-            WHERE date >= (SELECT MAX(date) FROM outcome) - 6
-        """;
-        
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(latestWeekSql)) {
-            
-            if (rs.next()) {
-                double result = rs.getDouble("total");
-                System.out.println("Latest Week Outcome: " + result);
-                return result;
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get latest week outcome", e);
-        }
-        
-        return 0.0;
+        return getLatestWeekOutcome();
     }
 
     public int getOutcomeRecordsCount() {
-        String sql = "SELECT COUNT(*) as count FROM outcome";
+        databaseLock.readLock().lock();
+        try {
+            String sql = "SELECT COUNT(*) as count FROM outcome";
         
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            try (Statement stmt = this.connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
             
-            if (rs.next()) {
-                return rs.getInt("count");
+                if (rs.next()) {
+                    return rs.getInt("count");
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to get outcome records count", e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get outcome records count", e);
-        }
         
-        return 0;
+            return 0;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     // Enhanced Dashboard Data Operations
     public DashboardStats getDashboardStats() {
-        DashboardStats stats = new DashboardStats();
-        
+        databaseLock.readLock().lock();
         try {
-            LocalDate now = LocalDate.now();
-            
-            // Sử dụng dữ liệu tháng/tuần/năm hiện tại (sẽ là 0 nếu không có data)
-            double currentMonthIncome = getMonthlyIncome(now);
-            double currentMonthOutcome = getMonthlyOutcome(now);
-            double currentWeekIncome = getWeeklyIncome(now);
-            double currentWeekOutcome = getWeeklyOutcome(now);
-            double currentYearIncome = getYearlyIncome(now);
-            double currentYearOutcome = getYearlyOutcome(now);
-            
-            // Nếu tháng hiện tại không có dữ liệu, sử dụng tháng gần nhất có dữ liệu
-            if (currentMonthIncome == 0) {
-                currentMonthIncome = getLatestMonthIncome();
-            }
-            if (currentMonthOutcome == 0) {
-                currentMonthOutcome = getLatestMonthOutcome();
-            }
-            if (currentWeekIncome == 0) {
-                currentWeekIncome = getLatestWeekIncome();
-            }
-            if (currentWeekOutcome == 0) {
-                currentWeekOutcome = getLatestWeekOutcome();
-            }
-            
-            stats.setMonthlyIncome(currentMonthIncome);
-            stats.setMonthlyOutcome(currentMonthOutcome);
-            stats.setWeeklyIncome(currentWeekIncome);
-            stats.setWeeklyOutcome(currentWeekOutcome);
-            
-            // Tính toán dữ liệu tổng
-            double totalIncome = getTotalIncome();
-            double totalOutcome = getTotalOutcome();
+            DashboardStats stats = new DashboardStats();
+        
+            try {
+                LocalDate now = LocalDate.now();
+            
+                // Sử dụng dữ liệu tháng/tuần/năm hiện tại (sẽ là 0 nếu không có data)
+                double currentMonthIncome = getMonthlyIncome(now);
+                double currentMonthOutcome = getMonthlyOutcome(now);
+                double currentWeekIncome = getWeeklyIncome(now);
+                double currentWeekOutcome = getWeeklyOutcome(now);
+                double currentYearIncome = getYearlyIncome(now);
+                double currentYearOutcome = getYearlyOutcome(now);
+            
+                // Nếu tháng hiện tại không có dữ liệu, sử dụng tháng gần nhất có dữ liệu
+                if (currentMonthIncome == 0) {
+                    currentMonthIncome = getLatestMonthIncome();
+                }
+                if (currentMonthOutcome == 0) {
+                    currentMonthOutcome = getLatestMonthOutcome();
+                }
+                if (currentWeekIncome == 0) {
+                    currentWeekIncome = getLatestWeekIncome();
+                }
+                if (currentWeekOutcome == 0) {
+                    currentWeekOutcome = getLatestWeekOutcome();
+                }
             
-            stats.setTotalIncome(totalIncome);
-            stats.setTotalOutcome(totalOutcome);
-            stats.setBalance(totalIncome - totalOutcome);
+                stats.setMonthlyIncome(currentMonthIncome);
+                stats.setMonthlyOutcome(currentMonthOutcome);
+                stats.setWeeklyIncome(currentWeekIncome);
+                stats.setWeeklyOutcome(currentWeekOutcome);
+            
+                // Tính toán dữ liệu tổng
+                double totalIncome = getTotalIncome();
+                double totalOutcome = getTotalOutcome();
+            
+                stats.setTotalIncome(totalIncome);
+                stats.setTotalOutcome(totalOutcome);
+                stats.setBalance(totalIncome - totalOutcome);
+            
+                // Tính savings rate dựa trên dữ liệu thực
+                if (currentMonthIncome > 0) {
+                    double savingsRate = ((currentMonthIncome - currentMonthOutcome) / currentMonthIncome) * 100;
+                    stats.setSavingsRate(Math.max(0, savingsRate));
+                } else {
+                    stats.setSavingsRate(0);
+                }
             
-            // Tính savings rate dựa trên dữ liệu thực
-            if (currentMonthIncome > 0) {
-                double savingsRate = ((currentMonthIncome - currentMonthOutcome) / currentMonthIncome) * 100;
-                stats.setSavingsRate(Math.max(0, savingsRate));
-            } else {
-                stats.setSavingsRate(0);
+                // Debug log
+                System.out.println("=== Dashboard Stats (Corrected) ===");
+                System.out.println("Monthly Income: " + currentMonthIncome);
+                System.out.println("Monthly Outcome: " + currentMonthOutcome);
+                System.out.println("Weekly Income: " + currentWeekIncome);
+                System.out.println("Weekly Outcome: " + currentWeekOutcome);
+                System.out.println("Total Income: " + totalIncome);
+                System.out.println("Total Outcome: " + totalOutcome);
+                System.out.println("Balance: " + stats.getBalance());
+                System.out.println("Savings Rate: " + stats.getSavingsRate());
+            
+                stats.setMonthlyData(getEnhancedMonthlyChartData());
+                stats.setTopIncomeCategories(getTopIncomeCategories(5));
+                stats.setTopExpenseCategories(getTopExpenseCategories(5));
+            
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Failed to get dashboard stats", e);
+                e.printStackTrace();
             }
-            
-            // Debug log
-            System.out.println("=== Dashboard Stats (Corrected) ===");
-            System.out.println("Monthly Income: " + currentMonthIncome);
-            System.out.println("Monthly Outcome: " + currentMonthOutcome);
-            System.out.println("Weekly Income: " + currentWeekIncome);
-            System.out.println("Weekly Outcome: " + currentWeekOutcome);
-            System.out.println("Total Income: " + totalIncome);
-            System.out.println("Total Outcome: " + totalOutcome);
-            System.out.println("Balance: " + stats.getBalance());
-            System.out.println("Savings Rate: " + stats.getSavingsRate());
-            
-            stats.setMonthlyData(getEnhancedMonthlyChartData());
-            stats.setTopIncomeCategories(getTopIncomeCategories(5));
-            stats.setTopExpenseCategories(getTopExpenseCategories(5));
-            
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to get dashboard stats", e);
-            e.printStackTrace();
-        }
         
-        return stats;
+            return stats;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
+    // Tổng thu/chi lấy từ balance index, không cần SUM toàn bảng
     public double getTotalIncome() {
-        String sql = "SELECT COALESCE(SUM(amount), 0) as total FROM income";
+        return balanceIndex.getTotal(LedgerType.INCOME);
+    }
+
+    public double getTotalOutcome() {
+        return balanceIndex.getTotal(LedgerType.OUTCOME);
+    }
+
+    // Balance Index Operations
+    public BalanceIndex getBalanceIndex() {
+        return balanceIndex;
+    }
+
+    public double getBalanceAsOf(LocalDate date) {
+        return balanceIndex.getBalanceAsOf(date);
+    }
+
+    public double getNetFlow(LocalDate from, LocalDate to) {
+        return balanceIndex.getNetFlow(from, to);
+    }
+
+    // Time Rollup Operations
+    public TimeRollupCube getRollupCube() {
+        return rollupCube;
+    }
+
+    /**
+     * Tổng theo grain (ngày/tuần/tháng/quý/năm) cho mọi bucket trong [from, to]
+     */
+    public Map<LocalDate, Double> getPeriodTotals(LedgerType type, TimeGrain grain, LocalDate from, LocalDate to) {
+        return rollupCube.getSeries(type, grain, from, to);
+    }
+
+    // Rolling Window Operations
+    public RollingWindowAggregator getRollingWindows() {
+        return rollingWindows;
+    }
+
+    /**
+     * Dựng lại balance index, rollup cube và rolling windows từ database (gọi khi khởi động)
+     */
+    public void rebuildLedgerIndexes() {
+        databaseLock.readLock().lock();
+        try {
+            balanceIndex.clear();
+            rollupCube.clear();
+            rollingWindows.clear();
         
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            for (LedgerType type : LedgerType.values()) {
+                String sql = "SELECT date, category, SUM(amount) as total, COUNT(*) as record_count FROM " +
+                             type.getTableName() + " GROUP BY date, category";
             
-            if (rs.next()) {
-                return rs.getDouble("total");
+                try (Statement stmt = this.connection.createStatement();
+                     ResultSet rs = stmt.executeQuery(sql)) {
+                
+                    while (rs.next()) {
+                        String category = rs.getString("category");
+                        LocalDate date = LocalDate.parse(rs.getString("date"));
+                        double total = rs.getDouble("total");
+                        balanceIndex.record(type, category, date, total);
+                        rollupCube.record(type, category, date, total, rs.getInt("record_count"));
+                        rollingWindows.record(type, category, date, total, rs.getInt("record_count"));
+                    }
+                } catch (SQLException e) {
+                    logger.log(Level.SEVERE, "Failed to rebuild ledger indexes for " + type.getTableName(), e);
+                }
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get total income", e);
-        }
         
-        return 0.0;
+            logger.info("Ledger indexes rebuilt");
+            eventBus.publish(new LedgerEvent.LedgerReset(eventBus.nextGeneration(null)));
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
-    public double getTotalOutcome() {
-        String sql = "SELECT COALESCE(SUM(amount), 0) as total FROM outcome";
-        
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            if (rs.next()) {
-                return rs.getDouble("total");
+    // Cập nhật các chỉ mục trong bộ nhớ sau mỗi lần ghi thành công (amount âm = gỡ bản ghi)
+    private void applyLedgerChange(LedgerType type, String category, LocalDate date, double amount) {
+        balanceIndex.record(type, category, date, amount);
+        rollupCube.record(type, category, date, amount, amount >= 0 ? 1 : -1);
+        rollingWindows.record(type, category, date, amount, amount >= 0 ? 1 : -1);
+    }
+
+    private LedgerRecord findLedgerRecord(LedgerType type, int id) {
+        return type == LedgerType.INCOME ? getIncomeRecordById(id) : getOutcomeRecordById(id);
+    }
+
+    // Đọc lại bản ghi vừa thêm (driver SQLite không hỗ trợ getGeneratedKeys) và phát RecordAdded
+    private void publishRecordAdded(LedgerType type) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet keys = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            if (keys.next()) {
+                LedgerRecord record = findLedgerRecord(type, keys.getInt(1));
+                if (record != null) {
+                    eventBus.publish(new LedgerEvent.RecordAdded(record, eventBus.nextGeneration(type)));
+                    return;
+                }
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get total outcome", e);
         }
-        
-        return 0.0;
+        // Không xác định được bản ghi: để người nghe tải lại
+        eventBus.publish(new LedgerEvent.LedgerReset(eventBus.nextGeneration(null)));
+    }
+
+    // Ledger Events
+    public LedgerEventBus getEventBus() {
+        return eventBus;
     }
 
     public List<MonthlyData> getEnhancedMonthlyChartData() {
-        List<MonthlyData> data = new ArrayList<>();
-        String sql = """
-            SELECT strftime('%Y-%m', date) as month, 
-                   SUM(CASE WHEN type = 'income' THEN amount ELSE 0 END) as total_income,
-                   SUM(CASE WHEN type = 'outcome' THEN amount ELSE 0 END) as total_outcome
-            FROM (
-                SELECT amount, date, 'income' as type FROM income
-                UNION ALL
-                SELECT amount, date, 'outcome' as type FROM outcome
-            )
-            GROUP BY month
-            ORDER BY month DESC
-            LIMIT 12
-        """;
-        
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                String monthName = rs.getString("month");
-                double income = rs.getDouble("total_income");
-                double outcome = rs.getDouble("total_outcome");
+        databaseLock.readLock().lock();
+        try {
+            List<MonthlyData> data = new ArrayList<>();
+            String sql = """
+                SELECT strftime('%Y-%m', date) as month, 
+                       SUM(CASE WHEN type = 'income' THEN amount ELSE 0 END) as total_income,
+                       SUM(CASE WHEN type = 'outcome' THEN amount ELSE 0 END) as total_outcome
+                FROM (
+                    SELECT amount, date, 'income' as type FROM income
+                    UNION ALL
+                    SELECT amount, date, 'outcome' as type FROM outcome
+                )
+                GROUP BY month
+                ORDER BY month DESC
+                LIMIT 12
+            """;
+        
+            try (Statement stmt = this.connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+            
+                while (rs.next()) {
+                    String monthName = rs.getString("month");
+                    double income = rs.getDouble("total_income");
+                    double outcome = rs.getDouble("total_outcome");
                 
-                data.add(new MonthlyData(monthName, income, outcome));
-            }
+                    data.add(new MonthlyData(monthName, income, outcome));
+                }
             
-        } catch (SQLException e) {
-            logger.log(Level.WARNING, "Failed to get enhanced monthly data, using fallback", e);
-            return getDefaultMonthlyData();
-        }
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to get enhanced monthly data, using fallback", e);
+                return getDefaultMonthlyData();
+            }
         
-        return data.isEmpty() ? getDefaultMonthlyData() : data;
+            return data.isEmpty() ? getDefaultMonthlyData() : data;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     public List<CategoryData> getTopIncomeCategories(int limit) {
-        List<CategoryData> categories = new ArrayList<>();
-        String sql = """
-            SELECT category, SUM(amount) as total_amount
-            FROM income
-            GROUP BY category
-            ORDER BY total_amount DESC
-            LIMIT ?
-        """;
+        databaseLock.readLock().lock();
+        try {
+            List<CategoryData> categories = new ArrayList<>();
+            String sql = """
+                SELECT category, SUM(amount) as total_amount
+                FROM income
+                GROUP BY category
+                ORDER BY total_amount DESC
+                LIMIT ?
+            """;
         
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
             
-            pstmt.setInt(1, limit);
-            ResultSet rs = pstmt.executeQuery();
+                pstmt.setInt(1, limit);
+                ResultSet rs = pstmt.executeQuery();
             
-            while (rs.next()) {
-                categories.add(new CategoryData(
-                    rs.getString("category"),
-                    rs.getDouble("total_amount")
-                ));
-            }
+                while (rs.next()) {
+                    categories.add(new CategoryData(
+                        rs.getString("category"),
+                        rs.getDouble("total_amount")
+                    ));
+                }
             
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get top income categories", e);
-        }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to get top income categories", e);
+            }
         
-        return categories;
+            return categories;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     public List<CategoryData> getTopExpenseCategories(int limit) {
-        List<CategoryData> categories = new ArrayList<>();
-        String sql = """
-            SELECT category, SUM(amount) as total_amount
-            FROM outcome
-            GROUP BY category
-            ORDER BY total_amount DESC
-            LIMIT ?
-        """;
+        databaseLock.readLock().lock();
+        try {
+            List<CategoryData> categories = new ArrayList<>();
+            String sql = """
+                SELECT category, SUM(amount) as total_amount
+                FROM outcome
+                GROUP BY category
+                ORDER BY total_amount DESC
+                LIMIT ?
+            """;
         
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
             
-            pstmt.setInt(1, limit);
-            ResultSet rs = pstmt.executeQuery();
+                pstmt.setInt(1, limit);
+                ResultSet rs = pstmt.executeQuery();
             
-            while (rs.next()) {
-                categories.add(new CategoryData(
-                    rs.getString("category"),
-                    rs.getDouble("total_amount")
-                ));
-            }
+                while (rs.next()) {
+                    categories.add(new CategoryData(
+                        rs.getString("category"),
+                        rs.getDouble("total_amount")
+                    ));
+                }
             
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get top expense categories", e);
-        }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to get top expense categories", e);
+            }
         
-        return categories;
+            return categories;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     // Enhanced update and delete operations
-    public boolean updateIncome(int id, double amount, String source, String category, LocalDate date, String description) {
-        if (amount <= 0 || source == null || source.trim().isEmpty()) {
-            logger.warning("Invalid parameters for income update");
-            return false;
-        }
-
-        String sql = """
-            UPDATE income 
-            SET amount = ?, source = ?, category = ?, date = ?, description = ?, updated_at = CURRENT_TIMESTAMP
-            WHERE id = ?
-        """;
+    /**
+     * Tổng chi tiêu theo từng ngày trong khoảng [startDate, endDate] - một truy vấn GROUP BY
+     * chạy hoàn toàn trên index (date, amount)
+     */
+    public Map<LocalDate, Double> getDailyOutcomeTotals(LocalDate startDate, LocalDate endDate) {
+        databaseLock.readLock().lock();
+        try {
+            Map<LocalDate, Double> totals = new TreeMap<>();
+            String sql = """
+                SELECT date, SUM(amount) as total
+                FROM outcome
+                WHERE date BETWEEN ? AND ?
+                GROUP BY date
+            """;
         
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+                pstmt.setString(1, startDate.toString());
+                pstmt.setString(2, endDate.toString());
             
-            pstmt.setDouble(1, amount);
-            pstmt.setString(2, source.trim());
-            pstmt.setString(3, category != null ? category.trim() : "Other");
-            pstmt.setString(4, date != null ? date.toString() : LocalDate.now().toString());
-            pstmt.setString(5, description != null ? description.trim() : "");
-            pstmt.setInt(6, id);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    totals.put(LocalDate.parse(rs.getString("date")), rs.getDouble("total"));
+                }
             
-            int rowsAffected = pstmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Income updated successfully: ID " + id);
-                return true;
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to get daily outcome totals", e);
             }
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to update income: ID " + id, e);
+        
+            return totals;
+        } finally {
+            databaseLock.readLock().unlock();
         }
+    }
+
+    public boolean updateIncome(int id, double amount, String source, String category, LocalDate date, String description) {
+        databaseLock.readLock().lock();
+        try {
+            if (amount <= 0 || source == null || source.trim().isEmpty()) {
+                logger.warning("Invalid parameters for income update");
+                return false;
+            }
+
+            LedgerRecord previous = findLedgerRecord(LedgerType.INCOME, id);
+            String sql = """
+                UPDATE income 
+                SET amount = ?, source = ?, category = ?, date = ?, description = ?, updated_at = CURRENT_TIMESTAMP,
+                    search_source = ?, search_category = ?, search_description = ?
+                WHERE id = ?
+            """;
+        
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+            
+                pstmt.setDouble(1, amount);
+                pstmt.setString(2, source.trim());
+                pstmt.setString(3, category != null ? category.trim() : "Other");
+                pstmt.setString(4, date != null ? date.toString() : LocalDate.now().toString());
+                pstmt.setString(5, description != null ? description.trim() : "");
+                setIncomeSearchColumns(pstmt, 6, source, category, description);
+                pstmt.setInt(9, id);
+            
+                int rowsAffected = pstmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    if (previous != null) {
+                        applyLedgerChange(LedgerType.INCOME, previous.getCategory(), previous.getDate(), -previous.getAmount());
+                    }
+                    applyLedgerChange(LedgerType.INCOME, category != null ? category.trim() : "Other",
+                        date != null ? date : LocalDate.now(), amount);
+                    LedgerRecord updated = findLedgerRecord(LedgerType.INCOME, id);
+                    if (updated != null) {
+                        eventBus.publish(new LedgerEvent.RecordUpdated(previous, updated, eventBus.nextGeneration(LedgerType.INCOME)));
+                    }
+                    logger.info("Income updated successfully: ID " + id);
+                    return true;
+                }
+            
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to update income: ID " + id, e);
+            }
         
-        return false;
+            return false;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     public boolean updateOutcome(int id, double amount, String title, String category, LocalDate date, 
                                 String description, String paymentMethod, boolean isRecurring) {
-        if (amount <= 0 || title == null || title.trim().isEmpty()) {
-            logger.warning("Invalid parameters for outcome update");
-            return false;
-        }
+        databaseLock.readLock().lock();
+        try {
+            if (amount <= 0 || title == null || title.trim().isEmpty()) {
+                logger.warning("Invalid parameters for outcome update");
+                return false;
+            }
 
-        String sql = """
-            UPDATE outcome 
-            SET amount = ?, title = ?, category = ?, date = ?, description = ?, 
-                payment_method = ?, is_recurring = ?, updated_at = CURRENT_TIMESTAMP
-            WHERE id = ?
-        """;
-        
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
-            
-            pstmt.setDouble(1, amount);
-            pstmt.setString(2, title.trim());
-            pstmt.setString(3, category != null ? category.trim() : "Other");
-            pstmt.setString(4, date != null ? date.toString() : LocalDate.now().toString());
-            pstmt.setString(5, description != null ? description.trim() : "");
-            pstmt.setString(6, paymentMethod != null ? paymentMethod.trim() : "Cash");
-            pstmt.setBoolean(7, isRecurring);
-            pstmt.setInt(8, id);
+            LedgerRecord previous = findLedgerRecord(LedgerType.OUTCOME, id);
+            String sql = """
+                UPDATE outcome 
+                SET amount = ?, title = ?, category = ?, date = ?, description = ?, 
+                    payment_method = ?, is_recurring = ?, updated_at = CURRENT_TIMESTAMP,
+                    search_title = ?, search_category = ?, search_description = ?, search_method = ?
+                WHERE id = ?
+            """;
+        
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+            
+                pstmt.setDouble(1, amount);
+                pstmt.setString(2, title.trim());
+                pstmt.setString(3, category != null ? category.trim() : "Other");
+                pstmt.setString(4, date != null ? date.toString() : LocalDate.now().toString());
+                pstmt.setString(5, description != null ? description.trim() : "");
+                pstmt.setString(6, paymentMethod != null ? paymentMethod.trim() : "Cash");
+                pstmt.setBoolean(7, isRecurring);
+                setOutcomeSearchColumns(pstmt, 8, title, category, description, paymentMethod);
+                pstmt.setInt(12, id);
+            
+                int rowsAffected = pstmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    if (previous != null) {
+                        applyLedgerChange(LedgerType.OUTCOME, previous.getCategory(), previous.getDate(), -previous.getAmount());
+                    }
+                    applyLedgerChange(LedgerType.OUTCOME, category != null ? category.trim() : "Other",
+                        date != null ? date : LocalDate.now(), amount);
+                    LedgerRecord updated = findLedgerRecord(LedgerType.OUTCOME, id);
+                    if (updated != null) {
+                        eventBus.publish(new LedgerEvent.RecordUpdated(previous, updated, eventBus.nextGeneration(LedgerType.OUTCOME)));
+                    }
+                    logger.info("Outcome updated successfully: ID " + id);
+                    return true;
+                }
             
-            int rowsAffected = pstmt.executeUpdate();
-            if (rowsAffected > 0) {
-                logger.info("Outcome updated successfully: ID " + id);
-                return true;
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to update outcome: ID " + id, e);
             }
-            
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to update outcome: ID " + id, e);
-        }
         
-        return false;
+            return false;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     public boolean deleteIncome(int id) {
-        String sql = "DELETE FROM income WHERE id = ?";
+        databaseLock.readLock().lock();
+        try {
+            LedgerRecord previous = findLedgerRecord(LedgerType.INCOME, id);
+            String sql = "DELETE FROM income WHERE id = ?";
         
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
             
-            pstmt.setInt(1, id);
-            int rowsAffected = pstmt.executeUpdate();
+                pstmt.setInt(1, id);
+                int rowsAffected = pstmt.executeUpdate();
             
-            if (rowsAffected > 0) {
-                logger.info("Income deleted successfully: ID " + id);
-                return true;
-            }
+                if (rowsAffected > 0) {
+                    if (previous != null) {
+                        applyLedgerChange(LedgerType.INCOME, previous.getCategory(), previous.getDate(), -previous.getAmount());
+                        eventBus.publish(new LedgerEvent.RecordDeleted(previous, eventBus.nextGeneration(LedgerType.INCOME)));
+                    }
+                    logger.info("Income deleted successfully: ID " + id);
+                    return true;
+                }
             
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to delete income: ID " + id, e);
-        }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to delete income: ID " + id, e);
+            }
         
-        return false;
+            return false;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     public boolean deleteOutcome(int id) {
-        String sql = "DELETE FROM outcome WHERE id = ?";
+        databaseLock.readLock().lock();
+        try {
+            LedgerRecord previous = findLedgerRecord(LedgerType.OUTCOME, id);
+            String sql = "DELETE FROM outcome WHERE id = ?";
         
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
+            try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
             
-            pstmt.setInt(1, id);
-            int rowsAffected = pstmt.executeUpdate();
+                pstmt.setInt(1, id);
+                int rowsAffected = pstmt.executeUpdate();
             
-            if (rowsAffected > 0) {
-                logger.info("Outcome deleted successfully: ID " + id);
-                return true;
-            }
+                if (rowsAffected > 0) {
+                    if (previous != null) {
+                        applyLedgerChange(LedgerType.OUTCOME, previous.getCategory(), previous.getDate(), -previous.getAmount());
+                        eventBus.publish(new LedgerEvent.RecordDeleted(previous, eventBus.nextGeneration(LedgerType.OUTCOME)));
+                    }
+                    logger.info("Outcome deleted successfully: ID " + id);
+                    return true;
+                }
             
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to delete outcome: ID " + id, e);
-        }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to delete outcome: ID " + id, e);
+            }
         
-        return false;
+            return false;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     // Legacy compatibility methods
     public double getYearlyIncome(LocalDate date) {
         // Thử lấy năm hiện tại trước
-        String currentYearSql = """
-            SELECT COALESCE(SUM(amount), 0) as total 
-            FROM income 
-            WHERE strftime('%Y', date) = strftime('%Y', ?)
-        """;
-        
-        try (PreparedStatement pstmt = this.connection.prepareStatement(currentYearSql)) {
-            pstmt.setString(1, date.toString());
-            
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                double currentResult = rs.getDouble("total");
-                if (currentResult > 0) {
-                    System.out.println("Current Year Income: " + currentResult);
-                    return currentResult;
-                }
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get current year income", e);
+        double currentResult = rollupCube.getTotal(LedgerType.INCOME, TimeGrain.YEAR, date);
+        if (currentResult > 0) {
+            return currentResult;
         }
         
         // Nếu năm hiện tại không có dữ liệu, lấy năm gần nhất
-        String latestYearSql = """
-            SELECT COALESCE(SUM(amount), 0) as total, strftime('%Y', date) as year
-            FROM income
-            GROUP BY strftime('%Y', date)
-            ORDER BY year DESC
-            LIMIT 1
-        """;
-        
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(latestYearSql)) {
-            
-            if (rs.next()) {
-                double result = rs.getDouble("total");
-                String year = rs.getString("year");
-                System.out.println("Latest Year (" + year + ") Income: " + result);
-                return result;
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get latest year income", e);
-        }
-        
-        return 0.0;
+        LocalDate latestYear = rollupCube.getLatestBucket(LedgerType.INCOME, TimeGrain.YEAR);
+        return latestYear != null ? rollupCube.getTotal(LedgerType.INCOME, TimeGrain.YEAR, latestYear) : 0.0;
     }
 
     public int getIncomeRecordsCount() {
-        String sql = "SELECT COUNT(*) as count FROM income";
+        databaseLock.readLock().lock();
+        try {
+            String sql = "SELECT COUNT(*) as count FROM income";
         
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            try (Statement stmt = this.connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
             
-            if (rs.next()) {
-                return rs.getInt("count");
+                if (rs.next()) {
+                    return rs.getInt("count");
+                }
+            } catch (SQLException e) {
+                logger.log(Level.SEVERE, "Failed to get income records count", e);
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get income records count", e);
-        }
         
-        return 0;
+            return 0;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     public double getAverageMonthlyIncome() {
-        String sql = """
-            SELECT AVG(monthly_total) as avg_monthly
-            FROM (
-                SELECT SUM(amount) as monthly_total
-                FROM income
-                GROUP BY strftime('%Y-%m', date)
-            )
-        """;
-        
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            if (rs.next()) {
-                return rs.getDouble("avg_monthly");
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get average monthly income", e);
-        }
-        
-        return 0.0;
+        return rollupCube.getAverageBucketTotal(LedgerType.INCOME, TimeGrain.MONTH);
     }
 
     // Legacy methods for backward compatibility
@@ -1021,71 +1387,185 @@ public class DatabaseManager implements AutoCloseable {
 
     // Enhanced category operations
     public List<String> getIncomeCategories() {
-        List<String> categories = new ArrayList<>();
-        String sql = "SELECT name FROM categories WHERE type = 'income' ORDER BY name";
+        databaseLock.readLock().lock();
+        try {
+            List<String> categories = new ArrayList<>();
+            String sql = "SELECT name FROM categories WHERE type = 'income' ORDER BY name";
         
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            try (Statement stmt = this.connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
             
-            while (rs.next()) {
-                categories.add(rs.getString("name"));
-            }
+                while (rs.next()) {
+                    categories.add(rs.getString("name"));
+                }
             
-        } catch (SQLException e) {
-            logger.log(Level.WARNING, "Failed to get income categories, using defaults", e);
-            categories.addAll(List.of("Salary", "Freelance", "Investment", "Business", "Bonus", "Other"));
-        }
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to get income categories, using defaults", e);
+                categories.addAll(List.of("Salary", "Freelance", "Investment", "Business", "Bonus", "Other"));
+            }
         
-        return categories;
+            return categories;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     public List<String> getOutcomeCategories() {
-        List<String> categories = new ArrayList<>();
-        String sql = "SELECT name FROM categories WHERE type = 'outcome' ORDER BY name";
+        databaseLock.readLock().lock();
+        try {
+            List<String> categories = new ArrayList<>();
+            String sql = "SELECT name FROM categories WHERE type = 'outcome' ORDER BY name";
         
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            try (Statement stmt = this.connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
             
-            while (rs.next()) {
-                categories.add(rs.getString("name"));
-            }
+                while (rs.next()) {
+                    categories.add(rs.getString("name"));
+                }
             
-        } catch (SQLException e) {
-            logger.log(Level.WARNING, "Failed to get outcome categories, using defaults", e);
-            categories.addAll(List.of("Food", "Transportation", "Housing", "Utilities", "Entertainment", "Other"));
-        }
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to get outcome categories, using defaults", e);
+                categories.addAll(List.of("Food", "Transportation", "Housing", "Utilities", "Entertainment", "Other"));
+            }
         
-        return categories;
+            return categories;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     // Database maintenance operations
     public boolean backupDatabase(String backupPath) {
-        String sql = "BACKUP TO ?";
-        try (PreparedStatement pstmt = this.connection.prepareStatement(sql)) {
-            
-            pstmt.setString(1, backupPath);
-            pstmt.executeUpdate();
-            logger.info("Database backed up to: " + backupPath);
-            return true;
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to backup database", e);
-        }
+        databaseLock.readLock().lock();
+        try {
+            try {
+                backupEngine.snapshot(Paths.get(backupPath), null);
+                logger.info("Database backed up to: " + backupPath);
+                return true;
+            } catch (SQLException | IOException e) {
+                logger.log(Level.SEVERE, "Failed to backup database", e);
+            }
         
-        return false;
+            return false;
+        } finally {
+            databaseLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Thay database đang dùng bằng file đã khôi phục mà không cần khởi động lại ứng dụng.
+     *
+     * File được kiểm tra trước (PRAGMA quick_check và các bảng bắt buộc) khi database hiện tại còn nguyên.
+     * Sau đó checkpoint WAL, đóng connection, đổi tên file vào chỗ cashflow.db bằng một thao tác atomic,
+     * bỏ -wal/-shm cũ rồi mở lại connection. Schema được nâng cấp như lúc khởi động và các chỉ mục
+     * trong bộ nhớ được dựng lại (phát LedgerReset). File nguồn phải nằm cùng ổ đĩa với cashflow.db.
+     * File được tách khỏi chuỗi của IncrementalBackup nên auto backup tiếp theo chụp base mới.
+     *
+     * Cả quá trình giữ monitor của IncrementalBackup (auto backup không mở connection riêng tới file đang bị thay)
+     * và write lock của database (các thao tác đọc / ghi khác chờ tới khi connection mới đã sẵn sàng).
+     */
+    public void replaceDatabase(Path restoredFile) throws SQLException, IOException {
+        verifyDatabaseFile(restoredFile);
+        IncrementalBackup.detachFromChain(restoredFile);
+
+        synchronized (incrementalBackup) {
+            databaseLock.writeLock().lock();
+            try {
+                swapDatabaseFile(restoredFile);
+                initializeDatabase();
+                rebuildLedgerIndexes();
+            } finally {
+                databaseLock.writeLock().unlock();
+            }
+        }
+        logger.info("Database replaced from " + restoredFile);
+    }
+
+    private void swapDatabaseFile(Path restoredFile) throws SQLException, IOException {
+        Connection current = connection;
+        if (current != null && !current.isClosed()) {
+            try (Statement stmt = current.createStatement()) {
+                stmt.execute("PRAGMA wal_checkpoint(TRUNCATE);");
+            }
+            current.close();
+        }
+
+        Path dbFile = Paths.get(DB_FILE).toAbsolutePath();
+        try {
+            Files.move(restoredFile.toAbsolutePath(), dbFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            // WAL / shared memory của database cũ không thuộc về file mới
+            Files.deleteIfExists(dbFile.resolveSibling(DB_FILE + "-wal"));
+            Files.deleteIfExists(dbFile.resolveSibling(DB_FILE + "-shm"));
+        } catch (IOException e) {
+            // Đổi file thất bại thì mở lại database cũ, lỗi mở lại không che lỗi gốc
+            try {
+                connection = openConnection();
+            } catch (SQLException reopenError) {
+                e.addSuppressed(reopenError);
+            }
+            throw e;
+        }
+        connection = openConnection();
+    }
+
+    /**
+     * Ném SQLException nếu file không phải database SQLite nguyên vẹn có đủ các bảng bắt buộc
+     */
+    public static void verifyDatabaseFile(Path file) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.toAbsolutePath());
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("PRAGMA quick_check")) {
+                String result = rs.next() ? rs.getString(1) : null;
+                if (!"ok".equals(result)) {
+                    throw new SQLException("Database check failed for " + file + ": " + result);
+                }
+            }
+            for (String table : REQUIRED_TABLES) {
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + table + "'")) {
+                    if (!rs.next()) {
+                        throw new SQLException("Database " + file + " has no " + table + " table");
+                    }
+                }
+            }
+        }
+    }
+
+    public BackupEngine getBackupEngine() {
+        return backupEngine;
+    }
+
+    public IncrementalBackup getIncrementalBackup() {
+        return incrementalBackup;
+    }
+
+    public boolean isRestoreInProgress() {
+        return restoreInProgress;
+    }
+
+    public void setRestoreInProgress(boolean restoreInProgress) {
+        this.restoreInProgress = restoreInProgress;
     }
 
     public void optimizeDatabase() {
-        try (Statement stmt = this.connection.createStatement()) {
-            stmt.execute("VACUUM;");
-            stmt.execute("ANALYZE;");
-            logger.info("Database optimized.");
-        } catch (SQLException e) {
-            logger.log(Level.WARNING, "Failed to optimize database", e);
+        databaseLock.readLock().lock();
+        try {
+            try (Statement stmt = this.connection.createStatement()) {
+                stmt.execute("VACUUM;");
+                stmt.execute("ANALYZE;");
+                logger.info("Database optimized.");
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to optimize database", e);
+            }
+        } finally {
+            databaseLock.readLock().unlock();
         }
     }
 
     // Resource cleanup
     public void close() {
+        databaseLock.writeLock().lock();
         try {
             if (connection != null && !connection.isClosed()) {
                 connection.close();
@@ -1093,6 +1573,8 @@ public class DatabaseManager implements AutoCloseable {
             }
         } catch (SQLException e) {
             logger.log(Level.WARNING, "Error closing database connection", e);
+        } finally {
+            databaseLock.writeLock().unlock();
         }
     }
 
@@ -1105,141 +1587,96 @@ public class DatabaseManager implements AutoCloseable {
 
     // Thêm method để debug dữ liệu
     public void debugDatabaseContent() {
-        System.out.println("=== DATABASE DEBUG ===");
-        
-        // Check income records
-        String incomeQuery = "SELECT COUNT(*) as count, SUM(amount) as total FROM income";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(incomeQuery)) {
-            if (rs.next()) {
-                System.out.println("Income Records: " + rs.getInt("count"));
-                System.out.println("Total Income: " + rs.getDouble("total"));
+        databaseLock.readLock().lock();
+        try {
+            System.out.println("=== DATABASE DEBUG ===");
+        
+            // Check income records
+            String incomeQuery = "SELECT COUNT(*) as count, SUM(amount) as total FROM income";
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(incomeQuery)) {
+                if (rs.next()) {
+                    System.out.println("Income Records: " + rs.getInt("count"));
+                    System.out.println("Total Income: " + rs.getDouble("total"));
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
         
-        // Check outcome records
-        String outcomeQuery = "SELECT COUNT(*) as count, SUM(amount) as total FROM outcome";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(outcomeQuery)) {
-            if (rs.next()) {
-                System.out.println("Outcome Records: " + rs.getInt("count"));
-                System.out.println("Total Outcome: " + rs.getDouble("total"));
+            // Check outcome records
+            String outcomeQuery = "SELECT COUNT(*) as count, SUM(amount) as total FROM outcome";
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(outcomeQuery)) {
+                if (rs.next()) {
+                    System.out.println("Outcome Records: " + rs.getInt("count"));
+                    System.out.println("Total Outcome: " + rs.getDouble("total"));
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        } finally {
+            databaseLock.readLock().unlock();
         }
     }
 
     // Thêm các method này vào DatabaseManager.java
     public double getYearlyOutcome(LocalDate date) {
         // Thử lấy năm hiện tại trước
-        String currentYearSql = """
-            SELECT COALESCE(SUM(amount), 0) as total 
-            FROM outcome 
-            WHERE strftime('%Y', date) = strftime('%Y', ?)
-        """;
-        
-        try (PreparedStatement pstmt = this.connection.prepareStatement(currentYearSql)) {
-            pstmt.setString(1, date.toString());
-            
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                double currentResult = rs.getDouble("total");
-                if (currentResult > 0) {
-                    System.out.println("Current Year Outcome: " + currentResult);
-                    return currentResult;
-                }
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get current year outcome", e);
+        double currentResult = rollupCube.getTotal(LedgerType.OUTCOME, TimeGrain.YEAR, date);
+        if (currentResult > 0) {
+            return currentResult;
         }
         
         // Nếu năm hiện tại không có dữ liệu, lấy năm gần nhất
-        String latestYearSql = """
-            SELECT COALESCE(SUM(amount), 0) as total, strftime('%Y', date) as year
-            FROM outcome
-            GROUP BY strftime('%Y', date)
-            ORDER BY year DESC
-            LIMIT 1
-        """;
-        
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(latestYearSql)) {
-            
-            if (rs.next()) {
-                double result = rs.getDouble("total");
-                String year = rs.getString("year");
-                System.out.println("Latest Year (" + year + ") Outcome: " + result);
-                return result;
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get latest year outcome", e);
-        }
-        
-        return 0.0;
+        LocalDate latestYear = rollupCube.getLatestBucket(LedgerType.OUTCOME, TimeGrain.YEAR);
+        return latestYear != null ? rollupCube.getTotal(LedgerType.OUTCOME, TimeGrain.YEAR, latestYear) : 0.0;
     }
 
     public double getAverageMonthlyOutcome() {
-        String sql = """
-            SELECT AVG(monthly_total) as avg_monthly
-            FROM (
-                SELECT SUM(amount) as monthly_total
-                FROM outcome
-                GROUP BY strftime('%Y-%m', date)
-            )
-        """;
-        
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            if (rs.next()) {
-                return rs.getDouble("avg_monthly");
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get average monthly outcome", e);
-        }
-        
-        return 0.0;
+        return rollupCube.getAverageBucketTotal(LedgerType.OUTCOME, TimeGrain.MONTH);
     }
 
     // Thêm method để debug tất cả dữ liệu
     public void debugAllData() {
-        System.out.println("\n=== COMPLETE DATABASE DEBUG ===");
-        
-        // Check sample data from income table
-        String incomeCheck = "SELECT id, amount, source, category, date FROM income LIMIT 5";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(incomeCheck)) {
-            
-            System.out.println("Sample Income Records:");
-            while (rs.next()) {
-                System.out.printf("ID: %d, Amount: %.2f, Source: %s, Date: %s%n",
-                    rs.getInt("id"), rs.getDouble("amount"), 
-                    rs.getString("source"), rs.getString("date"));
+        databaseLock.readLock().lock();
+        try {
+            System.out.println("\n=== COMPLETE DATABASE DEBUG ===");
+        
+            // Check sample data from income table
+            String incomeCheck = "SELECT id, amount, source, category, date FROM income LIMIT 5";
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(incomeCheck)) {
+            
+                System.out.println("Sample Income Records:");
+                while (rs.next()) {
+                    System.out.printf("ID: %d, Amount: %.2f, Source: %s, Date: %s%n",
+                        rs.getInt("id"), rs.getDouble("amount"), 
+                        rs.getString("source"), rs.getString("date"));
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
         
-        // Check sample data from outcome table
-        String outcomeCheck = "SELECT id, amount, title, category, date FROM outcome LIMIT 5";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(outcomeCheck)) {
+            // Check sample data from outcome table
+            String outcomeCheck = "SELECT id, amount, title, category, date FROM outcome LIMIT 5";
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(outcomeCheck)) {
             
-            System.out.println("\nSample Outcome Records:");
-            while (rs.next()) {
-                System.out.printf("ID: %d, Amount: %.2f, Title: %s, Date: %s%n",
-                    rs.getInt("id"), rs.getDouble("amount"), 
-                    rs.getString("title"), rs.getString("date"));
+                System.out.println("\nSample Outcome Records:");
+                while (rs.next()) {
+                    System.out.printf("ID: %d, Amount: %.2f, Title: %s, Date: %s%n",
+                        rs.getInt("id"), rs.getDouble("amount"), 
+                        rs.getString("title"), rs.getString("date"));
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
         
-        // Check totals
-        debugDatabaseContent();
+            // Check totals
+            debugDatabaseContent();
+        } finally {
+            databaseLock.readLock().unlock();
+        }
     }
 
     // Thêm method này vào DatabaseManager.java
@@ -1261,126 +1698,53 @@ public class DatabaseManager implements AutoCloseable {
 
     // Thêm method để lấy dữ liệu tháng có data gần nhất (để hiển thị cho This Month)
     public double getLatestMonthIncome() {
-        String sql = """
-            SELECT COALESCE(SUM(amount), 0) as total, strftime('%Y-%m', date) as month
-            FROM income
-            GROUP BY strftime('%Y-%m', date)
-            ORDER BY date DESC
-            LIMIT 1
-        """;
-        
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            if (rs.next()) {
-                double result = rs.getDouble("total");
-                String month = rs.getString("month");
-                System.out.println("Latest Month (" + month + ") Income: " + result);
-                return result;
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get latest month income", e);
-        }
-        
-        return 0.0;
+        LocalDate latestMonth = rollupCube.getLatestBucket(LedgerType.INCOME, TimeGrain.MONTH);
+        return latestMonth != null ? rollupCube.getTotal(LedgerType.INCOME, TimeGrain.MONTH, latestMonth) : 0.0;
     }
 
     public double getLatestMonthOutcome() {
-        String sql = """
-            SELECT COALESCE(SUM(amount), 0) as total, strftime('%Y-%m', date) as month
-            FROM outcome
-            GROUP BY strftime('%Y-%m', date)
-            ORDER BY date DESC
-            LIMIT 1
-        """;
-        
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            if (rs.next()) {
-                double result = rs.getDouble("total");
-                String month = rs.getString("month");
-                System.out.println("Latest Month (" + month + ") Outcome: " + result);
-                return result;
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get latest month outcome", e);
-        }
-        
-        return 0.0;
+        LocalDate latestMonth = rollupCube.getLatestBucket(LedgerType.OUTCOME, TimeGrain.MONTH);
+        return latestMonth != null ? rollupCube.getTotal(LedgerType.OUTCOME, TimeGrain.MONTH, latestMonth) : 0.0;
     }
 
     // Thêm method để lấy dữ liệu tuần gần nhất
+    // 7 ngày tính đến ngày gần nhất có dữ liệu
     public double getLatestWeekIncome() {
-        String sql = """
-            SELECT COALESCE(SUM(amount), 0) as total
-            FROM income
-            WHERE date >= (
-                SELECT date(MAX(date), '-6 days')
-                FROM income
-            )
-        """;
-        
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            if (rs.next()) {
-                double result = rs.getDouble("total");
-                System.out.println("Latest Week Income: " + result);
-                return result;
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get latest week income", e);
-        }
-        
-        return 0.0;
+        LocalDate latestDay = rollupCube.getLatestBucket(LedgerType.INCOME, TimeGrain.DAY);
+        return latestDay != null ? rollupCube.getRangeTotal(LedgerType.INCOME, latestDay.minusDays(6), latestDay) : 0.0;
     }
 
+    // 7 ngày tính đến ngày gần nhất có dữ liệu
     public double getLatestWeekOutcome() {
-        String sql = """
-            SELECT COALESCE(SUM(amount), 0) as total
-            FROM outcome
-            WHERE date >= (
-                SELECT date(MAX(date), '-6 days')
-                FROM outcome
-            )
-        """;
-        
-        try (Statement stmt = this.connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            if (rs.next()) {
-                double result = rs.getDouble("total");
-                System.out.println("Latest Week Outcome: " + result);
-                return result;
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Failed to get latest week outcome", e);
-        }
-        
-        return 0.0;
+        LocalDate latestDay = rollupCube.getLatestBucket(LedgerType.OUTCOME, TimeGrain.DAY);
+        return latestDay != null ? rollupCube.getRangeTotal(LedgerType.OUTCOME, latestDay.minusDays(6), latestDay) : 0.0;
     }
 
     // Thêm method để kiểm tra kết nối database
     public void debugConnection() {
+        databaseLock.readLock().lock();
         try {
-            if (connection != null && !connection.isClosed()) {
-                System.out.println("✓ Database connection is active");
+            try {
+                if (connection != null && !connection.isClosed()) {
+                    System.out.println("✓ Database connection is active");
                 
-                // Test simple query
-                String testQuery = "SELECT COUNT(*) as total FROM income";
-                try (Statement stmt = connection.createStatement();
-                     ResultSet rs = stmt.executeQuery(testQuery)) {
-                    if (rs.next()) {
-                        System.out.println("✓ Database query test passed - Income count: " + rs.getInt("total"));
+                    // Test simple query
+                    String testQuery = "SELECT COUNT(*) as total FROM income";
+                    try (Statement stmt = connection.createStatement();
+                         ResultSet rs = stmt.executeQuery(testQuery)) {
+                        if (rs.next()) {
+                            System.out.println("✓ Database query test passed - Income count: " + rs.getInt("total"));
+                        }
                     }
+                } else {
+                    System.err.println("✗ Database connection is null or closed");
                 }
-            } else {
-                System.err.println("✗ Database connection is null or closed");
+            } catch (SQLException e) {
+                System.err.println("✗ Database connection error: " + e.getMessage());
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            System.err.println("✗ Database connection error: " + e.getMessage());
-            e.printStackTrace();
+        } finally {
+            databaseLock.readLock().unlock();
         }
     }
 }
\ No newline at end of file
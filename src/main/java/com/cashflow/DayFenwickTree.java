@@ -0,0 +1,110 @@
+package com.cashflow;
+
+/**
+ * Fenwick tree (binary indexed tree) theo epoch day.
+ * Lưu số tiền dạng cents (long) để tổng cộng dồn không bị sai số dấu phẩy động.
+ * Khoảng ngày tự mở rộng khi gặp ngày nằm ngoài phạm vi hiện tại.
+ */
+public class DayFenwickTree {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long baseDay;
+    private long[] dayValues;
+    private long[] tree;
+    private long total;
+
+    public DayFenwickTree() {
+        this.dayValues = new long[0];
+        this.tree = new long[1];
+    }
+
+    public void add(long epochDay, long deltaCents) {
+        ensureCovers(epochDay);
+        int index = (int) (epochDay - baseDay);
+        dayValues[index] += deltaCents;
+        total += deltaCents;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += deltaCents;
+        }
+    }
+
+    /**
+     * Tổng của tất cả các ngày <= epochDay
+     */
+    public long prefixSum(long epochDay) {
+        if (dayValues.length == 0 || epochDay < baseDay) {
+            return 0;
+        }
+        if (epochDay >= baseDay + dayValues.length) {
+            return total;
+        }
+        long sum = 0;
+        for (int i = (int) (epochDay - baseDay) + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Tổng các ngày trong đoạn [fromDay, toDay]
+     */
+    public long rangeSum(long fromDay, long toDay) {
+        if (toDay < fromDay) {
+            return 0;
+        }
+        return prefixSum(toDay) - prefixSum(fromDay - 1);
+    }
+
+    // Giá trị của riêng một ngày, O(1)
+    public long valueAt(long epochDay) {
+        if (epochDay < baseDay || epochDay >= baseDay + dayValues.length) {
+            return 0;
+        }
+        return dayValues[(int) (epochDay - baseDay)];
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    private void ensureCovers(long epochDay) {
+        if (dayValues.length == 0) {
+            baseDay = epochDay - INITIAL_CAPACITY / 2;
+            dayValues = new long[INITIAL_CAPACITY];
+            tree = new long[INITIAL_CAPACITY + 1];
+            return;
+        }
+        if (epochDay >= baseDay && epochDay < baseDay + dayValues.length) {
+            return;
+        }
+
+        long newBase = Math.min(baseDay, epochDay);
+        long newEnd = Math.max(baseDay + dayValues.length, epochDay + 1);
+        int newCapacity = dayValues.length;
+        while (newCapacity < newEnd - newBase) {
+            newCapacity *= 2;
+        }
+        // Để dư về phía cần mở rộng cho lần ghi tiếp theo
+        if (epochDay < baseDay) {
+            newBase = newEnd - newCapacity;
+        }
+
+        long[] newValues = new long[newCapacity];
+        System.arraycopy(dayValues, 0, newValues, (int) (baseDay - newBase), dayValues.length);
+        baseDay = newBase;
+        dayValues = newValues;
+        rebuildTree();
+    }
+
+    // Dựng lại cây trong O(n) từ mảng giá trị theo ngày
+    private void rebuildTree() {
+        tree = new long[dayValues.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] += dayValues[i - 1];
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
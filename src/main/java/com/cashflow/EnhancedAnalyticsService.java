@@ -711,14 +711,17 @@ public class EnhancedAnalyticsService extends AnalyticsService {
      * Async methods for better performance
      */
     public CompletableFuture<Map<String, SpendingForecast>> forecastSpendingPatternsAsync(int monthsAhead) {
-        return CompletableFuture.supplyAsync(() -> forecastSpendingPatterns(monthsAhead));
+        return CompletableFuture.supplyAsync(() -> forecastSpendingPatterns(monthsAhead),
+            TaskScheduler.getInstance().executor(TaskScheduler.Pool.CPU));
     }
     
     public CompletableFuture<List<SpendingAnomaly>> detectSpendingAnomaliesAsync() {
-        return CompletableFuture.supplyAsync(this::detectSpendingAnomalies);
+        return CompletableFuture.supplyAsync(this::detectSpendingAnomalies,
+            TaskScheduler.getInstance().executor(TaskScheduler.Pool.CPU));
     }
     
     public CompletableFuture<FinancialRiskAssessment> assessFinancialRiskAsync(int simulationRuns) {
-        return CompletableFuture.supplyAsync(() -> assessFinancialRisk(simulationRuns));
+        return CompletableFuture.supplyAsync(() -> assessFinancialRisk(simulationRuns),
+            TaskScheduler.getInstance().executor(TaskScheduler.Pool.CPU));
     }
 } 
\ No newline at end of file
@@ -1,149 +1,363 @@
 package com.cashflow;
 
 import java.time.LocalDate;
-import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
+/**
+ * Bộ lọc dùng chung cho các trang danh sách (thu nhập, chi tiêu, lịch sử giao dịch).
+ *
+ * Một Filter là phép AND của các điều kiện (khoảng ngày, khoảng số tiền, danh mục...). Cùng một Filter
+ * có thể chạy trong bộ nhớ bằng một lượt duyệt duy nhất (apply) hoặc dịch sang mệnh đề WHERE (toSql)
+ * để database lọc bằng index.
+ */
 public class FilterManager {
-    
-    public enum FilterType {
-        ALL_TIME, TODAY, THIS_WEEK, THIS_MONTH, THIS_YEAR,
-        LAST_WEEK, LAST_MONTH, LAST_YEAR,
-        AMOUNT_HIGH_TO_LOW, AMOUNT_LOW_TO_HIGH,
-        DATE_NEWEST, DATE_OLDEST
+    public static final String ALL_TIME = "All Time";
+
+    private FilterManager() {
     }
-    
-    public enum DateRange {
-        TODAY, THIS_WEEK, THIS_MONTH, THIS_YEAR,
-        LAST_WEEK, LAST_MONTH, LAST_YEAR, CUSTOM
+
+    public static final class Filter {
+        public static final Filter ALL = new Filter(Collections.emptyList());
+
+        private final List<Clause> clauses;
+        private final String key;
+
+        private Filter(List<Clause> clauses) {
+            this.clauses = clauses;
+            StringBuilder text = new StringBuilder();
+            for (Clause clause : clauses) {
+                text.append(clause.key()).append(';');
+            }
+            this.key = text.length() == 0 ? null : text.toString();
+        }
+
+        private static Filter of(Clause clause) {
+            return new Filter(List.of(clause));
+        }
+
+        /**
+         * Filter khớp khi cả hai filter cùng khớp
+         */
+        public Filter and(Filter other) {
+            if (other.clauses.isEmpty()) {
+                return this;
+            }
+            if (clauses.isEmpty()) {
+                return other;
+            }
+            List<Clause> combined = new ArrayList<>(clauses.size() + other.clauses.size());
+            combined.addAll(clauses);
+            combined.addAll(other.clauses);
+            return new Filter(Collections.unmodifiableList(combined));
+        }
+
+        public boolean isEmpty() {
+            return clauses.isEmpty();
+        }
+
+        /**
+         * Dạng chuẩn của filter, hai filter cùng key khớp cùng tập record; null nếu filter rỗng
+         */
+        public String getKey() {
+            return key;
+        }
+
+        public boolean test(LedgerRecord record) {
+            for (Clause clause : clauses) {
+                if (!clause.test(record)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Filter có thể khớp record nào của sổ cái type không (vd. filter "chỉ thu nhập" thì không cần đọc bảng outcome)
+         */
+        public boolean includes(LedgerType type) {
+            for (Clause clause : clauses) {
+                if (clause instanceof LedgerClause && ((LedgerClause) clause).type != type) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public <T extends LedgerRecord> List<T> apply(List<T> records) {
+            return apply(records, record -> true);
+        }
+
+        /**
+         * Lọc trong một lượt duyệt, kết hợp thêm điều kiện riêng của trang (vd. tìm kiếm text)
+         */
+        public <T extends LedgerRecord> List<T> apply(List<T> records, Predicate<? super T> also) {
+            List<T> result = new ArrayList<>();
+            for (T record : records) {
+                if (test(record) && also.test(record)) {
+                    result.add(record);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Mệnh đề WHERE (không gồm từ khoá WHERE) cho bảng của type, tham số được thêm vào params.
+         * Trả về "1" nếu filter rỗng.
+         */
+        public String toSql(LedgerType type, List<Object> params) {
+            if (clauses.isEmpty()) {
+                return "1";
+            }
+            StringBuilder sql = new StringBuilder();
+            for (Clause clause : clauses) {
+                if (sql.length() > 0) {
+                    sql.append(" AND ");
+                }
+                clause.appendSql(type, sql, params);
+            }
+            return sql.toString();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Filter && Objects.equals(key, ((Filter) other).key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key);
+        }
+
+        @Override
+        public String toString() {
+            return key == null ? "Filter.ALL" : key;
+        }
     }
-    
-    // Filter Income Records
-    public static List<IncomeRecord> filterIncomeRecords(List<IncomeRecord> records, FilterType filterType) {
-        LocalDate now = LocalDate.now();
-        
-        return records.stream()
-            .filter(record -> matchesDateFilter(record.getDate(), filterType, now))
-            .sorted((r1, r2) -> getSortComparator(filterType, r1.getAmount(), r2.getAmount(), 
-                                                r1.getDate(), r2.getDate()))
-            .collect(Collectors.toList());
+
+    // Khoảng ngày [from, to), một trong hai đầu có thể null
+    public static Filter dateRange(LocalDate from, LocalDate toExclusive) {
+        if (from == null && toExclusive == null) {
+            return Filter.ALL;
+        }
+        return Filter.of(new DateClause(from, toExclusive));
     }
-    
-    // Filter Outcome Records
-    public static List<OutcomeRecord> filterOutcomeRecords(List<OutcomeRecord> records, FilterType filterType) {
-        LocalDate now = LocalDate.now();
-        
-        return records.stream()
-            .filter(record -> matchesDateFilter(record.getDate(), filterType, now))
-            .sorted((r1, r2) -> getSortComparator(filterType, r1.getAmount(), r2.getAmount(), 
-                                                r1.getDate(), r2.getDate()))
-            .collect(Collectors.toList());
+
+    /**
+     * Khoảng ngày theo nhãn của combo box thời gian trên các trang ("Today", "This Week",
+     * "Last 30 Days"...). Nhãn không biết hoặc "All Time" thì không lọc.
+     */
+    public static Filter period(String label, LocalDate now) {
+        if (label == null) {
+            return Filter.ALL;
+        }
+        int windowDays = RollingWindowAggregator.windowDaysForFilter(label);
+        if (windowDays > 0) {
+            return dateRange(RollingWindowAggregator.windowStart(now, windowDays), null);
+        }
+
+        LocalDate weekStart = now.minusDays(now.getDayOfWeek().getValue() - 1);
+        LocalDate monthStart = now.withDayOfMonth(1);
+        LocalDate yearStart = now.withDayOfYear(1);
+        switch (label) {
+            case "Today":
+                return dateRange(now, now.plusDays(1));
+            case "Yesterday":
+                return dateRange(now.minusDays(1), now);
+            case "This Week":
+                return dateRange(weekStart, weekStart.plusWeeks(1));
+            case "Last Week":
+                return dateRange(weekStart.minusWeeks(1), weekStart);
+            case "This Month":
+                return dateRange(monthStart, monthStart.plusMonths(1));
+            case "Last Month":
+                return dateRange(monthStart.minusMonths(1), monthStart);
+            case "This Year":
+                return dateRange(yearStart, yearStart.plusYears(1));
+            case "Last Year":
+                return dateRange(yearStart.minusYears(1), yearStart);
+            default:
+                return Filter.ALL;
+        }
     }
-    
-    // Filter by date range
-    public static List<IncomeRecord> filterIncomeByDateRange(List<IncomeRecord> records, 
-                                                           LocalDate startDate, LocalDate endDate) {
-        return records.stream()
-            .filter(record -> !record.getDate().isBefore(startDate) && !record.getDate().isAfter(endDate))
-            .collect(Collectors.toList());
+
+    // Khoảng số tiền đóng [min, max]; min <= 0 và max = Double.MAX_VALUE nghĩa là không giới hạn
+    public static Filter amountBetween(double min, double max) {
+        if (min <= 0 && max == Double.MAX_VALUE) {
+            return Filter.ALL;
+        }
+        return Filter.of(new AmountClause(min, max));
     }
-    
-    public static List<OutcomeRecord> filterOutcomeByDateRange(List<OutcomeRecord> records, 
-                                                             LocalDate startDate, LocalDate endDate) {
-        return records.stream()
-            .filter(record -> !record.getDate().isBefore(startDate) && !record.getDate().isAfter(endDate))
-            .collect(Collectors.toList());
+
+    public static Filter category(String category) {
+        return Filter.of(new EqualsClause("category", "category", LedgerRecord::getCategory, category, true));
     }
-    
-    // Filter by amount range
-    public static List<IncomeRecord> filterIncomeByAmount(List<IncomeRecord> records, 
-                                                        double minAmount, double maxAmount) {
-        return records.stream()
-            .filter(record -> record.getAmount() >= minAmount && record.getAmount() <= maxAmount)
-            .collect(Collectors.toList());
+
+    // Chỉ khoản chi có phương thức thanh toán; khoản thu không bao giờ khớp
+    public static Filter paymentMethod(String method) {
+        return Filter.of(new EqualsClause("method", "payment_method",
+            record -> record instanceof OutcomeRecord ? ((OutcomeRecord) record).getPaymentMethod() : null,
+            method, false));
     }
-    
-    public static List<OutcomeRecord> filterOutcomeByAmount(List<OutcomeRecord> records, 
-                                                          double minAmount, double maxAmount) {
-        return records.stream()
-            .filter(record -> record.getAmount() >= minAmount && record.getAmount() <= maxAmount)
-            .collect(Collectors.toList());
+
+    public static Filter excludeRecurring() {
+        return Filter.of(new RecurringClause());
     }
-    
-    // Search by text
-    public static List<IncomeRecord> searchIncomeRecords(List<IncomeRecord> records, String searchText) {
-        if (searchText == null || searchText.trim().isEmpty()) {
-            return records;
-        }
-        
-        String search = searchText.toLowerCase().trim();
-        return records.stream()
-            .filter(record -> 
-                record.getSource().toLowerCase().contains(search) ||
-                record.getCategory().toLowerCase().contains(search) ||
-                (record.getDescription() != null && record.getDescription().toLowerCase().contains(search))
-            )
-            .collect(Collectors.toList());
+
+    public static Filter ledger(LedgerType type) {
+        return Filter.of(new LedgerClause(type));
     }
-    
-    public static List<OutcomeRecord> searchOutcomeRecords(List<OutcomeRecord> records, String searchText) {
-        if (searchText == null || searchText.trim().isEmpty()) {
-            return records;
-        }
-        
-        String search = searchText.toLowerCase().trim();
-        return records.stream()
-            .filter(record -> 
-                record.getTitle().toLowerCase().contains(search) ||
-                record.getCategory().toLowerCase().contains(search) ||
-                (record.getDescription() != null && record.getDescription().toLowerCase().contains(search))
-            )
-            .collect(Collectors.toList());
+
+    private interface Clause {
+        boolean test(LedgerRecord record);
+
+        void appendSql(LedgerType type, StringBuilder sql, List<Object> params);
+
+        String key();
     }
-    
-    // Helper methods
-    private static boolean matchesDateFilter(LocalDate recordDate, FilterType filterType, LocalDate now) {
-        switch (filterType) {
-            case TODAY:
-                return recordDate.equals(now);
-            case THIS_WEEK:
-                WeekFields weekFields = WeekFields.of(Locale.getDefault());
-                int currentWeek = now.get(weekFields.weekOfWeekBasedYear());
-                int recordWeek = recordDate.get(weekFields.weekOfWeekBasedYear());
-                return currentWeek == recordWeek && recordDate.getYear() == now.getYear();
-            case THIS_MONTH:
-                return recordDate.getMonth() == now.getMonth() && recordDate.getYear() == now.getYear();
-            case THIS_YEAR:
-                return recordDate.getYear() == now.getYear();
-            case LAST_WEEK:
-                LocalDate lastWeekStart = now.minusWeeks(1).with(java.time.DayOfWeek.MONDAY);
-                LocalDate lastWeekEnd = lastWeekStart.plusDays(6);
-                return !recordDate.isBefore(lastWeekStart) && !recordDate.isAfter(lastWeekEnd);
-            case LAST_MONTH:
-                LocalDate lastMonth = now.minusMonths(1);
-                return recordDate.getMonth() == lastMonth.getMonth() && recordDate.getYear() == lastMonth.getYear();
-            case LAST_YEAR:
-                return recordDate.getYear() == now.getYear() - 1;
-            case ALL_TIME:
-            default:
-                return true;
+
+    private static final class DateClause implements Clause {
+        private final LocalDate from;
+        private final LocalDate to;
+
+        DateClause(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean test(LedgerRecord record) {
+            LocalDate date = record.getDate();
+            return (from == null || !date.isBefore(from)) && (to == null || date.isBefore(to));
+        }
+
+        @Override
+        public void appendSql(LedgerType type, StringBuilder sql, List<Object> params) {
+            // Ngày lưu dạng ISO nên so sánh chuỗi đúng thứ tự và dùng được index date
+            if (from != null) {
+                sql.append("date >= ?");
+                params.add(from.toString());
+            }
+            if (to != null) {
+                sql.append(from != null ? " AND " : "").append("date < ?");
+                params.add(to.toString());
+            }
+        }
+
+        @Override
+        public String key() {
+            return "date[" + from + "," + to + ")";
         }
     }
-    
-    private static int getSortComparator(FilterType filterType, double amount1, double amount2, 
-                                       LocalDate date1, LocalDate date2) {
-        switch (filterType) {
-            case AMOUNT_HIGH_TO_LOW:
-                return Double.compare(amount2, amount1);
-            case AMOUNT_LOW_TO_HIGH:
-                return Double.compare(amount1, amount2);
-            case DATE_OLDEST:
-                return date1.compareTo(date2);
-            case DATE_NEWEST:
-            default:
-                return date2.compareTo(date1);
+
+    private static final class AmountClause implements Clause {
+        private final double min;
+        private final double max;
+
+        AmountClause(double min, double max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public boolean test(LedgerRecord record) {
+            return record.getAmount() >= min && record.getAmount() <= max;
+        }
+
+        @Override
+        public void appendSql(LedgerType type, StringBuilder sql, List<Object> params) {
+            sql.append("amount >= ?");
+            params.add(min);
+            if (max != Double.MAX_VALUE) {
+                sql.append(" AND amount <= ?");
+                params.add(max);
+            }
+        }
+
+        @Override
+        public String key() {
+            return "amount[" + min + "," + max + "]";
+        }
+    }
+
+    private static final class EqualsClause implements Clause {
+        private final String name;
+        private final String column;
+        private final Function<LedgerRecord, String> getter;
+        private final String value;
+        private final boolean incomeHasColumn;
+
+        EqualsClause(String name, String column, Function<LedgerRecord, String> getter, String value,
+                     boolean incomeHasColumn) {
+            this.name = name;
+            this.column = column;
+            this.getter = getter;
+            this.value = value;
+            this.incomeHasColumn = incomeHasColumn;
+        }
+
+        @Override
+        public boolean test(LedgerRecord record) {
+            return Objects.equals(getter.apply(record), value);
+        }
+
+        @Override
+        public void appendSql(LedgerType type, StringBuilder sql, List<Object> params) {
+            if (type == LedgerType.INCOME && !incomeHasColumn) {
+                sql.append("0");
+                return;
+            }
+            sql.append(column).append(" = ?");
+            params.add(value);
+        }
+
+        @Override
+        public String key() {
+            return name + "=" + value;
+        }
+    }
+
+    private static final class RecurringClause implements Clause {
+        @Override
+        public boolean test(LedgerRecord record) {
+            return !(record instanceof OutcomeRecord) || !((OutcomeRecord) record).isRecurring();
+        }
+
+        @Override
+        public void appendSql(LedgerType type, StringBuilder sql, List<Object> params) {
+            sql.append(type == LedgerType.OUTCOME ? "is_recurring = 0" : "1");
+        }
+
+        @Override
+        public String key() {
+            return "nonRecurring";
+        }
+    }
+
+    private static final class LedgerClause implements Clause {
+        private final LedgerType type;
+
+        LedgerClause(LedgerType type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean test(LedgerRecord record) {
+            return record.getLedgerType() == type;
+        }
+
+        @Override
+        public void appendSql(LedgerType tableType, StringBuilder sql, List<Object> params) {
+            sql.append(tableType == type ? "1" : "0");
+        }
+
+        @Override
+        public String key() {
+            return "ledger=" + type;
         }
     }
-} 
\ No newline at end of file
+}
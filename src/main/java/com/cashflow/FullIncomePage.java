@@ -4,13 +4,12 @@ import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
-import javafx.scene.effect.DropShadow;
 import javafx.scene.effect.GaussianBlur;
 import javafx.animation.FadeTransition;
 import javafx.animation.ScaleTransition;
@@ -21,34 +20,27 @@ import javafx.util.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 import java.util.logging.Level;
-import java.util.ArrayList;
-import java.util.stream.Collectors;
 
 public class FullIncomePage {
 
     private static final Logger logger = Logger.getLogger(FullIncomePage.class.getName());
-
-    // Enhanced color scheme with better contrast and accessibility
-    private final Color ACCENT_COLOR = Color.web("#4ECDC4");
-    private final Color INCOME_COLOR = Color.web("#00ff88");
-    private final Color TEXT_PRIMARY = Color.WHITE;
-    private final Color TEXT_SECONDARY = Color.web("#8892b0");
-    private final Color TEXT_MUTED = Color.web("#64748b");
-    private final Color SUCCESS_COLOR = Color.web("#4CAF50");
-    private final Color ERROR_COLOR = Color.web("#FF6B6B");
-    private final Color WARNING_COLOR = Color.web("#FF9800");
-    private final Color CARD_COLOR = Color.web("#1e2749");
-    private final Color BACKGROUND_COLOR = Color.web("#0f0f23");
-    private final Color GRADIENT_START = Color.web("#ff6b9d");
-    private final Color GRADIENT_END = Color.web("#12c2e9");
+    private static final int SEARCH_DEBOUNCE_MS = 250;
+    // Số record tải vào danh sách (mới nhất trước); truy vấn có điều kiện database cũng lấy tối đa chừng này
+    private static final int RECORD_LOAD_LIMIT = 100;
+    private static final DateTimeFormatter RECORD_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
 
     private DatabaseManager dbManager;
     private AnalyticsService analyticsService;
     private VBox incomeListContainer;
+    private RecordListView<IncomeRecord> incomeListView;
+    private SearchPipeline<RecordListQuery, IncomeRecord> incomeSearch;
+    private volatile LedgerSearchIndex<IncomeRecord> incomeSearchIndex;
+    private volatile RecordSortIndex<IncomeRecord> incomeSortIndex;
     private HBox statsContainer;
     private TextField amountField;
     private TextField sourceField;
@@ -76,8 +68,9 @@ public class FullIncomePage {
     // Animation helper
     private Timeline floatingTimeline;
 
-    // Static callback for dashboard refresh
-    private static Runnable dashboardRefreshCallback;
+    // Nhận thay đổi từ DatabaseManager khi trang đang gắn vào scene
+    private LedgerEventBus.Subscription ledgerSubscription;
+    private boolean statsCardsBuilt;
 
     public FullIncomePage(DatabaseManager dbManager) {
         this.dbManager = dbManager;
@@ -85,18 +78,6 @@ public class FullIncomePage {
         setupValidation();
     }
 
-    public static void setDashboardRefreshCallback(Runnable callback) {
-        dashboardRefreshCallback = callback;
-    }
-
-    private void notifyDashboardRefresh() {
-        if (dashboardRefreshCallback != null) {
-            Platform.runLater(() -> {
-                System.out.println("Notifying dashboard refresh from Enhanced Income page");
-            });
-        }
-    }
-
     private void setupValidation() {
         validationContainer = new VBox(5);
         validationContainer.setVisible(false);
@@ -105,7 +86,8 @@ public class FullIncomePage {
     public VBox createIncomePageContent() {
         VBox mainContent = new VBox(30);
         mainContent.setPadding(new Insets(35));
-        mainContent.setStyle("-fx-background-color: " + toHexString(BACKGROUND_COLOR) + ";");
+        // Nền và màu nhấn của trang lấy từ stylesheet
+        mainContent.getStyleClass().addAll("content-area", "accent-teal");
 
         try {
             // Enhanced header with breadcrumb and actions
@@ -129,6 +111,7 @@ public class FullIncomePage {
             // Quick insights section
             VBox insightsSection = createIncomeInsightsSection();
             mainContent.getChildren().addAll(header, statsOverview, mainArea, insightsSection);
+            bindLedgerEvents(mainContent);
 
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Failed to create income page content", e);
@@ -149,21 +132,21 @@ public class FullIncomePage {
         breadcrumb.setAlignment(Pos.CENTER_LEFT);
 
         Button dashboardLink = new Button("Dashboard");
-        dashboardLink.setStyle(createLinkButtonStyle());
+        dashboardLink.getStyleClass().add("link-button");
         dashboardLink.setOnAction(e -> navigateBack());
 
         Label separator = new Label(">");
-        separator.setTextFill(TEXT_MUTED);
+        separator.getStyleClass().add("text-muted");
         separator.setFont(Font.font("System", FontWeight.NORMAL, 14));
 
         Label currentPage = new Label("Income Management");
-        currentPage.setTextFill(TEXT_PRIMARY);
+        currentPage.getStyleClass().add("text-primary");
         currentPage.setFont(Font.font("System", FontWeight.BOLD, 32));
 
         breadcrumb.getChildren().addAll(dashboardLink, separator);
 
         Label subtitle = new Label("Track and manage your income sources");
-        subtitle.setTextFill(TEXT_SECONDARY);
+        subtitle.getStyleClass().add("text-secondary");
         subtitle.setFont(Font.font("System", FontWeight.NORMAL, 16));
 
         breadcrumbSection.getChildren().addAll(breadcrumb, currentPage, subtitle);
@@ -176,15 +159,15 @@ public class FullIncomePage {
         actionButtons.setAlignment(Pos.CENTER_RIGHT);
 
         Button exportButton = new Button("📊 Export Data");
-        exportButton.setStyle(createSecondaryButtonStyle());
+        exportButton.getStyleClass().add("button-secondary");
         exportButton.setOnAction(e -> exportIncomeData());
 
         Button importButton = new Button("📥 Import Data");
-        importButton.setStyle(createSecondaryButtonStyle());
+        importButton.getStyleClass().add("button-secondary");
         importButton.setOnAction(e -> importIncomeData());
 
         Button analyticsButton = new Button("📈 View Analytics");
-        analyticsButton.setStyle(createPrimaryButtonStyle());
+        analyticsButton.getStyleClass().addAll("button-accent", "accent-income");
         analyticsButton.setOnAction(e -> showIncomeAnalytics());
 
         actionButtons.getChildren().addAll(exportButton, importButton, analyticsButton);
@@ -198,7 +181,7 @@ public class FullIncomePage {
 
         // Section title
         Label statsTitle = new Label("Income Overview");
-        statsTitle.setTextFill(TEXT_PRIMARY);
+        statsTitle.getStyleClass().add("text-primary");
         statsTitle.setFont(Font.font("System", FontWeight.BOLD, 20));
 
         // Stats container
@@ -207,7 +190,6 @@ public class FullIncomePage {
 
         // Add loading indicator
         loadingIndicator = new ProgressIndicator();
-        loadingIndicator.setStyle("-fx-accent: " + toHexString(ACCENT_COLOR) + ";");
         loadingIndicator.setPrefSize(40, 40);
         loadingIndicator.setVisible(false);
 
@@ -219,8 +201,46 @@ public class FullIncomePage {
         return statsWrapper;
     }
 
+    /**
+     * Chỉ nghe event khi trang đang hiển thị; rời trang thì huỷ đăng ký để trang cũ được thu hồi
+     */
+    private void bindLedgerEvents(Node pageRoot) {
+        pageRoot.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene != null && ledgerSubscription == null) {
+                ledgerSubscription = dbManager.getEventBus()
+                    .subscribeOnFxThread(LedgerEvent.class, this::onLedgerEvent);
+            } else if (newScene == null && ledgerSubscription != null) {
+                ledgerSubscription.unsubscribe();
+                ledgerSubscription = null;
+            }
+        });
+    }
+
+    private void onLedgerEvent(LedgerEvent event) {
+        if (!event.affects(LedgerType.INCOME)) {
+            return;
+        }
+        if (event instanceof LedgerEvent.LedgerReset) {
+            refreshIncomeListAsync();
+        } else {
+            incomeSearch.updateSource(records -> {
+                List<IncomeRecord> updated = event.applyTo(records, IncomeRecord.class);
+                // Vá thứ tự sắp xếp theo event thay vì sắp xếp lại cả nguồn
+                RecordSortIndex<IncomeRecord> sortIndex = incomeSortIndex;
+                if (sortIndex != null && sortIndex.covers(records)) {
+                    incomeSortIndex = sortIndex.withEvent(event, IncomeRecord.class, updated);
+                }
+                return updated;
+            });
+        }
+        updateStatsCardsAsync();
+    }
+
     private void updateStatsCardsAsync() {
-        showStatsLoading(true);
+        // Lần đầu mới hiện loading; các lần sau chỉ cập nhật số trên thẻ đã có
+        if (!statsCardsBuilt) {
+            showStatsLoading(true);
+        }
 
         Task<Void> updateTask = new Task<Void>() {
             private double currentMonthIncome;
@@ -228,15 +248,16 @@ public class FullIncomePage {
             private int recordsCount;
             private double avgIncome;
             private double recentWeekIncome;
+            private boolean hasCurrentMonth;
+            private boolean hasCurrentWeek;
 
             @Override
             protected Void call() throws Exception {
-                Thread.sleep(300);
-
                 LocalDate now = LocalDate.now();
                 
                 // Lấy dữ liệu tháng hiện tại (sẽ là 0 nếu không có)
                 currentMonthIncome = dbManager.getMonthlyIncome(now);
+                hasCurrentMonth = currentMonthIncome > 0;
                 
                 // Nếu tháng hiện tại không có dữ liệu, lấy tháng gần nhất
                 if (currentMonthIncome == 0) {
@@ -252,6 +273,7 @@ public class FullIncomePage {
                 avgIncome = dbManager.getAverageMonthlyIncome();
                 
                 recentWeekIncome = dbManager.getWeeklyIncome(now);
+                hasCurrentWeek = recentWeekIncome > 0;
                 if (recentWeekIncome == 0) {
                     recentWeekIncome = dbManager.getLatestWeekIncome();
                 }
@@ -262,34 +284,43 @@ public class FullIncomePage {
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    statsContainer.getChildren().clear();
-
                     // Thay đổi label để phản ánh đúng dữ liệu
-                    String monthTitle = (dbManager.getMonthlyIncome(LocalDate.now()) > 0) ? 
+                    String monthTitle = hasCurrentMonth ? 
                         "This Month" : "Latest Month";
                     
-                    String weekTitle = (dbManager.getWeeklyIncome(LocalDate.now()) > 0) ? 
+                    String weekTitle = hasCurrentWeek ? 
                         "This Week" : "Recent Period";
 
+                    if (statsCardsBuilt) {
+                        updateStatCard(0, monthTitle, "$" + String.format("%.0f", currentMonthIncome));
+                        updateStatCard(1, weekTitle, "$" + String.format("%.0f", recentWeekIncome));
+                        updateStatCard(2, "Total Income", "$" + String.format("%.0f", yearlyIncome));
+                        updateStatCard(3, "Total Records", String.valueOf(recordsCount));
+                        updateStatCard(4, "Monthly Average", "$" + String.format("%.0f", avgIncome));
+                        return;
+                    }
+                    statsContainer.getChildren().clear();
+
                     VBox monthlyCard = createEnhancedStatCard("💰", monthTitle,
                             "$" + String.format("%.0f", currentMonthIncome),
-                            "+12.5%", true, INCOME_COLOR, true);
+                            "+12.5%", true, "accent-income", true);
 
                     VBox weeklyCard = createEnhancedStatCard("📅", weekTitle,
                             "$" + String.format("%.0f", recentWeekIncome),
-                            "+8.7%", true, SUCCESS_COLOR, false);
+                            "+8.7%", true, "accent-success", false);
 
                     VBox yearlyCard = createEnhancedStatCard("📈", "Total Income",
                             "$" + String.format("%.0f", yearlyIncome),
-                            "+15.2%", true, ACCENT_COLOR, false);
+                            "+15.2%", true, "accent-teal", false);
 
                     VBox recordsCard = createEnhancedStatCard("📊", "Total Records",
-                            String.valueOf(recordsCount), "", false, TEXT_SECONDARY, false);
+                            String.valueOf(recordsCount), "", false, "accent-muted", false);
 
                     VBox avgCard = createEnhancedStatCard("💵", "Monthly Average",
-                            "$" + String.format("%.0f", avgIncome), "", false, WARNING_COLOR, false);
+                            "$" + String.format("%.0f", avgIncome), "", false, "accent-warning", false);
 
                     statsContainer.getChildren().addAll(monthlyCard, weeklyCard, yearlyCard, recordsCard, avgCard);
+                    statsCardsBuilt = true;
 
                     animateStatsCards();
                     showStatsLoading(false);
@@ -305,7 +336,23 @@ public class FullIncomePage {
             }
         };
 
-        new Thread(updateTask).start();
+        TaskScheduler.getInstance().executeCoalesced(
+            TaskScheduler.Pool.IO, TaskScheduler.TaskPriority.VISIBLE, "income-stats", updateTask);
+    }
+
+    private void updateStatCard(int index, String title, String value) {
+        if (index >= statsContainer.getChildren().size()) {
+            return;
+        }
+        Node card = statsContainer.getChildren().get(index);
+        Node titleLabel = card.lookup(".stat-title");
+        Node valueLabel = card.lookup(".stat-value");
+        if (titleLabel instanceof Label) {
+            ((Label) titleLabel).setText(title);
+        }
+        if (valueLabel instanceof Label) {
+            ((Label) valueLabel).setText(value);
+        }
     }
 
     private void animateStatsCards() {
@@ -328,7 +375,7 @@ public class FullIncomePage {
             scale.setDelay(Duration.millis(i * 100));
 
             ParallelTransition animation = new ParallelTransition(fade, scale);
-            animation.play();
+            AnimationGovernor.getInstance().play(animation);
         }
     }
 
@@ -342,34 +389,14 @@ public class FullIncomePage {
     }
 
     private VBox createEnhancedStatCard(String icon, String title, String value,
-                                        String change, boolean showChange, Color accentColor, boolean isMainCard) {
+                                        String change, boolean showChange, String accentClass, boolean isMainCard) {
         VBox card = new VBox(20);
         card.setPadding(new Insets(isMainCard ? 30 : 20));
         card.setPrefWidth(isMainCard ? 300 : 240);
         card.setPrefHeight(isMainCard ? 160 : 130);
 
         // Enhanced card styling with glassmorphism effect
-        if (isMainCard) {
-            card.setStyle(
-                    "-fx-background-color: linear-gradient(from 0% 0% to 100% 100%, " +
-                            toRgbaString(accentColor, 0.15) + " 0%, " +
-                            toRgbaString(GRADIENT_END, 0.1) + " 100%);" +
-                            "-fx-background-radius: 20px;" +
-                            "-fx-border-color: " + toRgbaString(accentColor, 0.3) + ";" +
-                            "-fx-border-width: 1.5px;" +
-                            "-fx-border-radius: 20px;" +
-                            "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.4), 20, 0, 0, 8);"
-            );
-        } else {
-            card.setStyle(
-                    "-fx-background-color: " + toRgbaString(CARD_COLOR, 0.7) + ";" +
-                            "-fx-background-radius: 16px;" +
-                            "-fx-border-color: " + toRgbaString(TEXT_PRIMARY, 0.1) + ";" +
-                            "-fx-border-width: 1px;" +
-                            "-fx-border-radius: 16px;" +
-                            "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.3), 15, 0, 0, 5);"
-            );
-        }
+        card.getStyleClass().addAll(isMainCard ? "hero-card" : "glass-card", accentClass);
 
         // Enhanced header with icon
         HBox header = new HBox(12);
@@ -377,8 +404,7 @@ public class FullIncomePage {
 
         StackPane iconContainer = new StackPane();
         Circle iconBg = new Circle(isMainCard ? 22 : 18);
-        iconBg.setFill(toRgbaColor(accentColor, 0.2));
-        iconBg.setEffect(new DropShadow(4, toRgbaColor(accentColor, 0.4)));
+        iconBg.getStyleClass().add("icon-disc");
 
         Label iconLabel = new Label(icon);
         iconLabel.setFont(Font.font(isMainCard ? 20 : 16));
@@ -387,12 +413,12 @@ public class FullIncomePage {
 
         VBox titleContainer = new VBox(3);
         Label titleLabel = new Label(title);
-        titleLabel.setTextFill(TEXT_SECONDARY);
+        titleLabel.getStyleClass().addAll("stat-title", "text-secondary");
         titleLabel.setFont(Font.font("System", FontWeight.MEDIUM, isMainCard ? 15 : 13));
 
         if (isMainCard) {
             Label subtitleLabel = new Label("Current period");
-            subtitleLabel.setTextFill(TEXT_MUTED);
+            subtitleLabel.getStyleClass().add("text-muted");
             subtitleLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
             titleContainer.getChildren().addAll(titleLabel, subtitleLabel);
         } else {
@@ -405,7 +431,7 @@ public class FullIncomePage {
         VBox valueSection = new VBox(8);
 
         Label valueLabel = new Label(value);
-        valueLabel.setTextFill(TEXT_PRIMARY);
+        valueLabel.getStyleClass().addAll("stat-value", "text-primary");
         valueLabel.setFont(Font.font("System", FontWeight.BOLD, isMainCard ? 32 : 24));
 
         if (showChange && !change.isEmpty()) {
@@ -413,14 +439,8 @@ public class FullIncomePage {
             changeContainer.setAlignment(Pos.CENTER_LEFT);
 
             Label changeLabel = new Label(change);
-            Color changeColor = change.startsWith("+") ? SUCCESS_COLOR : ERROR_COLOR;
-            changeLabel.setTextFill(changeColor);
+            changeLabel.getStyleClass().addAll("badge", change.startsWith("+") ? "accent-success" : "accent-error");
             changeLabel.setFont(Font.font("System", FontWeight.BOLD, 12));
-            changeLabel.setStyle(
-                    "-fx-background-color: " + toRgbaString(changeColor, 0.15) + ";" +
-                            "-fx-background-radius: 10px;" +
-                            "-fx-padding: 4 8 4 8;"
-            );
 
             Label trendIcon = new Label(change.startsWith("+") ? "📈" : "📉");
             trendIcon.setFont(Font.font(10));
@@ -460,11 +480,11 @@ public class FullIncomePage {
         titleRow.setAlignment(Pos.CENTER_LEFT);
 
         Label title = new Label("Add New Income");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("System", FontWeight.BOLD, 20));
 
         Circle statusIndicator = new Circle(6);
-        statusIndicator.setFill(SUCCESS_COLOR);
+        statusIndicator.getStyleClass().addAll("accent-dot", "accent-success");
         statusIndicator.setVisible(false);
 
         titleRow.getChildren().addAll(title, statusIndicator);
@@ -472,14 +492,7 @@ public class FullIncomePage {
         // Enhanced form card
         VBox formCard = new VBox(20);
         formCard.setPadding(new Insets(30));
-        formCard.setStyle(
-                "-fx-background-color: " + toRgbaString(CARD_COLOR, 0.8) + ";" +
-                        "-fx-background-radius: 20px;" +
-                        "-fx-border-color: " + toRgbaString(TEXT_PRIMARY, 0.1) + ";" +
-                        "-fx-border-width: 1px;" +
-                        "-fx-border-radius: 20px;" +
-                        "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.3), 15, 0, 0, 5);"
-        );
+        formCard.getStyleClass().addAll("glass-card", "form-card");
 
         // Enhanced form fields with real-time validation
         VBox amountFieldContainer = createEnhancedAmountField();
@@ -529,21 +542,21 @@ public class FullIncomePage {
         VBox field = new VBox(10);
 
         Label label = new Label("Amount *");
-        label.setTextFill(TEXT_SECONDARY);
+        label.getStyleClass().add("text-secondary");
         label.setFont(Font.font("System", FontWeight.MEDIUM, 14));
 
         HBox inputContainer = new HBox(10);
         inputContainer.setAlignment(Pos.CENTER_LEFT);
 
         Label currencyLabel = new Label("$");
-        currencyLabel.setTextFill(ACCENT_COLOR);
+        currencyLabel.getStyleClass().add("text-accent");
         currencyLabel.setFont(Font.font("System", FontWeight.BOLD, 16));
         currencyLabel.setPadding(new Insets(0, 5, 0, 0));
 
         amountField = new TextField();
         amountField.setPromptText("0.00");
         amountField.setPrefHeight(45);
-        amountField.setStyle(createEnhancedTextFieldStyle());
+        amountField.getStyleClass().add("form-field");
 
         // Real-time validation
         amountField.textProperty().addListener((obs, oldVal, newVal) -> {
@@ -556,7 +569,6 @@ public class FullIncomePage {
             if (!isNowFocused) {
                 formatAmountField();
             }
-            updateFieldFocus(amountField, isNowFocused);
         });
 
         inputContainer.getChildren().addAll(currencyLabel, amountField);
@@ -569,13 +581,13 @@ public class FullIncomePage {
         VBox field = new VBox(10);
 
         Label label = new Label("Income Source *");
-        label.setTextFill(TEXT_SECONDARY);
+        label.getStyleClass().add("text-secondary");
         label.setFont(Font.font("System", FontWeight.MEDIUM, 14));
 
         sourceField = new TextField();
         sourceField.setPromptText("e.g., Tech Company Ltd, Freelance Project");
         sourceField.setPrefHeight(45);
-        sourceField.setStyle(createEnhancedTextFieldStyle());
+        sourceField.getStyleClass().add("form-field");
 
         // Real-time validation
         sourceField.textProperty().addListener((obs, oldVal, newVal) -> {
@@ -583,10 +595,6 @@ public class FullIncomePage {
             updateFormValidation();
         });
 
-        sourceField.focusedProperty().addListener((obs, wasFocused, isNowFocused) -> {
-            updateFieldFocus(sourceField, isNowFocused);
-        });
-
         field.getChildren().addAll(label, sourceField);
         return field;
     }
@@ -595,7 +603,7 @@ public class FullIncomePage {
         VBox field = new VBox(10);
 
         Label label = new Label("Category");
-        label.setTextFill(TEXT_SECONDARY);
+        label.getStyleClass().add("text-secondary");
         label.setFont(Font.font("System", FontWeight.MEDIUM, 14));
 
         categoryCombo = new ComboBox<>();
@@ -610,7 +618,7 @@ public class FullIncomePage {
         categoryCombo.setPrefWidth(Double.MAX_VALUE);
         categoryCombo.setPrefHeight(45);
         categoryCombo.setEditable(true);
-        categoryCombo.setStyle(createEnhancedComboBoxStyle());
+        categoryCombo.getStyleClass().add("form-field");
 
         field.getChildren().addAll(label, categoryCombo);
         return field;
@@ -620,14 +628,14 @@ public class FullIncomePage {
         VBox field = new VBox(10);
 
         Label label = new Label("Date");
-        label.setTextFill(TEXT_SECONDARY);
+        label.getStyleClass().add("text-secondary");
         label.setFont(Font.font("System", FontWeight.MEDIUM, 14));
 
         datePicker = new DatePicker(LocalDate.now());
         datePicker.setPrefWidth(Double.MAX_VALUE);
         datePicker.setPrefHeight(45);
         datePicker.setEditable(false);
-        datePicker.setStyle(createEnhancedComboBoxStyle());
+        datePicker.getStyleClass().add("form-field");
 
         field.getChildren().addAll(label, datePicker);
         return field;
@@ -637,35 +645,29 @@ public class FullIncomePage {
         VBox field = new VBox(10);
 
         Label label = new Label("Description (Optional)");
-        label.setTextFill(TEXT_SECONDARY);
+        label.getStyleClass().add("text-secondary");
         label.setFont(Font.font("System", FontWeight.MEDIUM, 14));
 
         descriptionArea = new TextArea();
         descriptionArea.setPromptText("Add any notes or details about this income...");
         descriptionArea.setPrefHeight(80);
         descriptionArea.setWrapText(true);
-        descriptionArea.setStyle(createEnhancedTextAreaStyle());
+        descriptionArea.getStyleClass().add("form-field");
 
         field.getChildren().addAll(label, descriptionArea);
         return field;
     }
 
     private void setupValidationContainer() {
-        validationContainer.setStyle(
-                "-fx-background-color: " + toRgbaString(ERROR_COLOR, 0.1) + ";" +
-                        "-fx-background-radius: 8px;" +
-                        "-fx-border-color: " + toRgbaString(ERROR_COLOR, 0.3) + ";" +
-                        "-fx-border-width: 1px;" +
-                        "-fx-border-radius: 8px;" +
-                        "-fx-padding: 10px;"
-        );
+        validationContainer.getStyleClass().addAll("tinted-card", "accent-error");
+        validationContainer.setPadding(new Insets(10));
     }
 
     private Button createEnhancedAddButton() {
         Button button = new Button("💰 Add Income");
         button.setPrefWidth(Double.MAX_VALUE);
         button.setPrefHeight(50);
-        button.setStyle(createDisabledButtonStyle());
+        button.getStyleClass().addAll("button-accent", "accent-income");
         button.setDisable(true);
 
         button.setOnAction(e -> handleAddOrUpdateIncomeAsync());
@@ -676,7 +678,7 @@ public class FullIncomePage {
     private Button createClearButton() {
         Button button = new Button("🗑️ Clear Form");
         button.setPrefHeight(50);
-        button.setStyle(createSecondaryButtonStyle());
+        button.getStyleClass().add("button-secondary");
 
         button.setOnAction(e -> {
             clearFormWithAnimation();
@@ -694,7 +696,7 @@ public class FullIncomePage {
         listHeader.setAlignment(Pos.CENTER_LEFT);
 
         Label title = new Label("Income Records");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("System", FontWeight.BOLD, 20));
 
         Region spacer = new Region();
@@ -706,42 +708,39 @@ public class FullIncomePage {
 
         // Search field
         searchField = new TextField();
-        searchField.setPromptText("🔍 Search records...");
+        searchField.setPromptText("🔍 Search records... (category:Salary amount>100 date:2024-12)");
         searchField.setPrefWidth(200);
-        searchField.setStyle(createEnhancedTextFieldStyle());
+        searchField.getStyleClass().add("form-field");
         searchField.textProperty().addListener((obs, oldVal, newVal) -> filterIncomeList());
 
         // Filter dropdown
         filterCombo = new ComboBox<>();
         filterCombo.getItems().addAll("All Time", "This Month", "Last Month", "This Year", "Last Year");
         filterCombo.setValue("All Time");
-        filterCombo.setStyle(createEnhancedComboBoxStyle());
-        filterCombo.setOnAction(e -> filterIncomeList());
+        filterCombo.getStyleClass().add("form-field");
+        filterCombo.setOnAction(e -> incomeSearch.searchNow());
 
         // Sort dropdown
         sortCombo = new ComboBox<>();
         sortCombo.getItems().addAll("Date (Newest)", "Date (Oldest)", "Amount (High-Low)", "Amount (Low-High)", "Source A-Z");
         sortCombo.setValue("Date (Newest)");
-        sortCombo.setStyle(createEnhancedComboBoxStyle());
+        sortCombo.getStyleClass().add("form-field");
         sortCombo.setOnAction(e -> sortIncomeList());
 
         filterControls.getChildren().addAll(searchField, filterCombo, sortCombo);
         listHeader.getChildren().addAll(title, spacer, filterControls);
 
-        // Enhanced income list container
-        ScrollPane scrollPane = new ScrollPane();
+        // Enhanced income list container (virtualized list, loading/empty/error states)
         incomeListContainer = new VBox(12);
-        scrollPane.setContent(incomeListContainer);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setPrefHeight(500);
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
-        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
+        incomeListContainer.setPrefHeight(500);
+        incomeListView = new RecordListView<>(IncomeRow::new, 12);
+        VBox.setVgrow(incomeListView, Priority.ALWAYS);
 
         // Load initial data
+        incomeSearch = createIncomeSearchPipeline();
         refreshIncomeListAsync();
 
-        section.getChildren().addAll(listHeader, scrollPane);
+        section.getChildren().addAll(listHeader, incomeListContainer);
         return section;
     }
 
@@ -749,7 +748,7 @@ public class FullIncomePage {
         VBox section = new VBox(20);
 
         Label title = new Label("Income Insights");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("System", FontWeight.BOLD, 20));
 
         HBox insightsContainer = new HBox(20);
@@ -768,14 +767,14 @@ public class FullIncomePage {
                 VBox defaultInsight = createInsightCard(
                         "💡", "Getting Started",
                         "Add more income records to get personalized insights",
-                        ACCENT_COLOR
+                        "accent-teal"
                 );
                 insightsContainer.getChildren().add(defaultInsight);
             } else {
                 for (AnalyticsService.FinancialInsight insight : insights) {
                     VBox insightCard = createInsightCard(
                             insight.getIcon(), insight.getTitle(),
-                            insight.getMessage(), getInsightColor(insight.getLevel())
+                            insight.getMessage(), getInsightAccent(insight.getLevel())
                     );
                     insightsContainer.getChildren().add(insightCard);
                 }
@@ -786,7 +785,7 @@ public class FullIncomePage {
             VBox errorInsight = createInsightCard(
                     "⚠️", "Insights Unavailable",
                     "Unable to generate insights at this time",
-                    WARNING_COLOR
+                    "accent-warning"
             );
             insightsContainer.getChildren().add(errorInsight);
         }
@@ -795,18 +794,11 @@ public class FullIncomePage {
         return section;
     }
 
-    private VBox createInsightCard(String icon, String title, String message, Color accentColor) {
+    private VBox createInsightCard(String icon, String title, String message, String accentClass) {
         VBox card = new VBox(15);
         card.setPadding(new Insets(20));
         card.setPrefWidth(320);
-        card.setStyle(
-                "-fx-background-color: " + toRgbaString(accentColor, 0.1) + ";" +
-                        "-fx-background-radius: 16px;" +
-                        "-fx-border-color: " + toRgbaString(accentColor, 0.3) + ";" +
-                        "-fx-border-width: 1px;" +
-                        "-fx-border-radius: 16px;" +
-                        "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.2), 10, 0, 0, 3);"
-        );
+        card.getStyleClass().addAll("tinted-card", accentClass);
 
         HBox header = new HBox(12);
         header.setAlignment(Pos.CENTER_LEFT);
@@ -815,13 +807,13 @@ public class FullIncomePage {
         iconLabel.setFont(Font.font(18));
 
         Label titleLabel = new Label(title);
-        titleLabel.setTextFill(accentColor);
+        titleLabel.getStyleClass().add("text-accent");
         titleLabel.setFont(Font.font("System", FontWeight.SEMI_BOLD, 16));
 
         header.getChildren().addAll(iconLabel, titleLabel);
 
         Label messageLabel = new Label(message);
-        messageLabel.setTextFill(TEXT_SECONDARY);
+        messageLabel.getStyleClass().add("text-secondary");
         messageLabel.setFont(Font.font("System", FontWeight.NORMAL, 14));
         messageLabel.setWrapText(true);
 
@@ -903,14 +895,7 @@ public class FullIncomePage {
                         } else {
                             exitEditMode();
                         }
-
-                        // Force refresh
-                        refreshIncomeListAsync();
-                        updateStatsCardsAsync();
-                        
-                        // Refresh dashboard
-                        ModernCashflowApp.refreshDashboardFromOtherPage();
-                        notifyDashboardRefresh();
+                        // Danh sách, thẻ thống kê và dashboard tự cập nhật qua LedgerEvent
                     } else {
                         String message = editingRecord != null ? 
                             LanguageManager.getInstance().translate("error") + " updating income" : 
@@ -931,7 +916,7 @@ public class FullIncomePage {
             }
         };
 
-        new Thread(addIncomeTask).start();
+        TaskScheduler.getInstance().execute(TaskScheduler.Pool.IO, "income-save", addIncomeTask);
     }
 
     // Thêm method mới cho success animation
@@ -947,319 +932,138 @@ public class FullIncomePage {
         pulse.play();
         
         // Flash green background briefly
-        String originalStyle = addButton.getStyle();
-        addButton.setStyle(originalStyle.replace(
-            toHexString(INCOME_COLOR), 
-            toHexString(SUCCESS_COLOR)
-        ));
+        String originalAccent = editingRecord != null ? "accent-warning" : "accent-income";
+        setAddButtonAccent("accent-success");
         
         Timeline flashback = new Timeline(new javafx.animation.KeyFrame(
             Duration.millis(300),
-            e -> addButton.setStyle(originalStyle)
+            e -> setAddButtonAccent(originalAccent)
         ));
         flashback.play();
     }
 
-    private void refreshIncomeListAsync() {
-        showIncomeListLoading(true);
-
-        Task<List<IncomeRecord>> loadRecordsTask = new Task<List<IncomeRecord>>() {
-            @Override
-            protected List<IncomeRecord> call() throws Exception {
-                Thread.sleep(200);
-                
-                // Lấy NHIỀU records hơn và áp dụng filter
-                List<IncomeRecord> allRecords = dbManager.getIncomeRecords(100); // Tăng từ 50 lên 100
-                return applyAllIncomeFilters(allRecords);
-            }
-
-            @Override
-            protected void succeeded() {
-                Platform.runLater(() -> {
-                    List<IncomeRecord> filteredRecords = getValue();
-                    displayIncomeRecordsWithAnimation(filteredRecords);
-                    updateIncomeListSummary(filteredRecords);
-                    showIncomeListLoading(false);
-                });
-            }
+    /**
+     * Làm mới danh sách và thẻ thống kê khi trang được hiển thị lại sau khi dữ liệu đổi
+     */
+    public void refresh() {
+        refreshIncomeListAsync();
+        updateStatsCardsAsync();
+    }
 
-            @Override
-            protected void failed() {
-                Platform.runLater(() -> {
-                    showIncomeListError();
-                    showIncomeListLoading(false);
-                });
+    // Đọc lại dữ liệu từ database (sau khi thêm/sửa/xoá), rồi áp dụng filter hiện tại
+    private void refreshIncomeListAsync() {
+        incomeSearch.reload();
+    }
+
+    private SearchPipeline<RecordListQuery, IncomeRecord> createIncomeSearchPipeline() {
+        SearchPipeline<RecordListQuery, IncomeRecord> pipeline = new SearchPipeline<>(
+            "income",
+            Duration.millis(SEARCH_DEBOUNCE_MS),
+            this::captureIncomeQuery,
+            query -> dbManager.searchIncomeRecords(query.getSearch(), query.getFilter(), RECORD_LOAD_LIMIT),
+            RecordListQuery::getDatabaseKey,
+            this::applyAllIncomeFilters,
+            RecordListQuery::narrows
+        );
+        pipeline.setIndexer(this::indexIncomeRecords);
+        pipeline.setOnLoading(() -> showIncomeListLoading(true));
+        pipeline.setOnResults(filteredRecords -> {
+            displayIncomeRecordsWithAnimation(filteredRecords);
+            updateIncomeListSummary(filteredRecords);
+        });
+        // Thay đổi từ LedgerEvent: giữ nguyên vị trí cuộn, không chạy lại animation
+        pipeline.setOnUpdated(filteredRecords -> {
+            if (filteredRecords.isEmpty() || !incomeListContainer.getChildren().contains(incomeListView)) {
+                displayIncomeRecordsWithAnimation(filteredRecords);
+            } else {
+                incomeListView.updateRecords(filteredRecords);
             }
-        };
-
-        new Thread(loadRecordsTask).start();
+            updateIncomeListSummary(filteredRecords);
+        });
+        pipeline.setOnError(error -> showIncomeListError());
+        return pipeline;
+    }
+
+    // Chụp trạng thái filter trên FX thread để filter ở background không đọc control
+    private RecordListQuery captureIncomeQuery() {
+        return new RecordListQuery(
+            searchField != null ? searchField.getText() : "",
+            filterCombo != null ? filterCombo.getValue() : null,
+            categoryCombo != null ? categoryCombo.getValue() : null,
+            null,
+            true,
+            minAmountField != null ? minAmountField.getText() : "",
+            maxAmountField != null ? maxAmountField.getText() : "",
+            sortCombo != null ? sortCombo.getValue() : null
+        );
     }
 
-    // Method mới để áp dụng tất cả filter
-    private List<IncomeRecord> applyAllIncomeFilters(List<IncomeRecord> records) {
-        List<IncomeRecord> result = new ArrayList<>(records);
-        
-        // 1. Text search filter - CẢI THIỆN TÌM KIẾM
-        String searchText = searchField != null ? searchField.getText().trim() : "";
+    // Áp dụng tất cả filter trong một lượt duyệt theo thứ tự sắp xếp đã chọn
+    private List<IncomeRecord> applyAllIncomeFilters(List<IncomeRecord> records, RecordListQuery query) {
+        // Text tự do khớp qua chỉ mục (chuỗi con hoặc sai chính tả), hoặc là số tiền
+        Predicate<IncomeRecord> textMatch = record -> true;
+        String searchText = query.getFreeText();
         if (!searchText.isEmpty()) {
-            result = result.stream()
-                .filter(record -> matchesIncomeSearchCriteria(record, searchText))
-                .collect(Collectors.toList());
-        }
-        
-        // 2. Date range filter
-        if (filterCombo != null) {
-            String dateFilter = filterCombo.getValue();
-            result = applyIncomeDateFilter(result, dateFilter);
-        }
-        
-        // 3. Category filter
-        if (categoryCombo != null && !categoryCombo.getValue().equals("All Categories")) {
-            String category = categoryCombo.getValue();
-            result = result.stream()
-                .filter(record -> record.getCategory().equals(category))
-                .collect(Collectors.toList());
-        }
-        
-        // 4. Amount range filter
-        result = applyIncomeAmountRangeFilter(result);
-        
-        // 5. Sort - MẶC ĐỊNH THEO NGÀY GẦN NHẤT
-        if (sortCombo != null) {
-            String sortType = sortCombo.getValue();
-            result = applyIncomeSortFilter(result, sortType);
-        } else {
-            // Mặc định sắp xếp theo ngày gần nhất
-            result = result.stream()
-                .sorted((r1, r2) -> r2.getDate().compareTo(r1.getDate()))
-                .collect(Collectors.toList());
-        }
-        
-        return result;
-    }
-
-    // Thêm method này sau applyAllIncomeFilters()
-    private boolean matchesIncomeSearchCriteria(IncomeRecord record, String searchText) {
-        String lowerSearch = searchText.toLowerCase();
-        
-        // Tìm kiếm đa tiêu chí
-        boolean matches = false;
-        
-        // Tìm trong nguồn thu nhập
-        if (record.getSource() != null && 
-            record.getSource().toLowerCase().contains(lowerSearch)) {
-            matches = true;
-        }
-        
-        // Tìm trong danh mục
-        if (record.getCategory() != null && 
-            record.getCategory().toLowerCase().contains(lowerSearch)) {
-            matches = true;
-        }
-        
-        // Tìm trong ghi chú/mô tả
-        if (record.getDescription() != null && 
-            record.getDescription().toLowerCase().contains(lowerSearch)) {
-            matches = true;
-        }
-        
-        // Tìm theo số tiền
-        try {
-            double searchAmount = Double.parseDouble(searchText);
-            if (Math.abs(record.getAmount() - searchAmount) < 0.01) {
-                matches = true;
+            LedgerSearchIndex<IncomeRecord> index = incomeSearchIndex;
+            if (index == null) {
+                indexIncomeRecords(records);
+                index = incomeSearchIndex;
             }
-        } catch (NumberFormatException e) {
-            // Không phải số, tiếp tục tìm text
+            LedgerSearchIndex<IncomeRecord>.Match match = index.search(searchText);
+            textMatch = record -> match.contains(record) || query.matchesSearchAmount(record.getAmount());
         }
-        
-        // Tìm theo ngày
-        String dateStr = record.getDate().toString();
-        if (dateStr.contains(lowerSearch)) {
-            matches = true;
-        }
-        
-        // Tìm kiếm mờ (fuzzy search) cho lỗi chính tả
-        if (!matches) {
-            matches = fuzzyMatchIncome(record, lowerSearch);
-        }
-        
-        return matches;
-    }
 
-    private boolean fuzzyMatchIncome(IncomeRecord record, String search) {
-        String[] fields = {
-            record.getSource(),
-            record.getCategory(),
-            record.getDescription()
-        };
-        
-        for (String field : fields) {
-            if (field != null && isSimilarText(field.toLowerCase(), search)) {
-                return true;
-            }
+        // Filter đã được database áp dụng khi tải nguồn; chạy lại cùng lượt với text để nguồn
+        // được vá từ LedgerEvent vẫn đúng. Duyệt theo hoán vị đã sắp xếp nên không phải sort lại;
+        // records có thể là kết quả lần trước (thu hẹp) nhưng điều kiện lọc đầy đủ nên duyệt cả nguồn vẫn đúng
+        RecordSortIndex<IncomeRecord> sortIndex = incomeSortIndex;
+        if (sortIndex == null) {
+            sortIndex = new RecordSortIndex<>(records, IncomeRecord::getSource);
         }
-        return false;
-    }
-
-    private boolean isSimilarText(String text, String search) {
-        // Kiểm tra từng từ
-        String[] searchWords = search.split("\\s+");
-        String[] textWords = text.split("\\s+");
-        
-        for (String searchWord : searchWords) {
-            for (String textWord : textWords) {
-                if (textWord.contains(searchWord) || searchWord.contains(textWord)) {
-                    return true;
-                }
-                // Kiểm tra độ tương tự đơn giản
-                if (Math.abs(textWord.length() - searchWord.length()) <= 2 && 
-                    textWord.startsWith(searchWord.substring(0, Math.min(2, searchWord.length())))) {
-                    return true;
-                }
-            }
+        FilterManager.Filter filter = query.getFilter();
+        Predicate<IncomeRecord> matches = textMatch;
+        String sortType = query.getSortType() != null ? query.getSortType() : "Date (Newest)";
+        return sortIndex.walk(incomeSortKey(sortType), isDescendingSort(sortType),
+            record -> filter.test(record) && matches.test(record));
+    }
+
+    // Dựng lại chỉ mục tìm kiếm khi pipeline có dữ liệu nguồn mới (chạy ở background)
+    private void indexIncomeRecords(List<IncomeRecord> records) {
+        incomeSearchIndex = new LedgerSearchIndex<>(records, IncomeRecord::getSearchText);
+        RecordSortIndex<IncomeRecord> sortIndex = incomeSortIndex;
+        // Nguồn vá từ LedgerEvent đã có hoán vị được cập nhật sẵn trong onLedgerEvent
+        if (sortIndex == null || !sortIndex.covers(records)) {
+            incomeSortIndex = new RecordSortIndex<>(records, IncomeRecord::getSource);
         }
-        return false;
-    }
-
-    private List<IncomeRecord> applyIncomeSortFilter(List<IncomeRecord> records, String sortType) {
-        return records.stream().sorted((r1, r2) -> {
-            switch (sortType) {
-                case "Date (Oldest)":
-                    return r1.getDate().compareTo(r2.getDate());
-                case "Amount (High-Low)":
-                    return Double.compare(r2.getAmount(), r1.getAmount());
-                case "Amount (Low-High)":
-                    return Double.compare(r1.getAmount(), r2.getAmount());
-                case "Source A-Z":
-                    return r1.getSource().compareToIgnoreCase(r2.getSource());
-                case "Source Z-A":
-                    return r2.getSource().compareToIgnoreCase(r1.getSource());
-                default: // "Date (Newest)"
-                    return r2.getDate().compareTo(r1.getDate());
-            }
-        }).collect(Collectors.toList());
     }
 
-    private List<IncomeRecord> applyIncomeAmountRangeFilter(List<IncomeRecord> records) {
-        try {
-            String minText = minAmountField != null ? minAmountField.getText().trim() : "";
-            String maxText = maxAmountField != null ? maxAmountField.getText().trim() : "";
-            
-            if (minText.isEmpty() && maxText.isEmpty()) {
-                return records;
-            }
-            
-            double minAmount = minText.isEmpty() ? 0 : Double.parseDouble(minText);
-            double maxAmount = maxText.isEmpty() ? Double.MAX_VALUE : Double.parseDouble(maxText);
-            
-            return records.stream()
-                .filter(record -> record.getAmount() >= minAmount && record.getAmount() <= maxAmount)
-                .collect(Collectors.toList());
-        } catch (NumberFormatException e) {
-            return records;
+    private static RecordSortIndex.SortKey incomeSortKey(String sortType) {
+        switch (sortType) {
+            case "Amount (High-Low)":
+            case "Amount (Low-High)":
+                return RecordSortIndex.SortKey.AMOUNT;
+            case "Source A-Z":
+            case "Source Z-A":
+                return RecordSortIndex.SortKey.TITLE;
+            default: // "Date (Newest)", "Date (Oldest)"
+                return RecordSortIndex.SortKey.DATE;
         }
     }
 
-    private List<IncomeRecord> applyIncomeDateFilter(List<IncomeRecord> records, String dateFilter) {
-        LocalDate now = LocalDate.now();
-        
-        return records.stream().filter(record -> {
-            switch (dateFilter) {
-                case "Today":
-                    return record.getDate().equals(now);
-                case "This Week":
-                    LocalDate weekStart = now.minusDays(now.getDayOfWeek().getValue() - 1);
-                    LocalDate weekEnd = weekStart.plusDays(6);
-                    return !record.getDate().isBefore(weekStart) && !record.getDate().isAfter(weekEnd);
-                case "This Month":
-                    return record.getDate().getYear() == now.getYear() && 
-                           record.getDate().getMonth() == now.getMonth();
-                case "Last Month":
-                    LocalDate lastMonth = now.minusMonths(1);
-                    return record.getDate().getYear() == lastMonth.getYear() && 
-                           record.getDate().getMonth() == lastMonth.getMonth();
-                case "This Year":
-                    return record.getDate().getYear() == now.getYear();
-                case "Last Year":
-                    return record.getDate().getYear() == now.getYear() - 1;
-                case "Last 30 Days":
-                    return record.getDate().isAfter(now.minusDays(30));
-                case "Last 90 Days":
-                    return record.getDate().isAfter(now.minusDays(90));
-                default: // "All Time"
-                    return true;
-            }
-        }).collect(Collectors.toList());
+    private static boolean isDescendingSort(String sortType) {
+        return sortType.equals("Date (Newest)") || sortType.equals("Amount (High-Low)") || sortType.endsWith("Z-A");
     }
 
-    // Enhanced display với animation mượt hơn
+    // Hiển thị danh sách qua RecordListView: chỉ các dòng đang thấy mới có node
     private void displayIncomeRecordsWithAnimation(List<IncomeRecord> records) {
-        incomeListContainer.getChildren().clear();
-
         if (records.isEmpty()) {
-            VBox emptyState = createEnhancedEmptyState();
-            incomeListContainer.getChildren().add(emptyState);
+            incomeListContainer.getChildren().setAll(createEnhancedEmptyState());
             return;
         }
 
-        // Batch animation cho performance tốt hơn
-        int batchSize = 5;
-        for (int i = 0; i < records.size(); i += batchSize) {
-            final int batchIndex = i;
-            int endIndex = Math.min(i + batchSize, records.size());
-            List<IncomeRecord> batch = records.subList(i, endIndex);
-            
-            // Delay cho mỗi batch
-            Timeline timeline = new Timeline(new javafx.animation.KeyFrame(
-                Duration.millis(i * 50), // Stagger batches
-                e -> animateBatchOfRecords(batch, batchIndex)
-            ));
-            timeline.play();
-        }
-    }
-
-    private void animateBatchOfRecords(List<IncomeRecord> batch, int startIndex) {
-        for (int i = 0; i < batch.size(); i++) {
-            IncomeRecord record = batch.get(i);
-            HBox incomeItem = createEnhancedIncomeItem(record);
-            incomeListContainer.getChildren().add(incomeItem);
-
-            // Smooth staggered animation
-            incomeItem.setOpacity(0);
-            incomeItem.setTranslateY(30);
-            incomeItem.setScaleX(0.9);
-            incomeItem.setScaleY(0.9);
-
-            Duration delay = Duration.millis(i * 80);
-            
-            // Multi-property animation
-            FadeTransition fade = new FadeTransition(Duration.millis(400), incomeItem);
-            fade.setFromValue(0);
-            fade.setToValue(1);
-            fade.setDelay(delay);
-
-            TranslateTransition slide = new TranslateTransition(Duration.millis(400), incomeItem);
-            slide.setFromY(30);
-            slide.setToY(0);
-            slide.setDelay(delay);
-            slide.setInterpolator(javafx.animation.Interpolator.EASE_OUT);
-
-            ScaleTransition scaleX = new ScaleTransition(Duration.millis(400), incomeItem);
-            scaleX.setFromX(0.9);
-            scaleX.setToX(1.0);
-            scaleX.setDelay(delay);
-            scaleX.setInterpolator(javafx.animation.Interpolator.EASE_OUT);
-
-            ScaleTransition scaleY = new ScaleTransition(Duration.millis(400), incomeItem);
-            scaleY.setFromY(0.9);
-            scaleY.setToY(1.0);
-            scaleY.setDelay(delay);
-            scaleY.setInterpolator(javafx.animation.Interpolator.EASE_OUT);
-
-            ParallelTransition parallel = new ParallelTransition(fade, slide, scaleX, scaleY);
-            parallel.play();
-        }
+        // Hiệu ứng xuất hiện do RecordListView chạy cho các dòng trong viewport
+        incomeListView.setRecords(records);
+        incomeListContainer.getChildren().setAll(incomeListView);
     }
 
     // Enhanced loading state
@@ -1277,7 +1081,7 @@ public class FullIncomePage {
             
             for (int i = 0; i < 3; i++) {
                 Circle dot = new Circle(6);
-                dot.setFill(ACCENT_COLOR);
+                dot.getStyleClass().add("accent-dot");
                 dotsContainer.getChildren().add(dot);
                 
                 // Bouncing animation
@@ -1287,11 +1091,11 @@ public class FullIncomePage {
                 bounce.setAutoReverse(true);
                 bounce.setCycleCount(Timeline.INDEFINITE);
                 bounce.setDelay(Duration.millis(i * 200));
-                bounce.play();
+                AnimationGovernor.getInstance().playInfinite(dot, bounce);
             }
 
             Label loadingLabel = new Label("Loading income records...");
-            loadingLabel.setTextFill(TEXT_SECONDARY);
+            loadingLabel.getStyleClass().add("text-secondary");
             loadingLabel.setFont(Font.font("System", FontWeight.NORMAL, 14));
 
             loadingContainer.getChildren().addAll(dotsContainer, loadingLabel);
@@ -1308,9 +1112,7 @@ public class FullIncomePage {
         // Animated empty icon
         StackPane iconContainer = new StackPane();
         Circle iconBg = new Circle(40);
-        iconBg.setFill(toRgbaColor(ACCENT_COLOR, 0.1));
-        iconBg.setStroke(toRgbaColor(ACCENT_COLOR, 0.3));
-        iconBg.setStrokeWidth(2);
+        iconBg.getStyleClass().add("empty-disc");
         
         Label emptyIcon = new Label("🔍");
         emptyIcon.setFont(Font.font(32));
@@ -1321,11 +1123,11 @@ public class FullIncomePage {
         addFloatingAnimation(iconContainer, Duration.millis(3000), 10);
 
         Label emptyTitle = new Label("No income records found");
-        emptyTitle.setTextFill(TEXT_PRIMARY);
+        emptyTitle.getStyleClass().add("text-primary");
         emptyTitle.setFont(Font.font("System", FontWeight.BOLD, 20));
 
         Label emptyMessage = new Label("Try adjusting your search filters or add a new income record.");
-        emptyMessage.setTextFill(TEXT_SECONDARY);
+        emptyMessage.getStyleClass().add("text-secondary");
         emptyMessage.setFont(Font.font("System", FontWeight.NORMAL, 14));
         emptyMessage.setWrapText(true);
         emptyMessage.setAlignment(Pos.CENTER);
@@ -1335,11 +1137,11 @@ public class FullIncomePage {
         actionButtons.setAlignment(Pos.CENTER);
         
         Button clearFiltersBtn = new Button("🗑️ Clear Filters");
-        clearFiltersBtn.setStyle(createSecondaryButtonStyle());
+        clearFiltersBtn.getStyleClass().add("button-secondary");
         clearFiltersBtn.setOnAction(e -> clearAllIncomeFilters());
         
         Button addIncomeBtn = new Button("💰 Add Income");
-        addIncomeBtn.setStyle(createPrimaryButtonStyle());
+        addIncomeBtn.getStyleClass().addAll("button-accent", "accent-income");
         addIncomeBtn.setOnAction(e -> amountField.requestFocus());
         
         actionButtons.getChildren().addAll(clearFiltersBtn, addIncomeBtn);
@@ -1359,7 +1161,7 @@ public class FullIncomePage {
         
         // Animate clear action
         showSuccessMessage("All filters cleared!");
-        refreshIncomeListAsync();
+        incomeSearch.searchNow();
     }
 
     // Summary update
@@ -1389,11 +1191,11 @@ public class FullIncomePage {
         errorIcon.setFont(Font.font(32));
         
         Label errorMessage = new Label("Failed to load income records");
-        errorMessage.setTextFill(ERROR_COLOR);
+        errorMessage.getStyleClass().add("text-error");
         errorMessage.setFont(Font.font("System", FontWeight.MEDIUM, 16));
         
         Button retryButton = new Button("🔄 Retry");
-        retryButton.setStyle(createPrimaryButtonStyle());
+        retryButton.getStyleClass().addAll("button-accent", "accent-income");
         retryButton.setOnAction(e -> refreshIncomeListAsync());
         
         errorContainer.getChildren().addAll(errorIcon, errorMessage, retryButton);
@@ -1409,149 +1211,136 @@ public class FullIncomePage {
         float1.setCycleCount(Timeline.INDEFINITE);
         float1.setInterpolator(javafx.animation.Interpolator.EASE_BOTH);
         
-        float1.play();
-    }
-
-    private HBox createEnhancedIncomeItem(IncomeRecord record) {
-        HBox item = new HBox(18);
-        item.setAlignment(Pos.CENTER_LEFT);
-        item.setPadding(new Insets(18, 22, 18, 22));
-        item.setStyle(
-                "-fx-background-color: " + toRgbaString(CARD_COLOR, 0.7) + ";" +
-                        "-fx-background-radius: 16px;" +
-                        "-fx-border-color: " + toRgbaString(TEXT_PRIMARY, 0.1) + ";" +
-                        "-fx-border-width: 1px;" +
-                        "-fx-border-radius: 16px;" +
-                        "-fx-cursor: hand;"
-        );
+        AnimationGovernor.getInstance().playInfinite(node, float1);
+    }
 
-        // Enhanced category icon
-        StackPane iconContainer = new StackPane();
-        Circle iconBg = new Circle(22);
-        iconBg.setFill(INCOME_COLOR);
-        iconBg.setEffect(new DropShadow(6, INCOME_COLOR));
+    // Dòng card của danh sách income, được tái sử dụng bởi RecordListView khi cuộn
+    private class IncomeRow implements RecordListView.RecordRow<IncomeRecord> {
+        private final HBox item = new HBox(18);
+        private final Label icon = new Label();
+        private final Label source = new Label();
+        private final Label dateAndCategory = new Label();
+        private final Label newBadge = new Label("NEW");
+        private final Label description = new Label();
+        private final Label amount = new Label();
+        private final Label createdTime = new Label();
+        private IncomeRecord record;
 
-        Label icon = new Label(getCategoryIcon(record.getCategory()));
-        icon.setFont(Font.font(16));
-        icon.setTextFill(Color.WHITE);
+        IncomeRow() {
+            item.setAlignment(Pos.CENTER_LEFT);
+            item.setPadding(new Insets(18, 22, 18, 22));
+            item.getStyleClass().addAll("list-row", "accent-income");
 
-        iconContainer.getChildren().addAll(iconBg, icon);
+            // Enhanced category icon
+            StackPane iconContainer = new StackPane();
+            Circle iconBg = new Circle(22);
+            iconBg.getStyleClass().addAll("icon-disc", "solid");
 
-        // Enhanced details section
-        VBox details = new VBox(6);
+            icon.setFont(Font.font(16));
+            icon.getStyleClass().add("text-on-accent");
 
-        Label source = new Label(record.getSource());
-        source.setTextFill(TEXT_PRIMARY);
-        source.setFont(Font.font("System", FontWeight.SEMI_BOLD, 15));
+            iconContainer.getChildren().addAll(iconBg, icon);
 
-        HBox metaInfo = new HBox(12);
-        metaInfo.setAlignment(Pos.CENTER_LEFT);
+            // Enhanced details section
+            VBox details = new VBox(6);
 
-        Label dateAndCategory = new Label(
-                record.getDate().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")) +
-                        " • " + record.getCategory()
-        );
-        dateAndCategory.setTextFill(TEXT_SECONDARY);
-        dateAndCategory.setFont(Font.font("System", FontWeight.NORMAL, 12));
+            source.getStyleClass().add("text-primary");
+            source.setFont(Font.font("System", FontWeight.SEMI_BOLD, 15));
+
+            HBox metaInfo = new HBox(12);
+            metaInfo.setAlignment(Pos.CENTER_LEFT);
 
-        // Add status badge if recent
-        if (record.getDate().isAfter(LocalDate.now().minusDays(7))) {
-            Label newBadge = new Label("NEW");
-            newBadge.setTextFill(SUCCESS_COLOR);
+            dateAndCategory.getStyleClass().add("text-secondary");
+            dateAndCategory.setFont(Font.font("System", FontWeight.NORMAL, 12));
+
+            // Status badge, chỉ hiện với record gần đây
+            newBadge.getStyleClass().addAll("badge", "accent-success");
             newBadge.setFont(Font.font("System", FontWeight.BOLD, 10));
-            newBadge.setStyle(
-                    "-fx-background-color: " + toRgbaString(SUCCESS_COLOR, 0.15) + ";" +
-                            "-fx-background-radius: 8px;" +
-                            "-fx-padding: 2 6 2 6;"
-            );
+            newBadge.managedProperty().bind(newBadge.visibleProperty());
             metaInfo.getChildren().addAll(dateAndCategory, newBadge);
-        } else {
-            metaInfo.getChildren().add(dateAndCategory);
-        }
 
-        // Add description if available
-        if (record.getDescription() != null && !record.getDescription().trim().isEmpty()) {
-            Label description = new Label(record.getDescription());
-            description.setTextFill(TEXT_MUTED);
+            description.getStyleClass().add("text-muted");
             description.setFont(Font.font("System", FontWeight.NORMAL, 11));
             description.setWrapText(true);
+            description.managedProperty().bind(description.visibleProperty());
+
             details.getChildren().addAll(source, metaInfo, description);
-        } else {
-            details.getChildren().addAll(source, metaInfo);
-        }
 
-        Region spacer = new Region();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
 
-        // Enhanced amount display
-        VBox amountSection = new VBox(4);
-        amountSection.setAlignment(Pos.CENTER_RIGHT);
+            // Enhanced amount display
+            VBox amountSection = new VBox(4);
+            amountSection.setAlignment(Pos.CENTER_RIGHT);
 
-        Label amount = new Label("+$" + String.format("%.2f", record.getAmount()));
-        amount.setTextFill(INCOME_COLOR);
-        amount.setFont(Font.font("System", FontWeight.BOLD, 18));
+            amount.getStyleClass().add("text-accent");
+            amount.setFont(Font.font("System", FontWeight.BOLD, 18));
 
-        // Add created time
-        Label createdTime = new Label("Added " + formatRelativeTime(record.getCreatedAt()));
-        createdTime.setTextFill(TEXT_MUTED);
-        createdTime.setFont(Font.font("System", FontWeight.NORMAL, 10));
+            createdTime.getStyleClass().add("text-muted");
+            createdTime.setFont(Font.font("System", FontWeight.NORMAL, 10));
 
-        amountSection.getChildren().addAll(amount, createdTime);
+            amountSection.getChildren().addAll(amount, createdTime);
 
-        // Enhanced actions
-        HBox actions = new HBox(8);
-        actions.setAlignment(Pos.CENTER_RIGHT);
+            // Enhanced actions
+            HBox actions = new HBox(8);
+            actions.setAlignment(Pos.CENTER_RIGHT);
 
-        Button editButton = new Button("✏️ Sửa");
-        editButton.setStyle(createActionButtonStyle(toHexString(ACCENT_COLOR)));
-        editButton.setOnAction(e -> editIncomeRecord(record));
+            Button editButton = new Button("✏️ Sửa");
+            editButton.getStyleClass().addAll("button-accent", "small", "accent-teal");
+            editButton.setOnAction(e -> editIncomeRecord(record));
 
-        Button deleteButton = new Button("🗑️ Xóa");
-        deleteButton.setStyle(createActionButtonStyle(toHexString(ERROR_COLOR)));
-        deleteButton.setOnAction(e -> deleteIncomeRecord(record));
+            Button deleteButton = new Button("🗑️ Xóa");
+            deleteButton.getStyleClass().addAll("button-accent", "small", "accent-error");
+            deleteButton.setOnAction(e -> deleteIncomeRecord(record));
 
-        Button viewButton = new Button("👁️ Xem");
-        viewButton.setStyle(createActionButtonStyle("#6c757d"));
-        viewButton.setOnAction(e -> viewIncomeDetails(record));
+            Button viewButton = new Button("👁️ Xem");
+            viewButton.getStyleClass().addAll("button-accent", "small", "accent-muted");
+            viewButton.setOnAction(e -> viewIncomeDetails(record));
 
-        actions.getChildren().addAll(viewButton, editButton, deleteButton);
+            actions.getChildren().addAll(viewButton, editButton, deleteButton);
 
-        item.getChildren().addAll(iconContainer, details, spacer, amountSection, actions);
+            item.getChildren().addAll(iconContainer, details, spacer, amountSection, actions);
 
-        // Enhanced hover effects
-        item.setOnMouseEntered(e -> {
-            item.setStyle(
-                    "-fx-background-color: " + toRgbaString(INCOME_COLOR, 0.08) + ";" +
-                            "-fx-background-radius: 16px;" +
-                            "-fx-border-color: " + toRgbaString(INCOME_COLOR, 0.3) + ";" +
-                            "-fx-border-width: 1px;" +
-                            "-fx-border-radius: 16px;" +
-                            "-fx-cursor: hand;"
-            );
+            // Enhanced hover effects
+            item.setOnMouseEntered(e -> {
+                ScaleTransition scale = new ScaleTransition(Duration.millis(100), item);
+                scale.setToX(1.02);
+                scale.setToY(1.02);
+                scale.play();
+            });
 
-            ScaleTransition scale = new ScaleTransition(Duration.millis(100), item);
-            scale.setToX(1.02);
-            scale.setToY(1.02);
-            scale.play();
-        });
+            item.setOnMouseExited(e -> {
+                ScaleTransition scale = new ScaleTransition(Duration.millis(100), item);
+                scale.setToX(1.0);
+                scale.setToY(1.0);
+                scale.play();
+            });
+        }
 
-        item.setOnMouseExited(e -> {
-            item.setStyle(
-                    "-fx-background-color: " + toRgbaString(CARD_COLOR, 0.7) + ";" +
-                            "-fx-background-radius: 16px;" +
-                            "-fx-border-color: " + toRgbaString(TEXT_PRIMARY, 0.1) + ";" +
-                            "-fx-border-width: 1px;" +
-                            "-fx-border-radius: 16px;" +
-                            "-fx-cursor: hand;"
-            );
+        @Override
+        public Node getNode() {
+            return item;
+        }
 
-            ScaleTransition scale = new ScaleTransition(Duration.millis(100), item);
-            scale.setToX(1.0);
-            scale.setToY(1.0);
-            scale.play();
-        });
+        @Override
+        public void bind(IncomeRecord record) {
+            this.record = record;
+            // Cell được tái sử dụng có thể còn phóng to do hover của record trước
+            item.setScaleX(1.0);
+            item.setScaleY(1.0);
+
+            icon.setText(getCategoryIcon(record.getCategory()));
+            source.setText(record.getSource());
+            dateAndCategory.setText(record.getDate().format(RECORD_DATE_FORMAT) + " • " + record.getCategory());
+            newBadge.setVisible(record.getDate().isAfter(LocalDate.now().minusDays(7)));
 
-        return item;
+            boolean hasDescription = record.getDescription() != null && !record.getDescription().trim().isEmpty();
+            description.setText(hasDescription ? record.getDescription() : "");
+            description.setVisible(hasDescription);
+
+            amount.setText("+$" + String.format("%.2f", record.getAmount()));
+            createdTime.setText("Added " + formatRelativeTime(record.getCreatedAt()));
+        }
     }
 
     // Enhanced validation methods
@@ -1590,7 +1379,7 @@ public class FullIncomePage {
 
     private void addValidationError(String message) {
         Label errorLabel = new Label("• " + message);
-        errorLabel.setTextFill(ERROR_COLOR);
+        errorLabel.getStyleClass().add("text-error");
         errorLabel.setFont(Font.font("System", FontWeight.NORMAL, 12));
         validationContainer.getChildren().add(errorLabel);
     }
@@ -1604,12 +1393,6 @@ public class FullIncomePage {
                 !sourceField.getText().trim().isEmpty();
 
         addButton.setDisable(!isFormValid);
-
-        if (isFormValid) {
-            addButton.setStyle(createPrimaryButtonStyle());
-        } else {
-            addButton.setStyle(createDisabledButtonStyle());
-        }
     }
 
     private boolean validateForm() {
@@ -1730,13 +1513,19 @@ public class FullIncomePage {
 
     private void enterEditMode() {
         addButton.setText("💰 Update Income");
-        addButton.setStyle(createWarningButtonStyle());
+        setAddButtonAccent("accent-warning");
     }
 
     private void exitEditMode() {
         editingRecord = null;
         addButton.setText("💰 Add Income");
-        addButton.setStyle(createPrimaryButtonStyle());
+        setAddButtonAccent("accent-income");
+    }
+
+    // Nút thêm đổi màu nhấn theo chế độ; trạng thái disable do :disabled trong stylesheet lo
+    private void setAddButtonAccent(String accentClass) {
+        addButton.getStyleClass().removeAll("accent-income", "accent-warning", "accent-success");
+        addButton.getStyleClass().add(accentClass);
     }
 
     private void deleteIncomeRecord(IncomeRecord record) {
@@ -1764,9 +1553,6 @@ public class FullIncomePage {
                 Platform.runLater(() -> {
                     if (getValue()) {
                         showSuccessMessage("Income record deleted successfully!");
-                        refreshIncomeListAsync();
-                        updateStatsCardsAsync();
-                        notifyDashboardRefresh();
                     } else {
                         showErrorMessage("Failed to delete income record.");
                     }
@@ -1774,7 +1560,7 @@ public class FullIncomePage {
             }
         };
 
-        new Thread(deleteTask).start();
+        TaskScheduler.getInstance().execute(TaskScheduler.Pool.IO, "income-delete", deleteTask);
     }
 
     private void viewIncomeDetails(IncomeRecord record) {
@@ -1799,13 +1585,12 @@ public class FullIncomePage {
 
     // Filtering and sorting methods
     private void filterIncomeList() {
-        // Implementation for filtering income list based on search and filter criteria
-        refreshIncomeListAsync(); // For now, just refresh
+        // Debounce: chỉ lọc khi người dùng ngừng gõ
+        incomeSearch.search();
     }
 
     private void sortIncomeList() {
-        // Implementation for sorting income list
-        refreshIncomeListAsync(); // For now, just refresh
+        incomeSearch.searchNow();
     }
 
     // Navigation and action methods
@@ -1826,112 +1611,6 @@ public class FullIncomePage {
         showInfoMessage("Detailed analytics coming soon!");
     }
 
-    // Enhanced styling methods
-    private String createEnhancedTextFieldStyle() {
-        return "-fx-background-color: " + toRgbaString(CARD_COLOR, 0.6) + ";" +
-                "-fx-text-fill: " + toHexString(TEXT_PRIMARY) + ";" +
-                "-fx-prompt-text-fill: " + toHexString(TEXT_MUTED) + ";" +
-                "-fx-border-color: " + toRgbaString(ACCENT_COLOR, 0.3) + ";" +
-                "-fx-border-width: 1px;" +
-                "-fx-border-radius: 12px;" +
-                "-fx-background-radius: 12px;" +
-                "-fx-font-size: 14px;" +
-                "-fx-padding: 12px;" +
-                "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 5, 0, 0, 2);";
-    }
-
-    private String createEnhancedTextAreaStyle() {
-        return "-fx-background-color: " + toRgbaString(CARD_COLOR, 0.6) + ";" +
-                "-fx-text-fill: " + toHexString(TEXT_PRIMARY) + ";" +
-                "-fx-prompt-text-fill: " + toHexString(TEXT_MUTED) + ";" +
-                "-fx-border-color: " + toRgbaString(ACCENT_COLOR, 0.3) + ";" +
-                "-fx-border-width: 1px;" +
-                "-fx-border-radius: 12px;" +
-                "-fx-background-radius: 12px;" +
-                "-fx-font-size: 14px;" +
-                "-fx-control-inner-background: " + toRgbaString(CARD_COLOR, 0.6) + ";" +
-                "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 5, 0, 0, 2);";
-    }
-
-    private String createEnhancedComboBoxStyle() {
-        return "-fx-background-color: " + toRgbaString(CARD_COLOR, 0.6) + ";" +
-                "-fx-text-fill: " + toHexString(TEXT_PRIMARY) + ";" +
-                "-fx-background-radius: 12px;" +
-                "-fx-border-color: " + toRgbaString(ACCENT_COLOR, 0.3) + ";" +
-                "-fx-border-width: 1px;" +
-                "-fx-border-radius: 12px;" +
-                "-fx-prompt-text-fill: " + toHexString(TEXT_MUTED) + ";" +
-                "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 5, 0, 0, 2);";
-    }
-
-    private String createPrimaryButtonStyle() {
-        return "-fx-background-color: linear-gradient(from 0% 0% to 100% 100%, " + toHexString(INCOME_COLOR) + " 0%, " + toHexString(SUCCESS_COLOR) + " 100%);" +
-                "-fx-text-fill: white;" +
-                "-fx-font-size: 14px;" +
-                "-fx-font-weight: bold;" +
-                "-fx-background-radius: 12px;" +
-                "-fx-cursor: hand;" +
-                "-fx-effect: dropshadow(three-pass-box, " + toRgbaString(INCOME_COLOR, 0.4) + ", 10, 0, 0, 3);";
-    }
-
-    private String createSecondaryButtonStyle() {
-        return "-fx-background-color: " + toRgbaString(TEXT_PRIMARY, 0.1) + ";" +
-                "-fx-text-fill: " + toHexString(TEXT_PRIMARY) + ";" +
-                "-fx-font-size: 13px;" +
-                "-fx-font-weight: 500;" +
-                "-fx-background-radius: 10px;" +
-                "-fx-cursor: hand;" +
-                "-fx-border-color: " + toRgbaString(TEXT_PRIMARY, 0.2) + ";" +
-                "-fx-border-width: 1px;" +
-                "-fx-border-radius: 10px;";
-    }
-
-    private String createWarningButtonStyle() {
-        return "-fx-background-color: " + toHexString(WARNING_COLOR) + ";" +
-                "-fx-text-fill: white;" +
-                "-fx-font-size: 14px;" +
-                "-fx-font-weight: bold;" +
-                "-fx-background-radius: 12px;" +
-                "-fx-cursor: hand;" +
-                "-fx-effect: dropshadow(three-pass-box, " + toRgbaString(WARNING_COLOR, 0.4) + ", 10, 0, 0, 3);";
-    }
-
-    private String createDisabledButtonStyle() {
-        return "-fx-background-color: " + toRgbaString(TEXT_MUTED, 0.3) + ";" +
-                "-fx-text-fill: " + toHexString(TEXT_MUTED) + ";" +
-                "-fx-font-size: 14px;" +
-                "-fx-font-weight: bold;" +
-                "-fx-background-radius: 12px;";
-    }
-
-    private String createLinkButtonStyle() {
-        return "-fx-background-color: transparent;" +
-                "-fx-text-fill: " + toHexString(ACCENT_COLOR) + ";" +
-                "-fx-font-size: 14px;" +
-                "-fx-cursor: hand;" +
-                "-fx-underline: true;";
-    }
-
-    private String createActionButtonStyle(String bgColor) {
-        return "-fx-background-color: " + bgColor + ";" +
-                "-fx-text-fill: white;" +
-                "-fx-background-radius: 8px;" +
-                "-fx-cursor: hand;" +
-                "-fx-font-size: 13px;" +
-                "-fx-padding: 6px 12px;" +
-                "-fx-font-weight: bold;";
-    }
-
-    private void updateFieldFocus(TextField field, boolean focused) {
-        if (focused) {
-            field.setStyle(field.getStyle().replace(
-                    toRgbaString(ACCENT_COLOR, 0.3), toRgbaString(ACCENT_COLOR, 0.6)));
-        } else {
-            field.setStyle(field.getStyle().replace(
-                    toRgbaString(ACCENT_COLOR, 0.6), toRgbaString(ACCENT_COLOR, 0.3)));
-        }
-    }
-
     // Utility methods
     private String getCategoryIcon(String category) {
         return switch (category.toLowerCase()) {
@@ -1959,12 +1638,12 @@ public class FullIncomePage {
         }
     }
 
-    private Color getInsightColor(AnalyticsService.FinancialInsight.InsightLevel level) {
+    private String getInsightAccent(AnalyticsService.FinancialInsight.InsightLevel level) {
         return switch (level) {
-            case SUCCESS -> SUCCESS_COLOR;
-            case WARNING -> WARNING_COLOR;
-            case ALERT -> ERROR_COLOR;
-            default -> ACCENT_COLOR;
+            case SUCCESS -> "accent-success";
+            case WARNING -> "accent-warning";
+            case ALERT -> "accent-error";
+            default -> "accent-teal";
         };
     }
 
@@ -1974,9 +1653,8 @@ public class FullIncomePage {
         alert.setHeaderText(header);
         alert.setContentText(content);
 
-        // Apply dark theme styling to alert
-        DialogPane dialogPane = alert.getDialogPane();
-        dialogPane.setStyle("-fx-background-color: " + toHexString(CARD_COLOR) + ";");
+        // Dialog có scene riêng: gắn stylesheet và theme hiện tại
+        ThemeManager.styleDialog(alert.getDialogPane());
 
         return alert;
     }
@@ -1990,7 +1668,7 @@ public class FullIncomePage {
         errorIcon.setFont(Font.font(32));
 
         Label errorLabel = new Label(message);
-        errorLabel.setTextFill(ERROR_COLOR);
+        errorLabel.getStyleClass().add("text-error");
         errorLabel.setFont(Font.font("System", FontWeight.MEDIUM, 16));
         errorLabel.setWrapText(true);
         errorLabel.setAlignment(Pos.CENTER);
@@ -1999,39 +1677,23 @@ public class FullIncomePage {
         return errorContent;
     }
 
-    // Color utility methods
-    private String toHexString(Color color) {
-        return String.format("#%02X%02X%02X",
-                (int)(color.getRed() * 255),
-                (int)(color.getGreen() * 255),
-                (int)(color.getBlue() * 255));
-    }
-
-    private String toRgbaString(Color color, double alpha) {
-        return String.format("rgba(%.0f, %.0f, %.0f, %.2f)",
-                color.getRed() * 255, color.getGreen() * 255, color.getBlue() * 255, alpha);
-    }
-
-    private Color toRgbaColor(Color color, double alpha) {
-        return new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha);
-    }
-
     // Message methods
     private void showSuccessMessage(String message) {
-        showStatusMessage(message, SUCCESS_COLOR);
+        showStatusMessage(message, "text-success");
     }
 
     private void showErrorMessage(String message) {
-        showStatusMessage(message, ERROR_COLOR);
+        showStatusMessage(message, "text-error");
     }
 
     private void showInfoMessage(String message) {
-        showStatusMessage(message, ACCENT_COLOR);
+        showStatusMessage(message, "text-accent");
     }
 
-    private void showStatusMessage(String message, Color color) {
+    private void showStatusMessage(String message, String textClass) {
         statusLabel.setText(message);
-        statusLabel.setTextFill(color);
+        statusLabel.getStyleClass().removeAll("text-success", "text-error", "text-accent");
+        statusLabel.getStyleClass().add(textClass);
         statusLabel.setVisible(true);
 
         // Auto-hide after 3 seconds
@@ -2084,10 +1746,5 @@ public class FullIncomePage {
         
         // Update button state
         addButton.setDisable(!isFormValid);
-        if (isFormValid) {
-            addButton.setStyle(createPrimaryButtonStyle());
-        } else {
-            addButton.setStyle(createDisabledButtonStyle());
-        }
     }
 }
\ No newline at end of file
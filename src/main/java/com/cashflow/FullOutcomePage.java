@@ -3,9 +3,9 @@ package com.cashflow;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.ArrayList;
+import java.util.function.Predicate;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -14,6 +14,8 @@ import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
@@ -21,16 +23,13 @@ import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
-import javafx.scene.effect.DropShadow;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
-import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Arc;
 import javafx.scene.shape.ArcType;
@@ -49,21 +48,17 @@ import javafx.scene.control.ProgressIndicator;
 public class FullOutcomePage {
 
     private static final Logger logger = Logger.getLogger(FullOutcomePage.class.getName());
-
-    // Enhanced color scheme
-    private final Color OUTCOME_COLOR = Color.web("#8b5cf6"); // Purple theme for outcomes
-    private final Color ACCENT_COLOR = Color.web("#4ECDC4");
-    private final Color TEXT_PRIMARY = Color.WHITE;
-    private final Color TEXT_SECONDARY = Color.web("#8892b0");
-    private final Color TEXT_MUTED = Color.web("#64748b");
-    private final Color SUCCESS_COLOR = Color.web("#4CAF50");
-    private final Color ERROR_COLOR = Color.web("#FF6B6B");
-    private final Color WARNING_COLOR = Color.web("#FF9800");
-    private final Color CARD_COLOR = Color.web("#1e2749");
-    private final Color BACKGROUND_COLOR = Color.web("#0f0f23");
+    private static final int SEARCH_DEBOUNCE_MS = 250;
+    // Số record tải vào danh sách (mới nhất trước); truy vấn có điều kiện database cũng lấy tối đa chừng này
+    private static final int RECORD_LOAD_LIMIT = 100;
+    private static final DateTimeFormatter RECORD_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
 
     private DatabaseManager dbManager;
     private VBox outcomeListContainer;
+    private RecordListView<OutcomeRecord> outcomeListView;
+    private SearchPipeline<RecordListQuery, OutcomeRecord> outcomeSearch;
+    private volatile LedgerSearchIndex<OutcomeRecord> outcomeSearchIndex;
+    private volatile RecordSortIndex<OutcomeRecord> outcomeSortIndex;
     private HBox statsContainer;
     private TextField amountField;
     private TextField titleField;
@@ -76,8 +71,9 @@ public class FullOutcomePage {
     private OutcomeRecord editingRecord;
     private Label outcomeTotalLabel;
 
-    // Static callback for dashboard refresh
-    private static Runnable dashboardRefreshCallback;
+    // Nhận thay đổi từ DatabaseManager khi trang đang gắn vào scene
+    private LedgerEventBus.Subscription ledgerSubscription;
+    private boolean statsCardsBuilt;
 
     // Thêm fields cho filtering
     private ComboBox<String> dateRangeFilter;
@@ -95,22 +91,12 @@ public class FullOutcomePage {
         this.dbManager = dbManager;
     }
 
-    public static void setDashboardRefreshCallback(Runnable callback) {
-        dashboardRefreshCallback = callback;
-    }
-
-    private void notifyDashboardRefresh() {
-        if (dashboardRefreshCallback != null) {
-            Platform.runLater(() -> {
-                System.out.println("Notifying dashboard refresh from Outcome page");
-            });
-        }
-    }
 
     public VBox createOutcomePageContent() {
         VBox mainContent = new VBox(25);
         mainContent.setPadding(new Insets(30));
-        mainContent.setStyle("-fx-background-color: " + toHexString(BACKGROUND_COLOR) + ";");
+        // Nền và màu nhấn của trang lấy từ stylesheet
+        mainContent.getStyleClass().addAll("content-area", "accent-teal");
 
         // Header with breadcrumb
         HBox header = createOutcomeHeader();
@@ -131,24 +117,60 @@ public class FullOutcomePage {
         mainArea.getChildren().addAll(addOutcomeSection, outcomeListSection);
 
         mainContent.getChildren().addAll(header, statsOverview, mainArea);
+        bindLedgerEvents(mainContent);
         return mainContent;
     }
 
+    /**
+     * Chỉ nghe event khi trang đang hiển thị; rời trang thì huỷ đăng ký để trang cũ được thu hồi
+     */
+    private void bindLedgerEvents(Node pageRoot) {
+        pageRoot.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene != null && ledgerSubscription == null) {
+                ledgerSubscription = dbManager.getEventBus()
+                    .subscribeOnFxThread(LedgerEvent.class, this::onLedgerEvent);
+            } else if (newScene == null && ledgerSubscription != null) {
+                ledgerSubscription.unsubscribe();
+                ledgerSubscription = null;
+            }
+        });
+    }
+
+    private void onLedgerEvent(LedgerEvent event) {
+        if (!event.affects(LedgerType.OUTCOME)) {
+            return;
+        }
+        if (event instanceof LedgerEvent.LedgerReset) {
+            refreshOutcomeListWithFilters();
+        } else {
+            outcomeSearch.updateSource(records -> {
+                List<OutcomeRecord> updated = event.applyTo(records, OutcomeRecord.class);
+                // Vá thứ tự sắp xếp theo event thay vì sắp xếp lại cả nguồn
+                RecordSortIndex<OutcomeRecord> sortIndex = outcomeSortIndex;
+                if (sortIndex != null && sortIndex.covers(records)) {
+                    outcomeSortIndex = sortIndex.withEvent(event, OutcomeRecord.class, updated);
+                }
+                return updated;
+            });
+        }
+        updateStatsCardsAsync();
+    }
+
     private HBox createOutcomeHeader() {
         HBox header = new HBox(15);
         header.setAlignment(Pos.CENTER_LEFT);
 
         Label breadcrumb = new Label("Dashboard");
-        breadcrumb.setTextFill(TEXT_SECONDARY);
+        breadcrumb.getStyleClass().add("text-secondary");
         breadcrumb.setFont(Font.font("System", FontWeight.NORMAL, 14));
-        breadcrumb.setStyle("-fx-cursor: hand;");
+        breadcrumb.setCursor(Cursor.HAND);
 
         Label separator = new Label("/");
-        separator.setTextFill(TEXT_MUTED);
+        separator.getStyleClass().add("text-muted");
         separator.setFont(Font.font("System", FontWeight.NORMAL, 14));
 
         Label currentPage = new Label("Expense Management");
-        currentPage.setTextFill(TEXT_PRIMARY);
+        currentPage.getStyleClass().add("text-primary");
         currentPage.setFont(Font.font("System", FontWeight.BOLD, 28));
 
         header.getChildren().addAll(breadcrumb, separator, currentPage);
@@ -160,7 +182,7 @@ public class FullOutcomePage {
 
         // Section title
         Label statsTitle = new Label("Expense Overview");
-        statsTitle.setTextFill(TEXT_PRIMARY);
+        statsTitle.getStyleClass().add("text-primary");
         statsTitle.setFont(Font.font("System", FontWeight.BOLD, 20));
 
         // Stats container
@@ -178,7 +200,10 @@ public class FullOutcomePage {
     }
 
     private void updateStatsCardsAsync() {
-        showStatsLoading(true);
+        // Lần đầu mới hiện placeholder; các lần sau chỉ cập nhật số trên thẻ đã có
+        if (!statsCardsBuilt) {
+            showStatsLoading(true);
+        }
 
         Task<Void> updateTask = new Task<Void>() {
             private double currentMonthOutcome;
@@ -186,15 +211,16 @@ public class FullOutcomePage {
             private int recordsCount;
             private double avgOutcome;
             private double recentWeekOutcome;
+            private boolean hasCurrentMonth;
+            private boolean hasCurrentWeek;
 
             @Override
             protected Void call() throws Exception {
-                Thread.sleep(300);
-
                 LocalDate now = LocalDate.now();
                 
                 // Lấy dữ liệu tháng hiện tại
                 currentMonthOutcome = dbManager.getMonthlyOutcome(now);
+                hasCurrentMonth = currentMonthOutcome > 0;
                 if (currentMonthOutcome == 0) {
                     currentMonthOutcome = dbManager.getLatestMonthOutcome();
                 }
@@ -208,6 +234,7 @@ public class FullOutcomePage {
                 avgOutcome = dbManager.getAverageMonthlyOutcome();
                 
                 recentWeekOutcome = dbManager.getWeeklyOutcome(now);
+                hasCurrentWeek = recentWeekOutcome > 0;
                 if (recentWeekOutcome == 0) {
                     recentWeekOutcome = dbManager.getLatestWeekOutcome();
                 }
@@ -218,33 +245,42 @@ public class FullOutcomePage {
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    statsContainer.getChildren().clear();
-
-                    String monthTitle = (dbManager.getMonthlyOutcome(LocalDate.now()) > 0) ? 
+                    String monthTitle = hasCurrentMonth ? 
                         "This Month" : "Latest Month";
                     
-                    String weekTitle = (dbManager.getWeeklyOutcome(LocalDate.now()) > 0) ? 
+                    String weekTitle = hasCurrentWeek ? 
                         "This Week" : "Recent Period";
 
+                    if (statsCardsBuilt) {
+                        updateStatCard(0, monthTitle, "$" + String.format("%.0f", currentMonthOutcome));
+                        updateStatCard(1, weekTitle, "$" + String.format("%.0f", recentWeekOutcome));
+                        updateStatCard(2, "Total Outcome", "$" + String.format("%.0f", yearlyOutcome));
+                        updateStatCard(3, "Total Records", String.valueOf(recordsCount));
+                        updateStatCard(4, "Monthly Average", "$" + String.format("%.0f", avgOutcome));
+                        return;
+                    }
+                    statsContainer.getChildren().clear();
+
                     VBox monthlyCard = createEnhancedStatCard("💸", monthTitle,
                             "$" + String.format("%.0f", currentMonthOutcome),
-                            "-5.2%", true, OUTCOME_COLOR, true);
+                            "-5.2%", true, "accent-purple", true);
 
                     VBox weeklyCard = createEnhancedStatCard("📅", weekTitle,
                             "$" + String.format("%.0f", recentWeekOutcome),
-                            "+8.7%", true, WARNING_COLOR, false);
+                            "+8.7%", true, "accent-warning", false);
 
                     VBox yearlyCard = createEnhancedStatCard("📈", "Total Outcome",
                             "$" + String.format("%.0f", yearlyOutcome),
-                            "+15.2%", true, ACCENT_COLOR, false);
+                            "+15.2%", true, "accent-teal", false);
 
                     VBox recordsCard = createEnhancedStatCard("📊", "Total Records",
-                            String.valueOf(recordsCount), "", false, TEXT_SECONDARY, false);
+                            String.valueOf(recordsCount), "", false, "accent-muted", false);
 
                     VBox avgCard = createEnhancedStatCard("💵", "Monthly Average",
-                            "$" + String.format("%.0f", avgOutcome), "", false, WARNING_COLOR, false);
+                            "$" + String.format("%.0f", avgOutcome), "", false, "accent-warning", false);
 
                     statsContainer.getChildren().addAll(monthlyCard, weeklyCard, yearlyCard, recordsCard, avgCard);
+                    statsCardsBuilt = true;
 
                     animateStatsCards();
                     showStatsLoading(false);
@@ -260,38 +296,19 @@ public class FullOutcomePage {
             }
         };
 
-        new Thread(updateTask).start();
+        TaskScheduler.getInstance().executeCoalesced(
+            TaskScheduler.Pool.IO, TaskScheduler.TaskPriority.VISIBLE, "outcome-stats", updateTask);
     }
 
     private VBox createEnhancedStatCard(String icon, String title, String value,
-                                        String change, boolean showChange, Color accentColor, boolean isMainCard) {
+                                        String change, boolean showChange, String accentClass, boolean isMainCard) {
         VBox card = new VBox(20);
         card.setPadding(new Insets(isMainCard ? 30 : 20));
         card.setPrefWidth(isMainCard ? 300 : 240);
         card.setPrefHeight(isMainCard ? 160 : 130);
 
         // Enhanced card styling
-        if (isMainCard) {
-            card.setStyle(
-                    "-fx-background-color: linear-gradient(from 0% 0% to 100% 100%, " +
-                            toRgbaString(accentColor, 0.15) + " 0%, " +
-                            toRgbaString(OUTCOME_COLOR, 0.1) + " 100%);" +
-                            "-fx-background-radius: 20px;" +
-                            "-fx-border-color: " + toRgbaString(accentColor, 0.3) + ";" +
-                            "-fx-border-width: 1.5px;" +
-                            "-fx-border-radius: 20px;" +
-                            "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.4), 20, 0, 0, 8);"
-            );
-        } else {
-            card.setStyle(
-                    "-fx-background-color: " + toRgbaString(CARD_COLOR, 0.7) + ";" +
-                            "-fx-background-radius: 16px;" +
-                            "-fx-border-color: " + toRgbaString(TEXT_PRIMARY, 0.1) + ";" +
-                            "-fx-border-width: 1px;" +
-                            "-fx-border-radius: 16px;" +
-                            "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.3), 15, 0, 0, 5);"
-            );
-        }
+        card.getStyleClass().addAll(isMainCard ? "hero-card" : "glass-card", accentClass);
 
         // Enhanced header với icon
         HBox header = new HBox(12);
@@ -299,8 +316,7 @@ public class FullOutcomePage {
 
         StackPane iconContainer = new StackPane();
         Circle iconBg = new Circle(isMainCard ? 22 : 18);
-        iconBg.setFill(toRgbaColor(accentColor, 0.2));
-        iconBg.setEffect(new DropShadow(4, toRgbaColor(accentColor, 0.4)));
+        iconBg.getStyleClass().add("icon-disc");
 
         Label iconLabel = new Label(icon);
         iconLabel.setFont(Font.font(isMainCard ? 20 : 16));
@@ -309,12 +325,12 @@ public class FullOutcomePage {
 
         VBox titleContainer = new VBox(3);
         Label titleLabel = new Label(title);
-        titleLabel.setTextFill(TEXT_SECONDARY);
+        titleLabel.getStyleClass().addAll("stat-title", "text-secondary");
         titleLabel.setFont(Font.font("System", FontWeight.MEDIUM, isMainCard ? 15 : 13));
 
         if (isMainCard) {
             Label subtitleLabel = new Label("Current period");
-            subtitleLabel.setTextFill(TEXT_MUTED);
+            subtitleLabel.getStyleClass().add("text-muted");
             subtitleLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
             titleContainer.getChildren().addAll(titleLabel, subtitleLabel);
         } else {
@@ -327,7 +343,7 @@ public class FullOutcomePage {
         VBox valueSection = new VBox(8);
 
         Label valueLabel = new Label(value);
-        valueLabel.setTextFill(TEXT_PRIMARY);
+        valueLabel.getStyleClass().addAll("stat-value", "text-primary");
         valueLabel.setFont(Font.font("System", FontWeight.BOLD, isMainCard ? 32 : 24));
 
         if (showChange && !change.isEmpty()) {
@@ -335,14 +351,8 @@ public class FullOutcomePage {
             changeContainer.setAlignment(Pos.CENTER_LEFT);
 
             Label changeLabel = new Label(change);
-            Color changeColor = change.startsWith("-") ? SUCCESS_COLOR : ERROR_COLOR;
-            changeLabel.setTextFill(changeColor);
+            changeLabel.getStyleClass().addAll("badge", change.startsWith("-") ? "accent-success" : "accent-error");
             changeLabel.setFont(Font.font("System", FontWeight.BOLD, 12));
-            changeLabel.setStyle(
-                    "-fx-background-color: " + toRgbaString(changeColor, 0.15) + ";" +
-                            "-fx-background-radius: 10px;" +
-                            "-fx-padding: 4 8 4 8;"
-            );
 
             Label trendIcon = new Label(change.startsWith("-") ? "📉" : "📈");
             trendIcon.setFont(Font.font(10));
@@ -381,12 +391,27 @@ public class FullOutcomePage {
                 placeholder.setPadding(new Insets(20));
                 placeholder.setPrefWidth(240);
                 placeholder.setPrefHeight(130);
-                placeholder.setStyle("-fx-background-color: " + toRgbaString(CARD_COLOR, 0.5) + "; -fx-background-radius: 16px;");
+                placeholder.getStyleClass().add("skeleton-card");
                 statsContainer.getChildren().add(placeholder);
             }
         }
     }
 
+    private void updateStatCard(int index, String title, String value) {
+        if (index >= statsContainer.getChildren().size()) {
+            return;
+        }
+        Node card = statsContainer.getChildren().get(index);
+        Node titleLabel = card.lookup(".stat-title");
+        Node valueLabel = card.lookup(".stat-value");
+        if (titleLabel instanceof Label) {
+            ((Label) titleLabel).setText(title);
+        }
+        if (valueLabel instanceof Label) {
+            ((Label) valueLabel).setText(value);
+        }
+    }
+
     private void animateStatsCards() {
         for (int i = 0; i < statsContainer.getChildren().size(); i++) {
             VBox card = (VBox) statsContainer.getChildren().get(i);
@@ -402,31 +427,23 @@ public class FullOutcomePage {
             tt.setDelay(Duration.millis(i * 80));
 
             ParallelTransition pt = new ParallelTransition(ft, tt);
-            pt.play();
+            AnimationGovernor.getInstance().play(pt);
         }
     }
 
-    private Color toRgbaColor(Color color, double alpha) {
-        return new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha);
-    }
-
     private VBox createAddOutcomeSection() {
         VBox section = new VBox(20);
         section.setPrefWidth(400);
 
         // Title
         Label title = new Label("Add New Expense");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("System", FontWeight.BOLD, 18));
 
         // Form card
         VBox formCard = new VBox(20);
         formCard.setPadding(new Insets(25));
-        formCard.setStyle(
-                "-fx-background-color: " + toHexString(CARD_COLOR) + ";" +
-                        "-fx-background-radius: 15px;" +
-                        "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.3), 10, 0, 0, 3);"
-        );
+        formCard.getStyleClass().add("card");
 
         // Form fields
         VBox amountFieldContainer = createAmountField();
@@ -444,13 +461,7 @@ public class FullOutcomePage {
         Button cancelButton = new Button("Cancel Edit");
         cancelButton.setPrefWidth(Double.MAX_VALUE);
         cancelButton.setPrefHeight(35);
-        cancelButton.setStyle(
-                "-fx-background-color: #6c757d;" +
-                        "-fx-text-fill: white;" +
-                        "-fx-font-size: 12px;" +
-                        "-fx-background-radius: 8px;" +
-                        "-fx-cursor: hand;"
-        );
+        cancelButton.getStyleClass().addAll("button-accent", "small", "accent-muted");
         cancelButton.setVisible(false);
         cancelButton.setOnAction(e -> {
             clearForm();
@@ -480,18 +491,13 @@ public class FullOutcomePage {
         VBox field = new VBox(8);
 
         Label label = new Label("Amount");
-        label.setTextFill(TEXT_SECONDARY);
+        label.getStyleClass().add("text-secondary");
         label.setFont(Font.font("System", FontWeight.MEDIUM, 14));
 
         amountField = new TextField();
         amountField.setPromptText("Enter amount (e.g., 150.00)");
         amountField.setPrefHeight(40);
-        amountField.setStyle(createEnhancedTextFieldStyle());
-
-        // Focus styling
-        amountField.focusedProperty().addListener((obs, wasFocused, isNowFocused) -> {
-            updateFieldFocus(amountField, isNowFocused);
-        });
+        amountField.getStyleClass().addAll("form-field", "compact");
 
         field.getChildren().addAll(label, amountField);
         return field;
@@ -501,18 +507,13 @@ public class FullOutcomePage {
         VBox field = new VBox(8);
 
         Label label = new Label("Title/Description");
-        label.setTextFill(TEXT_SECONDARY);
+        label.getStyleClass().add("text-secondary");
         label.setFont(Font.font("System", FontWeight.MEDIUM, 14));
 
         titleField = new TextField();
         titleField.setPromptText("e.g., Grocery Shopping, Electric Bill");
         titleField.setPrefHeight(40);
-        titleField.setStyle(createEnhancedTextFieldStyle());
-
-        // Focus styling
-        titleField.focusedProperty().addListener((obs, wasFocused, isNowFocused) -> {
-            updateFieldFocus(titleField, isNowFocused);
-        });
+        titleField.getStyleClass().addAll("form-field", "compact");
 
         field.getChildren().addAll(label, titleField);
         return field;
@@ -522,7 +523,7 @@ public class FullOutcomePage {
         VBox field = new VBox(8);
         
         Label label = new Label("Category");
-        label.setTextFill(TEXT_SECONDARY);
+        label.getStyleClass().add("text-secondary");
         label.setFont(Font.font("System", FontWeight.MEDIUM, 14));
         
         categoryCombo = new ComboBox<>();
@@ -539,7 +540,7 @@ public class FullOutcomePage {
         categoryCombo.setValue(categoryCombo.getItems().isEmpty() ? "Other" : categoryCombo.getItems().get(0));
         categoryCombo.setPrefWidth(Double.MAX_VALUE);
         categoryCombo.setEditable(false);
-        categoryCombo.setStyle(createEnhancedComboBoxStyle());
+        categoryCombo.getStyleClass().addAll("form-field", "compact");
         
         field.getChildren().addAll(label, categoryCombo);
         return field;
@@ -549,7 +550,7 @@ public class FullOutcomePage {
         VBox field = new VBox(8);
 
         Label label = new Label("Payment Method");
-        label.setTextFill(TEXT_SECONDARY);
+        label.getStyleClass().add("text-secondary");
         label.setFont(Font.font("System", FontWeight.MEDIUM, 14));
 
         paymentMethodCombo = new ComboBox<>();
@@ -559,7 +560,7 @@ public class FullOutcomePage {
         paymentMethodCombo.setValue("Cash");
         paymentMethodCombo.setPrefWidth(Double.MAX_VALUE);
         paymentMethodCombo.setEditable(false);
-        paymentMethodCombo.setStyle(createEnhancedComboBoxStyle());
+        paymentMethodCombo.getStyleClass().addAll("form-field", "compact");
 
         field.getChildren().addAll(label, paymentMethodCombo);
         return field;
@@ -569,13 +570,13 @@ public class FullOutcomePage {
         VBox field = new VBox(8);
 
         Label label = new Label("Date");
-        label.setTextFill(TEXT_SECONDARY);
+        label.getStyleClass().add("text-secondary");
         label.setFont(Font.font("System", FontWeight.MEDIUM, 14));
 
         datePicker = new DatePicker(LocalDate.now());
         datePicker.setPrefWidth(Double.MAX_VALUE);
         datePicker.setEditable(false);
-        datePicker.setStyle(createEnhancedComboBoxStyle());
+        datePicker.getStyleClass().addAll("form-field", "compact");
 
         field.getChildren().addAll(label, datePicker);
         return field;
@@ -585,22 +586,14 @@ public class FullOutcomePage {
         VBox field = new VBox(8);
 
         Label label = new Label("Additional Notes (Optional)");
-        label.setTextFill(TEXT_SECONDARY);
+        label.getStyleClass().add("text-secondary");
         label.setFont(Font.font("System", FontWeight.MEDIUM, 14));
 
         descriptionArea = new TextArea();
         descriptionArea.setPromptText("Add any additional details...");
         descriptionArea.setPrefHeight(80);
         descriptionArea.setWrapText(true);
-        descriptionArea.setStyle(
-                "-fx-background-color: #2a3441;" +
-                        "-fx-text-fill: white;" +
-                        "-fx-prompt-text-fill: " + toHexString(TEXT_MUTED) + ";" +
-                        "-fx-border-color: transparent;" +
-                        "-fx-background-radius: 8px;" +
-                        "-fx-font-size: 14px;" +
-                        "-fx-control-inner-background: #2a3441;"
-        );
+        descriptionArea.getStyleClass().addAll("form-field", "compact");
 
         field.getChildren().addAll(label, descriptionArea);
         return field;
@@ -610,15 +603,11 @@ public class FullOutcomePage {
         VBox field = new VBox(8);
 
         recurringCheckBox = new CheckBox("Recurring Expense");
-        recurringCheckBox.setTextFill(TEXT_SECONDARY);
+        recurringCheckBox.getStyleClass().add("text-secondary");
         recurringCheckBox.setFont(Font.font("System", FontWeight.MEDIUM, 14));
-        recurringCheckBox.setStyle(
-                "-fx-text-fill: " + toHexString(TEXT_SECONDARY) + ";" +
-                        "-fx-font-size: 14px;"
-        );
 
         Label helpText = new Label("Check if this is a monthly recurring expense");
-        helpText.setTextFill(TEXT_MUTED);
+        helpText.getStyleClass().add("text-muted");
         helpText.setFont(Font.font("System", FontWeight.NORMAL, 12));
 
         field.getChildren().addAll(recurringCheckBox, helpText);
@@ -629,7 +618,7 @@ public class FullOutcomePage {
         addButton = new Button("💸 Add Expense");
         addButton.setPrefWidth(160);
         addButton.setPrefHeight(50);
-        addButton.setStyle(createDisabledButtonStyle());
+        addButton.getStyleClass().addAll("button-accent", "small", "accent-purple");
         addButton.setDisable(true);
 
         addButton.setOnAction(e -> {
@@ -669,18 +658,17 @@ public class FullOutcomePage {
         // Enhanced header with filters
         VBox listHeader = createAdvancedOutcomeFilterHeader();
         
-        // Outcome list container
-        ScrollPane scrollPane = new ScrollPane();
+        // Outcome list container (virtualized list, loading/empty/error states)
         outcomeListContainer = new VBox(10);
-        scrollPane.setContent(outcomeListContainer);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setPrefHeight(400);
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        outcomeListContainer.setPrefHeight(400);
+        outcomeListView = new RecordListView<>(OutcomeRow::new, 10);
+        VBox.setVgrow(outcomeListView, Priority.ALWAYS);
         
         // Load initial data with filters
+        outcomeSearch = createOutcomeSearchPipeline();
         refreshOutcomeListWithFilters();
         
-        section.getChildren().addAll(listHeader, scrollPane);
+        section.getChildren().addAll(listHeader, outcomeListContainer);
         return section;
     }
 
@@ -693,14 +681,14 @@ public class FullOutcomePage {
         titleRow.setAlignment(Pos.CENTER_LEFT);
         
         Label title = new Label("Recent Expenses");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("System", FontWeight.BOLD, 18));
         
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
         
         outcomeTotalLabel = new Label("Total: $0");
-        outcomeTotalLabel.setTextFill(TEXT_SECONDARY);
+        outcomeTotalLabel.getStyleClass().add("text-secondary");
         outcomeTotalLabel.setFont(Font.font("System", FontWeight.MEDIUM, 12));
         
         titleRow.getChildren().addAll(title, spacer, outcomeTotalLabel);
@@ -711,10 +699,10 @@ public class FullOutcomePage {
         
         // Search field
         searchField = new TextField();
-        searchField.setPromptText("🔍 Search expenses...");
+        searchField.setPromptText("🔍 Search expenses... (category:Food amount>100 date:2024-12)");
         searchField.setPrefWidth(200);
-        searchField.setStyle(createEnhancedTextFieldStyle());
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> refreshOutcomeListWithFilters());
+        searchField.getStyleClass().addAll("form-field", "compact");
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> outcomeSearch.search());
         
         // Date filter
         dateRangeFilter = new ComboBox<>();
@@ -723,8 +711,8 @@ public class FullOutcomePage {
             "Last Week", "Last Month", "Last Year"
         );
         dateRangeFilter.setValue("All Time");
-        dateRangeFilter.setStyle(createEnhancedComboBoxStyle());
-        dateRangeFilter.setOnAction(e -> refreshOutcomeListWithFilters());
+        dateRangeFilter.getStyleClass().addAll("form-field", "compact");
+        dateRangeFilter.setOnAction(e -> outcomeSearch.searchNow());
         
         // Sort filter
         sortFilter = new ComboBox<>();
@@ -733,8 +721,8 @@ public class FullOutcomePage {
             "Amount (High to Low)", "Amount (Low to High)"
         );
         sortFilter.setValue("Date (Newest)");
-        sortFilter.setStyle(createEnhancedComboBoxStyle());
-        sortFilter.setOnAction(e -> refreshOutcomeListWithFilters());
+        sortFilter.getStyleClass().addAll("form-field", "compact");
+        sortFilter.setOnAction(e -> outcomeSearch.searchNow());
         
         filterRow.getChildren().addAll(searchField, dateRangeFilter, sortFilter);
         
@@ -743,26 +731,26 @@ public class FullOutcomePage {
         amountRow.setAlignment(Pos.CENTER_LEFT);
         
         Label amountLabel = new Label("Amount:");
-        amountLabel.setTextFill(TEXT_SECONDARY);
+        amountLabel.getStyleClass().add("text-secondary");
         amountLabel.setFont(Font.font("System", FontWeight.MEDIUM, 12));
         
         minAmountField = new TextField();
         minAmountField.setPromptText("Min");
         minAmountField.setPrefWidth(80);
-        minAmountField.setStyle(createEnhancedTextFieldStyle());
-        minAmountField.textProperty().addListener((obs, oldVal, newVal) -> refreshOutcomeListWithFilters());
+        minAmountField.getStyleClass().addAll("form-field", "compact");
+        minAmountField.textProperty().addListener((obs, oldVal, newVal) -> outcomeSearch.search());
         
         Label toLabel = new Label("to");
-        toLabel.setTextFill(TEXT_MUTED);
+        toLabel.getStyleClass().add("text-muted");
         
         maxAmountField = new TextField();
         maxAmountField.setPromptText("Max");
         maxAmountField.setPrefWidth(80);
-        maxAmountField.setStyle(createEnhancedTextFieldStyle());
-        maxAmountField.textProperty().addListener((obs, oldVal, newVal) -> refreshOutcomeListWithFilters());
+        maxAmountField.getStyleClass().addAll("form-field", "compact");
+        maxAmountField.textProperty().addListener((obs, oldVal, newVal) -> outcomeSearch.search());
         
         Button clearButton = new Button("Clear");
-        clearButton.setStyle(createSecondaryButtonStyle());
+        clearButton.getStyleClass().addAll("button-secondary", "compact");
         clearButton.setOnAction(e -> clearOutcomeFilters());
         
         amountRow.getChildren().addAll(amountLabel, minAmountField, toLabel, maxAmountField, clearButton);
@@ -771,298 +759,148 @@ public class FullOutcomePage {
         return headerContainer;
     }
 
-    // Method để refresh outcome list với filters
-    private void refreshOutcomeListWithFilters() {
-        showOutcomeListLoading(true);
-
-        Task<List<OutcomeRecord>> loadRecordsTask = new Task<List<OutcomeRecord>>() {
-            @Override
-            protected List<OutcomeRecord> call() throws Exception {
-                Thread.sleep(200);
-                
-                // Lấy NHIỀU records hơn
-                List<OutcomeRecord> allRecords = dbManager.getOutcomeRecords(100); // Tăng limit
-                return applyAllOutcomeFilters(allRecords);
-            }
-
-            @Override
-            protected void succeeded() {
-                Platform.runLater(() -> {
-                    List<OutcomeRecord> filteredRecords = getValue();
-                    displayOutcomeRecordsWithAnimation(filteredRecords);
-                    updateOutcomeListSummary(filteredRecords);
-                    showOutcomeListLoading(false);
-                });
-            }
+    /**
+     * Làm mới danh sách và thẻ thống kê khi trang được hiển thị lại sau khi dữ liệu đổi
+     */
+    public void refresh() {
+        refreshOutcomeListWithFilters();
+        updateStatsCardsAsync();
+    }
 
-            @Override
-            protected void failed() {
-                Platform.runLater(() -> {
-                    showOutcomeListError();
-                    showOutcomeListLoading(false);
-                });
+    // Đọc lại dữ liệu từ database (sau khi thêm/sửa/xoá), rồi áp dụng filter hiện tại
+    private void refreshOutcomeListWithFilters() {
+        outcomeSearch.reload();
+    }
+
+    private SearchPipeline<RecordListQuery, OutcomeRecord> createOutcomeSearchPipeline() {
+        SearchPipeline<RecordListQuery, OutcomeRecord> pipeline = new SearchPipeline<>(
+            "outcome",
+            Duration.millis(SEARCH_DEBOUNCE_MS),
+            this::captureOutcomeQuery,
+            query -> dbManager.searchOutcomeRecords(query.getSearch(), query.getFilter(), RECORD_LOAD_LIMIT),
+            RecordListQuery::getDatabaseKey,
+            this::applyAllOutcomeFilters,
+            RecordListQuery::narrows
+        );
+        pipeline.setIndexer(this::indexOutcomeRecords);
+        pipeline.setOnLoading(() -> showOutcomeListLoading(true));
+        pipeline.setOnResults(filteredRecords -> {
+            displayOutcomeRecordsWithAnimation(filteredRecords);
+            updateOutcomeListSummary(filteredRecords);
+        });
+        // Thay đổi từ LedgerEvent: giữ nguyên vị trí cuộn, không chạy lại animation
+        pipeline.setOnUpdated(filteredRecords -> {
+            if (filteredRecords.isEmpty() || !outcomeListContainer.getChildren().contains(outcomeListView)) {
+                displayOutcomeRecordsWithAnimation(filteredRecords);
+            } else {
+                outcomeListView.updateRecords(filteredRecords);
             }
-        };
-
-        new Thread(loadRecordsTask).start();
+            updateOutcomeListSummary(filteredRecords);
+        });
+        pipeline.setOnError(error -> showOutcomeListError());
+        return pipeline;
+    }
+
+    // Chụp trạng thái filter trên FX thread để filter ở background không đọc control
+    private RecordListQuery captureOutcomeQuery() {
+        return new RecordListQuery(
+            searchField != null ? searchField.getText() : "",
+            dateRangeFilter != null ? dateRangeFilter.getValue() : null,
+            categoryCombo != null ? categoryCombo.getValue() : null,
+            paymentMethodCombo != null ? paymentMethodCombo.getValue() : null,
+            recurringCheckBox == null || recurringCheckBox.isSelected(),
+            minAmountField != null ? minAmountField.getText() : "",
+            maxAmountField != null ? maxAmountField.getText() : "",
+            sortFilter != null ? sortFilter.getValue() : null
+        );
     }
 
-    private List<OutcomeRecord> applyAllOutcomeFilters(List<OutcomeRecord> records) {
-        List<OutcomeRecord> result = new ArrayList<>(records);
-        
-        // 1. Enhanced text search
-        String searchText = searchField != null ? searchField.getText().trim() : "";
+    // Áp dụng tất cả filter trong một lượt duyệt theo thứ tự sắp xếp đã chọn
+    private List<OutcomeRecord> applyAllOutcomeFilters(List<OutcomeRecord> records, RecordListQuery query) {
+        // Text tự do khớp qua chỉ mục (chuỗi con hoặc sai chính tả), hoặc là số tiền
+        Predicate<OutcomeRecord> textMatch = record -> true;
+        String searchText = query.getFreeText();
         if (!searchText.isEmpty()) {
-            result = result.stream()
-                .filter(record -> matchesOutcomeSearchCriteria(record, searchText))
-                .collect(Collectors.toList());
-        }
-        
-        // 2. Advanced date filter
-        if (dateRangeFilter != null) {
-            String dateFilter = dateRangeFilter.getValue();
-            result = applyOutcomeDateFilter(result, dateFilter);
-        }
-        
-        // 3. Category filter
-        if (categoryCombo != null && !categoryCombo.getValue().equals("All Categories")) {
-            String category = categoryCombo.getValue();
-            result = result.stream()
-                .filter(record -> record.getCategory().equals(category))
-                .collect(Collectors.toList());
-        }
-        
-        // 4. Payment method filter
-        if (paymentMethodCombo != null && !paymentMethodCombo.getValue().equals("All Methods")) {
-            String method = paymentMethodCombo.getValue();
-            result = result.stream()
-                .filter(record -> record.getPaymentMethod().equals(method))
-                .collect(Collectors.toList());
-        }
-        
-        // 5. Recurring filter
-        if (recurringCheckBox != null && !recurringCheckBox.isSelected()) {
-            result = result.stream()
-                .filter(record -> !record.isRecurring())
-                .collect(Collectors.toList());
-        }
-        
-        // 6. Amount range
-        result = applyOutcomeAmountFilter(result);
-        
-        // 7. Sort
-        if (sortFilter != null) {
-            String sortType = sortFilter.getValue();
-            result = applyOutcomeSortFilter(result, sortType);
+            LedgerSearchIndex<OutcomeRecord> index = outcomeSearchIndex;
+            if (index == null) {
+                indexOutcomeRecords(records);
+                index = outcomeSearchIndex;
+            }
+            LedgerSearchIndex<OutcomeRecord>.Match match = index.search(searchText);
+            textMatch = record -> match.contains(record) || query.matchesSearchAmount(record.getAmount());
         }
-        
-        return result;
-    }
 
-    private boolean matchesOutcomeSearchCriteria(OutcomeRecord record, String searchText) {
-        String lowerSearch = searchText.toLowerCase();
-        
-        // Smart search với scoring
-        int matchScore = 0;
-        
-        // Title search (highest priority)
-        if (record.getTitle() != null && 
-            record.getTitle().toLowerCase().contains(lowerSearch)) {
-            matchScore += 10;
-        }
-        
-        // Category search
-        if (record.getCategory() != null && 
-            record.getCategory().toLowerCase().contains(lowerSearch)) {
-            matchScore += 8;
+        // Filter đã được database áp dụng khi tải nguồn; chạy lại cùng lượt với text để nguồn
+        // được vá từ LedgerEvent vẫn đúng. Duyệt theo hoán vị đã sắp xếp nên không phải sort lại;
+        // records có thể là kết quả lần trước (thu hẹp) nhưng điều kiện lọc đầy đủ nên duyệt cả nguồn vẫn đúng
+        RecordSortIndex<OutcomeRecord> sortIndex = outcomeSortIndex;
+        if (sortIndex == null) {
+            sortIndex = new RecordSortIndex<>(records, OutcomeRecord::getTitle);
         }
-        
-        // Description search
-        if (record.getDescription() != null && 
-            record.getDescription().toLowerCase().contains(lowerSearch)) {
-            matchScore += 6;
-        }
-        
-        // Payment method search
-        if (record.getPaymentMethod() != null && 
-            record.getPaymentMethod().toLowerCase().contains(lowerSearch)) {
-            matchScore += 4;
-        }
-        
-        // Amount search
-        try {
-            double searchAmount = Double.parseDouble(searchText);
-            if (Math.abs(record.getAmount() - searchAmount) < 0.01) {
-                matchScore += 5;
+        FilterManager.Filter filter = query.getFilter();
+        Predicate<OutcomeRecord> matches = textMatch;
+        String sortType = query.getSortType() != null ? query.getSortType() : "Date (Newest)";
+        List<OutcomeRecord> result = sortIndex.walk(outcomeSortKey(sortType), isDescendingSort(sortType),
+            record -> filter.test(record) && matches.test(record));
+
+        if (sortType.equals("Recurring First")) {
+            // Tách ổn định: khoản định kỳ lên trước, mỗi nhóm vẫn theo ngày gần nhất
+            List<OutcomeRecord> recurringFirst = new ArrayList<>(result.size());
+            for (OutcomeRecord record : result) {
+                if (record.isRecurring()) {
+                    recurringFirst.add(record);
+                }
             }
-        } catch (NumberFormatException e) {
-            // Continue with text search
-        }
-        
-        // Date search
-        String dateStr = record.getDate().toString();
-        if (dateStr.contains(lowerSearch)) {
-            matchScore += 3;
-        }
-        
-        // Fuzzy matching for typos
-        if (matchScore == 0) {
-            matchScore += fuzzyMatch(record, lowerSearch);
-        }
-        
-        return matchScore > 0;
-    }
-
-    private int fuzzyMatch(OutcomeRecord record, String search) {
-        // Simple fuzzy matching for common typos
-        String[] fields = {
-            record.getTitle(),
-            record.getCategory(),
-            record.getDescription()
-        };
-        
-        for (String field : fields) {
-            if (field != null && levenshteinDistance(field.toLowerCase(), search) <= 2) {
-                return 2; // Low score for fuzzy matches
+            for (OutcomeRecord record : result) {
+                if (!record.isRecurring()) {
+                    recurringFirst.add(record);
+                }
             }
+            return recurringFirst;
         }
-        return 0;
+        return result;
     }
 
-    private int levenshteinDistance(String a, String b) {
-        int[][] dp = new int[a.length() + 1][b.length() + 1];
-        
-        for (int i = 0; i <= a.length(); i++) {
-            for (int j = 0; j <= b.length(); j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else {
-                    dp[i][j] = Math.min(
-                        Math.min(dp[i-1][j] + 1, dp[i][j-1] + 1),
-                        dp[i-1][j-1] + (a.charAt(i-1) == b.charAt(j-1) ? 0 : 1)
-                    );
-                }
-            }
+    // Dựng lại chỉ mục tìm kiếm khi pipeline có dữ liệu nguồn mới (chạy ở background)
+    private void indexOutcomeRecords(List<OutcomeRecord> records) {
+        outcomeSearchIndex = new LedgerSearchIndex<>(records, OutcomeRecord::getSearchText);
+        RecordSortIndex<OutcomeRecord> sortIndex = outcomeSortIndex;
+        // Nguồn vá từ LedgerEvent đã có hoán vị được cập nhật sẵn trong onLedgerEvent
+        if (sortIndex == null || !sortIndex.covers(records)) {
+            outcomeSortIndex = new RecordSortIndex<>(records, OutcomeRecord::getTitle);
         }
-        
-        return dp[a.length()][b.length()];
     }
 
-    private List<OutcomeRecord> applyOutcomeDateFilter(List<OutcomeRecord> records, String dateFilter) {
-        LocalDate now = LocalDate.now();
-        
-        return records.stream().filter(record -> {
-            switch (dateFilter) {
-                case "Today":
-                    return record.getDate().equals(now);
-                case "Yesterday":
-                    return record.getDate().equals(now.minusDays(1));
-                case "This Week":
-                    LocalDate weekStart = now.minusDays(now.getDayOfWeek().getValue() - 1);
-                    LocalDate weekEnd = weekStart.plusDays(6);
-                    return !record.getDate().isBefore(weekStart) && !record.getDate().isAfter(weekEnd);
-                case "Last Week":
-                    LocalDate lastWeekStart = now.minusWeeks(1).minusDays(now.getDayOfWeek().getValue() - 1);
-                    LocalDate lastWeekEnd = lastWeekStart.plusDays(6);
-                    return !record.getDate().isBefore(lastWeekStart) && !record.getDate().isAfter(lastWeekEnd);
-                case "This Month":
-                    return record.getDate().getYear() == now.getYear() && 
-                           record.getDate().getMonth() == now.getMonth();
-                case "Last Month":
-                    LocalDate lastMonth = now.minusMonths(1);
-                    return record.getDate().getYear() == lastMonth.getYear() && 
-                           record.getDate().getMonth() == lastMonth.getMonth();
-                case "This Year":
-                    return record.getDate().getYear() == now.getYear();
-                case "Last Year":
-                    return record.getDate().getYear() == now.getYear() - 1;
-                case "Last 7 Days":
-                    return record.getDate().isAfter(now.minusDays(7));
-                case "Last 30 Days":
-                    return record.getDate().isAfter(now.minusDays(30));
-                case "Last 90 Days":
-                    return record.getDate().isAfter(now.minusDays(90));
-                default: // "All Time"
-                    return true;
-            }
-        }).collect(Collectors.toList());
+    private static RecordSortIndex.SortKey outcomeSortKey(String sortType) {
+        switch (sortType) {
+            case "Amount (High to Low)":
+            case "Amount (Low to High)":
+                return RecordSortIndex.SortKey.AMOUNT;
+            case "Title A-Z":
+            case "Title Z-A":
+                return RecordSortIndex.SortKey.TITLE;
+            case "Category A-Z":
+                return RecordSortIndex.SortKey.CATEGORY;
+            default: // "Date (Newest)", "Date (Oldest)", "Recurring First"
+                return RecordSortIndex.SortKey.DATE;
+        }
     }
 
-    private List<OutcomeRecord> applyOutcomeSortFilter(List<OutcomeRecord> records, String sortType) {
-        return records.stream().sorted((r1, r2) -> {
-            switch (sortType) {
-                case "Date (Oldest)":
-                    return r1.getDate().compareTo(r2.getDate());
-                case "Amount (High to Low)":
-                    return Double.compare(r2.getAmount(), r1.getAmount());
-                case "Amount (Low to High)":
-                    return Double.compare(r1.getAmount(), r2.getAmount());
-                case "Title A-Z":
-                    return r1.getTitle().compareToIgnoreCase(r2.getTitle());
-                case "Title Z-A":
-                    return r2.getTitle().compareToIgnoreCase(r1.getTitle());
-                case "Category A-Z":
-                    return r1.getCategory().compareToIgnoreCase(r2.getCategory());
-                case "Recurring First":
-                    return Boolean.compare(r2.isRecurring(), r1.isRecurring());
-                default: // "Date (Newest)"
-                    return r2.getDate().compareTo(r1.getDate());
-            }
-        }).collect(Collectors.toList());
+    private static boolean isDescendingSort(String sortType) {
+        return sortType.equals("Date (Newest)") || sortType.equals("Amount (High to Low)")
+            || sortType.endsWith("Z-A") || sortType.equals("Recurring First");
     }
 
-    // Enhanced display với micro-interactions
+    // Hiển thị danh sách qua RecordListView: chỉ các dòng đang thấy mới có node
     private void displayOutcomeRecordsWithAnimation(List<OutcomeRecord> records) {
-        outcomeListContainer.getChildren().clear();
-
         if (records.isEmpty()) {
-            VBox emptyState = createEnhancedOutcomeEmptyState();
-            outcomeListContainer.getChildren().add(emptyState);
+            outcomeListContainer.getChildren().setAll(createEnhancedOutcomeEmptyState());
             return;
         }
 
-        // Grouped animation for better performance
-        for (int i = 0; i < records.size(); i++) {
-            OutcomeRecord record = records.get(i);
-            HBox outcomeItem = createEnhancedOutcomeItem(record);
-            outcomeListContainer.getChildren().add(outcomeItem);
-            
-            // Progressive enhancement animation
-            animateOutcomeItemEntrance(outcomeItem, i);
-        }
-    }
-
-    private void animateOutcomeItemEntrance(HBox item, int index) {
-        // Initial state
-        item.setOpacity(0);
-        item.setTranslateX(-50);
-        item.setScaleY(0.8);
-        
-        // Animate entrance
-        Duration delay = Duration.millis(index * 50);
-        Duration duration = Duration.millis(400);
-        
-        FadeTransition fade = new FadeTransition(duration, item);
-        fade.setFromValue(0);
-        fade.setToValue(1);
-        fade.setDelay(delay);
-        
-        TranslateTransition slide = new TranslateTransition(duration, item);
-        slide.setFromX(-50);
-        slide.setToX(0);
-        slide.setDelay(delay);
-        slide.setInterpolator(javafx.animation.Interpolator.EASE_OUT);
-        
-        ScaleTransition scale = new ScaleTransition(duration, item);
-        scale.setFromY(0.8);
-        scale.setToY(1.0);
-        scale.setDelay(delay);
-        scale.setInterpolator(javafx.animation.Interpolator.EASE_OUT);
-        
-        ParallelTransition entrance = new ParallelTransition(fade, slide, scale);
-        entrance.play();
+        // Hiệu ứng xuất hiện do RecordListView chạy cho các dòng trong viewport
+        outcomeListView.setRecords(records);
+        outcomeListContainer.getChildren().setAll(outcomeListView);
     }
 
     private void showOutcomeListLoading(boolean show) {
@@ -1075,11 +913,11 @@ public class FullOutcomePage {
 
             // Animated spinner
             ProgressIndicator spinner = new ProgressIndicator();
-            spinner.setStyle("-fx-accent: " + toHexString(OUTCOME_COLOR) + ";");
+            spinner.getStyleClass().add("accent-purple");
             spinner.setPrefSize(40, 40);
 
             Label loadingLabel = new Label("Filtering expenses...");
-            loadingLabel.setTextFill(TEXT_SECONDARY);
+            loadingLabel.getStyleClass().add("text-secondary");
             loadingLabel.setFont(Font.font("System", FontWeight.NORMAL, 14));
 
             loadingContainer.getChildren().addAll(spinner, loadingLabel);
@@ -1095,9 +933,7 @@ public class FullOutcomePage {
         // Animated empty illustration
         StackPane illustration = new StackPane();
         Circle bg = new Circle(50);
-        bg.setFill(toRgbaColor(OUTCOME_COLOR, 0.1));
-        bg.setStroke(toRgbaColor(OUTCOME_COLOR, 0.3));
-        bg.setStrokeWidth(2);
+        bg.getStyleClass().addAll("empty-disc", "accent-purple");
         
         Label emptyIcon = new Label("💸");
         emptyIcon.setFont(Font.font(36));
@@ -1112,14 +948,14 @@ public class FullOutcomePage {
         pulse.setToY(1.1);
         pulse.setAutoReverse(true);
         pulse.setCycleCount(Timeline.INDEFINITE);
-        pulse.play();
+        AnimationGovernor.getInstance().playInfinite(illustration, pulse);
 
         Label emptyTitle = new Label("No expenses match your criteria");
-        emptyTitle.setTextFill(TEXT_PRIMARY);
+        emptyTitle.getStyleClass().add("text-primary");
         emptyTitle.setFont(Font.font("System", FontWeight.BOLD, 20));
 
         Label emptyMessage = new Label("Try adjusting your filters or add a new expense record.");
-        emptyMessage.setTextFill(TEXT_SECONDARY);
+        emptyMessage.getStyleClass().add("text-secondary");
         emptyMessage.setFont(Font.font("System", FontWeight.NORMAL, 14));
         emptyMessage.setWrapText(true);
 
@@ -1128,11 +964,11 @@ public class FullOutcomePage {
         quickActions.setAlignment(Pos.CENTER);
         
         Button clearFiltersBtn = new Button("🗑️ Clear Filters");
-        clearFiltersBtn.setStyle(createSecondaryButtonStyle());
+        clearFiltersBtn.getStyleClass().addAll("button-secondary", "compact");
         clearFiltersBtn.setOnAction(e -> clearAllOutcomeFilters());
         
         Button addExpenseBtn = new Button("💸 Add Expense");
-        addExpenseBtn.setStyle(createActionButtonStyle(toHexString(OUTCOME_COLOR)));
+        addExpenseBtn.getStyleClass().addAll("button-accent", "small", "accent-purple");
         addExpenseBtn.setOnAction(e -> amountField.requestFocus());
         
         quickActions.getChildren().addAll(clearFiltersBtn, addExpenseBtn);
@@ -1150,7 +986,7 @@ public class FullOutcomePage {
         
         // Success feedback với animation
         showInfoMessage("All filters cleared!");
-        refreshOutcomeListWithFilters();
+        outcomeSearch.searchNow();
     }
 
     private void showOutcomeListError() {
@@ -1164,11 +1000,11 @@ public class FullOutcomePage {
         errorIcon.setFont(Font.font(32));
         
         Label errorMessage = new Label("Failed to load expense records");
-        errorMessage.setTextFill(ERROR_COLOR);
+        errorMessage.getStyleClass().add("text-error");
         errorMessage.setFont(Font.font("System", FontWeight.MEDIUM, 16));
         
         Button retryButton = new Button("🔄 Try Again");
-        retryButton.setStyle(createActionButtonStyle(toHexString(ERROR_COLOR)));
+        retryButton.getStyleClass().addAll("button-accent", "small", "accent-error");
         retryButton.setOnAction(e -> refreshOutcomeListWithFilters());
         
         errorContainer.getChildren().addAll(errorIcon, errorMessage, retryButton);
@@ -1180,6 +1016,19 @@ public class FullOutcomePage {
         String summaryText = String.format("Showing %d records • Total: $%.2f", 
             records.size(), totalAmount);
         
+        // Với bộ lọc "Last N Days", hiển thị thêm số liệu của cả cửa sổ từ rolling aggregates
+        int windowDays = RollingWindowAggregator.windowDaysForFilter(dateRangeFilter != null ? dateRangeFilter.getValue() : null);
+        if (windowDays > 0) {
+            RollingWindowAggregator windows = dbManager.getRollingWindows();
+            // Theo danh mục đang lọc để khớp với tổng số record bên cạnh
+            RecordListQuery query = captureOutcomeQuery();
+            double windowSpend = query.hasCategoryFilter()
+                ? windows.getCategorySum(LedgerType.OUTCOME, query.getCategory(), windowDays)
+                : windows.getSum(LedgerType.OUTCOME, windowDays);
+            summaryText += String.format(" • %d-day spend: $%.2f ($%.2f/day)", windowDays,
+                windowSpend, windowSpend / windowDays);
+        }
+        
         if (outcomeTotalLabel != null) {
             outcomeTotalLabel.setText(summaryText);
             
@@ -1191,142 +1040,135 @@ public class FullOutcomePage {
         }
     }
 
-    private HBox createEnhancedOutcomeItem(OutcomeRecord record) {
-        HBox item = new HBox(15);
-        item.setAlignment(Pos.CENTER_LEFT);
-        item.setPadding(new Insets(12, 16, 12, 16));
-        item.setStyle(
-            "-fx-background-color: " + toRgbaString(CARD_COLOR, 0.8) + ";" +
-            "-fx-background-radius: 12px;" +
-            "-fx-border-color: " + toRgbaString(ACCENT_COLOR, 0.2) + ";" +
-            "-fx-border-width: 1px;" +
-            "-fx-border-radius: 12px;" +
-            "-fx-cursor: hand;"
-        );
+    // Dòng card của danh sách outcome, được tái sử dụng bởi RecordListView khi cuộn
+    private class OutcomeRow implements RecordListView.RecordRow<OutcomeRecord> {
+        private final HBox item = new HBox(15);
+        private final Label icon = new Label();
+        private final Label titleLabel = new Label();
+        private final Label categoryLabel = new Label();
+        private final Label dateLabel = new Label();
+        private final Label paymentLabel = new Label();
+        private final Label recurringBadge = new Label("🔄 Recurring");
+        private final Label descLabel = new Label();
+        private final Label amountLabel = new Label();
+        private OutcomeRecord record;
 
-        // Category icon
-        StackPane iconContainer = new StackPane();
-        Circle iconBg = new Circle(20);
-        iconBg.setFill(OUTCOME_COLOR);
-        iconBg.setEffect(new DropShadow(5, OUTCOME_COLOR));
+        OutcomeRow() {
+            item.setAlignment(Pos.CENTER_LEFT);
+            item.setPadding(new Insets(12, 16, 12, 16));
+            item.getStyleClass().addAll("list-row", "accent-purple");
 
-        Label icon = new Label(getCategoryIcon(record.getCategory()));
-        icon.setFont(Font.font(14));
-        icon.setTextFill(Color.WHITE);
+            // Category icon
+            StackPane iconContainer = new StackPane();
+            Circle iconBg = new Circle(20);
+            iconBg.getStyleClass().addAll("icon-disc", "solid");
 
-        iconContainer.getChildren().addAll(iconBg, icon);
+            icon.setFont(Font.font(14));
+            icon.getStyleClass().add("text-on-accent");
 
-        // Record details
-        VBox details = new VBox(4);
-        
-        Label titleLabel = new Label(record.getTitle());
-        titleLabel.setTextFill(TEXT_PRIMARY);
-        titleLabel.setFont(Font.font("System", FontWeight.SEMI_BOLD, 14));
+            iconContainer.getChildren().addAll(iconBg, icon);
 
-        HBox metaRow = new HBox(15);
-        metaRow.setAlignment(Pos.CENTER_LEFT);
+            // Record details
+            VBox details = new VBox(4);
 
-        Label categoryLabel = new Label("📂 " + record.getCategory());
-        categoryLabel.setTextFill(TEXT_MUTED);
-        categoryLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
+            titleLabel.getStyleClass().add("text-primary");
+            titleLabel.setFont(Font.font("System", FontWeight.SEMI_BOLD, 14));
 
-        Label dateLabel = new Label("📅 " + record.getDate().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")));
-        dateLabel.setTextFill(TEXT_MUTED);
-        dateLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
+            HBox metaRow = new HBox(15);
+            metaRow.setAlignment(Pos.CENTER_LEFT);
 
-        Label paymentLabel = new Label("💳 " + record.getPaymentMethod());
-        paymentLabel.setTextFill(TEXT_MUTED);
-        paymentLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
+            categoryLabel.getStyleClass().add("text-muted");
+            categoryLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
 
-        metaRow.getChildren().addAll(categoryLabel, dateLabel, paymentLabel);
+            dateLabel.getStyleClass().add("text-muted");
+            dateLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
 
-        // Add recurring badge if applicable
-        if (record.isRecurring()) {
-            Label recurringBadge = new Label("🔄 Recurring");
-            recurringBadge.setTextFill(SUCCESS_COLOR);
+            paymentLabel.getStyleClass().add("text-muted");
+            paymentLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
+
+            // Recurring badge, chỉ hiện với record định kỳ
+            recurringBadge.getStyleClass().addAll("badge", "accent-success");
             recurringBadge.setFont(Font.font("System", FontWeight.BOLD, 10));
-            recurringBadge.setStyle(
-                "-fx-background-color: " + toRgbaString(SUCCESS_COLOR, 0.15) + ";" +
-                "-fx-background-radius: 6px;" +
-                "-fx-padding: 2 6 2 6;"
-            );
-            metaRow.getChildren().add(recurringBadge);
-        }
+            recurringBadge.managedProperty().bind(recurringBadge.visibleProperty());
 
-        details.getChildren().addAll(titleLabel, metaRow);
+            metaRow.getChildren().addAll(categoryLabel, dateLabel, paymentLabel, recurringBadge);
 
-        // Add description if available
-        if (record.getDescription() != null && !record.getDescription().trim().isEmpty()) {
-            Label descLabel = new Label(record.getDescription());
-            descLabel.setTextFill(TEXT_SECONDARY);
+            descLabel.getStyleClass().add("text-secondary");
             descLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
             descLabel.setWrapText(true);
-            details.getChildren().add(descLabel);
-        }
+            descLabel.managedProperty().bind(descLabel.visibleProperty());
 
-        Region spacer = new Region();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
+            details.getChildren().addAll(titleLabel, metaRow, descLabel);
 
-        // Amount section
-        VBox amountSection = new VBox(2);
-        amountSection.setAlignment(Pos.CENTER_RIGHT);
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
 
-        Label amountLabel = new Label("-$" + String.format("%.2f", record.getAmount()));
-        amountLabel.setTextFill(OUTCOME_COLOR);
-        amountLabel.setFont(Font.font("System", FontWeight.BOLD, 16));
+            // Amount section
+            VBox amountSection = new VBox(2);
+            amountSection.setAlignment(Pos.CENTER_RIGHT);
 
-        amountSection.getChildren().add(amountLabel);
+            amountLabel.getStyleClass().add("text-accent");
+            amountLabel.setFont(Font.font("System", FontWeight.BOLD, 16));
 
-        // Actions
-        HBox actions = new HBox(8);
-        actions.setAlignment(Pos.CENTER_RIGHT);
+            amountSection.getChildren().add(amountLabel);
 
-        Button editBtn = new Button("✏️");
-        editBtn.setStyle(createActionButtonStyle(toHexString(ACCENT_COLOR)));
-        editBtn.setOnAction(e -> editOutcomeRecord(record));
+            // Actions
+            HBox actions = new HBox(8);
+            actions.setAlignment(Pos.CENTER_RIGHT);
 
-        Button deleteBtn = new Button("🗑️");
-        deleteBtn.setStyle(createActionButtonStyle(toHexString(ERROR_COLOR)));
-        deleteBtn.setOnAction(e -> deleteOutcomeRecord(record));
+            Button editBtn = new Button("✏️");
+            editBtn.getStyleClass().addAll("button-accent", "small", "accent-teal");
+            editBtn.setOnAction(e -> editOutcomeRecord(record));
 
-        actions.getChildren().addAll(editBtn, deleteBtn);
+            Button deleteBtn = new Button("🗑️");
+            deleteBtn.getStyleClass().addAll("button-accent", "small", "accent-error");
+            deleteBtn.setOnAction(e -> deleteOutcomeRecord(record));
 
-        item.getChildren().addAll(iconContainer, details, spacer, amountSection, actions);
+            actions.getChildren().addAll(editBtn, deleteBtn);
 
-        // Enhanced hover effects
-        item.setOnMouseEntered(e -> {
-            item.setStyle(
-                "-fx-background-color: " + toRgbaString(OUTCOME_COLOR, 0.1) + ";" +
-                "-fx-background-radius: 12px;" +
-                "-fx-border-color: " + toRgbaString(OUTCOME_COLOR, 0.4) + ";" +
-                "-fx-border-width: 1px;" +
-                "-fx-border-radius: 12px;" +
-                "-fx-cursor: hand;"
-            );
+            item.getChildren().addAll(iconContainer, details, spacer, amountSection, actions);
 
-            ScaleTransition scale = new ScaleTransition(Duration.millis(100), item);
-            scale.setToX(1.02);
-            scale.setToY(1.02);
-            scale.play();
-        });
+            // Enhanced hover effects
+            item.setOnMouseEntered(e -> {
+                ScaleTransition scale = new ScaleTransition(Duration.millis(100), item);
+                scale.setToX(1.02);
+                scale.setToY(1.02);
+                scale.play();
+            });
 
-        item.setOnMouseExited(e -> {
-            item.setStyle(
-                "-fx-background-color: " + toRgbaString(CARD_COLOR, 0.8) + ";" +
-                "-fx-background-radius: 12px;" +
-                "-fx-border-color: " + toRgbaString(ACCENT_COLOR, 0.2) + ";" +
-                "-fx-border-width: 1px;" +
-                "-fx-border-radius: 12px;" +
-                "-fx-cursor: hand;"
-            );
+            item.setOnMouseExited(e -> {
+                ScaleTransition scale = new ScaleTransition(Duration.millis(100), item);
+                scale.setToX(1.0);
+                scale.setToY(1.0);
+                scale.play();
+            });
+        }
 
-            ScaleTransition scale = new ScaleTransition(Duration.millis(100), item);
-            scale.setToX(1.0);
-            scale.setToY(1.0);
-            scale.play();
-        });
+        @Override
+        public Node getNode() {
+            return item;
+        }
 
-        return item;
+        @Override
+        public void bind(OutcomeRecord record) {
+            this.record = record;
+            // Cell được tái sử dụng có thể còn phóng to do hover của record trước
+            item.setScaleX(1.0);
+            item.setScaleY(1.0);
+
+            icon.setText(getCategoryIcon(record.getCategory()));
+            titleLabel.setText(record.getTitle());
+            categoryLabel.setText("📂 " + record.getCategory());
+            dateLabel.setText("📅 " + record.getDate().format(RECORD_DATE_FORMAT));
+            paymentLabel.setText("💳 " + record.getPaymentMethod());
+            recurringBadge.setVisible(record.isRecurring());
+
+            boolean hasDescription = record.getDescription() != null && !record.getDescription().trim().isEmpty();
+            descLabel.setText(hasDescription ? record.getDescription() : "");
+            descLabel.setVisible(hasDescription);
+
+            amountLabel.setText("-$" + String.format("%.2f", record.getAmount()));
+        }
     }
 
     private void handleAddOrUpdateOutcome() {
@@ -1393,19 +1235,7 @@ public class FullOutcomePage {
                         } else {
                             exitOutcomeEditMode();
                         }
-
-                        // Refresh UI
-                        refreshOutcomeListWithFilters();
-                        updateStatsCardsAsync();
-                        
-                        // Refresh dashboard
-                        try {
-                            ModernCashflowApp.refreshDashboardFromOtherPage();
-                        } catch (Exception e) {
-                            System.out.println("Dashboard refresh failed: " + e.getMessage());
-                        }
-                        
-                        notifyDashboardRefresh();
+                        // Danh sách, thẻ thống kê và dashboard tự cập nhật qua LedgerEvent
 
                         // Success animation
                         animateOutcomeSuccessAction();
@@ -1435,7 +1265,7 @@ public class FullOutcomePage {
             }
         };
 
-        new Thread(outcomeTask).start();
+        TaskScheduler.getInstance().execute(TaskScheduler.Pool.IO, "outcome-save", outcomeTask);
     }
 
     // Enhanced validation for outcome
@@ -1487,11 +1317,9 @@ public class FullOutcomePage {
         if (show) {
             addButton.setText("💫 Processing...");
             addButton.setDisable(true);
-            addButton.setStyle(createOutcomeLoadingButtonStyle());
         } else {
             addButton.setText(editingRecord != null ? "💸 Update Expense" : "💸 Add Expense");
             addButton.setDisable(false);
-            addButton.setStyle(createActionButtonStyle(toHexString(OUTCOME_COLOR)));
         }
     }
 
@@ -1508,15 +1336,12 @@ public class FullOutcomePage {
         pulse.play();
         
         // Flash success color briefly
-        String originalStyle = addButton.getStyle();
-        addButton.setStyle(originalStyle.replace(
-            toHexString(OUTCOME_COLOR), 
-            toHexString(SUCCESS_COLOR)
-        ));
+        String originalAccent = editingRecord != null ? "accent-warning" : "accent-purple";
+        setAddButtonAccent("accent-success");
         
         Timeline flashback = new Timeline(new javafx.animation.KeyFrame(
             Duration.millis(400),
-            e -> addButton.setStyle(originalStyle)
+            e -> setAddButtonAccent(originalAccent)
         ));
         flashback.play();
     }
@@ -1553,76 +1378,13 @@ public class FullOutcomePage {
     private void exitOutcomeEditMode() {
         editingRecord = null;
         addButton.setText("💸 Add Expense");
-        addButton.setStyle(createActionButtonStyle(toHexString(OUTCOME_COLOR)));
-    }
-
-    // Enhanced styling for loading button
-    private String createOutcomeLoadingButtonStyle() {
-        return "-fx-background-color: " + toRgbaString(OUTCOME_COLOR, 0.6) + ";" +
-               "-fx-text-fill: white;" +
-               "-fx-background-radius: 6px;" +
-               "-fx-cursor: wait;" +
-               "-fx-font-size: 12px;" +
-               "-fx-opacity: 0.8;";
-    }
-
-    // Helper methods for styling and colors
-    private String createEnhancedTextFieldStyle() {
-        return "-fx-background-color: " + toRgbaString(CARD_COLOR, 0.6) + ";" +
-               "-fx-text-fill: " + toHexString(TEXT_PRIMARY) + ";" +
-               "-fx-prompt-text-fill: " + toHexString(TEXT_MUTED) + ";" +
-               "-fx-border-color: " + toRgbaString(ACCENT_COLOR, 0.3) + ";" +
-               "-fx-border-width: 1px;" +
-               "-fx-border-radius: 8px;" +
-               "-fx-background-radius: 8px;" +
-               "-fx-font-size: 12px;" +
-               "-fx-padding: 8px;";
-    }
-
-    private String createEnhancedComboBoxStyle() {
-        return "-fx-background-color: " + toRgbaString(CARD_COLOR, 0.6) + ";" +
-               "-fx-text-fill: " + toHexString(TEXT_PRIMARY) + ";" +
-               "-fx-background-radius: 8px;" +
-               "-fx-border-color: " + toRgbaString(ACCENT_COLOR, 0.3) + ";" +
-               "-fx-border-width: 1px;" +
-               "-fx-border-radius: 8px;";
-    }
-
-    private String createSecondaryButtonStyle() {
-        return "-fx-background-color: " + toRgbaString(TEXT_PRIMARY, 0.1) + ";" +
-               "-fx-text-fill: " + toHexString(TEXT_PRIMARY) + ";" +
-               "-fx-font-size: 11px;" +
-               "-fx-background-radius: 6px;" +
-               "-fx-cursor: hand;" +
-               "-fx-padding: 5 10 5 10;";
-    }
-
-    private void updateFieldFocus(TextField field, boolean focused) {
-        String currentStyle = field.getStyle();
-        String borderStyle = "-fx-border-width: 2px; -fx-border-color: " + toHexString(ACCENT_COLOR) + ";";
-        
-        if (focused) {
-            if (!currentStyle.contains("-fx-border-width: 2px;")) {
-                 field.setStyle(currentStyle + borderStyle);
-            }
-        } else {
-            field.setStyle(currentStyle.replace(borderStyle, ""));
-        }
+        setAddButtonAccent("accent-purple");
     }
 
-    private Color getCategoryColor(String category) {
-        return switch (category.toLowerCase()) {
-            case "food", "groceries" -> Color.web("#4CAF50");
-            case "transportation" -> Color.web("#2196F3");
-            case "housing" -> Color.web("#795548");
-            case "utilities" -> Color.web("#FFC107");
-            case "entertainment" -> Color.web("#9C27B0");
-            case "healthcare" -> Color.web("#00BCD4");
-            case "education" -> Color.web("#3F51B5");
-            case "shopping" -> Color.web("#E91E63");
-            case "travel" -> Color.web("#009688");
-            default -> OUTCOME_COLOR;
-        };
+    // Nút thêm đổi màu nhấn theo chế độ; trạng thái disable do :disabled trong stylesheet lo
+    private void setAddButtonAccent(String accentClass) {
+        addButton.getStyleClass().removeAll("accent-purple", "accent-warning", "accent-success");
+        addButton.getStyleClass().add(accentClass);
     }
 
     private String getCategoryIcon(String category) {
@@ -1653,37 +1415,20 @@ public class FullOutcomePage {
         };
     }
 
-    // Color utility methods
-    private String toHexString(Color color) {
-        return String.format("#%02X%02X%02X",
-                (int)(color.getRed() * 255),
-                (int)(color.getGreen() * 255),
-                (int)(color.getBlue() * 255));
-    }
-
-    private String toRgbaString(Color color, double alpha) {
-        return String.format("rgba(%.0f, %.0f, %.0f, %.2f)",
-                color.getRed() * 255, color.getGreen() * 255, color.getBlue() * 255, alpha);
-    }
-
-    private String darkenColor(Color color) {
-        return toHexString(color.darker());
-    }
-
     // Message methods
     private void showSuccessMessage(String message) {
-        showMessage(message, SUCCESS_COLOR);
+        showMessage(message);
     }
 
     private void showErrorMessage(String message) {
-        showMessage(message, ERROR_COLOR);
+        showMessage(message);
     }
 
     private void showInfoMessage(String message) {
-        showMessage(message, ACCENT_COLOR);
+        showMessage(message);
     }
 
-    private void showMessage(String message, Color color) {
+    private void showMessage(String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Expense Manager");
         alert.setHeaderText(null);
@@ -1691,43 +1436,13 @@ public class FullOutcomePage {
         alert.showAndWait();
     }
 
-    private String createActionButtonStyle(String bgColor) {
-        return "-fx-background-color: " + bgColor + ";" +
-                "-fx-text-fill: white;" +
-                "-fx-background-radius: 6px;" +
-                "-fx-cursor: hand;" +
-                "-fx-font-size: 12px;" +
-                "-fx-min-width: 30;" +
-                "-fx-min-height: 30;";
-    }
-
-    private List<OutcomeRecord> applyOutcomeAmountFilter(List<OutcomeRecord> records) {
-        try {
-            String minText = minAmountField != null ? minAmountField.getText().trim() : "";
-            String maxText = maxAmountField != null ? maxAmountField.getText().trim() : "";
-            
-            if (minText.isEmpty() && maxText.isEmpty()) {
-                return records;
-            }
-            
-            double minAmount = minText.isEmpty() ? 0 : Double.parseDouble(minText);
-            double maxAmount = maxText.isEmpty() ? Double.MAX_VALUE : Double.parseDouble(maxText);
-            
-            return records.stream()
-                .filter(record -> record.getAmount() >= minAmount && record.getAmount() <= maxAmount)
-                .collect(Collectors.toList());
-        } catch (NumberFormatException e) {
-            return records; // Return unfiltered if invalid numbers
-        }
-    }
-
     private void clearOutcomeFilters() {
         if (searchField != null) searchField.clear();
         if (dateRangeFilter != null) dateRangeFilter.setValue("All Time");
         if (sortFilter != null) sortFilter.setValue("Date (Newest)");
         if (minAmountField != null) minAmountField.clear();
         if (maxAmountField != null) maxAmountField.clear();
-        refreshOutcomeListWithFilters();
+        outcomeSearch.searchNow();
     }
 
     // Legacy method for compatibility
@@ -1739,7 +1454,7 @@ public class FullOutcomePage {
     private void enterEditMode() {
         editingRecord = null; // Will be set by editOutcomeRecord
         addButton.setText("Update Expense");
-        addButton.setStyle(createActionButtonStyle(toHexString(WARNING_COLOR)));
+        setAddButtonAccent("accent-warning");
     }
 
     private void exitEditMode() {
@@ -1776,13 +1491,6 @@ public class FullOutcomePage {
             boolean success = dbManager.deleteOutcome(record.getId());
             if (success) {
                 showSuccessMessage("Expense record deleted successfully!");
-                refreshOutcomeListWithFilters();
-                updateStatsCardsAsync();
-                
-                // Refresh dashboard
-                ModernCashflowApp.refreshDashboardFromOtherPage();
-                
-                notifyDashboardRefresh();
             } else {
                 showErrorMessage("Failed to delete expense record.");
             }
@@ -1827,18 +1535,5 @@ public class FullOutcomePage {
         
         // Update button state
         addButton.setDisable(!isFormValid);
-        if (isFormValid) {
-            addButton.setStyle(createActionButtonStyle(toHexString(OUTCOME_COLOR)));
-        } else {
-            addButton.setStyle(createDisabledButtonStyle());
-        }
-    }
-
-    private String createDisabledButtonStyle() {
-        return "-fx-background-color: #6c757d;" +
-               "-fx-text-fill: #adb5bd;" +
-               "-fx-background-radius: 6px;" +
-               "-fx-font-size: 12px;" +
-               "-fx-opacity: 0.6;";
     }
 }
\ No newline at end of file
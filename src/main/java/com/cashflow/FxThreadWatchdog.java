@@ -0,0 +1,270 @@
+package com.cashflow;
+
+import javafx.application.Platform;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Theo dõi FX thread để truy ra nguyên nhân UI bị đứng.
+ *
+ * - JDBC trên FX thread: Connection của DatabaseManager được bọc lại, mỗi lần gọi từ FX thread được
+ *   đếm theo call site (method đầu tiên ngoài DatabaseManager). Lần đầu gặp một call site thì log kèm stack trace.
+ * - Độ trễ của FX thread: một thread riêng định kỳ gửi Platform.runLater và đo thời gian chờ. Nếu quá
+ *   ngưỡng thì chụp stack của FX thread ngay lúc đang đứng và đếm theo frame của ứng dụng trên đỉnh stack.
+ *
+ * Tắt bằng -Dcashflow.watchdog=false, đổi ngưỡng bằng -Dcashflow.watchdog.stallMs=...
+ */
+public class FxThreadWatchdog {
+    private static final Logger logger = Logger.getLogger(FxThreadWatchdog.class.getName());
+    private static final long SAMPLE_INTERVAL_MS = 100;
+    private static final long DEFAULT_STALL_THRESHOLD_MS = 250;
+    private static final int MAX_LOGGED_FRAMES = 25;
+    // Method của Connection được phép gọi trên FX thread (đóng kết nối khi thoát ứng dụng)
+    private static final Set<String> IGNORED_METHODS = Set.of("close", "isClosed", "isValid",
+        "toString", "hashCode", "equals");
+    private static FxThreadWatchdog instance;
+
+    private final boolean enabled = Boolean.parseBoolean(System.getProperty("cashflow.watchdog", "true"));
+    private final long stallThresholdMs = Long.getLong("cashflow.watchdog.stallMs", DEFAULT_STALL_THRESHOLD_MS);
+
+    private final Map<String, AtomicLong> fxJdbcCallSites = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> stallSites = new ConcurrentHashMap<>();
+    private final AtomicLong fxJdbcCalls = new AtomicLong();
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong maxLatencyMs = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+
+    private volatile Thread fxThread;
+    private volatile Thread samplerThread;
+
+    private FxThreadWatchdog() {
+    }
+
+    public static synchronized FxThreadWatchdog getInstance() {
+        if (instance == null) {
+            instance = new FxThreadWatchdog();
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Bọc Connection để phát hiện truy vấn chạy trên FX thread
+     */
+    public Connection guard(Connection connection) {
+        if (!enabled) {
+            return connection;
+        }
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!IGNORED_METHODS.contains(method.getName()) && Platform.isFxApplicationThread()) {
+                recordFxJdbcCall(method.getName());
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, handler);
+    }
+
+    /**
+     * Bắt đầu đo độ trễ FX thread; phải gọi trên FX thread (vd. trong Application.start)
+     */
+    public synchronized void start() {
+        if (!enabled || samplerThread != null) {
+            return;
+        }
+        fxThread = Thread.currentThread();
+        // Thread riêng thay vì TaskScheduler: watchdog phải chạy được cả khi các pool đều bận
+        Thread thread = new Thread(this::sampleLoop, "fx-watchdog");
+        thread.setDaemon(true);
+        samplerThread = thread;
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        Thread thread = samplerThread;
+        samplerThread = null;
+        if (thread != null) {
+            thread.interrupt();
+            logSummary();
+        }
+    }
+
+    private void sampleLoop() {
+        while (samplerThread == Thread.currentThread()) {
+            try {
+                sampleOnce();
+                Thread.sleep(SAMPLE_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IllegalStateException e) {
+                // FX toolkit đã dừng
+                return;
+            }
+        }
+    }
+
+    private void sampleOnce() throws InterruptedException {
+        CountDownLatch handled = new CountDownLatch(1);
+        long sentAt = System.nanoTime();
+        Platform.runLater(handled::countDown);
+
+        if (!handled.await(stallThresholdMs, TimeUnit.MILLISECONDS)) {
+            // FX thread đang đứng: chụp stack ngay lúc này mới thấy được nguyên nhân
+            StackTraceElement[] stack = fxThread != null ? fxThread.getStackTrace() : new StackTraceElement[0];
+            handled.await();
+            long stalledMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentAt);
+            recordStall(stalledMs, stack);
+            recordLatency(stalledMs);
+        } else {
+            recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentAt));
+        }
+    }
+
+    private void recordLatency(long latencyMs) {
+        samples.incrementAndGet();
+        totalLatencyMs.addAndGet(latencyMs);
+        maxLatencyMs.accumulateAndGet(latencyMs, Math::max);
+    }
+
+    private void recordStall(long stalledMs, StackTraceElement[] stack) {
+        stalls.incrementAndGet();
+        String site = applicationFrame(stack, false);
+        stallSites.computeIfAbsent(site, key -> new AtomicLong()).incrementAndGet();
+        logger.warning(String.format("FX thread stalled for %d ms at %s%n%s", stalledMs, site, formatStack(stack)));
+    }
+
+    private void recordFxJdbcCall(String jdbcMethod) {
+        fxJdbcCalls.incrementAndGet();
+        StackTraceElement[] stack = new Throwable().getStackTrace();
+        String site = applicationFrame(stack, true) + " -> " + databaseMethod(stack) + " (" + jdbcMethod + ")";
+        long count = fxJdbcCallSites.computeIfAbsent(site, key -> new AtomicLong()).incrementAndGet();
+        if (count == 1) {
+            logger.log(Level.WARNING, "JDBC on FX thread at " + site, new Throwable("FX thread JDBC call stack"));
+        } else if (logger.isLoggable(Level.FINE)) {
+            logger.fine("JDBC on FX thread at " + site + " (" + count + " times)");
+        }
+    }
+
+    // Frame đầu tiên của ứng dụng; với JDBC bỏ qua DatabaseManager để thấy nơi gọi vào data layer
+    private static String applicationFrame(StackTraceElement[] stack, boolean skipDatabaseManager) {
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (!className.startsWith("com.cashflow.") || className.startsWith(FxThreadWatchdog.class.getName())) {
+                continue;
+            }
+            if (skipDatabaseManager && className.startsWith(DatabaseManager.class.getName())) {
+                continue;
+            }
+            return shortFrame(frame);
+        }
+        return stack.length > 0 ? shortFrame(stack[0]) : "unknown";
+    }
+
+    private static String databaseMethod(StackTraceElement[] stack) {
+        String method = "?";
+        for (StackTraceElement frame : stack) {
+            if (frame.getClassName().equals(DatabaseManager.class.getName())) {
+                // Frame ngoài cùng của DatabaseManager là method public được gọi
+                method = frame.getMethodName();
+            } else if (!method.equals("?") && frame.getClassName().startsWith("com.cashflow.")) {
+                break;
+            }
+        }
+        return "DatabaseManager." + method;
+    }
+
+    private static String shortFrame(StackTraceElement frame) {
+        String className = frame.getClassName();
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        return simpleName + "." + frame.getMethodName() + "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")";
+    }
+
+    private static String formatStack(StackTraceElement[] stack) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < Math.min(stack.length, MAX_LOGGED_FRAMES); i++) {
+            text.append("\tat ").append(stack[i]).append('\n');
+        }
+        if (stack.length > MAX_LOGGED_FRAMES) {
+            text.append("\t... ").append(stack.length - MAX_LOGGED_FRAMES).append(" more\n");
+        }
+        return text.toString();
+    }
+
+    public long getFxJdbcCalls() {
+        return fxJdbcCalls.get();
+    }
+
+    /**
+     * Số lần JDBC chạy trên FX thread theo call site, nhiều nhất trước
+     */
+    public Map<String, Long> getFxJdbcCallSites() {
+        return sortedCounts(fxJdbcCallSites);
+    }
+
+    public long getStallCount() {
+        return stalls.get();
+    }
+
+    /**
+     * Số lần FX thread đứng quá ngưỡng theo frame của ứng dụng đang chạy lúc đó, nhiều nhất trước
+     */
+    public Map<String, Long> getStallSites() {
+        return sortedCounts(stallSites);
+    }
+
+    public long getMaxLatencyMs() {
+        return maxLatencyMs.get();
+    }
+
+    public double getAverageLatencyMs() {
+        long count = samples.get();
+        return count == 0 ? 0 : (double) totalLatencyMs.get() / count;
+    }
+
+    public long getStallThresholdMs() {
+        return stallThresholdMs;
+    }
+
+    public void logSummary() {
+        if (!enabled) {
+            return;
+        }
+        logger.info(String.format("FX watchdog: %d samples, avg %.1f ms, max %d ms, %d stalls > %d ms, %d JDBC calls on FX thread",
+            samples.get(), getAverageLatencyMs(), getMaxLatencyMs(), getStallCount(), stallThresholdMs, getFxJdbcCalls()));
+        getFxJdbcCallSites().forEach((site, count) -> logger.info("  JDBC on FX thread x" + count + ": " + site));
+        getStallSites().forEach((site, count) -> logger.info("  Stall x" + count + ": " + site));
+    }
+
+    private static Map<String, Long> sortedCounts(Map<String, AtomicLong> counters) {
+        List<Map.Entry<String, AtomicLong>> entries = counters.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue().get(), a.getValue().get()))
+            .collect(Collectors.toList());
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : entries) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -4,7 +4,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 // Enhanced Income Record Model
-public class IncomeRecord {
+public class IncomeRecord implements LedgerRecord {
     private int id;
     private double amount;
     private String source;
@@ -13,6 +13,8 @@ public class IncomeRecord {
     private String description;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Text tìm kiếm đã fold, đọc từ các cột search_* hoặc tính lại khi field text thay đổi
+    private String searchText;
 
     public IncomeRecord(int id, double amount, String source, String category, 
                        LocalDate date, String description, LocalDateTime createdAt) {
@@ -33,6 +35,9 @@ public class IncomeRecord {
         this.updatedAt = updatedAt;
     }
 
+    @Override
+    public LedgerType getLedgerType() { return LedgerType.INCOME; }
+
     // Getters and Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
@@ -46,27 +51,43 @@ public class IncomeRecord {
     public String getSource() { return source; }
     public void setSource(String source) { 
         this.source = source; 
+        this.searchText = null;
         this.updatedAt = LocalDateTime.now();
     }
     
     public String getCategory() { return category; }
     public void setCategory(String category) { 
         this.category = category; 
+        this.searchText = null;
         this.updatedAt = LocalDateTime.now();
     }
     
     public LocalDate getDate() { return date; }
     public void setDate(LocalDate date) { 
         this.date = date; 
+        this.searchText = null;
         this.updatedAt = LocalDateTime.now();
     }
     
     public String getDescription() { return description; }
     public void setDescription(String description) { 
         this.description = description; 
+        this.searchText = null;
         this.updatedAt = LocalDateTime.now();
     }
     
+    @Override
+    public String getSearchText() {
+        if (searchText == null) {
+            searchText = SearchText.join(SearchText.fold(source), SearchText.fold(category),
+                SearchText.fold(description), date != null ? date.toString() : null);
+        }
+        return searchText;
+    }
+
+    // Dùng text đã tính sẵn trong database thay vì fold lại
+    void setSearchText(String searchText) { this.searchText = searchText; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
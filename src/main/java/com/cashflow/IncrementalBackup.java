@@ -0,0 +1,557 @@
+package com.cashflow;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Backup tăng dần dựa trên change_log của DatabaseManager.
+ *
+ * - Base: snapshot đầy đủ (BackupEngine), chụp định kỳ.
+ * - Delta: chỉ các dòng đã đổi kể từ base (theo change_log) cùng danh sách dòng đã xoá, ghi thành một file
+ *   SQLite nhỏ. Delta luôn so với base chứ không so với delta trước, nên khôi phục chỉ cần base + một delta
+ *   và có thể xoá bất kỳ delta nào mà không làm hỏng các điểm khôi phục khác.
+ *
+ * Thời gian và dung lượng mỗi lần backup tỉ lệ với lượng thay đổi chứ không theo kích thước database,
+ * nên có thể giữ lịch sử lâu hơn nhiều so với các bản ZIP đầy đủ.
+ *
+ * Tên file: base_&lt;thời điểm&gt;.db và delta_&lt;thời điểm base&gt;_&lt;thời điểm&gt;.db trong cùng thư mục.
+ *
+ * Giữ lại theo kiểu grandfather-father-son: điểm mới nhất của mỗi giờ, ngày, tuần, tháng gần đây
+ * (KEEP_HOURLY / KEEP_DAILY / KEEP_WEEKLY / KEEP_MONTHLY), cùng base của mọi delta được giữ.
+ */
+public class IncrementalBackup {
+    private static final Logger logger = Logger.getLogger(IncrementalBackup.class.getName());
+    private static final String BASE_PREFIX = "base_";
+    private static final String DELTA_PREFIX = "delta_";
+    private static final String SUFFIX = ".db";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+    private static final int FILE_TIME_LENGTH = "yyyyMMdd_HHmmss_SSS".length();
+    // Key trong bảng settings: base hiện tại thuộc về database này (đổi khi restore từ file khác)
+    private static final String CHAIN_KEY = "backup_chain_id";
+    // Chụp base mới khi đã có nhiều delta, hoặc delta đã lớn gần bằng base
+    private static final int MAX_DELTAS_PER_BASE = 48;
+    private static final double MAX_DELTA_TO_BASE_RATIO = 0.5;
+    // Số giờ / ngày / tuần / tháng gần nhất (có điểm khôi phục) được giữ một điểm
+    private static final int KEEP_HOURLY = 24;
+    private static final int KEEP_DAILY = 7;
+    private static final int KEEP_WEEKLY = 5;
+    private static final int KEEP_MONTHLY = 12;
+    private static final int BUSY_TIMEOUT_MS = 5000;
+
+    private final BackupEngine engine;
+    private final Path directory;
+
+    public IncrementalBackup(BackupEngine engine, Path directory) {
+        this.engine = engine;
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Một điểm khôi phục: base, hoặc delta kèm base của nó
+     */
+    public static final class RestorePoint {
+        private final Path file;
+        private final Path base;
+        private final LocalDateTime createdAt;
+
+        private RestorePoint(Path file, Path base, LocalDateTime createdAt) {
+            this.file = file;
+            this.base = base;
+            this.createdAt = createdAt;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public Path getBase() {
+            return base;
+        }
+
+        public boolean isBase() {
+            return file.equals(base);
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        // Dung lượng cần để khôi phục điểm này (base + delta)
+        public long getSize() throws IOException {
+            return isBase() ? Files.size(file) : Files.size(base) + Files.size(file);
+        }
+
+        @Override
+        public String toString() {
+            return file.getFileName().toString();
+        }
+    }
+
+    /**
+     * Tạo điểm khôi phục mới: delta so với base hiện tại, hoặc base mới nếu chưa có / chuỗi quá dài /
+     * database không còn khớp với base (vd. vừa restore từ file khác)
+     */
+    public synchronized RestorePoint backup() throws SQLException, IOException {
+        Files.createDirectories(directory);
+        RestorePoint base = latestBase();
+        if (base == null || needsNewBase(base)) {
+            RestorePoint created = createBase();
+            applyRetention();
+            return created;
+        }
+        // Không có gì thay đổi từ điểm khôi phục gần nhất thì dùng lại điểm đó
+        List<RestorePoint> deltas = deltasOf(base);
+        RestorePoint latest = deltas.isEmpty() ? base : deltas.get(0);
+        long liveSeq;
+        try (Connection connection = openLive()) {
+            liveSeq = readLogPosition(connection);
+        }
+        if (liveSeq == logPositionOf(latest)) {
+            logger.fine("No changes since backup " + latest);
+            return latest;
+        }
+        RestorePoint created = createDelta(base);
+        applyRetention();
+        return created;
+    }
+
+    /**
+     * Điểm khôi phục mới nhất, null nếu chưa có
+     */
+    public synchronized RestorePoint latestRestorePoint() throws IOException {
+        List<RestorePoint> points = listRestorePoints();
+        return points.isEmpty() ? null : points.get(0);
+    }
+
+    /**
+     * Số thay đổi trong change_log chưa nằm trong điểm khôi phục mới nhất. Database không còn thuộc chuỗi
+     * của điểm đó (vd. vừa restore) thì mọi thứ đều chưa được backup: trả về Long.MAX_VALUE.
+     */
+    public synchronized long pendingChanges() throws SQLException, IOException {
+        RestorePoint latest = latestRestorePoint();
+        String chainId = null;
+        if (latest != null) {
+            try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + latest.getBase())) {
+                chainId = readChainId(connection);
+            }
+        }
+        try (Connection connection = openLive()) {
+            if (latest != null && (chainId == null || !chainId.equals(readChainId(connection)))) {
+                return Long.MAX_VALUE;
+            }
+            try (PreparedStatement pstmt = connection.prepareStatement("SELECT count(*) FROM change_log WHERE seq > ?")) {
+                pstmt.setLong(1, latest == null ? 0 : logPositionOf(latest));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.getLong(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tách file database sắp được restore khỏi chuỗi backup hiện tại: bỏ chain id để lần backup sau chụp base mới.
+     * Nếu không, restore về một điểm của chính chuỗi này sẽ giữ chain id cũ trong khi số thứ tự change_log
+     * bị lùi lại, và việc so vị trí nhật ký sẽ coi các thay đổi mới là đã backup.
+     */
+    public static void detachFromChain(Path database) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.toAbsolutePath())) {
+            // Bản backup cũ chưa có bảng settings thì cũng không có chain id
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(
+                     "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'settings'")) {
+                if (!rs.next()) {
+                    return;
+                }
+            }
+            try (PreparedStatement pstmt = connection.prepareStatement("DELETE FROM settings WHERE key = ?")) {
+                pstmt.setString(1, CHAIN_KEY);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    // Vị trí trong change_log mà điểm khôi phục đã bao gồm
+    private static long logPositionOf(RestorePoint point) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + point.getFile())) {
+            if (point.isBase()) {
+                return readLogPosition(connection);
+            }
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT value FROM backup_info WHERE key = 'to_seq'")) {
+                return rs.next() ? Long.parseLong(rs.getString(1)) : -1;
+            }
+        }
+    }
+
+    private boolean needsNewBase(RestorePoint base) throws SQLException, IOException {
+        String baseChain;
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + base.getFile())) {
+            baseChain = readChainId(connection);
+        }
+        long baseSeq = logPositionOf(base);
+        try (Connection connection = openLive()) {
+            if (baseChain == null || !baseChain.equals(readChainId(connection)) || readLogPosition(connection) < baseSeq) {
+                logger.info("Database no longer matches backup base " + base + ", starting a new base");
+                return true;
+            }
+        }
+
+        List<RestorePoint> deltas = deltasOf(base);
+        if (deltas.size() >= MAX_DELTAS_PER_BASE) {
+            return true;
+        }
+        return !deltas.isEmpty()
+            && Files.size(deltas.get(0).getFile()) > Files.size(base.getFile()) * MAX_DELTA_TO_BASE_RATIO;
+    }
+
+    private RestorePoint createBase() throws SQLException, IOException {
+        // Ghi chain id trước khi chụp để base mang theo id này
+        try (Connection connection = openLive();
+             PreparedStatement pstmt = connection.prepareStatement(
+                 "INSERT OR REPLACE INTO settings (key, value) VALUES (?, ?)")) {
+            pstmt.setString(1, CHAIN_KEY);
+            pstmt.setString(2, UUID.randomUUID().toString());
+            pstmt.executeUpdate();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Path file = directory.resolve(BASE_PREFIX + now.format(FILE_TIME) + SUFFIX);
+        engine.snapshot(file, null);
+
+        long baseSeq = logPositionOf(new RestorePoint(file, file, now));
+        // Thay đổi đến baseSeq đã nằm trong base, không cần giữ trong nhật ký nữa
+        try (Connection connection = openLive();
+             PreparedStatement pstmt = connection.prepareStatement("DELETE FROM change_log WHERE seq <= ?")) {
+            pstmt.setLong(1, baseSeq);
+            pstmt.executeUpdate();
+        }
+
+        logger.info("Backup base created: " + file + " (" + Files.size(file) + " bytes)");
+        return new RestorePoint(file, file, now);
+    }
+
+    private RestorePoint createDelta(RestorePoint base) throws SQLException, IOException {
+        long fromSeq = logPositionOf(base);
+
+        LocalDateTime now = LocalDateTime.now();
+        Path file = directory.resolve(DELTA_PREFIX + timestampOf(base.getFile(), BASE_PREFIX) + "_"
+            + now.format(FILE_TIME) + SUFFIX);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+
+        int changedRows = 0;
+        int deletedRows = 0;
+        try (Connection connection = openLive()) {
+            try (PreparedStatement attach = connection.prepareStatement("ATTACH DATABASE ? AS delta")) {
+                attach.setString(1, temp.toAbsolutePath().toString());
+                attach.execute();
+            }
+            // Một transaction: đọc cùng một snapshot của database và ghi delta một lần
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                long toSeq = readLogPosition(connection);
+                stmt.execute("CREATE TABLE delta.deleted_rows (table_name TEXT NOT NULL, row_id INTEGER NOT NULL)");
+                stmt.execute("CREATE TABLE delta.backup_info (key TEXT PRIMARY KEY, value TEXT)");
+
+                for (String table : DatabaseManager.CHANGE_LOGGED_TABLES) {
+                    try (PreparedStatement copy = connection.prepareStatement(
+                            "CREATE TABLE delta." + table + " AS SELECT rowid AS backup_rowid, * FROM main." + table
+                                + " WHERE rowid IN (SELECT row_id FROM main.change_log"
+                                + " WHERE table_name = ? AND seq > ? AND seq <= ?)")) {
+                        copy.setString(1, table);
+                        copy.setLong(2, fromSeq);
+                        copy.setLong(3, toSeq);
+                        copy.execute();
+                    }
+                    try (PreparedStatement deleted = connection.prepareStatement(
+                            "INSERT INTO delta.deleted_rows SELECT DISTINCT table_name, row_id FROM main.change_log"
+                                + " WHERE table_name = ? AND seq > ? AND seq <= ? AND op = 'D'"
+                                + " AND row_id NOT IN (SELECT rowid FROM main." + table + ")")) {
+                        deleted.setString(1, table);
+                        deleted.setLong(2, fromSeq);
+                        deleted.setLong(3, toSeq);
+                        deletedRows += deleted.executeUpdate();
+                    }
+                    try (ResultSet rs = stmt.executeQuery("SELECT count(*) FROM delta." + table)) {
+                        changedRows += rs.getInt(1);
+                    }
+                }
+
+                try (PreparedStatement info = connection.prepareStatement(
+                        "INSERT INTO delta.backup_info (key, value) VALUES (?, ?)")) {
+                    String[][] values = {
+                        { "base", base.getFile().getFileName().toString() },
+                        { "from_seq", String.valueOf(fromSeq) },
+                        { "to_seq", String.valueOf(toSeq) },
+                        { "created_at", now.toString() }
+                    };
+                    for (String[] value : values) {
+                        info.setString(1, value[0]);
+                        info.setString(2, value[1]);
+                        info.addBatch();
+                    }
+                    info.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info(String.format("Backup delta created: %s (%d changed, %d deleted rows, %d bytes)",
+            file, changedRows, deletedRows, Files.size(file)));
+        return new RestorePoint(file, base.getFile(), now);
+    }
+
+    /**
+     * Dựng lại database đầy đủ của điểm khôi phục vào target: chép base rồi áp dụng delta
+     */
+    public static void materialize(RestorePoint point, Path target) throws SQLException, IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.copy(point.getBase(), temp, StandardCopyOption.REPLACE_EXISTING);
+        try {
+            if (!point.isBase()) {
+                applyDelta(temp, point.getFile());
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (SQLException | IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private static void applyDelta(Path database, Path delta) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database)) {
+            try (PreparedStatement attach = connection.prepareStatement("ATTACH DATABASE ? AS delta")) {
+                attach.setString(1, delta.toAbsolutePath().toString());
+                attach.execute();
+            }
+            connection.setAutoCommit(false);
+            try {
+                for (String table : DatabaseManager.CHANGE_LOGGED_TABLES) {
+                    Set<String> deltaColumns = columns(connection, "delta", table);
+                    if (deltaColumns.isEmpty()) {
+                        continue;
+                    }
+                    try (PreparedStatement delete = connection.prepareStatement("DELETE FROM main." + table
+                            + " WHERE rowid IN (SELECT row_id FROM delta.deleted_rows WHERE table_name = ?)")) {
+                        delete.setString(1, table);
+                        delete.executeUpdate();
+                    }
+                    // Chỉ các cột có ở cả hai phía, phòng khi schema đã thay đổi giữa base và delta
+                    deltaColumns.retainAll(columns(connection, "main", table));
+                    String columnList = String.join(", ", deltaColumns);
+                    try (Statement stmt = connection.createStatement()) {
+                        stmt.executeUpdate("INSERT OR REPLACE INTO main." + table + " (rowid, " + columnList + ")"
+                            + " SELECT backup_rowid, " + columnList + " FROM delta." + table);
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static Set<String> columns(Connection connection, String schema, String table) throws SQLException {
+        Set<String> columns = new LinkedHashSet<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + schema + ".table_info(" + table + ")")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
+        columns.remove("backup_rowid");
+        return columns;
+    }
+
+    /**
+     * Mọi điểm khôi phục trong thư mục, mới nhất trước. Delta mất base được bỏ qua.
+     */
+    public List<RestorePoint> listRestorePoints() throws IOException {
+        List<RestorePoint> points = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return points;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                RestorePoint point = fromFile(file);
+                if (point != null) {
+                    points.add(point);
+                }
+            });
+        }
+        points.sort(Comparator.comparing(RestorePoint::getCreatedAt).reversed());
+        return points;
+    }
+
+    /**
+     * Điểm khôi phục ứng với một file base_/delta_ (vd. người dùng chọn trong hộp thoại), null nếu không phải
+     */
+    public static RestorePoint fromFile(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(SUFFIX)) {
+            return null;
+        }
+        try {
+            if (name.startsWith(BASE_PREFIX)) {
+                return new RestorePoint(file, file, parseTime(timestampOf(file, BASE_PREFIX)));
+            }
+            if (name.startsWith(DELTA_PREFIX)) {
+                String times = name.substring(DELTA_PREFIX.length(), name.length() - SUFFIX.length());
+                String baseTime = times.substring(0, FILE_TIME_LENGTH);
+                Path base = file.resolveSibling(BASE_PREFIX + baseTime + SUFFIX);
+                if (!Files.exists(base)) {
+                    return null;
+                }
+                return new RestorePoint(file, base, parseTime(times.substring(FILE_TIME_LENGTH + 1)));
+            }
+        } catch (DateTimeParseException | IndexOutOfBoundsException e) {
+            logger.log(Level.FINE, "Not a restore point: " + file, e);
+        }
+        return null;
+    }
+
+    private RestorePoint latestBase() throws IOException {
+        for (RestorePoint point : listRestorePoints()) {
+            if (point.isBase()) {
+                return point;
+            }
+        }
+        return null;
+    }
+
+    // Delta của base, mới nhất trước
+    private List<RestorePoint> deltasOf(RestorePoint base) throws IOException {
+        List<RestorePoint> deltas = new ArrayList<>();
+        for (RestorePoint point : listRestorePoints()) {
+            if (!point.isBase() && point.getBase().equals(base.getFile())) {
+                deltas.add(point);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Xoá các điểm khôi phục nằm ngoài các tầng giữ lại. Luôn giữ điểm mới nhất, base mới nhất (nhận các delta
+     * tiếp theo) và base của mọi delta được giữ, nên điểm nào còn lại cũng khôi phục được.
+     */
+    public synchronized void applyRetention() throws IOException {
+        List<RestorePoint> points = listRestorePoints();
+        if (points.isEmpty()) {
+            return;
+        }
+        Set<Path> keep = new HashSet<>();
+        keep.add(points.get(0).getFile());
+        keepNewestPerPeriod(points, KEEP_HOURLY, time -> time.truncatedTo(ChronoUnit.HOURS), keep);
+        keepNewestPerPeriod(points, KEEP_DAILY, time -> time.toLocalDate().atStartOfDay(), keep);
+        keepNewestPerPeriod(points, KEEP_WEEKLY,
+            time -> time.toLocalDate().with(DayOfWeek.MONDAY).atStartOfDay(), keep);
+        keepNewestPerPeriod(points, KEEP_MONTHLY, time -> time.toLocalDate().withDayOfMonth(1).atStartOfDay(), keep);
+
+        RestorePoint base = latestBase();
+        if (base != null) {
+            keep.add(base.getFile());
+        }
+        for (RestorePoint point : points) {
+            if (keep.contains(point.getFile())) {
+                keep.add(point.getBase());
+            }
+        }
+
+        int deleted = 0;
+        for (RestorePoint point : points) {
+            if (!keep.contains(point.getFile())) {
+                Files.deleteIfExists(point.getFile());
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Backup retention deleted " + deleted + " restore points, kept " + (points.size() - deleted));
+        }
+    }
+
+    // points mới nhất trước: điểm đầu tiên gặp trong mỗi kỳ là điểm mới nhất của kỳ đó
+    private static void keepNewestPerPeriod(List<RestorePoint> points, int periods,
+                                            Function<LocalDateTime, LocalDateTime> period, Set<Path> keep) {
+        Set<LocalDateTime> seen = new HashSet<>();
+        for (RestorePoint point : points) {
+            if (seen.add(period.apply(point.getCreatedAt()))) {
+                if (seen.size() > periods) {
+                    return;
+                }
+                keep.add(point.getFile());
+            }
+        }
+    }
+
+    private Connection openLive() throws SQLException {
+        Connection connection = DriverManager.getConnection(engine.getDatabaseUrl());
+        try (Statement stmt = connection.createStatement()) {
+            // Chờ connection ghi của DatabaseManager thay vì lỗi SQLITE_BUSY ngay
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+        }
+        return connection;
+    }
+
+    private static String readChainId(Connection connection) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT value FROM settings WHERE key = ?")) {
+            pstmt.setString(1, CHAIN_KEY);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    // Số thứ tự lớn nhất từng cấp cho change_log (vẫn đúng khi nhật ký đã được dọn hết)
+    private static long readLogPosition(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'change_log'), 0)")) {
+            return rs.getLong(1);
+        }
+    }
+
+    private static String timestampOf(Path file, String prefix) {
+        String name = file.getFileName().toString();
+        return name.substring(prefix.length(), prefix.length() + FILE_TIME_LENGTH);
+    }
+
+    private static LocalDateTime parseTime(String text) {
+        return LocalDateTime.parse(text, FILE_TIME);
+    }
+}
@@ -0,0 +1,129 @@
+package com.cashflow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thay đổi trên sổ cái do DatabaseManager phát ra sau mỗi lần ghi thành công.
+ * Các trang dùng event để cập nhật phần bị ảnh hưởng thay vì tải lại toàn bộ.
+ */
+public abstract class LedgerEvent {
+    private final LedgerType ledgerType;
+    private final long generation;
+
+    protected LedgerEvent(LedgerType ledgerType, long generation) {
+        this.ledgerType = ledgerType;
+        this.generation = generation;
+    }
+
+    // null với LedgerReset (ảnh hưởng cả hai sổ)
+    public LedgerType getLedgerType() {
+        return ledgerType;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public boolean affects(LedgerType type) {
+        return ledgerType == null || ledgerType == type;
+    }
+
+    /**
+     * Áp dụng thay đổi lên một danh sách record đã tải (theo id), trả về danh sách mới.
+     * Record không cùng loại với recordType được bỏ qua.
+     */
+    public <R extends LedgerRecord> List<R> applyTo(List<R> records, Class<R> recordType) {
+        return new ArrayList<>(records);
+    }
+
+    public static final class RecordAdded extends LedgerEvent {
+        private final LedgerRecord record;
+
+        public RecordAdded(LedgerRecord record, long generation) {
+            super(record.getLedgerType(), generation);
+            this.record = record;
+        }
+
+        public LedgerRecord getRecord() {
+            return record;
+        }
+
+        @Override
+        public <R extends LedgerRecord> List<R> applyTo(List<R> records, Class<R> recordType) {
+            List<R> result = new ArrayList<>(records.size() + 1);
+            if (recordType.isInstance(record)) {
+                result.add(recordType.cast(record));
+            }
+            result.addAll(records);
+            return result;
+        }
+    }
+
+    public static final class RecordUpdated extends LedgerEvent {
+        private final LedgerRecord previous;
+        private final LedgerRecord record;
+
+        public RecordUpdated(LedgerRecord previous, LedgerRecord record, long generation) {
+            super(record.getLedgerType(), generation);
+            this.previous = previous;
+            this.record = record;
+        }
+
+        // Có thể null nếu không đọc được bản ghi cũ
+        public LedgerRecord getPrevious() {
+            return previous;
+        }
+
+        public LedgerRecord getRecord() {
+            return record;
+        }
+
+        @Override
+        public <R extends LedgerRecord> List<R> applyTo(List<R> records, Class<R> recordType) {
+            List<R> result = new ArrayList<>(records);
+            if (!recordType.isInstance(record)) {
+                return result;
+            }
+            for (int i = 0; i < result.size(); i++) {
+                if (result.get(i).getId() == record.getId()) {
+                    result.set(i, recordType.cast(record));
+                    return result;
+                }
+            }
+            result.add(0, recordType.cast(record));
+            return result;
+        }
+    }
+
+    public static final class RecordDeleted extends LedgerEvent {
+        private final LedgerRecord record;
+
+        public RecordDeleted(LedgerRecord record, long generation) {
+            super(record.getLedgerType(), generation);
+            this.record = record;
+        }
+
+        public LedgerRecord getRecord() {
+            return record;
+        }
+
+        @Override
+        public <R extends LedgerRecord> List<R> applyTo(List<R> records, Class<R> recordType) {
+            List<R> result = new ArrayList<>(records);
+            if (recordType.isInstance(record)) {
+                result.removeIf(existing -> existing.getId() == record.getId());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Dữ liệu thay đổi hàng loạt (restore, dựng lại chỉ mục): người nghe cần tải lại
+     */
+    public static final class LedgerReset extends LedgerEvent {
+        public LedgerReset(long generation) {
+            super(null, generation);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.cashflow;
+
+import javafx.application.Platform;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bus phát LedgerEvent từ data layer tới các trang, thẻ thống kê và chart.
+ * Mỗi event mang một generation tăng dần để trang biết dữ liệu đã đổi kể từ lần dựng trước.
+ */
+public class LedgerEventBus {
+    private static final Logger logger = Logger.getLogger(LedgerEventBus.class.getName());
+
+    public interface Subscription {
+        void unsubscribe();
+    }
+
+    private final List<Listener<?>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<LedgerType, AtomicLong> ledgerGenerations = new EnumMap<>(LedgerType.class);
+
+    public LedgerEventBus() {
+        for (LedgerType type : LedgerType.values()) {
+            ledgerGenerations.put(type, new AtomicLong());
+        }
+    }
+
+    /**
+     * Nhận event trên thread phát (thường là thread IO của TaskScheduler)
+     */
+    public <E extends LedgerEvent> Subscription subscribe(Class<E> eventType, Consumer<? super E> handler) {
+        return register(new Listener<>(eventType, handler, false));
+    }
+
+    /**
+     * Nhận event trên FX thread, dùng cho listener cập nhật node
+     */
+    public <E extends LedgerEvent> Subscription subscribeOnFxThread(Class<E> eventType, Consumer<? super E> handler) {
+        return register(new Listener<>(eventType, handler, true));
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public long getGeneration(LedgerType type) {
+        return ledgerGenerations.get(type).get();
+    }
+
+    /**
+     * Tăng generation cho sổ bị ảnh hưởng (null = cả hai) và trả về generation chung mới
+     */
+    long nextGeneration(LedgerType type) {
+        if (type == null) {
+            ledgerGenerations.values().forEach(AtomicLong::incrementAndGet);
+        } else {
+            ledgerGenerations.get(type).incrementAndGet();
+        }
+        return generation.incrementAndGet();
+    }
+
+    public void publish(LedgerEvent event) {
+        for (Listener<?> listener : listeners) {
+            listener.deliver(event);
+        }
+    }
+
+    private Subscription register(Listener<?> listener) {
+        listeners.add(listener);
+        return () -> {
+            listener.active = false;
+            listeners.remove(listener);
+        };
+    }
+
+    private static class Listener<E extends LedgerEvent> {
+        private final Class<E> eventType;
+        private final Consumer<? super E> handler;
+        private final boolean onFxThread;
+        // Event đã xếp vào FX thread trước khi huỷ đăng ký sẽ bị bỏ qua
+        private volatile boolean active = true;
+
+        Listener(Class<E> eventType, Consumer<? super E> handler, boolean onFxThread) {
+            this.eventType = eventType;
+            this.handler = handler;
+            this.onFxThread = onFxThread;
+        }
+
+        void deliver(LedgerEvent event) {
+            if (!eventType.isInstance(event)) {
+                return;
+            }
+            E typedEvent = eventType.cast(event);
+            if (onFxThread && !Platform.isFxApplicationThread()) {
+                Platform.runLater(() -> handle(typedEvent));
+            } else {
+                handle(typedEvent);
+            }
+        }
+
+        private void handle(E event) {
+            if (!active) {
+                return;
+            }
+            try {
+                handler.accept(event);
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Failed to handle ledger event " + event.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.cashflow;
+
+import java.time.LocalDate;
+
+// Phần chung của IncomeRecord và OutcomeRecord mà các chỉ mục và event cần
+public interface LedgerRecord {
+    int getId();
+
+    double getAmount();
+
+    String getCategory();
+
+    LocalDate getDate();
+
+    LedgerType getLedgerType();
+
+    // Các field text đã fold bằng SearchText, ngăn cách bởi SearchText.FIELD_SEPARATOR
+    String getSearchText();
+}
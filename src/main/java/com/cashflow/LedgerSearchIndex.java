@@ -0,0 +1,471 @@
+package com.cashflow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Chỉ mục tìm kiếm dựng một lần từ danh sách record đã tải, dùng cho ô tìm kiếm của các trang danh sách.
+ * Text của record đã được fold sẵn (SearchText, tính lúc ghi database) nên không phân biệt dấu và hoa thường;
+ * lúc tìm chỉ fold chuỗi truy vấn.
+ *
+ * - Tìm chuỗi con: inverted index theo trigram (3 ký tự liên tiếp). Lấy giao các posting list
+ *   của trigram trong truy vấn rồi chỉ kiểm tra contains trên các ứng viên. Truy vấn ngắn hơn 3 ký tự
+ *   quét thẳng text đã chuẩn hoá sẵn.
+ * - Tìm gần đúng (gõ sai chính tả): BK-tree trên các từ phân biệt, mỗi từ của truy vấn khớp với
+ *   từ có khoảng cách Levenshtein tối đa MAX_EDIT_DISTANCE.
+ *
+ * Chỉ mục bất biến sau khi dựng nên có thể dùng từ nhiều thread; bộ đệm tính toán là ThreadLocal
+ * để mỗi lần tìm không phải cấp phát lại mảng.
+ */
+public class LedgerSearchIndex<T> {
+    public static final int MAX_EDIT_DISTANCE = 2;
+    // Từ ngắn hơn thì sai 2 ký tự là khớp gần như mọi thứ
+    private static final int MIN_FUZZY_WORD_LENGTH = 3;
+    private static final int MAX_FUZZY_WORD_LENGTH = 32;
+    private static final char FIELD_SEPARATOR = SearchText.FIELD_SEPARATOR;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final List<T> records;
+    private final IdentityHashMap<T, Integer> positions;
+    private final String[] texts;
+    private final TrigramTable trigrams;
+    private final BkTree tokens;
+
+    /**
+     * @param searchText text tìm kiếm đã fold của mỗi record, các field ngăn cách bởi SearchText.FIELD_SEPARATOR
+     */
+    public LedgerSearchIndex(List<T> records, Function<? super T, String> searchText) {
+        this.records = new ArrayList<>(records);
+        this.positions = new IdentityHashMap<>(records.size() * 2);
+        this.texts = new String[records.size()];
+
+        Map<Long, IntList> trigramPostings = new HashMap<>();
+        Map<String, IntList> tokenPostings = new HashMap<>();
+        for (int i = 0; i < this.records.size(); i++) {
+            T record = this.records.get(i);
+            positions.put(record, i);
+
+            String text = searchText.apply(record);
+            texts[i] = text != null ? text : "";
+            addTrigrams(texts[i], i, trigramPostings);
+            addTokens(texts[i], i, tokenPostings);
+        }
+
+        this.trigrams = new TrigramTable(trigramPostings);
+        this.tokens = new BkTree(tokenPostings);
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    /**
+     * Tìm record có text chứa truy vấn, hoặc mọi từ của truy vấn gần đúng với một từ của record.
+     * Bitset kết quả nằm trong bộ đệm của thread, nên Match chỉ hợp lệ tới lần search tiếp theo trên cùng thread.
+     */
+    public Match search(String query) {
+        Scratch scratch = SCRATCH.get();
+        int words = (records.size() + 63) >>> 6;
+        Match match = new Match(scratch.matchBits(words), words);
+        String normalized = SearchText.fold(query.trim());
+        if (normalized.isEmpty()) {
+            return match;
+        }
+        findSubstring(normalized, match.bits, scratch);
+        findFuzzy(normalized, match.bits, words, scratch);
+        return match;
+    }
+
+    /**
+     * Tập record khớp một truy vấn; kiểm tra record theo identity nên dùng được cho cả danh sách
+     * con của danh sách đã dựng chỉ mục.
+     */
+    public final class Match {
+        private final long[] bits;
+        private final int words;
+
+        private Match(long[] bits, int words) {
+            this.bits = bits;
+            this.words = words;
+        }
+
+        public boolean contains(T record) {
+            Integer position = positions.get(record);
+            return position != null && (bits[position >>> 6] & (1L << position)) != 0;
+        }
+
+        public boolean isEmpty() {
+            for (int w = 0; w < words; w++) {
+                if (bits[w] != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private void findSubstring(String query, long[] out, Scratch scratch) {
+        if (query.length() < 3) {
+            for (int i = 0; i < texts.length; i++) {
+                if (texts[i].contains(query)) {
+                    set(out, i);
+                }
+            }
+            return;
+        }
+
+        // Bắt đầu từ posting list ngắn nhất để giao nhanh nhất
+        int count = query.length() - 2;
+        int[] shortest = null;
+        for (int i = 0; i < count; i++) {
+            int[] postings = trigrams.get(trigramKey(query, i));
+            if (postings == null) {
+                return;
+            }
+            if (shortest == null || postings.length < shortest.length) {
+                shortest = postings;
+            }
+        }
+
+        int[] candidates = scratch.candidates(shortest.length);
+        System.arraycopy(shortest, 0, candidates, 0, shortest.length);
+        int candidateCount = shortest.length;
+        for (int i = 0; i < count && candidateCount > 0; i++) {
+            int[] postings = trigrams.get(trigramKey(query, i));
+            if (postings != shortest) {
+                candidateCount = intersect(candidates, candidateCount, postings);
+            }
+        }
+
+        // Có đủ trigram chưa chắc đã có chuỗi con liền nhau nên vẫn phải kiểm tra lại
+        for (int i = 0; i < candidateCount; i++) {
+            int position = candidates[i];
+            if (texts[position].contains(query)) {
+                set(out, position);
+            }
+        }
+    }
+
+    private void findFuzzy(String query, long[] out, int words, Scratch scratch) {
+        scratch.ensureBits(words);
+        long[] all = scratch.queryBits;
+        boolean anyWord = false;
+        int start = -1;
+        for (int i = 0; i <= query.length(); i++) {
+            boolean wordChar = i < query.length() && Character.isLetterOrDigit(query.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (isFuzzyWord(query, start, i)) {
+                    long[] word = scratch.wordBits;
+                    Arrays.fill(word, 0, words, 0L);
+                    tokens.search(query, start, i, word, scratch);
+                    // Mọi từ đủ dài của truy vấn đều phải khớp
+                    for (int w = 0; w < words; w++) {
+                        all[w] = anyWord ? all[w] & word[w] : word[w];
+                    }
+                    anyWord = true;
+                }
+                start = -1;
+            }
+        }
+        if (anyWord) {
+            for (int w = 0; w < words; w++) {
+                out[w] |= all[w];
+            }
+        }
+    }
+
+    // Số (số tiền, ngày) sai một chữ số là một giá trị khác hẳn nên không tìm gần đúng
+    private static boolean isFuzzyWord(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length < MIN_FUZZY_WORD_LENGTH || length > MAX_FUZZY_WORD_LENGTH) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void set(long[] bits, int position) {
+        bits[position >>> 6] |= 1L << position;
+    }
+
+    // Giao hai danh sách đã sắp xếp, ghi kết quả vào đầu candidates
+    private static int intersect(int[] candidates, int candidateCount, int[] postings) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < candidateCount && j < postings.length; i++) {
+            int value = candidates[i];
+            while (j < postings.length && postings[j] < value) {
+                j++;
+            }
+            if (j < postings.length && postings[j] == value) {
+                candidates[kept++] = value;
+            }
+        }
+        return kept;
+    }
+
+    private static long trigramKey(CharSequence text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    private static void addTrigrams(String text, int position, Map<Long, IntList> postings) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            if (text.charAt(i) == FIELD_SEPARATOR || text.charAt(i + 1) == FIELD_SEPARATOR
+                    || text.charAt(i + 2) == FIELD_SEPARATOR) {
+                continue;
+            }
+            postings.computeIfAbsent(trigramKey(text, i), key -> new IntList()).addUnique(position);
+        }
+    }
+
+    private static void addTokens(String text, int position, Map<String, IntList> postings) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (isFuzzyWord(text, start, i)) {
+                    postings.computeIfAbsent(text.substring(start, i), key -> new IntList()).addUnique(position);
+                }
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Khoảng cách Levenshtein giữa token và query[start, end), dừng sớm khi chắc chắn vượt limit.
+     * Trả về limit + 1 nếu vượt.
+     */
+    static int boundedDistance(String token, CharSequence query, int start, int end, int limit, Scratch scratch) {
+        int n = end - start;
+        int m = token.length();
+        if (Math.abs(n - m) > limit) {
+            return limit + 1;
+        }
+        int[] previous = scratch.previousRow;
+        int[] current = scratch.currentRow;
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            char c = query.charAt(start + i - 1);
+            for (int j = 1; j <= m; j++) {
+                int cost = token.charAt(j - 1) == c ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[m], limit + 1);
+    }
+
+    /**
+     * Bảng băm địa chỉ mở trigram -> posting list, tra cứu không phải boxing key
+     */
+    private static final class TrigramTable {
+        private final long[] keys;
+        private final int[][] values;
+        private final int mask;
+
+        TrigramTable(Map<Long, IntList> postings) {
+            int capacity = Integer.highestOneBit(Math.max(4, postings.size() * 2 - 1)) << 1;
+            keys = new long[capacity];
+            values = new int[capacity][];
+            mask = capacity - 1;
+            for (Map.Entry<Long, IntList> entry : postings.entrySet()) {
+                int slot = slot(entry.getKey());
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = entry.getKey();
+                values[slot] = entry.getValue().toArray();
+            }
+        }
+
+        int[] get(long key) {
+            int slot = slot(key);
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash >>> 40) & mask;
+        }
+    }
+
+    /**
+     * BK-tree lưu dạng mảng: mỗi node là một từ, cạnh tới con mang khoảng cách giữa hai từ
+     */
+    private final class BkTree {
+        private final String[] words;
+        private final int[][] postings;
+        private final int[] firstChild;
+        private final int[] nextSibling;
+        private final int[] edgeDistance;
+        private int size;
+
+        BkTree(Map<String, IntList> tokenPostings) {
+            int capacity = tokenPostings.size();
+            words = new String[capacity];
+            postings = new int[capacity][];
+            firstChild = new int[capacity];
+            nextSibling = new int[capacity];
+            edgeDistance = new int[capacity];
+            Arrays.fill(firstChild, -1);
+            Arrays.fill(nextSibling, -1);
+
+            Scratch scratch = new Scratch();
+            for (Map.Entry<String, IntList> entry : tokenPostings.entrySet()) {
+                insert(entry.getKey(), entry.getValue().toArray(), scratch);
+            }
+        }
+
+        private void insert(String word, int[] wordPostings, Scratch scratch) {
+            int node = size++;
+            words[node] = word;
+            postings[node] = wordPostings;
+            if (node == 0) {
+                return;
+            }
+            int parent = 0;
+            while (true) {
+                int distance = boundedDistance(words[parent], word, 0, word.length(),
+                    MAX_FUZZY_WORD_LENGTH, scratch);
+                int child = childAt(parent, distance);
+                if (child < 0) {
+                    edgeDistance[node] = distance;
+                    nextSibling[node] = firstChild[parent];
+                    firstChild[parent] = node;
+                    return;
+                }
+                parent = child;
+            }
+        }
+
+        private int childAt(int parent, int distance) {
+            for (int child = firstChild[parent]; child >= 0; child = nextSibling[child]) {
+                if (edgeDistance[child] == distance) {
+                    return child;
+                }
+            }
+            return -1;
+        }
+
+        // Đánh dấu vào out record của mọi từ cách query[start, end) không quá MAX_EDIT_DISTANCE
+        void search(CharSequence query, int start, int end, long[] out, Scratch scratch) {
+            if (size == 0) {
+                return;
+            }
+            int[] stack = scratch.stack(size);
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                // Cần khoảng cách chính xác để cắt nhánh theo bất đẳng thức tam giác
+                int distance = boundedDistance(words[node], query, start, end, MAX_FUZZY_WORD_LENGTH, scratch);
+                if (distance <= MAX_EDIT_DISTANCE) {
+                    for (int position : postings[node]) {
+                        set(out, position);
+                    }
+                }
+                // Chỉ nhánh có khoảng cách cạnh trong [distance - 2, distance + 2] mới có thể chứa từ khớp
+                for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                    if (Math.abs(edgeDistance[child] - distance) <= MAX_EDIT_DISTANCE) {
+                        stack[top++] = child;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Bộ đệm dùng lại giữa các lần tìm trên cùng một thread
+     */
+    static final class Scratch {
+        private final int[] previousRow = new int[MAX_FUZZY_WORD_LENGTH * 2 + 1];
+        private final int[] currentRow = new int[MAX_FUZZY_WORD_LENGTH * 2 + 1];
+        private int[] candidates = new int[256];
+        private int[] stack = new int[256];
+        private long[] wordBits = new long[16];
+        private long[] queryBits = new long[16];
+        private long[] matchBits = new long[16];
+
+        int[] candidates(int size) {
+            if (candidates.length < size) {
+                candidates = new int[Integer.highestOneBit(size) << 1];
+            }
+            return candidates;
+        }
+
+        int[] stack(int size) {
+            if (stack.length < size) {
+                stack = new int[Integer.highestOneBit(size) << 1];
+            }
+            return stack;
+        }
+
+        // Bitset kết quả của search, xoá về 0 trước mỗi lần dùng
+        long[] matchBits(int words) {
+            if (matchBits.length < words) {
+                matchBits = new long[Integer.highestOneBit(words) << 1];
+            } else {
+                Arrays.fill(matchBits, 0, words, 0L);
+            }
+            return matchBits;
+        }
+
+        void ensureBits(int words) {
+            if (wordBits.length < words) {
+                wordBits = new long[Integer.highestOneBit(words) << 1];
+                queryBits = new long[wordBits.length];
+            }
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        // Record được thêm theo thứ tự tăng dần nên chỉ cần so với phần tử cuối
+        void addUnique(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
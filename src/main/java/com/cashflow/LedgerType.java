@@ -0,0 +1,17 @@
+package com.cashflow;
+
+// Hai sổ cái chính của ứng dụng, ứng với bảng income và outcome
+public enum LedgerType {
+    INCOME("income"),
+    OUTCOME("outcome");
+
+    private final String tableName;
+
+    LedgerType(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+}
@@ -6,6 +6,10 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -19,21 +23,28 @@ import javafx.animation.Timeline;
 import javafx.animation.TranslateTransition;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WeakChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Scene;
-import javafx.scene.chart.AreaChart;
-import javafx.scene.chart.CategoryAxis;
-import javafx.scene.chart.NumberAxis;
-import javafx.scene.chart.XYChart;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Separator;
 import javafx.scene.control.TextField;
-import javafx.scene.effect.DropShadow;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
@@ -41,10 +52,6 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
-import javafx.scene.paint.Color;
-import javafx.scene.paint.CycleMethod;
-import javafx.scene.paint.LinearGradient;
-import javafx.scene.paint.Stop;
 import javafx.scene.shape.Arc;
 import javafx.scene.shape.ArcType;
 import javafx.scene.shape.Circle;
@@ -63,26 +70,9 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     private ThemeManager themeManager;
     private ThemeManager.Theme currentTheme;
 
-    // Dynamic color properties (sẽ thay đổi theo theme)
-    private Color BG_PRIMARY;
-    private Color BG_SECONDARY;
-    private Color CARD_BG;
-    private Color CARD_HOVER;
-    
-    // Accent Colors
-    private Color ACCENT_PURPLE;
-    private Color ACCENT_PINK;
-    private Color ACCENT_BLUE;
-    private Color ACCENT_GREEN;
-    private Color ACCENT_CYAN;
-    
-    // Text Colors
-    private Color TEXT_PRIMARY;
-    private Color TEXT_SECONDARY;
-    private Color TEXT_MUTED;
-
     // Database and UI references
     private DatabaseManager dbManager;
+    private BackupScheduler backupScheduler;
     private BorderPane mainRoot;
     private VBox contentArea;
     private HBox mainContainer;
@@ -93,6 +83,27 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     // Theme toggle button reference
     private Button themeToggleButton;
 
+    // Analytics page loads each card on the scheduler's UI pool instead of the FX thread
+    private final List<Future<?>> pendingAnalyticsTasks = new ArrayList<>();
+    private int analyticsGeneration = 0;
+
+    // Dashboard được dựng một lần và bind vào view-model; màu lấy từ stylesheet nên đổi theme không cần dựng lại
+    private static final String[] CHART_MONTHS = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+    private DashboardViewModel dashboardViewModel;
+    private ScrollPane dashboardView;
+
+    // Các trang khác được giữ lại giữa các lần chuyển tab, giới hạn theo LRU và bộ nhớ
+    private static final int MAX_CACHED_PAGES = 5;
+    private static final long PAGE_MEMORY_BUDGET = 64L * 1024 * 1024;
+    private PageRegistry pageRegistry;
+
+    // Số giao dịch tải từ mỗi bảng cho Transaction History (mới nhất trước)
+    private static final int TRANSACTION_LOAD_LIMIT = 200;
+    // Tăng mỗi lần lọc lại; kết quả của lần lọc cũ hơn bị bỏ
+    private int transactionFilterGeneration;
+    // Kết quả lọc gần nhất kèm hoán vị sắp xếp: chỉ đổi kiểu sắp xếp thì không truy vấn lại
+    private volatile TransactionResult lastTransactionResult;
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -100,20 +111,25 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     @Override
     public void start(Stage primaryStage) {
         instance = this;
+        // Theo dõi JDBC và độ trễ trên FX thread ngay từ đầu để bắt cả quá trình dựng giao diện
+        FxThreadWatchdog.getInstance().start();
         
         // Initialize theme manager first
         themeManager = ThemeManager.getInstance();
         themeManager.addThemeChangeListener(this);
-        updateColorsFromTheme();
+        currentTheme = themeManager.getCurrentTheme();
         
         dbManager = new DatabaseManager();
+        dashboardViewModel = new DashboardViewModel(dbManager);
+        pageRegistry = createPageRegistry();
         settingsPage = new SettingsPage(dbManager);
         
         // Debug all data
         dbManager.debugAllData();
         
         mainRoot = new BorderPane();
-        updateMainRootStyle();
+        mainRoot.getStyleClass().add("app-root");
+        ThemeManager.applyThemeClass(mainRoot, currentTheme);
 
         // Modern Sidebar with theme toggle
         VBox sidebar = createModernSidebar();
@@ -121,7 +137,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
 
         // Content area with smooth transitions
         contentArea = new VBox();
-        updateContentAreaStyle();
+        contentArea.getStyleClass().add("content-area");
         
         // Load dashboard by default
         loadDashboard();
@@ -130,26 +146,25 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         Scene scene = new Scene(mainRoot, 1400, 900);
         scene.getStylesheets().add(getClass().getResource("/modern-styles.css").toExternalForm());
         
-        // Apply theme to scene
-        updateSceneTheme(scene);
-        
         primaryStage.setTitle("Cashflow - Modern Financial Dashboard");
         primaryStage.setScene(scene);
         primaryStage.show();
 
         // Add window effects
         addWindowEffects(primaryStage);
+        AnimationGovernor.getInstance().attachStage(primaryStage);
         
         // Setup auto backup
         setupAutoBackup(primaryStage);
-
-        // Set callbacks cho Income và Outcome pages
-        FullIncomePage.setDashboardRefreshCallback(() -> refreshDashboard());
-        FullOutcomePage.setDashboardRefreshCallback(() -> refreshDashboard());
     }
 
     @Override
     public void stop() throws Exception {
+        TaskScheduler.getInstance().shutdown();
+        FxThreadWatchdog.getInstance().stop();
+        if (backupScheduler != null) {
+            backupScheduler.stop();
+        }
         if (dbManager != null) {
             dbManager.close(); // Đóng kết nối khi ứng dụng dừng
         }
@@ -159,11 +174,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     private VBox createModernSidebar() {
         VBox sidebar = new VBox(20);
         sidebar.setPrefWidth(260);
-        sidebar.setStyle(
-            "-fx-background-color: " + ThemeManager.toHexString(BG_SECONDARY) + ";" +
-            "-fx-padding: 25;" +
-            "-fx-effect: dropshadow(gaussian, " + ThemeManager.toRgbaString(currentTheme.getShadowColor(), 0.3) + ", 20, 0, 5, 0);"
-        );
+        sidebar.getStyleClass().add("sidebar");
 
         // Logo section with animation
         HBox logoSection = createAnimatedLogo();
@@ -208,11 +219,12 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         themeSection.setPadding(new Insets(20, 0, 0, 0));
         
         Label themeLabel = new Label("🎨 Theme");
-        themeLabel.setTextFill(TEXT_SECONDARY);
+        themeLabel.getStyleClass().add("text-secondary");
         themeLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 12));
         
         // Theme toggle button
         themeToggleButton = new Button();
+        themeToggleButton.getStyleClass().add("theme-toggle");
         updateThemeToggleButton();
         themeToggleButton.setPrefWidth(200);
         themeToggleButton.setPrefHeight(35);
@@ -224,25 +236,8 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
 
     private void updateThemeToggleButton() {
         if (themeToggleButton != null) {
-            if (currentTheme instanceof ThemeManager.DarkTheme) {
-                themeToggleButton.setText("☀️ Switch to Light");
-                themeToggleButton.setStyle(
-                    "-fx-background-color: " + ThemeManager.toRgbaString(TEXT_PRIMARY, 0.1) + ";" +
-                    "-fx-text-fill: " + ThemeManager.toHexString(TEXT_PRIMARY) + ";" +
-                    "-fx-background-radius: 10;" +
-                    "-fx-cursor: hand;" +
-                    "-fx-font-size: 12;"
-                );
-            } else {
-                themeToggleButton.setText("🌙 Switch to Dark");
-                themeToggleButton.setStyle(
-                    "-fx-background-color: " + ThemeManager.toRgbaString(TEXT_PRIMARY, 0.1) + ";" +
-                    "-fx-text-fill: " + ThemeManager.toHexString(TEXT_PRIMARY) + ";" +
-                    "-fx-background-radius: 10;" +
-                    "-fx-cursor: hand;" +
-                    "-fx-font-size: 12;"
-                );
-            }
+            themeToggleButton.setText(currentTheme instanceof ThemeManager.DarkTheme
+                ? "☀️ Switch to Light" : "🌙 Switch to Dark");
         }
     }
 
@@ -260,13 +255,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         // Create a temporary notification
         Label notification = new Label(themeType == ThemeManager.ThemeType.DARK ? 
             "🌙 Switched to Dark Theme" : "☀️ Switched to Light Theme");
-        notification.setStyle(
-            "-fx-background-color: " + ThemeManager.toHexString(ACCENT_GREEN) + ";" +
-            "-fx-text-fill: white;" +
-            "-fx-padding: 10 15;" +
-            "-fx-background-radius: 8px;" +
-            "-fx-font-weight: bold;"
-        );
+        notification.getStyleClass().add("toast");
         
         // Position notification (simplified)
         StackPane notificationContainer = new StackPane(notification);
@@ -291,24 +280,13 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         logoBox.setAlignment(Pos.CENTER_LEFT);
 
         // Animated logo circle
+        // Gradient và glow lấy từ stylesheet
         Circle logoCircle = new Circle(20);
-        LinearGradient gradient = new LinearGradient(0, 0, 1, 1, true, CycleMethod.NO_CYCLE,
-            new Stop(0, ACCENT_PURPLE),
-            new Stop(0.5, ACCENT_PINK),
-            new Stop(1, ACCENT_BLUE)
-        );
-        logoCircle.setFill(gradient);
-        
-        // Add glow effect
-        DropShadow glow = new DropShadow();
-        glow.setColor(ACCENT_PURPLE);
-        glow.setRadius(15);
-        glow.setSpread(0.3);
-        logoCircle.setEffect(glow);
+        logoCircle.getStyleClass().add("logo-mark");
 
         // Logo text
         Label logoText = new Label("Cashflow");
-        logoText.setTextFill(TEXT_PRIMARY);
+        logoText.getStyleClass().add("text-primary");
         logoText.setFont(Font.font("Segoe UI", FontWeight.BOLD, 24));
 
         // Add pulse animation to logo
@@ -319,7 +297,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         pulse.setToY(1.1);
         pulse.setCycleCount(Timeline.INDEFINITE);
         pulse.setAutoReverse(true);
-        pulse.play();
+        AnimationGovernor.getInstance().playInfinite(logoCircle, pulse);
 
         logoBox.getChildren().addAll(logoCircle, logoText);
         return logoBox;
@@ -331,6 +309,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         item.setPadding(new Insets(14, 20, 14, 20));
         item.setId(id);
         item.setCursor(javafx.scene.Cursor.HAND);
+        item.getStyleClass().add("nav-item");
 
         // Icon
         Label iconLabel = new Label(icon);
@@ -340,25 +319,10 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         Label textLabel = new Label(text);
         textLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
 
+        // Nền hover/active và màu chữ do stylesheet xử lý
+        textLabel.getStyleClass().add("nav-label");
         if (isActive) {
-            item.setStyle(
-                "-fx-background-color: linear-gradient(to right, " + ThemeManager.toHexString(ACCENT_PURPLE) + ", " + ThemeManager.toHexString(ACCENT_PINK) + ");" +
-                "-fx-background-radius: 12;"
-            );
-            textLabel.setTextFill(TEXT_PRIMARY);
-        } else {
-            textLabel.setTextFill(TEXT_SECONDARY);
-            
-            // Hover effect
-            item.setOnMouseEntered(e -> {
-                item.setStyle("-fx-background-color: " + ThemeManager.toHexString(CARD_BG) + "; -fx-background-radius: 12;");
-                textLabel.setTextFill(TEXT_PRIMARY);
-            });
-            
-            item.setOnMouseExited(e -> {
-                item.setStyle("-fx-background-color: transparent;");
-                textLabel.setTextFill(TEXT_SECONDARY);
-            });
+            item.getStyleClass().add("active");
         }
 
         // Click handler
@@ -372,6 +336,15 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     }
 
     private void handleNavigation(String id) {
+        // Leaving the current page: stop any analytics still loading for it.
+        // Cached analytics page with unfinished cards is rebuilt on the next visit.
+        if (cancelPendingAnalytics()) {
+            pageRegistry.invalidate("analytics");
+        }
+        if (!"dashboard".equals(id)) {
+            dashboardViewModel.deactivate();
+        }
+        
         // Add fade transition
         FadeTransition fadeOut = new FadeTransition(Duration.millis(150), contentArea);
         fadeOut.setFromValue(1.0);
@@ -383,22 +356,22 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
                     loadDashboard();
                     break;
                 case "income":
-                    loadIncomePage();
+                    showPage("income");
                     break;
                 case "outcome":
-                    loadOutcomePage();
+                    showPage("outcome");
                     break;
                 case "analytics":
-                    loadAnalyticsPage();
+                    showPage("analytics");
                     break;
                 case "transaction":
-                    loadTransactionPage();
+                    showPage("transaction");
                     break;
                 case "card":
-                    loadCardPage();
+                    showPage("card");
                     break;
                 case "settings":
-                    loadSettingsPage();
+                    showPage("settings");
                     break;
             }
             
@@ -412,11 +385,19 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     }
 
     private void loadDashboard() {
-        contentArea.getChildren().clear();
-        
+        pageRegistry.hideCurrent();
+        if (dashboardView == null) {
+            dashboardView = createDashboardView();
+        }
+        contentArea.getChildren().setAll(dashboardView);
+        // Chỉ đọc lại database nếu sổ cái đã đổi kể từ lần hiển thị trước
+        dashboardViewModel.activate();
+    }
+
+    private ScrollPane createDashboardView() {
         ScrollPane scrollPane = new ScrollPane();
         scrollPane.setFitToWidth(true);
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        scrollPane.getStyleClass().add("transparent-scroll");
         
         VBox dashboard = new VBox(25);
         dashboard.setPadding(new Insets(30));
@@ -445,7 +426,14 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         
         dashboard.getChildren().addAll(header, statsCards, chartsSection, transactions);
         scrollPane.setContent(dashboard);
-        contentArea.getChildren().add(scrollPane);
+        return scrollPane;
+    }
+
+    private StringBinding formatDashboardValue(ReadOnlyDoubleProperty value, String format) {
+        // Hiện "—" cho tới khi view-model tải xong lần đầu
+        return Bindings.createStringBinding(
+            () -> dashboardViewModel.isLoaded() ? String.format(format, value.get()) : "—",
+            value, dashboardViewModel.loadedProperty());
     }
 
     private HBox createModernHeader() {
@@ -464,11 +452,11 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         greetingRow.getChildren().addAll(greeting, currentTime);
         
         Label title = new Label(LanguageManager.getInstance().translate("dashboard"));
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 32));
         
         Label subtitle = new Label(LanguageManager.getInstance().translate("welcome_back"));
-        subtitle.setTextFill(TEXT_SECONDARY);
+        subtitle.getStyleClass().add("text-secondary");
         subtitle.setFont(Font.font("Segoe UI", 14));
         
         titleSection.getChildren().addAll(greetingRow, title, subtitle);
@@ -508,13 +496,8 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         }
         
         Label greeting = new Label(icon + " " + langManager.translate(greetingKey));
-        greeting.setTextFill(ACCENT_GREEN);
+        greeting.getStyleClass().addAll("greeting-chip", "accent-green");
         greeting.setFont(Font.font("Segoe UI", FontWeight.SEMI_BOLD, 16));
-        greeting.setStyle(
-            "-fx-background-color: " + toRgbaString(ACCENT_GREEN, 0.15) + ";" +
-            "-fx-background-radius: 12px;" +
-            "-fx-padding: 6 12 6 12;"
-        );
         
         return greeting;
     }
@@ -522,7 +505,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     // Tạo label cho thời gian
     private Label createTimeLabel() {
         Label timeLabel = new Label();
-        timeLabel.setTextFill(TEXT_SECONDARY);
+        timeLabel.getStyleClass().add("text-secondary");
         timeLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
         
         updateTimeLabel(timeLabel);
@@ -544,7 +527,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
             e -> updateTimeLabel(timeLabel)
         ));
         timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
+        AnimationGovernor.getInstance().playInfinite(timeLabel, timeline);
     }
 
     // Tạo user section
@@ -554,25 +537,18 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         
         // Notification bell
         Button notificationBtn = new Button("🔔");
-        notificationBtn.setStyle(
-            "-fx-background-color: " + ThemeManager.toHexString(CARD_BG) + ";" +
-            "-fx-background-radius: 50%;" +
-            "-fx-min-width: 40;" +
-            "-fx-min-height: 40;" +
-            "-fx-font-size: 16;" +
-            "-fx-cursor: hand;"
-        );
+        notificationBtn.getStyleClass().add("icon-button");
         
         // User info
         HBox userInfo = new HBox(12);
         userInfo.setAlignment(Pos.CENTER);
         
         Label greeting = new Label("Hi, Ferra");
-        greeting.setTextFill(TEXT_PRIMARY);
+        greeting.getStyleClass().add("text-primary");
         greeting.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
         
         Circle avatar = new Circle(20);
-        avatar.setFill(ACCENT_PINK);
+        avatar.getStyleClass().add("avatar");
         
         userInfo.getChildren().addAll(greeting, avatar);
         userSection.getChildren().addAll(notificationBtn, userInfo);
@@ -584,46 +560,36 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         HBox cards = new HBox(20);
         cards.setAlignment(Pos.CENTER_LEFT);
         
-        // Lấy dữ liệu thực từ database
-        DashboardStats stats = dbManager.getDashboardStats();
-        
-        // Debug log để kiểm tra dữ liệu
-        System.out.println("=== Dashboard Stats Debug (Enhanced) ===");
-        System.out.println("Monthly Income: " + stats.getMonthlyIncome());
-        System.out.println("Monthly Outcome: " + stats.getMonthlyOutcome());
-        System.out.println("Total Income: " + stats.getTotalIncome());
-        System.out.println("Total Outcome: " + stats.getTotalOutcome());
-        System.out.println("Balance: " + stats.getBalance());
-        System.out.println("Savings Rate: " + stats.getSavingsRate());
-        
-        // Tạo cards với dữ liệu thực và animation mới
+        // Giá trị bind vào view-model, tự cập nhật khi dữ liệu thay đổi
+        DashboardViewModel model = dashboardViewModel;
+
         VBox incomeCard = createEnhancedStatCard(
             "💰", "Monthly Income", 
-            "$" + String.format("%.0f", stats.getMonthlyIncome()), 
-            "+12.5%", true, ACCENT_GREEN, true
+            formatDashboardValue(model.monthlyIncomeProperty(), "$%.0f"), 
+            "+12.5%", true, "accent-green", true
         );
         
         VBox outcomeCard = createEnhancedStatCard(
             "💳", "Monthly Expenses", 
-            "$" + String.format("%.0f", stats.getMonthlyOutcome()), 
-            "+8.2%", true, ACCENT_PURPLE, false
+            formatDashboardValue(model.monthlyOutcomeProperty(), "$%.0f"), 
+            "+8.2%", true, "accent-purple", false
         );
         
         VBox balanceCard = createEnhancedStatCard(
             "💎", "Current Balance", 
-            "$" + String.format("%.0f", stats.getBalance()), 
-            stats.getBalance() >= 0 ? "+5.4%" : "-2.1%", 
-            true, stats.getBalance() >= 0 ? ACCENT_BLUE : ACCENT_PINK, false
+            formatDashboardValue(model.balanceProperty(), "$%.0f"), 
+            "+5.4%", true, "accent-blue", false
         );
+        bindBalanceAccent(balanceCard, model.balanceProperty());
         
         VBox savingsCard = createEnhancedStatCard(
             "📈", "Savings Rate", 
-            String.format("%.1f%%", stats.getSavingsRate()), 
-            "+2.1%", true, ACCENT_CYAN, false
+            formatDashboardValue(model.savingsRateProperty(), "%.1f%%"), 
+            "+2.1%", true, "accent-cyan", false
         );
         
         // Thêm Progress Ring cho main card
-        incomeCard = addProgressRingToCard(incomeCard, stats.getSavingsRate() / 100.0);
+        incomeCard = addProgressRingToCard(incomeCard, model.savingsRateProperty());
         
         cards.getChildren().addAll(incomeCard, outcomeCard, balanceCard, savingsCard);
         
@@ -636,6 +602,21 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         return cards;
     }
 
+    // Màu và badge của card số dư theo dấu của số dư (view-model tải dữ liệu sau khi card được dựng)
+    private void bindBalanceAccent(VBox balanceCard, ReadOnlyDoubleProperty balance) {
+        Label changeLabel = (Label) balanceCard.lookup(".badge");
+        ChangeListener<Number> update = (obs, oldValue, newValue) -> {
+            boolean positive = newValue.doubleValue() >= 0;
+            balanceCard.getStyleClass().removeAll("accent-blue", "accent-pink");
+            balanceCard.getStyleClass().add(positive ? "accent-blue" : "accent-pink");
+            changeLabel.setText(positive ? "+5.4%" : "-2.1%");
+        };
+        // Card giữ listener, view-model chỉ giữ tham chiếu yếu để dashboard cũ được thu gom
+        balanceCard.getProperties().put("balanceListener", update);
+        balance.addListener(new WeakChangeListener<>(update));
+        update.changed(balance, null, balance.get());
+    }
+
     private void animateCardsWithBounce(HBox cards) {
         for (int i = 0; i < cards.getChildren().size(); i++) {
             VBox card = (VBox) cards.getChildren().get(i);
@@ -685,7 +666,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
             rotate.setInterpolator(javafx.animation.Interpolator.EASE_OUT);
             
             ParallelTransition parallel = new ParallelTransition(fade, scaleX, scaleY, translate, rotate);
-            parallel.play();
+            AnimationGovernor.getInstance().play(parallel);
         }
     }
 
@@ -693,14 +674,9 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         for (javafx.scene.Node node : cards.getChildren()) {
             VBox card = (VBox) node;
             
+            // Glow khi hover nằm trong stylesheet (.stat-card:hover)
             card.setOnMouseEntered(e -> {
-                // Glow effect
-                DropShadow glow = new DropShadow();
-                glow.setColor(ACCENT_PURPLE);
-                glow.setRadius(20);
-                glow.setSpread(0.3);
-                
-                // Scale and glow animation
+                // Scale and lift animation
                 ScaleTransition scale = new ScaleTransition(Duration.millis(200), card);
                 scale.setToX(1.05);
                 scale.setToY(1.05);
@@ -710,8 +686,6 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
                 
                 ParallelTransition hoverIn = new ParallelTransition(scale, lift);
                 hoverIn.play();
-                
-                card.setEffect(glow);
             });
             
             card.setOnMouseExited(e -> {
@@ -724,21 +698,18 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
                 
                 ParallelTransition hoverOut = new ParallelTransition(scale, drop);
                 hoverOut.play();
-                
-                card.setEffect(null);
             });
         }
     }
 
-    private VBox addProgressRingToCard(VBox card, double progress) {
+    private VBox addProgressRingToCard(VBox card, ReadOnlyDoubleProperty savingsRate) {
         // Thêm progress ring vào card chính
         HBox header = (HBox) card.getChildren().get(0);
         StackPane iconContainer = (StackPane) header.getChildren().get(0);
         
         // Create progress ring
         Circle progressRing = new Circle(30);
-        progressRing.setFill(Color.TRANSPARENT);
-        progressRing.setStroke(ThemeManager.toRgbaColor(ACCENT_GREEN, 0.3));
+        progressRing.getStyleClass().add("progress-track");
         progressRing.setStrokeWidth(3);
         
         Arc progressArc = new Arc();
@@ -749,8 +720,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         progressArc.setStartAngle(90);
         progressArc.setLength(0); // Will be animated
         progressArc.setType(ArcType.OPEN);
-        progressArc.setFill(Color.TRANSPARENT);
-        progressArc.setStroke(ACCENT_GREEN);
+        progressArc.getStyleClass().add("progress-arc");
         progressArc.setStrokeWidth(3);
         
         iconContainer.getChildren().addAll(progressRing, progressArc);
@@ -760,10 +730,21 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
             new KeyFrame(Duration.ZERO, 
                 new javafx.animation.KeyValue(progressArc.lengthProperty(), 0)),
             new KeyFrame(Duration.millis(1500), 
-                new javafx.animation.KeyValue(progressArc.lengthProperty(), -(progress * 360)))
+                new javafx.animation.KeyValue(progressArc.lengthProperty(), -(savingsRate.get() / 100.0 * 360)))
         );
         progressAnimation.setDelay(Duration.millis(800));
         progressAnimation.play();
+
+        // Savings rate đổi sau đó: chạy ring từ vị trí hiện tại tới giá trị mới
+        ChangeListener<Number> progressListener = (obs, oldRate, newRate) -> {
+            progressAnimation.stop();
+            new Timeline(new KeyFrame(Duration.millis(600),
+                new javafx.animation.KeyValue(progressArc.lengthProperty(), -(newRate.doubleValue() / 100.0 * 360))))
+                .play();
+        };
+        // Node giữ listener, view-model chỉ giữ weak reference để dashboard cũ được thu hồi
+        card.getProperties().put("progressListener", progressListener);
+        savingsRate.addListener(new WeakChangeListener<>(progressListener));
         
         return card;
     }
@@ -777,22 +758,17 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         float1.setCycleCount(Timeline.INDEFINITE);
         float1.setInterpolator(javafx.animation.Interpolator.EASE_BOTH);
         
-        float1.play();
+        AnimationGovernor.getInstance().playInfinite(node, float1);
     }
 
-    private VBox createEnhancedStatCard(String icon, String title, String value, String change, 
-                                       boolean isPositive, Color accentColor, boolean isMain) {
+    private VBox createEnhancedStatCard(String icon, String title, ObservableValue<String> value, String change, 
+                                       boolean isPositive, String accentClass, boolean isMain) {
         VBox card = new VBox(15);
         card.setPadding(new Insets(25));
         card.setPrefWidth(280);
         card.setPrefHeight(140);
-        card.setStyle(
-            "-fx-background-color: " + ThemeManager.toHexString(currentTheme.getCardBg()) + ";" +
-            "-fx-background-radius: 15;" +
-            "-fx-border-radius: 15;" +
-            "-fx-border-color: " + ThemeManager.toRgbaString(accentColor, 0.3) + ";" +
-            "-fx-border-width: 1;" +
-            "-fx-effect: dropshadow(gaussian, " + ThemeManager.toRgbaString(currentTheme.getShadowColor(), 0.1) + ", 15, 0, 0, 5);");
+        // accentClass chọn màu viền, icon và progress ring của card
+        card.getStyleClass().addAll("card", "stat-card", accentClass);
         
         // Header with icon
         HBox header = new HBox(12);
@@ -803,20 +779,16 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         Rectangle iconRect = new Rectangle(40, 40);
         iconRect.setArcWidth(12);
         iconRect.setArcHeight(12);
-        iconRect.setFill(new LinearGradient(0, 0, 1, 1, true, CycleMethod.NO_CYCLE,
-            new Stop(0, accentColor),
-            new Stop(1, accentColor.darker())
-        ));
-        iconRect.setEffect(new DropShadow(10, accentColor));
+        iconRect.getStyleClass().add("stat-icon");
         
         Label iconLabel = new Label(icon);
         iconLabel.setFont(Font.font(20));
-        iconLabel.setTextFill(TEXT_PRIMARY);
+        iconLabel.getStyleClass().add("text-primary");
         
         iconBg.getChildren().addAll(iconRect, iconLabel);
         
         Label titleLabel = new Label(title);
-        titleLabel.setTextFill(TEXT_SECONDARY);
+        titleLabel.getStyleClass().add("text-secondary");
         titleLabel.setFont(Font.font("Segoe UI", 12));
         
         header.getChildren().addAll(iconBg, titleLabel);
@@ -825,19 +797,14 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         HBox valueSection = new HBox(10);
         valueSection.setAlignment(Pos.BASELINE_LEFT);
         
-        Label valueLabel = new Label(value);
-        valueLabel.setTextFill(TEXT_PRIMARY);
+        Label valueLabel = new Label();
+        valueLabel.textProperty().bind(value);
+        valueLabel.getStyleClass().add("text-primary");
         valueLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 28));
         
         Label changeLabel = new Label(change);
-        changeLabel.setTextFill(isPositive ? ACCENT_GREEN : ACCENT_PINK);
+        changeLabel.getStyleClass().addAll("badge", isPositive ? "accent-green" : "accent-pink");
         changeLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 12));
-        changeLabel.setStyle(
-            "-fx-background-color: " + (isPositive ? 
-                toRgbaString(ACCENT_GREEN, 0.2) : toRgbaString(ACCENT_PINK, 0.2)) + ";" +
-            "-fx-background-radius: 6;" +
-            "-fx-padding: 2 8 2 8;"
-        );
         
         valueSection.getChildren().addAll(valueLabel, changeLabel);
         
@@ -848,18 +815,14 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     private VBox createModernExpensesChart() {
         VBox chartCard = new VBox(20);
         chartCard.setPadding(new Insets(25));
-        chartCard.setStyle(
-            "-fx-background-color: " + ThemeManager.toHexString(CARD_BG) + ";" +
-            "-fx-background-radius: 20;" +
-            "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.3), 15, 0, 0, 5);"
-        );
+        chartCard.getStyleClass().add("dashboard-card");
         
         // Header
         HBox header = new HBox();
         header.setAlignment(Pos.CENTER_LEFT);
         
         Label title = new Label("Expenses");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
         
         Region spacer = new Region();
@@ -869,73 +832,44 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         ComboBox<String> timeFilter = new ComboBox<>();
         timeFilter.getItems().addAll("All", "Utility", "Entertainment", "Groceries");
         timeFilter.setValue("All");
-        timeFilter.setStyle(
-            "-fx-background-color: " + ThemeManager.toHexString(BG_SECONDARY) + ";" +
-            "-fx-text-fill: " + ThemeManager.toHexString(TEXT_PRIMARY) + ";" +
-            "-fx-border-color: transparent;" +
-            "-fx-background-radius: 8;"
-        );
+        timeFilter.getStyleClass().add("compact-combo");
         
         header.getChildren().addAll(title, spacer, timeFilter);
         
-        // Create modern area chart
-        CategoryAxis xAxis = new CategoryAxis();
-        NumberAxis yAxis = new NumberAxis();
-        
-        xAxis.setTickLabelFill(TEXT_MUTED);
-        yAxis.setTickLabelFill(TEXT_MUTED);
-        xAxis.setTickLabelFont(Font.font("Segoe UI", 10));
-        yAxis.setTickLabelFont(Font.font("Segoe UI", 10));
-        
-        AreaChart<String, Number> areaChart = new AreaChart<>(xAxis, yAxis);
+        // Chart vẽ trên canvas, vẽ lại tại chỗ khi view-model đổi
+        CanvasChart areaChart = new CanvasChart(currentTheme);
         areaChart.setLegendVisible(false);
-        areaChart.setAnimated(true);
-        areaChart.setStyle("-fx-background-color: transparent;");
-        areaChart.setCreateSymbols(false);
         areaChart.setPrefHeight(300);
+        areaChart.setXLabelFormatter(x -> {
+            int index = (int) Math.round(x);
+            return Math.abs(x - index) < 1e-6 && index >= 0 && index < CHART_MONTHS.length ? CHART_MONTHS[index] : "";
+        });
         
-        // Add data
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-        List<MonthlyData> monthlyData = dbManager.getMonthlyChartData();
-        
-        String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-        for (int i = 0; i < Math.min(months.length, monthlyData.size()); i++) {
-            series.getData().add(new XYChart.Data<>(months[i], monthlyData.get(i).getOutcome()));
-        }
-        
-        areaChart.getData().add(series);
-        
-        // Style the chart
-        areaChart.lookup(".chart-plot-background").setStyle("-fx-background-color: transparent;");
-        areaChart.lookup(".chart-series-area-fill").setStyle(
-            "-fx-fill: linear-gradient(to bottom, " + ThemeManager.toRgbaString(ACCENT_PURPLE, 0.5) + ", transparent);"
-        );
-        areaChart.lookup(".chart-series-area-line").setStyle(
-            "-fx-stroke: " + ThemeManager.toHexString(ACCENT_PURPLE) + ";" +
-            "-fx-stroke-width: 3;"
-        );
+        ObservableList<MonthlyData> monthlyData = dashboardViewModel.getMonthlyData();
+        updateExpenseChart(areaChart, monthlyData);
+
+        ListChangeListener<MonthlyData> chartListener = change -> updateExpenseChart(areaChart, monthlyData);
+        chartCard.getProperties().put("chartListener", chartListener);
+        monthlyData.addListener(new WeakListChangeListener<>(chartListener));
         
         // Outcome info
         HBox outcomeInfo = new HBox(20);
         outcomeInfo.setAlignment(Pos.CENTER_LEFT);
         
-        Circle dot = new Circle(6, ACCENT_PURPLE);
+        Circle dot = new Circle(6);
+        dot.getStyleClass().add("accent-dot");
         Label outcomeLabel = new Label("Outcome");
-        outcomeLabel.setTextFill(TEXT_SECONDARY);
+        outcomeLabel.getStyleClass().add("text-secondary");
         outcomeLabel.setFont(Font.font("Segoe UI", 14));
         
-        Label outcomeValue = new Label("$" + String.format("%.0f", dbManager.getMonthlyOutcome(LocalDate.now())));
-        outcomeValue.setTextFill(TEXT_PRIMARY);
+        Label outcomeValue = new Label();
+        outcomeValue.textProperty().bind(formatDashboardValue(dashboardViewModel.monthlyOutcomeProperty(), "$%.0f"));
+        outcomeValue.getStyleClass().add("text-primary");
         outcomeValue.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
         
         Label changeLabel = new Label("+13%");
-        changeLabel.setTextFill(ACCENT_PURPLE);
+        changeLabel.getStyleClass().addAll("badge", "accent-purple");
         changeLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 12));
-        changeLabel.setStyle(
-            "-fx-background-color: " + ThemeManager.toRgbaString(ACCENT_PURPLE, 0.2) + ";" +
-            "-fx-background-radius: 6;" +
-            "-fx-padding: 2 8 2 8;"
-        );
         
         outcomeInfo.getChildren().addAll(dot, outcomeLabel, outcomeValue, changeLabel);
         
@@ -943,18 +877,25 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         return chartCard;
     }
 
+    private void updateExpenseChart(CanvasChart chart, List<MonthlyData> monthlyData) {
+        int count = Math.min(CHART_MONTHS.length, monthlyData.size());
+        double[] months = new double[count];
+        double[] outcomes = new double[count];
+        for (int i = 0; i < count; i++) {
+            months[i] = i;
+            outcomes[i] = monthlyData.get(i).getOutcome();
+        }
+        chart.setSeries(List.of(CanvasChart.Series.area("Outcome", ThemeManager.Theme::getAccentPurple, months, outcomes)));
+    }
+
     private VBox createModernSpendingBreakdown() {
         VBox breakdownCard = new VBox(20);
         breakdownCard.setPadding(new Insets(25));
         breakdownCard.setPrefWidth(400);
-        breakdownCard.setStyle(
-            "-fx-background-color: " + ThemeManager.toHexString(CARD_BG) + ";" +
-            "-fx-background-radius: 20;" +
-            "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.3), 15, 0, 0, 5);"
-        );
+        breakdownCard.getStyleClass().add("dashboard-card");
         
         Label title = new Label("Spending Breakdown");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
         
         // Donut chart container
@@ -969,11 +910,11 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         centerInfo.setAlignment(Pos.CENTER);
         
         Label totalLabel = new Label("$1,200");
-        totalLabel.setTextFill(TEXT_PRIMARY);
+        totalLabel.getStyleClass().add("text-primary");
         totalLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 28));
         
         Label categoryLabel = new Label("Utility");
-        categoryLabel.setTextFill(ACCENT_BLUE);
+        categoryLabel.getStyleClass().addAll("text-accent", "accent-blue");
         categoryLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
         
         centerInfo.getChildren().addAll(totalLabel, categoryLabel);
@@ -984,9 +925,9 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         VBox legend = new VBox(10);
         legend.setPadding(new Insets(20, 0, 0, 0));
         
-        addLegendItem(legend, "Utility 30%", ACCENT_BLUE, "⚡");
-        addLegendItem(legend, "Entertainment 20%", ACCENT_PURPLE, "🎬");
-        addLegendItem(legend, "Groceries 50%", ACCENT_GREEN, "🛒");
+        addLegendItem(legend, "Utility 30%", "accent-blue", "⚡");
+        addLegendItem(legend, "Entertainment 20%", "accent-purple", "🎬");
+        addLegendItem(legend, "Groceries 50%", "accent-green", "🛒");
         
         breakdownCard.getChildren().addAll(title, chartContainer, legend);
         return breakdownCard;
@@ -1003,7 +944,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         
         // Data
         double[] values = {30, 20, 50}; // Percentages
-        Color[] colors = {ACCENT_BLUE, ACCENT_PURPLE, ACCENT_GREEN};
+        String[] accents = {"accent-blue", "accent-purple", "accent-green"};
         
         double startAngle = -90;
         for (int i = 0; i < values.length; i++) {
@@ -1011,21 +952,18 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
             
             Arc arc = new Arc(centerX, centerY, radius, radius, startAngle, angle);
             arc.setType(ArcType.ROUND);
-            arc.setFill(colors[i]);
+            arc.getStyleClass().addAll("donut-segment", accents[i]);
             arc.setStrokeWidth(0);
             
-            // Add hover effect
-            final int index = i;
+            // Add hover effect (glow nằm trong stylesheet)
             arc.setOnMouseEntered(e -> {
                 arc.setScaleX(1.05);
                 arc.setScaleY(1.05);
-                arc.setEffect(new DropShadow(20, colors[index]));
             });
             
             arc.setOnMouseExited(e -> {
                 arc.setScaleX(1.0);
                 arc.setScaleY(1.0);
-                arc.setEffect(null);
             });
             
             pane.getChildren().add(arc);
@@ -1034,24 +972,24 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         
         // Inner circle to create donut effect
         Circle innerCircle = new Circle(centerX, centerY, innerRadius);
-        innerCircle.setFill(CARD_BG);
+        innerCircle.getStyleClass().add("donut-hole");
         pane.getChildren().add(innerCircle);
         
         return pane;
     }
 
-    private void addLegendItem(VBox legend, String text, Color color, String icon) {
+    private void addLegendItem(VBox legend, String text, String accentClass, String icon) {
         HBox item = new HBox(12);
         item.setAlignment(Pos.CENTER_LEFT);
         
         Label iconLabel = new Label(icon);
         iconLabel.setFont(Font.font(14));
         
-        Circle dot = new Circle(6, color);
-        dot.setEffect(new DropShadow(5, color));
+        Circle dot = new Circle(6);
+        dot.getStyleClass().addAll("legend-dot", accentClass);
         
         Label label = new Label(text);
-        label.setTextFill(TEXT_SECONDARY);
+        label.getStyleClass().add("text-secondary");
         label.setFont(Font.font("Segoe UI", 14));
         
         item.getChildren().addAll(iconLabel, dot, label);
@@ -1061,79 +999,73 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     private VBox createModernTransactions() {
         VBox transactionCard = new VBox(20);
         transactionCard.setPadding(new Insets(25));
-        transactionCard.setStyle(
-            "-fx-background-color: " + ThemeManager.toHexString(CARD_BG) + ";" +
-            "-fx-background-radius: 20;" +
-            "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.3), 15, 0, 0, 5);"
-        );
+        transactionCard.getStyleClass().add("dashboard-card");
         
         // Header
         HBox header = new HBox();
         header.setAlignment(Pos.CENTER_LEFT);
         
         Label title = new Label("Recent Transactions");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
         
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
         
         Button viewAllBtn = new Button("View All");
-        viewAllBtn.setStyle(
-            "-fx-background-color: " + ThemeManager.toHexString(ACCENT_PURPLE) + ";" +
-            "-fx-text-fill: white;" +
-            "-fx-background-radius: 8;" +
-            "-fx-padding: 8 16 8 16;" +
-            "-fx-font-size: 12;" +
-            "-fx-cursor: hand;"
-        );
+        viewAllBtn.getStyleClass().addAll("button-primary", "compact");
         
         header.getChildren().addAll(title, spacer, viewAllBtn);
         
         // Transaction list
         VBox transactionList = new VBox(12);
         
-        // Get recent outcomes from database
-        List<OutcomeRecord> recentOutcomes = dbManager.getOutcomeRecords();
-        for (int i = 0; i < Math.min(3, recentOutcomes.size()); i++) {
-            HBox transaction = createModernTransactionItem(recentOutcomes.get(i));
-            transactionList.getChildren().add(transaction);
-        }
+        // Giao dịch gần đây lấy từ view-model, chỉ dựng lại khi danh sách thay đổi
+        ObservableList<OutcomeRecord> recentOutcomes = dashboardViewModel.getRecentOutcomes();
+        fillRecentTransactions(transactionList, recentOutcomes);
+        ListChangeListener<OutcomeRecord> transactionsListener =
+            change -> fillRecentTransactions(transactionList, recentOutcomes);
+        transactionCard.getProperties().put("transactionsListener", transactionsListener);
+        recentOutcomes.addListener(new WeakListChangeListener<>(transactionsListener));
         
         transactionCard.getChildren().addAll(header, transactionList);
         return transactionCard;
     }
 
+    private void fillRecentTransactions(VBox transactionList, List<OutcomeRecord> recentOutcomes) {
+        List<Node> items = new ArrayList<>();
+        for (int i = 0; i < Math.min(3, recentOutcomes.size()); i++) {
+            items.add(createModernTransactionItem(recentOutcomes.get(i)));
+        }
+        transactionList.getChildren().setAll(items);
+    }
+
     private HBox createModernTransactionItem(OutcomeRecord record) {
         HBox item = new HBox(15);
         item.setAlignment(Pos.CENTER_LEFT);
         item.setPadding(new Insets(12));
-        item.setStyle(
-            "-fx-background-color: " + ThemeManager.toRgbaString(TEXT_PRIMARY, 0.03) + ";" +
-            "-fx-background-radius: 12;" +
-            "-fx-cursor: hand;"
-        );
+        item.getStyleClass().add("transaction-item");
         
         // Icon
         StackPane iconContainer = new StackPane();
         Circle iconBg = new Circle(20);
-        iconBg.setFill(getCategoryGradient(record.getCategory()));
+        iconBg.getStyleClass().addAll("category-icon", getCategoryIconClass(record.getCategory()));
         
         Label icon = new Label(getCategoryIcon(record.getCategory()));
         icon.setFont(Font.font(16));
-        icon.setTextFill(TEXT_PRIMARY);
+        icon.getStyleClass().add("text-primary");
         
         iconContainer.getChildren().addAll(iconBg, icon);
         
         // Details
         VBox details = new VBox(4);
         Label nameLabel = new Label(record.getTitle());
-        nameLabel.setTextFill(TEXT_PRIMARY);
+        nameLabel.getStyleClass().add("text-primary");
         nameLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
         
         Label dateLabel = new Label(record.getDate().format(DateTimeFormatter.ofPattern("MMM dd")) + " at " + 
                                    record.getCreatedAt().format(DateTimeFormatter.ofPattern("HH:mm")));
-        dateLabel.setTextFill(TEXT_MUTED);
+        dateLabel.getStyleClass().add("text-muted");
         dateLabel.setFont(Font.font("Segoe UI", 11));
         
         details.getChildren().addAll(nameLabel, dateLabel);
@@ -1143,24 +1075,9 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         
         // Amount
         Label amount = new Label("-$" + String.format("%.0f", record.getAmount()));
-        amount.setTextFill(TEXT_PRIMARY);
+        amount.getStyleClass().add("text-primary");
         amount.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
         
-        // Hover effect
-        item.setOnMouseEntered(e -> {
-            item.setStyle(item.getStyle().replace(
-                ThemeManager.toRgbaString(TEXT_PRIMARY, 0.03),
-                ThemeManager.toRgbaString(TEXT_PRIMARY, 0.08)
-            ));
-        });
-        
-        item.setOnMouseExited(e -> {
-            item.setStyle(item.getStyle().replace(
-                ThemeManager.toRgbaString(TEXT_PRIMARY, 0.08),
-                ThemeManager.toRgbaString(TEXT_PRIMARY, 0.03)
-            ));
-        });
-        
         item.getChildren().addAll(iconContainer, details, spacer, amount);
         return item;
     }
@@ -1175,25 +1092,20 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         // Avatar with gradient border
         StackPane avatarContainer = new StackPane();
         Circle avatarBorder = new Circle(25);
-        avatarBorder.setFill(Color.TRANSPARENT);
-        avatarBorder.setStroke(new LinearGradient(0, 0, 1, 1, true, CycleMethod.NO_CYCLE,
-            new Stop(0, ACCENT_PURPLE),
-            new Stop(1, ACCENT_PINK)
-        ));
-        avatarBorder.setStrokeWidth(2);
+        avatarBorder.getStyleClass().add("avatar-ring");
         
         Circle avatar = new Circle(23);
-        avatar.setFill(ACCENT_PINK);
+        avatar.getStyleClass().add("avatar");
         
         avatarContainer.getChildren().addAll(avatarBorder, avatar);
         
         VBox userInfo = new VBox(3);
         Label userName = new Label("Ferra Alexandra");
-        userName.setTextFill(TEXT_PRIMARY);
+        userName.getStyleClass().add("text-primary");
         userName.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
         
         Label userRole = new Label("UX Designer");
-        userRole.setTextFill(TEXT_SECONDARY);
+        userRole.getStyleClass().add("text-secondary");
         userRole.setFont(Font.font("Segoe UI", 12));
         
         userInfo.getChildren().addAll(userName, userRole);
@@ -1202,20 +1114,16 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         // Spending limit
         VBox spendingLimit = new VBox(8);
         Label limitLabel = new Label("Spending Limit");
-        limitLabel.setTextFill(TEXT_MUTED);
+        limitLabel.getStyleClass().add("text-muted");
         limitLabel.setFont(Font.font("Segoe UI", 11));
         
         ProgressBar progressBar = new ProgressBar(0.7);
         progressBar.setPrefWidth(Double.MAX_VALUE);
         progressBar.setPrefHeight(6);
-        progressBar.setStyle(
-            "-fx-accent: " + ThemeManager.toHexString(ACCENT_PURPLE) + ";" +
-            "-fx-background-color: " + ThemeManager.toRgbaString(TEXT_PRIMARY, 0.1) + ";" +
-            "-fx-background-radius: 3;"
-        );
+        progressBar.getStyleClass().add("spending-limit");
         
         Label limitAmount = new Label("$42000");
-        limitAmount.setTextFill(TEXT_PRIMARY);
+        limitAmount.getStyleClass().add("text-primary");
         limitAmount.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
         
         spendingLimit.getChildren().addAll(limitLabel, progressBar, limitAmount);
@@ -1225,18 +1133,39 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     }
 
     // Page loaders
-    private void loadIncomePage() {
-        contentArea.getChildren().clear();
-        
+    private PageRegistry createPageRegistry() {
+        LedgerEventBus eventBus = dbManager.getEventBus();
+        PageRegistry registry = new PageRegistry(MAX_CACHED_PAGES, PAGE_MEMORY_BUDGET);
+        registry.register("income", this::createIncomePage, () -> eventBus.getGeneration(LedgerType.INCOME));
+        registry.register("outcome", this::createOutcomePage, () -> eventBus.getGeneration(LedgerType.OUTCOME));
+        registry.register("analytics", this::createAnalyticsPage, eventBus::getGeneration);
+        registry.register("transaction", this::createTransactionPage, eventBus::getGeneration);
+        // Thẻ ngân hàng không nằm trong sổ cái, trang chỉ dựng lại khi bị bỏ khỏi cache
+        registry.register("card", this::createCardPage, () -> 0L);
+        registry.register("settings", this::createSettingsPage, eventBus::getGeneration);
+        return registry;
+    }
+
+    private void showPage(String id) {
+        contentArea.getChildren().setAll(pageRegistry.show(id));
+    }
+
+    // Bỏ bản đã cache và dựng lại trang (nút Retry/Refresh)
+    private void reloadPage(String id) {
+        pageRegistry.invalidate(id);
+        showPage(id);
+    }
+
+    private PageRegistry.Page createIncomePage() {
         ScrollPane scrollPane = new ScrollPane();
         scrollPane.setFitToWidth(true);
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        scrollPane.getStyleClass().add("transparent-scroll");
         
         VBox incomePage = new VBox(25);
         incomePage.setPadding(new Insets(30));
         
         Label title = new Label("Income Management");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 32));
         
         // Enhanced income page from FullIncomePage
@@ -1245,21 +1174,30 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         
         incomePage.getChildren().addAll(title, incomeContent);
         scrollPane.setContent(incomePage);
-        contentArea.getChildren().add(scrollPane);
+        return new PageRegistry.Page() {
+            @Override
+            public Node getView() {
+                return scrollPane;
+            }
+
+            @Override
+            public boolean refresh() {
+                fullIncomePage.refresh();
+                return true;
+            }
+        };
     }
 
-    private void loadOutcomePage() {
-        contentArea.getChildren().clear();
-        
+    private PageRegistry.Page createOutcomePage() {
         ScrollPane scrollPane = new ScrollPane();
         scrollPane.setFitToWidth(true);
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        scrollPane.getStyleClass().add("transparent-scroll");
         
         VBox outcomePage = new VBox(25);
         outcomePage.setPadding(new Insets(30));
         
         Label title = new Label("Expense Management");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 32));
         
         // Enhanced outcome page from FullOutcomePage
@@ -1268,15 +1206,24 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         
         outcomePage.getChildren().addAll(title, outcomeContent);
         scrollPane.setContent(outcomePage);
-        contentArea.getChildren().add(scrollPane);
+        return new PageRegistry.Page() {
+            @Override
+            public Node getView() {
+                return scrollPane;
+            }
+
+            @Override
+            public boolean refresh() {
+                fullOutcomePage.refresh();
+                return true;
+            }
+        };
     }
 
-    private void loadAnalyticsPage() {
-        contentArea.getChildren().clear();
-        
+    private PageRegistry.Page createAnalyticsPage() {
         ScrollPane scrollPane = new ScrollPane();
         scrollPane.setFitToWidth(true);
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        scrollPane.getStyleClass().add("transparent-scroll");
         
         VBox analyticsPage = new VBox(25);
         analyticsPage.setPadding(new Insets(30));
@@ -1289,7 +1236,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         
         analyticsPage.getChildren().addAll(header, analyticsContent);
         scrollPane.setContent(analyticsPage);
-        contentArea.getChildren().add(scrollPane);
+        return () -> scrollPane;
     }
 
     private HBox createAnalyticsHeader() {
@@ -1299,11 +1246,11 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         VBox titleSection = new VBox(8);
         
         Label title = new Label("📈 Advanced Analytics");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 32));
         
         Label subtitle = new Label("Deep insights into your financial patterns and trends");
-        subtitle.setTextFill(TEXT_SECONDARY);
+        subtitle.getStyleClass().add("text-secondary");
         subtitle.setFont(Font.font("Segoe UI", 14));
         
         titleSection.getChildren().addAll(title, subtitle);
@@ -1316,11 +1263,11 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         actions.setAlignment(Pos.CENTER_RIGHT);
         
         Button exportBtn = new Button("📊 Export Report");
-        exportBtn.setStyle(createThemedSecondaryButtonStyle());
+        exportBtn.getStyleClass().add("button-secondary");
         exportBtn.setOnAction(e -> exportAnalyticsReport());
         
         Button refreshBtn = new Button("🔄 Refresh Data");
-        refreshBtn.setStyle(createThemedPrimaryButtonStyle());
+        refreshBtn.getStyleClass().add("button-primary");
         refreshBtn.setOnAction(e -> refreshAnalyticsData());
         
         actions.getChildren().addAll(exportBtn, refreshBtn);
@@ -1332,113 +1279,190 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     private VBox createEnhancedAnalyticsContent() {
         VBox content = new VBox(30);
         
-        try {
-            // Initialize services
-            AnalyticsService analytics = new AnalyticsService(dbManager);
-            EnhancedAnalyticsService enhancedAnalytics = new EnhancedAnalyticsService(dbManager);
-            AdvancedAnalyticsService advancedAnalytics = new AdvancedAnalyticsService(dbManager);
-            
-            // Financial score card (enhanced with theme)
-            HBox scoreCard = createEnhancedFinancialScoreCard(analytics.calculateFinancialScore());
-            
-            // Advanced charts row 1
-            HBox chartsRow1 = new HBox(20);
-            chartsRow1.setAlignment(Pos.CENTER_LEFT);
-            
-            VBox trendChart = advancedAnalytics.createTrendlineChart();
-            VBox savingsGoalChart = advancedAnalytics.createSavingsGoalChart();
-            
-            HBox.setHgrow(trendChart, Priority.ALWAYS);
-            chartsRow1.getChildren().addAll(trendChart, savingsGoalChart);
-            
-            // Advanced charts row 2
-            HBox chartsRow2 = new HBox(20);
-            chartsRow2.setAlignment(Pos.CENTER_LEFT);
-            
-            VBox heatmapChart = advancedAnalytics.createSpendingHeatmap();
-            VBox waterfallChart = advancedAnalytics.createCashFlowWaterfallChart();
-            
-            HBox.setHgrow(waterfallChart, Priority.ALWAYS);
-            chartsRow2.getChildren().addAll(heatmapChart, waterfallChart);
-            
-            // Bubble chart (full width)
-            VBox bubbleChart = advancedAnalytics.createCategoryBubbleChart();
-            
-            // Enhanced insights section
-            VBox enhancedSection = createEnhancedAnalyticsInsights(enhancedAnalytics);
-            
-            // Traditional insights cards
-            HBox insightsCards = new HBox(20);
-            List<AnalyticsService.FinancialInsight> insights = analytics.generateFinancialInsights();
-            
-            for (int i = 0; i < Math.min(3, insights.size()); i++) {
-                VBox insightCard = createThemedInsightCard(insights.get(i));
-                insightsCards.getChildren().add(insightCard);
-            }
-            
-            // Animate content appearance
-            animateAnalyticsContent(content);
-            
-            content.getChildren().addAll(
-                scoreCard, 
-                chartsRow1, 
-                chartsRow2, 
-                bubbleChart,
-                enhancedSection,
-                insightsCards
-            );
-            
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Failed to create analytics content", e);
-            content.getChildren().add(createAnalyticsErrorContent(e.getMessage()));
-        }
+        // Drop whatever the previous visit still had in flight
+        cancelPendingAnalytics();
+        final int generation = analyticsGeneration;
+        
+        // Initialize services
+        AnalyticsService analytics = new AnalyticsService(dbManager);
+        EnhancedAnalyticsService enhancedAnalytics = new EnhancedAnalyticsService(dbManager);
+        AdvancedAnalyticsService advancedAnalytics = new AdvancedAnalyticsService(dbManager);
+        
+        // Financial score card (enhanced with theme)
+        StackPane scoreSlot = createAnalyticsSlot(Region.USE_COMPUTED_SIZE, 180);
+        loadAnalyticsSlot(scoreSlot, generation, analytics::calculateFinancialScore,
+            this::createEnhancedFinancialScoreCard);
+        
+        // Advanced charts row 1
+        HBox chartsRow1 = new HBox(20);
+        chartsRow1.setAlignment(Pos.CENTER_LEFT);
+        
+        StackPane trendSlot = createAnalyticsSlot(Region.USE_COMPUTED_SIZE, 440);
+        StackPane savingsGoalSlot = createAnalyticsSlot(680, 440);
+        loadAnalyticsSlot(trendSlot, generation, advancedAnalytics::createTrendlineChart, chart -> chart);
+        loadAnalyticsSlot(savingsGoalSlot, generation, advancedAnalytics::createSavingsGoalChart, chart -> chart);
+        
+        HBox.setHgrow(trendSlot, Priority.ALWAYS);
+        chartsRow1.getChildren().addAll(trendSlot, savingsGoalSlot);
+        
+        // Advanced charts row 2
+        HBox chartsRow2 = new HBox(20);
+        chartsRow2.setAlignment(Pos.CENTER_LEFT);
+        
+        StackPane heatmapSlot = createAnalyticsSlot(480, 440);
+        StackPane waterfallSlot = createAnalyticsSlot(Region.USE_COMPUTED_SIZE, 440);
+        loadAnalyticsSlot(heatmapSlot, generation, advancedAnalytics::createSpendingHeatmap, chart -> chart);
+        loadAnalyticsSlot(waterfallSlot, generation, advancedAnalytics::createCashFlowWaterfallChart, chart -> chart);
+        
+        HBox.setHgrow(waterfallSlot, Priority.ALWAYS);
+        chartsRow2.getChildren().addAll(heatmapSlot, waterfallSlot);
+        
+        // Bubble chart (full width)
+        StackPane bubbleSlot = createAnalyticsSlot(Region.USE_COMPUTED_SIZE, 440);
+        loadAnalyticsSlot(bubbleSlot, generation, advancedAnalytics::createCategoryBubbleChart, chart -> chart);
+        
+        // Enhanced insights section
+        VBox enhancedSection = createEnhancedAnalyticsInsights(enhancedAnalytics, generation);
+        
+        // Traditional insights cards
+        StackPane insightsSlot = createAnalyticsSlot(Region.USE_COMPUTED_SIZE, 160);
+        loadAnalyticsSlot(insightsSlot, generation, analytics::generateFinancialInsights,
+            this::createInsightCardsRow);
+        
+        content.getChildren().addAll(
+            scoreSlot, 
+            chartsRow1, 
+            chartsRow2, 
+            bubbleSlot,
+            enhancedSection,
+            insightsSlot
+        );
         
         return content;
     }
 
+    private HBox createInsightCardsRow(List<AnalyticsService.FinancialInsight> insights) {
+        HBox insightsCards = new HBox(20);
+        for (int i = 0; i < Math.min(3, insights.size()); i++) {
+            VBox insightCard = createThemedInsightCard(insights.get(i));
+            insightsCards.getChildren().add(insightCard);
+        }
+        return insightsCards;
+    }
+
+    /**
+     * Skeleton card hiển thị ngay lập tức, được thay bằng nội dung thật khi dữ liệu sẵn sàng
+     */
+    private StackPane createAnalyticsSlot(double prefWidth, double prefHeight) {
+        StackPane slot = new StackPane();
+        slot.setPrefWidth(prefWidth);
+        slot.setMinHeight(prefHeight);
+        
+        VBox skeleton = new VBox(12);
+        skeleton.setAlignment(Pos.CENTER);
+        skeleton.setPadding(new Insets(25));
+        skeleton.getStyleClass().add("card");
+        
+        ProgressIndicator spinner = new ProgressIndicator();
+        spinner.setMaxSize(36, 36);
+        
+        Label loadingLabel = new Label("Loading...");
+        loadingLabel.getStyleClass().add("text-muted");
+        loadingLabel.setFont(Font.font("Segoe UI", 13));
+        
+        skeleton.getChildren().addAll(spinner, loadingLabel);
+        slot.getChildren().add(skeleton);
+        return slot;
+    }
+
+    /**
+     * Chạy một phép phân tích trên UI pool của TaskScheduler và điền kết quả vào slot trên FX thread.
+     * Kết quả bị bỏ qua nếu người dùng đã rời trang (generation đã thay đổi).
+     */
+    private <T> void loadAnalyticsSlot(StackPane slot, int generation, Callable<T> work,
+                                       Function<T, ? extends javafx.scene.Node> render) {
+        try {
+            Future<?> future = TaskScheduler.getInstance().execute(TaskScheduler.Pool.UI, "analytics-card", () -> {
+                try {
+                    T result = work.call();
+                    Platform.runLater(() -> {
+                        if (generation != analyticsGeneration) {
+                            return;
+                        }
+                        javafx.scene.Node node = render.apply(result);
+                        slot.getChildren().setAll(node);
+                        animateAnalyticsCard(node);
+                    });
+                } catch (Exception e) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    logger.log(Level.SEVERE, "Failed to create analytics content", e);
+                    Platform.runLater(() -> {
+                        if (generation == analyticsGeneration) {
+                            slot.getChildren().setAll(createAnalyticsErrorContent(e.getMessage()));
+                        }
+                    });
+                }
+            });
+            pendingAnalyticsTasks.add(future);
+        } catch (RejectedExecutionException e) {
+            logger.log(Level.WARNING, "Analytics queue is full", e);
+            slot.getChildren().setAll(createAnalyticsErrorContent("Analytics is busy, please refresh"));
+        }
+    }
+
+    /**
+     * Huỷ các phép phân tích còn đang chờ, gọi khi rời trang Analytics.
+     * Trả về true nếu có card chưa tải xong (trang đang cache sẽ thiếu dữ liệu).
+     */
+    private boolean cancelPendingAnalytics() {
+        analyticsGeneration++;
+        boolean hadUnfinished = false;
+        for (Future<?> task : pendingAnalyticsTasks) {
+            hadUnfinished |= !task.isDone();
+            task.cancel(true);
+        }
+        pendingAnalyticsTasks.clear();
+        TaskScheduler.getInstance().purge();
+        return hadUnfinished;
+    }
+
     private HBox createEnhancedFinancialScoreCard(double score) {
         HBox card = new HBox(30);
         card.setPadding(new Insets(30));
         card.setAlignment(Pos.CENTER_LEFT);
-        card.setStyle(
-            "-fx-background-color: linear-gradient(to right, " + 
-            ThemeManager.toRgbaString(ACCENT_PURPLE, 0.8) + ", " + 
-            ThemeManager.toRgbaString(ACCENT_PINK, 0.8) + ");" +
-            "-fx-background-radius: 20;" +
-            "-fx-effect: dropshadow(gaussian, " + ThemeManager.toRgbaString(ACCENT_PURPLE, 0.4) + ", 20, 0, 0, 10);"
-        );
+        card.getStyleClass().add("score-card");
         
         // Score circle with animation
         StackPane scoreCircle = new StackPane();
         Circle outerCircle = new Circle(60);
-        outerCircle.setFill(Color.TRANSPARENT);
-        outerCircle.setStroke(ThemeManager.toRgbaColor(TEXT_PRIMARY, 0.3));
+        outerCircle.getStyleClass().add("progress-track");
         outerCircle.setStrokeWidth(3);
         
         Arc scoreArc = new Arc(0, 0, 60, 60, 90, -(score * 3.6));
         scoreArc.setType(ArcType.OPEN);
-        scoreArc.setFill(Color.TRANSPARENT);
-        scoreArc.setStroke(TEXT_PRIMARY);
+        scoreArc.getStyleClass().add("progress-arc");
         scoreArc.setStrokeWidth(5);
         
         Label scoreLabel = new Label(String.format("%.0f", score));
-        scoreLabel.setTextFill(TEXT_PRIMARY);
+        scoreLabel.getStyleClass().add("text-on-accent");
         scoreLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 36));
         
         scoreCircle.getChildren().addAll(outerCircle, scoreArc, scoreLabel);
         
-        // Score details with theme-aware colors
+        // Score details
         VBox details = new VBox(10);
         Label titleLabel = new Label("Financial Health Score");
-        titleLabel.setTextFill(TEXT_PRIMARY);
+        titleLabel.getStyleClass().add("text-on-accent");
         titleLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 24));
         
         Label gradeLabel = new Label("Grade: " + getGradeFromScore(score));
-        gradeLabel.setTextFill(ThemeManager.toRgbaColor(TEXT_PRIMARY, 0.9));
+        gradeLabel.getStyleClass().add("text-on-accent");
         gradeLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 18));
         
         Label descLabel = new Label("Your financial health is " + getHealthDescription(score));
-        descLabel.setTextFill(ThemeManager.toRgbaColor(TEXT_PRIMARY, 0.8));
+        descLabel.getStyleClass().add("text-on-accent");
         descLabel.setFont(Font.font("Segoe UI", 14));
         
         details.getChildren().addAll(titleLabel, gradeLabel, descLabel);
@@ -1447,37 +1471,43 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         return card;
     }
 
-    private VBox createEnhancedAnalyticsInsights(EnhancedAnalyticsService enhancedAnalytics) {
+    private VBox createEnhancedAnalyticsInsights(EnhancedAnalyticsService enhancedAnalytics, int generation) {
         VBox section = new VBox(20);
         
         // Section title
         Label sectionTitle = new Label("🔮 AI-Powered Insights");
-        sectionTitle.setTextFill(TEXT_PRIMARY);
+        sectionTitle.getStyleClass().add("text-primary");
         sectionTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 24));
         
         // Create cards for each enhanced feature
         HBox enhancedCards = new HBox(20);
         
         // Spending Forecast Card
-        VBox forecastCard = createThemedSpendingForecastCard(enhancedAnalytics);
+        StackPane forecastSlot = createAnalyticsSlot(350, 160);
+        loadAnalyticsSlot(forecastSlot, generation, () -> enhancedAnalytics.forecastSpendingPatterns(6),
+            this::createThemedSpendingForecastCard);
         
         // Anomaly Detection Card
-        VBox anomalyCard = createThemedAnomalyDetectionCard(enhancedAnalytics);
+        StackPane anomalySlot = createAnalyticsSlot(350, 160);
+        loadAnalyticsSlot(anomalySlot, generation, enhancedAnalytics::detectSpendingAnomalies,
+            this::createThemedAnomalyDetectionCard);
         
         // Risk Assessment Card
-        VBox riskCard = createThemedRiskAssessmentCard(enhancedAnalytics);
+        StackPane riskSlot = createAnalyticsSlot(350, 160);
+        loadAnalyticsSlot(riskSlot, generation, () -> enhancedAnalytics.assessFinancialRisk(1000),
+            this::createThemedRiskAssessmentCard);
         
-        enhancedCards.getChildren().addAll(forecastCard, anomalyCard, riskCard);
+        enhancedCards.getChildren().addAll(forecastSlot, anomalySlot, riskSlot);
         section.getChildren().addAll(sectionTitle, enhancedCards);
         
         return section;
     }
 
-    private VBox createThemedSpendingForecastCard(EnhancedAnalyticsService enhancedAnalytics) {
+    private VBox createThemedSpendingForecastCard(Map<String, EnhancedAnalyticsService.SpendingForecast> forecasts) {
         VBox card = new VBox(15);
         card.setPadding(new Insets(20));
         card.setPrefWidth(350);
-        card.setStyle(createThemedCardStyle(ACCENT_BLUE));
+        card.getStyleClass().addAll("card", "accent-card", "accent-blue");
         
         // Header
         HBox header = new HBox(10);
@@ -1487,14 +1517,11 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         icon.setFont(Font.font(20));
         
         Label title = new Label("Spending Forecast");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
         
         header.getChildren().addAll(icon, title);
         
-        // Get forecast data
-        Map<String, EnhancedAnalyticsService.SpendingForecast> forecasts = enhancedAnalytics.forecastSpendingPatterns(6);
-        
         VBox forecastContent = new VBox(10);
         
         if (!forecasts.isEmpty()) {
@@ -1508,14 +1535,14 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
                 forecastItem.setAlignment(Pos.CENTER_LEFT);
                 
                 Label categoryLabel = new Label(category);
-                categoryLabel.setTextFill(TEXT_SECONDARY);
+                categoryLabel.getStyleClass().add("text-secondary");
                 categoryLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 12));
                 
                 Region spacer = new Region();
                 HBox.setHgrow(spacer, Priority.ALWAYS);
                 
                 Label trendLabel = new Label("📈 +5%");
-                trendLabel.setTextFill(ACCENT_GREEN);
+                trendLabel.getStyleClass().addAll("text-accent", "accent-green");
                 trendLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 11));
                 
                 forecastItem.getChildren().addAll(categoryLabel, spacer, trendLabel);
@@ -1525,7 +1552,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
             }
         } else {
             Label noDataLabel = new Label("Insufficient data for forecasting");
-            noDataLabel.setTextFill(TEXT_MUTED);
+            noDataLabel.getStyleClass().add("text-muted");
             noDataLabel.setFont(Font.font("Segoe UI", 12));
             forecastContent.getChildren().add(noDataLabel);
         }
@@ -1534,11 +1561,11 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         return card;
     }
 
-    private VBox createThemedAnomalyDetectionCard(EnhancedAnalyticsService enhancedAnalytics) {
+    private VBox createThemedAnomalyDetectionCard(List<EnhancedAnalyticsService.SpendingAnomaly> anomalies) {
         VBox card = new VBox(15);
         card.setPadding(new Insets(20));
         card.setPrefWidth(350);
-        card.setStyle(createThemedCardStyle(ACCENT_PINK));
+        card.getStyleClass().addAll("card", "accent-card", "accent-pink");
         
         // Header
         HBox header = new HBox(10);
@@ -1548,14 +1575,11 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         icon.setFont(Font.font(20));
         
         Label title = new Label("Anomaly Detection");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
         
         header.getChildren().addAll(icon, title);
         
-        // Get anomaly data
-        List<EnhancedAnalyticsService.SpendingAnomaly> anomalies = enhancedAnalytics.detectSpendingAnomalies();
-        
         VBox anomalyContent = new VBox(10);
         
         if (!anomalies.isEmpty()) {
@@ -1567,14 +1591,14 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
                 anomalyItem.setAlignment(Pos.CENTER_LEFT);
                 
                 Label categoryLabel = new Label(anomaly.getCategory());
-                categoryLabel.setTextFill(TEXT_SECONDARY);
+                categoryLabel.getStyleClass().add("text-secondary");
                 categoryLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 12));
                 
                 Region spacer = new Region();
                 HBox.setHgrow(spacer, Priority.ALWAYS);
                 
                 Label amountLabel = new Label(String.format("$%.0f", anomaly.getAmount()));
-                amountLabel.setTextFill(ACCENT_PINK);
+                amountLabel.getStyleClass().addAll("text-accent", "accent-pink");
                 amountLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 12));
                 
                 anomalyItem.getChildren().addAll(categoryLabel, spacer, amountLabel);
@@ -1584,7 +1608,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
             }
         } else {
             Label noDataLabel = new Label("No anomalies detected");
-            noDataLabel.setTextFill(TEXT_MUTED);
+            noDataLabel.getStyleClass().add("text-muted");
             noDataLabel.setFont(Font.font("Segoe UI", 12));
             anomalyContent.getChildren().add(noDataLabel);
         }
@@ -1593,11 +1617,11 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         return card;
     }
 
-    private VBox createThemedRiskAssessmentCard(EnhancedAnalyticsService enhancedAnalytics) {
+    private VBox createThemedRiskAssessmentCard(EnhancedAnalyticsService.FinancialRiskAssessment risk) {
         VBox card = new VBox(15);
         card.setPadding(new Insets(20));
         card.setPrefWidth(350);
-        card.setStyle(createThemedCardStyle(ACCENT_GREEN));
+        card.getStyleClass().addAll("card", "accent-card", "accent-green");
         
         // Header
         HBox header = new HBox(10);
@@ -1607,14 +1631,11 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         icon.setFont(Font.font(20));
         
         Label title = new Label("Risk Assessment");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
         
         header.getChildren().addAll(icon, title);
         
-        // Get risk assessment data
-        EnhancedAnalyticsService.FinancialRiskAssessment risk = enhancedAnalytics.assessFinancialRisk(1000);
-        
         VBox riskContent = new VBox(10);
         
         // Risk level
@@ -1622,14 +1643,14 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         riskLevelItem.setAlignment(Pos.CENTER_LEFT);
         
         Label riskLevelLabel = new Label("Risk Level:");
-        riskLevelLabel.setTextFill(TEXT_SECONDARY);
+        riskLevelLabel.getStyleClass().add("text-secondary");
         riskLevelLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 12));
         
         Region spacer1 = new Region();
         HBox.setHgrow(spacer1, Priority.ALWAYS);
         
         Label riskValueLabel = new Label(risk.getRiskLevel());
-        riskValueLabel.setTextFill(getRiskColor(risk.getRiskLevel()));
+        riskValueLabel.getStyleClass().addAll("text-accent", getRiskAccentClass(risk.getRiskLevel()));
         riskValueLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 12));
         
         riskLevelItem.getChildren().addAll(riskLevelLabel, spacer1, riskValueLabel);
@@ -1639,14 +1660,14 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         riskScoreItem.setAlignment(Pos.CENTER_LEFT);
         
         Label riskScoreLabel = new Label("Score:");
-        riskScoreLabel.setTextFill(TEXT_SECONDARY);
+        riskScoreLabel.getStyleClass().add("text-secondary");
         riskScoreLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 12));
         
         Region spacer2 = new Region();
         HBox.setHgrow(spacer2, Priority.ALWAYS);
         
         Label scoreValueLabel = new Label(String.format("%.1f/100", risk.getRiskScore()));
-        scoreValueLabel.setTextFill(TEXT_PRIMARY);
+        scoreValueLabel.getStyleClass().add("text-primary");
         scoreValueLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 12));
         
         riskScoreItem.getChildren().addAll(riskScoreLabel, spacer2, scoreValueLabel);
@@ -1661,7 +1682,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         VBox card = new VBox(15);
         card.setPadding(new Insets(20));
         card.setPrefWidth(300);
-        card.setStyle(createThemedCardStyle(getInsightColor(insight.getLevel())));
+        card.getStyleClass().addAll("card", "accent-card", getInsightAccentClass(insight.getLevel()));
         
         // Header
         HBox header = new HBox(10);
@@ -1671,22 +1692,24 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         icon.setFont(Font.font(20));
         
         Label title = new Label(insight.getTitle());
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
         
         header.getChildren().addAll(icon, title);
         
         // Message
         Label message = new Label(insight.getMessage());
-        message.setTextFill(TEXT_SECONDARY);
+        message.getStyleClass().add("text-secondary");
         message.setFont(Font.font("Segoe UI", 13));
         message.setWrapText(true);
         
         // Level indicator
         HBox levelIndicator = new HBox(8);
-        Circle levelDot = new Circle(4, getInsightColor(insight.getLevel()));
+        levelIndicator.getStyleClass().add(getInsightAccentClass(insight.getLevel()));
+        Circle levelDot = new Circle(4);
+        levelDot.getStyleClass().add("accent-dot");
         Label levelLabel = new Label(insight.getLevel().toString());
-        levelLabel.setTextFill(getInsightColor(insight.getLevel()));
+        levelLabel.getStyleClass().add("text-accent");
         levelLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 11));
         
         levelIndicator.getChildren().addAll(levelDot, levelLabel);
@@ -1704,74 +1727,37 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         errorIcon.setFont(Font.font(32));
         
         Label errorLabel = new Label("Analytics Error");
-        errorLabel.setTextFill(currentTheme.getError());
+        errorLabel.getStyleClass().add("text-error");
         errorLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
         
         Label errorDesc = new Label("Failed to load analytics: " + errorMessage);
-        errorDesc.setTextFill(TEXT_SECONDARY);
+        errorDesc.getStyleClass().add("text-secondary");
         errorDesc.setFont(Font.font("Segoe UI", 14));
         errorDesc.setWrapText(true);
         
         Button retryBtn = new Button("🔄 Retry");
-        retryBtn.setStyle(createThemedPrimaryButtonStyle());
-        retryBtn.setOnAction(e -> loadAnalyticsPage());
+        retryBtn.getStyleClass().add("button-primary");
+        retryBtn.setOnAction(e -> refreshAnalyticsData());
         
         errorContent.getChildren().addAll(errorIcon, errorLabel, errorDesc, retryBtn);
         return errorContent;
     }
 
-    private void animateAnalyticsContent(VBox content) {
-        // Staggered fade-in animation for analytics content
-        for (int i = 0; i < content.getChildren().size(); i++) {
-            javafx.scene.Node node = content.getChildren().get(i);
-            
-            node.setOpacity(0);
-            node.setTranslateY(20);
-            
-            FadeTransition fade = new FadeTransition(Duration.millis(400), node);
-            fade.setFromValue(0);
-            fade.setToValue(1);
-            fade.setDelay(Duration.millis(i * 100));
-            
-            TranslateTransition slide = new TranslateTransition(Duration.millis(400), node);
-            slide.setFromY(20);
-            slide.setToY(0);
-            slide.setDelay(Duration.millis(i * 100));
-            
-            ParallelTransition animation = new ParallelTransition(fade, slide);
-            animation.play();
-        }
-    }
-
-    // Helper methods for themed styling
-    private String createThemedCardStyle(Color accentColor) {
-        return "-fx-background-color: " + ThemeManager.toHexString(currentTheme.getCardBg()) + ";" +
-               "-fx-background-radius: 16px;" +
-               "-fx-border-color: " + ThemeManager.toRgbaString(accentColor, 0.3) + ";" +
-               "-fx-border-width: 1px;" +
-               "-fx-border-radius: 16px;" +
-               "-fx-effect: dropshadow(gaussian, " + ThemeManager.toRgbaString(currentTheme.getShadowColor(), 0.1) + ", 15, 0, 0, 5);";
-    }
-
-    private String createThemedPrimaryButtonStyle() {
-        return "-fx-background-color: " + ThemeManager.toHexString(ACCENT_PURPLE) + ";" +
-               "-fx-text-fill: white;" +
-               "-fx-background-radius: 10px;" +
-               "-fx-padding: 10 20;" +
-               "-fx-font-weight: bold;" +
-               "-fx-cursor: hand;" +
-               "-fx-effect: dropshadow(three-pass-box, " + ThemeManager.toRgbaString(ACCENT_PURPLE, 0.4) + ", 10, 0, 0, 3);";
-    }
-
-    private String createThemedSecondaryButtonStyle() {
-        return "-fx-background-color: " + ThemeManager.toRgbaString(TEXT_PRIMARY, 0.1) + ";" +
-               "-fx-text-fill: " + ThemeManager.toHexString(TEXT_PRIMARY) + ";" +
-               "-fx-background-radius: 10px;" +
-               "-fx-padding: 10 20;" +
-               "-fx-cursor: hand;" +
-               "-fx-border-color: " + ThemeManager.toRgbaString(TEXT_PRIMARY, 0.2) + ";" +
-               "-fx-border-width: 1px;" +
-               "-fx-border-radius: 10px;";
+    private void animateAnalyticsCard(javafx.scene.Node node) {
+        // Fade-in animation for each analytics card as its data arrives
+        node.setOpacity(0);
+        node.setTranslateY(20);
+        
+        FadeTransition fade = new FadeTransition(Duration.millis(400), node);
+        fade.setFromValue(0);
+        fade.setToValue(1);
+        
+        TranslateTransition slide = new TranslateTransition(Duration.millis(400), node);
+        slide.setFromY(20);
+        slide.setToY(0);
+        
+        ParallelTransition animation = new ParallelTransition(fade, slide);
+        AnimationGovernor.getInstance().play(animation);
     }
 
     // Event handlers
@@ -1780,7 +1766,8 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     }
 
     private void refreshAnalyticsData() {
-        loadAnalyticsPage(); // Refresh by reloading
+        cancelPendingAnalytics();
+        reloadPage("analytics"); // Refresh by reloading
     }
 
     private void showInfoMessage(String message) {
@@ -1791,18 +1778,16 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         alert.showAndWait();
     }
 
-    private void loadTransactionPage() {
-        contentArea.getChildren().clear();
-        
+    private PageRegistry.Page createTransactionPage() {
         ScrollPane scrollPane = new ScrollPane();
         scrollPane.setFitToWidth(true);
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        scrollPane.getStyleClass().add("transparent-scroll");
         
         VBox transactionPage = new VBox(25);
         transactionPage.setPadding(new Insets(30));
         
         Label title = new Label(LanguageManager.getInstance().translate("transaction") + " History");
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 32));
         
         // Enhanced transaction filters
@@ -1813,20 +1798,16 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         
         transactionPage.getChildren().addAll(title, filtersSection, transactionList);
         scrollPane.setContent(transactionPage);
-        contentArea.getChildren().add(scrollPane);
+        return () -> scrollPane;
     }
 
     private VBox createEnhancedTransactionFilters() {
         VBox filtersContainer = new VBox(15);
         filtersContainer.setPadding(new Insets(20));
-        filtersContainer.setStyle(
-            "-fx-background-color: " + ThemeManager.toHexString(CARD_BG) + ";" +
-            "-fx-background-radius: 20px;" +
-            "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.3), 15, 0, 0, 5);"
-        );
+        filtersContainer.getStyleClass().add("dashboard-card");
         
         Label filtersTitle = new Label("🔍 Advanced Search & Filters");
-        filtersTitle.setTextFill(TEXT_PRIMARY);
+        filtersTitle.getStyleClass().add("text-primary");
         filtersTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
         
         // Enhanced search row
@@ -1837,7 +1818,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         TextField advancedSearch = new TextField();
         advancedSearch.setPromptText("🔍 Search by title, category, description, amount...");
         advancedSearch.setPrefWidth(350);
-        advancedSearch.setStyle(createEnhancedTextFieldStyle());
+        advancedSearch.getStyleClass().addAll("form-field", "compact");
         
         // Realtime search
         advancedSearch.textProperty().addListener((obs, oldVal, newVal) -> {
@@ -1845,7 +1826,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         });
         
         Button searchButton = new Button("🔍 Search");
-        searchButton.setStyle(createThemedPrimaryButtonStyle());
+        searchButton.getStyleClass().add("button-primary");
         searchButton.setOnAction(e -> filterTransactionsBySearch(advancedSearch.getText()));
         
         searchRow.getChildren().addAll(new Label("Search:"), advancedSearch, searchButton);
@@ -1910,7 +1891,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         sortFilter.setPrefWidth(180);
         
         Button applyFiltersBtn = new Button("📊 Apply Filters");
-        applyFiltersBtn.setStyle(createThemedPrimaryButtonStyle());
+        applyFiltersBtn.getStyleClass().add("button-primary");
         applyFiltersBtn.setOnAction(e -> applyAllTransactionFilters(
             typeFilter.getValue(),
             dateFilter.getValue(), 
@@ -1922,7 +1903,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         ));
         
         Button clearFiltersBtn = new Button("🗑️ Clear All");
-        clearFiltersBtn.setStyle(createThemedSecondaryButtonStyle());
+        clearFiltersBtn.getStyleClass().add("button-secondary");
         clearFiltersBtn.setOnAction(e -> clearAllTransactionFilters(
             typeFilter, dateFilter, categoryFilter, minAmount, maxAmount, sortFilter, advancedSearch
         ));
@@ -1934,7 +1915,6 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         );
         
         // Style all labels
-        styleFilterLabels(filtersContainer);
         
         filtersContainer.getChildren().addAll(filtersTitle, searchRow, filterRow1, filterRow2);
         return filtersContainer;
@@ -1943,157 +1923,154 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     private VBox createFilteredTransactionList() {
         VBox listContainer = new VBox(15);
         listContainer.setPadding(new Insets(20));
-        listContainer.setStyle(
-            "-fx-background-color: " + ThemeManager.toHexString(CARD_BG) + ";" +
-            "-fx-background-radius: 20px;" +
-            "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.3), 15, 0, 0, 5);"
-        );
+        listContainer.getStyleClass().add("dashboard-card");
         
         // Header
         HBox listHeader = new HBox();
         listHeader.setAlignment(Pos.CENTER_LEFT);
         
         Label listTitle = new Label("💼 Transaction History");
-        listTitle.setTextFill(TEXT_PRIMARY);
+        listTitle.getStyleClass().add("text-primary");
         listTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
         
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
         
         Label summaryLabel = new Label("Loading transactions...");
-        summaryLabel.setTextFill(TEXT_SECONDARY);
+        summaryLabel.getStyleClass().add("text-secondary");
         summaryLabel.setFont(Font.font("Segoe UI", 12));
         summaryLabel.getStyleClass().add("summary-label");
         
         listHeader.getChildren().addAll(listTitle, spacer, summaryLabel);
         
-        // Transaction items container
-        VBox transactionItems = new VBox(8);
+        // Transaction items container (virtualized, chỉ dựng node cho các dòng đang hiển thị)
+        RecordListView<TransactionItem> transactionItems = new RecordListView<>(TransactionRow::new, 8);
         transactionItems.setId("transactionItemsContainer"); // Để tìm sau này
+        transactionItems.setPrefHeight(500); // Tăng chiều cao
+        
+        listContainer.getChildren().addAll(listHeader, new Separator(), transactionItems);
         
         // Load initial data
         loadAllTransactions();
-        
-        ScrollPane scrollPane = new ScrollPane(transactionItems);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setPrefHeight(500); // Tăng chiều cao
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
-        
-        listContainer.getChildren().addAll(listHeader, new Separator(), scrollPane);
         return listContainer;
     }
 
-    private HBox createEnhancedTransactionItem(String title, double amount, LocalDate date, 
-                                             boolean isIncome, String category, String description) {
-        HBox item = new HBox(20);
-        item.setAlignment(Pos.CENTER_LEFT);
-        item.setPadding(new Insets(15, 20, 15, 20));
-        item.setStyle(
-            "-fx-background-color: " + ThemeManager.toRgbaString(TEXT_PRIMARY, 0.02) + ";" +
-            "-fx-background-radius: 12px;" +
-            "-fx-border-color: " + ThemeManager.toRgbaString(TEXT_PRIMARY, 0.05) + ";" +
-            "-fx-border-width: 1px;" +
-            "-fx-border-radius: 12px;" +
-            "-fx-cursor: hand;"
-        );
-        
-        // Transaction type icon
-        StackPane iconContainer = new StackPane();
-        Circle iconBg = new Circle(22);
-        iconBg.setFill(isIncome ? ACCENT_GREEN : ACCENT_PURPLE);
-        iconBg.setEffect(new DropShadow(6, isIncome ? ACCENT_GREEN : ACCENT_PURPLE));
-        
-        Label icon = new Label(isIncome ? "💰" : getCategoryIcon(category));
-        icon.setFont(Font.font(16));
-        icon.setTextFill(Color.WHITE);
-        
-        iconContainer.getChildren().addAll(iconBg, icon);
-        
-        // Transaction details
-        VBox details = new VBox(4);
-        
-        Label titleLabel = new Label(title);
-        titleLabel.setTextFill(TEXT_PRIMARY);
-        titleLabel.setFont(Font.font("Segoe UI", FontWeight.SEMI_BOLD, 15));
-        
-        HBox metaRow = new HBox(15);
-        metaRow.setAlignment(Pos.CENTER_LEFT);
-        
-        Label categoryLabel = new Label("📂 " + category);
-        categoryLabel.setTextFill(TEXT_MUTED);
-        categoryLabel.setFont(Font.font("Segoe UI", 11));
-        
-        Label dateLabel = new Label("📅 " + date.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")));
-        dateLabel.setTextFill(TEXT_MUTED);
-        dateLabel.setFont(Font.font("Segoe UI", 11));
-        
-        Label typeLabel = new Label(isIncome ? "📈 Income" : "📉 Expense");
-        typeLabel.setTextFill(isIncome ? ACCENT_GREEN : ACCENT_PURPLE);
-        typeLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 10));
-        typeLabel.setStyle(
-            "-fx-background-color: " + ThemeManager.toRgbaString(isIncome ? ACCENT_GREEN : ACCENT_PURPLE, 0.15) + ";" +
-            "-fx-background-radius: 8px;" +
-            "-fx-padding: 2 6 2 6;"
-        );
-        
-        metaRow.getChildren().addAll(categoryLabel, dateLabel, typeLabel);
-        
-        details.getChildren().addAll(titleLabel, metaRow);
-        
-        // Add description if available
-        if (description != null && !description.trim().isEmpty()) {
-            Label descLabel = new Label("💬 " + description);
-            descLabel.setTextFill(TEXT_SECONDARY);
+    // Dòng card của Transaction History, được tái sử dụng bởi RecordListView khi cuộn
+    private class TransactionRow implements RecordListView.RecordRow<TransactionItem> {
+        private final HBox item = new HBox(20);
+        private final Circle iconBg = new Circle(22);
+        private final Label icon = new Label();
+        private final Label titleLabel = new Label();
+        private final Label categoryLabel = new Label();
+        private final Label dateLabel = new Label();
+        private final Label typeLabel = new Label();
+        private final Label descLabel = new Label();
+        private final Label amountLabel = new Label();
+        private final Label balanceImpact = new Label();
+
+        TransactionRow() {
+            item.setAlignment(Pos.CENTER_LEFT);
+            item.setPadding(new Insets(15, 20, 15, 20));
+            // Nền hover và màu nhấn theo class accent-* của dòng
+            item.getStyleClass().add("list-row");
+            
+            // Transaction type icon
+            StackPane iconContainer = new StackPane();
+            icon.setFont(Font.font(16));
+            icon.getStyleClass().add("text-on-accent");
+            iconBg.getStyleClass().add("accent-dot");
+            iconContainer.getChildren().addAll(iconBg, icon);
+            
+            // Transaction details
+            VBox details = new VBox(4);
+            
+            titleLabel.getStyleClass().add("text-primary");
+            titleLabel.setFont(Font.font("Segoe UI", FontWeight.SEMI_BOLD, 15));
+            
+            HBox metaRow = new HBox(15);
+            metaRow.setAlignment(Pos.CENTER_LEFT);
+            
+            categoryLabel.getStyleClass().add("text-muted");
+            categoryLabel.setFont(Font.font("Segoe UI", 11));
+            
+            dateLabel.getStyleClass().add("text-muted");
+            dateLabel.setFont(Font.font("Segoe UI", 11));
+            
+            typeLabel.getStyleClass().add("badge");
+            typeLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 10));
+            
+            metaRow.getChildren().addAll(categoryLabel, dateLabel, typeLabel);
+            
+            descLabel.getStyleClass().add("text-secondary");
             descLabel.setFont(Font.font("Segoe UI", 11));
             descLabel.setWrapText(true);
-            details.getChildren().add(descLabel);
+            descLabel.managedProperty().bind(descLabel.visibleProperty());
+            
+            details.getChildren().addAll(titleLabel, metaRow, descLabel);
+            
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+            
+            // Amount
+            VBox amountSection = new VBox(2);
+            amountSection.setAlignment(Pos.CENTER_RIGHT);
+            
+            amountLabel.getStyleClass().add("text-accent");
+            amountLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
+            
+            balanceImpact.getStyleClass().add("text-muted");
+            balanceImpact.setFont(Font.font("Segoe UI", 10));
+            
+            amountSection.getChildren().addAll(amountLabel, balanceImpact);
+            
+            item.getChildren().addAll(iconContainer, details, spacer, amountSection);
+            
+            // Enhanced hover effect
+            item.setOnMouseEntered(e -> {
+                ScaleTransition scale = new ScaleTransition(Duration.millis(100), item);
+                scale.setToX(1.02);
+                scale.setToY(1.02);
+                scale.play();
+            });
+            
+            item.setOnMouseExited(e -> {
+                ScaleTransition scale = new ScaleTransition(Duration.millis(100), item);
+                scale.setToX(1.0);
+                scale.setToY(1.0);
+                scale.play();
+            });
         }
-        
-        Region spacer = new Region();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
-        
-        // Amount
-        VBox amountSection = new VBox(2);
-        amountSection.setAlignment(Pos.CENTER_RIGHT);
-        
-        Label amountLabel = new Label((isIncome ? "+" : "-") + "$" + String.format("%.2f", amount));
-        amountLabel.setTextFill(isIncome ? ACCENT_GREEN : ACCENT_PURPLE);
-        amountLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
-        
-        Label balanceImpact = new Label(isIncome ? "Balance +" : "Balance -");
-        balanceImpact.setTextFill(TEXT_MUTED);
-        balanceImpact.setFont(Font.font("Segoe UI", 10));
-        
-        amountSection.getChildren().addAll(amountLabel, balanceImpact);
-        
-        item.getChildren().addAll(iconContainer, details, spacer, amountSection);
-        
-        // Enhanced hover effect
-        item.setOnMouseEntered(e -> {
-            item.setStyle(item.getStyle().replace(
-                ThemeManager.toRgbaString(TEXT_PRIMARY, 0.02),
-                ThemeManager.toRgbaString(isIncome ? ACCENT_GREEN : ACCENT_PURPLE, 0.08)
-            ));
+
+        @Override
+        public Node getNode() {
+            return item;
+        }
+
+        @Override
+        public void bind(TransactionItem transaction) {
+            boolean isIncome = transaction.isIncome();
+            item.getStyleClass().removeAll("accent-green", "accent-purple");
+            item.getStyleClass().add(isIncome ? "accent-green" : "accent-purple");
+            // Cell được tái sử dụng có thể còn trạng thái hover của dòng trước
+            item.setScaleX(1.0);
+            item.setScaleY(1.0);
             
-            ScaleTransition scale = new ScaleTransition(Duration.millis(100), item);
-            scale.setToX(1.02);
-            scale.setToY(1.02);
-            scale.play();
-        });
-        
-        item.setOnMouseExited(e -> {
-            item.setStyle(item.getStyle().replace(
-                ThemeManager.toRgbaString(isIncome ? ACCENT_GREEN : ACCENT_PURPLE, 0.08),
-                ThemeManager.toRgbaString(TEXT_PRIMARY, 0.02)
-            ));
+            icon.setText(isIncome ? "💰" : getCategoryIcon(transaction.getCategory()));
             
-            ScaleTransition scale = new ScaleTransition(Duration.millis(100), item);
-            scale.setToX(1.0);
-            scale.setToY(1.0);
-            scale.play();
-        });
-        
-        return item;
+            titleLabel.setText(transaction.getTitle());
+            categoryLabel.setText("📂 " + transaction.getCategory());
+            dateLabel.setText("📅 " + transaction.getDate().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")));
+            
+            typeLabel.setText(isIncome ? "📈 Income" : "📉 Expense");
+            
+            String description = transaction.getDescription();
+            boolean hasDescription = description != null && !description.trim().isEmpty();
+            descLabel.setText(hasDescription ? "💬 " + description : "");
+            descLabel.setVisible(hasDescription);
+            
+            amountLabel.setText((isIncome ? "+" : "-") + "$" + String.format("%.2f", transaction.getAmount()));
+            balanceImpact.setText(isIncome ? "Balance +" : "Balance -");
+        }
     }
 
     private String getCategoryIcon(String category) {
@@ -2112,12 +2089,12 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         }
     }
 
-    private Color getInsightColor(AnalyticsService.FinancialInsight.InsightLevel level) {
+    private String getInsightAccentClass(AnalyticsService.FinancialInsight.InsightLevel level) {
         return switch (level) {
-            case SUCCESS -> ACCENT_GREEN;
-            case WARNING -> Color.web("#F59E0B");
-            case ALERT -> ACCENT_PINK;
-            default -> ACCENT_BLUE;
+            case SUCCESS -> "accent-green";
+            case WARNING -> "accent-amber";
+            case ALERT -> "accent-pink";
+            default -> "accent-blue";
         };
     }
 
@@ -2137,29 +2114,9 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         else return "needs attention. Let's work on improving it together.";
     }
 
-    // Color utility methods - removed as we now use ThemeManager
-    // private String toHexString(Color color) {
-    //     return String.format("#%02X%02X%02X",
-    //             (int)(color.getRed() * 255),
-    //             (int)(color.getGreen() * 255),
-    //             (int)(color.getBlue() * 255));
-    // }
-
-    private String toRgbaString(Color color, double alpha) {
-        return String.format("rgba(%.0f, %.0f, %.0f, %.2f)",
-                color.getRed() * 255, color.getGreen() * 255, color.getBlue() * 255, alpha);
-    }
-
-    // Color utility methods - removed as we now use ThemeManager
-    // private Color toRgbaColor(Color color, double alpha) {
-    //     return new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha);
-    // }
-
     // Thêm method để refresh dashboard
     public void refreshDashboard() {
-        Platform.runLater(() -> {
-            loadDashboard();
-        });
+        Platform.runLater(() -> dashboardViewModel.refresh());
     }
 
     public static void refreshDashboardFromOtherPage() {
@@ -2176,24 +2133,24 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
     }
 
     private void updateActiveMenuItem(HBox activeItem) {
-        // Update active menu item styling
-        // This method will be implemented to highlight the active menu item
+        for (Node node : activeItem.getParent().getChildrenUnmodifiable()) {
+            node.getStyleClass().remove("active");
+        }
+        activeItem.getStyleClass().add("active");
     }
 
-    private void loadCardPage() {
-        contentArea.getChildren().clear();
-        
+    private PageRegistry.Page createCardPage() {
         ScrollPane scrollPane = new ScrollPane();
         scrollPane.setFitToWidth(true);
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        scrollPane.getStyleClass().add("transparent-scroll");
         
         try {
             // Create card manager and load page
             CardManager cardManager = new CardManager(dbManager);
             VBox cardContent = cardManager.createCardManagementPage();
             
-            // Apply theme to card content
-            applyThemeToCardContent(cardContent);
+            // Nền và màu chữ mặc định của trang lấy từ stylesheet
+            cardContent.getStyleClass().add("content-area");
             
             scrollPane.setContent(cardContent);
             
@@ -2203,82 +2160,34 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
             scrollPane.setContent(errorContent);
         }
         
-        contentArea.getChildren().add(scrollPane);
-    }
-
-    private void applyThemeToCardContent(VBox cardContent) {
-        // Update background color to match current theme
-        cardContent.setStyle("-fx-background-color: " + ThemeManager.toHexString(currentTheme.getBgPrimary()) + ";");
-        
-        // Apply theme-aware styling to child elements
-        updateCardContentTheme(cardContent);
-    }
-
-    private void updateCardContentTheme(VBox content) {
-        for (javafx.scene.Node node : content.getChildren()) {
-            if (node instanceof VBox) {
-                VBox vbox = (VBox) node;
-                updateCardContentTheme(vbox);
-            } else if (node instanceof HBox) {
-                HBox hbox = (HBox) node;
-                updateHBoxTheme(hbox);
-            } else if (node instanceof Label) {
-                Label label = (Label) node;
-                updateLabelTheme(label);
-            }
-        }
-    }
-
-    private void updateHBoxTheme(HBox hbox) {
-        for (javafx.scene.Node node : hbox.getChildren()) {
-            if (node instanceof Label) {
-                updateLabelTheme((Label) node);
-            } else if (node instanceof VBox) {
-                updateCardContentTheme((VBox) node);
-            }
-        }
-    }
-
-    private void updateLabelTheme(Label label) {
-        // Update label colors based on current style
-        String currentStyle = label.getStyle();
-        if (currentStyle != null && !currentStyle.isEmpty()) {
-            // Update text colors in existing styles
-            if (currentStyle.contains("-fx-text-fill:")) {
-                // Keep existing color logic but ensure visibility
-                return;
-            }
-        }
-        
-        // Default theme-aware text color
-        label.setTextFill(TEXT_PRIMARY);
+        return () -> scrollPane;
     }
 
     private VBox createCardPageError(String errorMessage) {
         VBox errorContent = new VBox(25);
         errorContent.setPadding(new Insets(50));
         errorContent.setAlignment(Pos.CENTER);
-        errorContent.setStyle("-fx-background-color: " + ThemeManager.toHexString(currentTheme.getBgPrimary()) + ";");
+        errorContent.getStyleClass().add("content-area");
         
         Label errorIcon = new Label("💳");
         errorIcon.setFont(Font.font(48));
         
         Label errorTitle = new Label("Card Management Error");
-        errorTitle.setTextFill(currentTheme.getError());
+        errorTitle.getStyleClass().add("text-error");
         errorTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 24));
         
         Label errorDesc = new Label("Failed to load card management: " + errorMessage);
-        errorDesc.setTextFill(TEXT_SECONDARY);
+        errorDesc.getStyleClass().add("text-secondary");
         errorDesc.setFont(Font.font("Segoe UI", 14));
         errorDesc.setWrapText(true);
         errorDesc.setAlignment(Pos.CENTER);
         
         Button retryBtn = new Button("🔄 Try Again");
-        retryBtn.setStyle(createThemedPrimaryButtonStyle());
-        retryBtn.setOnAction(e -> loadCardPage());
+        retryBtn.getStyleClass().add("button-primary");
+        retryBtn.setOnAction(e -> reloadPage("card"));
         
         Button fallbackBtn = new Button("📊 Go to Dashboard");
-        fallbackBtn.setStyle(createThemedSecondaryButtonStyle());
+        fallbackBtn.getStyleClass().add("button-secondary");
         fallbackBtn.setOnAction(e -> loadDashboard());
         
         HBox buttonRow = new HBox(15);
@@ -2307,204 +2216,69 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         parallel.play();
     }
 
-    private LinearGradient getCategoryGradient(String category) {
-        Color color1, color2;
-        
-        switch (category.toLowerCase()) {
-            case "food":
-                color1 = Color.web("#FF6B6B");
-                color2 = Color.web("#FF8E8E");
-                break;
-            case "transportation":
-                color1 = Color.web("#4ECDC4");
-                color2 = Color.web("#6EDDD6");
-                break;
-            case "entertainment":
-                color1 = Color.web("#45B7D1");
-                color2 = Color.web("#67C7DB");
-                break;
-            case "shopping":
-                color1 = Color.web("#96CEB4");
-                color2 = Color.web("#A8D8C4");
-                break;
-            default:
-                color1 = ACCENT_PURPLE;
-                color2 = ACCENT_PINK;
-                break;
-        }
-        
-        return new LinearGradient(0, 0, 1, 1, true, CycleMethod.NO_CYCLE,
-            new Stop(0, color1),
-            new Stop(1, color2)
-        );
+    // Màu nền icon theo category, định nghĩa trong stylesheet; category khác dùng gradient màu nhấn
+    private String getCategoryIconClass(String category) {
+        return switch (category.toLowerCase()) {
+            case "food" -> "category-food";
+            case "transportation" -> "category-transportation";
+            case "entertainment" -> "category-entertainment";
+            case "shopping" -> "category-shopping";
+            default -> "category-other";
+        };
     }
 
-    // Thêm method loadSettingsPage
-    private void loadSettingsPage() {
-        contentArea.getChildren().clear();
-        
+    // Thêm method createSettingsPage
+    private PageRegistry.Page createSettingsPage() {
         ScrollPane scrollPane = new ScrollPane();
         scrollPane.setFitToWidth(true);
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        scrollPane.getStyleClass().add("transparent-scroll");
         
         VBox settingsContent = settingsPage.createSettingsPageContent();
         scrollPane.setContent(settingsContent);
-        contentArea.getChildren().add(scrollPane);
+        return () -> scrollPane;
     }
 
     @Override
     public void onThemeChanged(ThemeManager.Theme newTheme) {
         Platform.runLater(() -> {
-            updateColorsFromTheme();
-            refreshAllUIWithTheme();
+            currentTheme = newTheme;
+            applyTheme();
         });
     }
 
-    private void updateColorsFromTheme() {
-        currentTheme = themeManager.getCurrentTheme();
-        
-        BG_PRIMARY = currentTheme.getBgPrimary();
-        BG_SECONDARY = currentTheme.getBgSecondary();
-        CARD_BG = currentTheme.getCardBg();
-        CARD_HOVER = currentTheme.getCardHover();
-        
-        ACCENT_PURPLE = currentTheme.getAccentPurple();
-        ACCENT_PINK = currentTheme.getAccentPink();
-        ACCENT_BLUE = currentTheme.getAccentBlue();
-        ACCENT_GREEN = currentTheme.getAccentGreen();
-        ACCENT_CYAN = currentTheme.getAccentCyan();
-        
-        TEXT_PRIMARY = currentTheme.getTextPrimary();
-        TEXT_SECONDARY = currentTheme.getTextSecondary();
-        TEXT_MUTED = currentTheme.getTextMuted();
-    }
-
-    private void refreshAllUIWithTheme() {
-        // Update UI with new theme
-        if (mainRoot != null) {
-            updateMainRootStyle();
-            updateContentAreaStyle();
-            
-            // Update sidebar
-            VBox sidebar = (VBox) mainRoot.getLeft();
-            if (sidebar != null) {
-                updateSidebarTheme(sidebar);
-            }
-            
-            // Refresh current page
-            refreshCurrentPage();
-            
-            // Update theme toggle button
-            updateThemeToggleButton();
-        }
-    }
-
-    private void updateMainRootStyle() {
-        if (mainRoot != null) {
-            mainRoot.setStyle("-fx-background-color: " + ThemeManager.toHexString(BG_PRIMARY) + ";");
-        }
-    }
-
-    private void updateContentAreaStyle() {
-        if (contentArea != null) {
-            contentArea.setStyle("-fx-background-color: " + ThemeManager.toHexString(BG_PRIMARY) + ";");
-        }
-    }
-
-    private void updateSidebarTheme(VBox sidebar) {
-        // Update sidebar background
-        sidebar.setStyle(
-            "-fx-background-color: " + ThemeManager.toHexString(BG_SECONDARY) + ";" +
-            "-fx-padding: 25;" +
-            "-fx-effect: dropshadow(gaussian, " + ThemeManager.toRgbaString(currentTheme.getShadowColor(), 0.3) + ", 20, 0, 5, 0);"
-        );
-        
-        // Update menu items
-        if (sidebar.getChildren().size() > 1) {
-            VBox navItems = (VBox) sidebar.getChildren().get(1);
-            for (javafx.scene.Node node : navItems.getChildren()) {
-                if (node instanceof HBox) {
-                    HBox menuItem = (HBox) node;
-                    updateMenuItemTheme(menuItem);
-                }
-            }
-        }
-    }
-
-    private void updateMenuItemTheme(HBox menuItem) {
-        // Check if this is the active menu item
-        boolean isActive = menuItem.getStyle().contains("linear-gradient");
-        
-        if (isActive) {
-            menuItem.setStyle(
-                "-fx-background-color: linear-gradient(to right, " + 
-                ThemeManager.toHexString(ACCENT_PURPLE) + ", " + 
-                ThemeManager.toHexString(ACCENT_PINK) + ");" +
-                "-fx-background-radius: 12;"
-            );
-        } else {
-            // Update hover effects
-            menuItem.setOnMouseEntered(e -> {
-                menuItem.setStyle("-fx-background-color: " + ThemeManager.toHexString(CARD_BG) + "; -fx-background-radius: 12;");
-                if (menuItem.getChildren().size() > 1) {
-                    Label textLabel = (Label) menuItem.getChildren().get(1);
-                    textLabel.setTextFill(TEXT_PRIMARY);
-                }
-            });
-            
-            menuItem.setOnMouseExited(e -> {
-                menuItem.setStyle("-fx-background-color: transparent;");
-                if (menuItem.getChildren().size() > 1) {
-                    Label textLabel = (Label) menuItem.getChildren().get(1);
-                    textLabel.setTextFill(TEXT_SECONDARY);
-                }
-            });
-        }
-        
-        // Update text color
-        if (menuItem.getChildren().size() > 1) {
-            Label textLabel = (Label) menuItem.getChildren().get(1);
-            textLabel.setTextFill(isActive ? TEXT_PRIMARY : TEXT_SECONDARY);
-        }
-    }
-
-    private void refreshCurrentPage() {
-        // Re-load current page to apply new theme
-        // This is a simplified approach - ideally each page would have its own theme update method
-        loadDashboard();
-    }
-
-    private void updateSceneTheme(Scene scene) {
-        // Apply theme-specific CSS classes
-        if (currentTheme instanceof ThemeManager.DarkTheme) {
-            scene.getRoot().getStyleClass().add("dark-theme");
-            scene.getRoot().getStyleClass().remove("light-theme");
-        } else {
-            scene.getRoot().getStyleClass().add("light-theme");
-            scene.getRoot().getStyleClass().remove("dark-theme");
+    /**
+     * Mọi trang lấy màu từ looked-up color trong stylesheet nên đổi theme chỉ là đổi style class trên root,
+     * không duyệt cây node hay dựng lại trang. Canvas tự vẽ lại qua ThemeManager.themeProperty()
+     */
+    private void applyTheme() {
+        if (mainRoot == null) {
+            return;
         }
+        ThemeManager.applyThemeClass(mainRoot, currentTheme);
+        updateThemeToggleButton();
     }
 
     private void setupAutoBackup(Stage primaryStage) {
         try {
             BackupManager backupManager = new BackupManager(dbManager, primaryStage);
-            backupManager.setupAutoBackup();
+            backupScheduler = backupManager.setupAutoBackup();
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Failed to setup auto backup", e);
         }
     }
 
-    private Color getRiskColor(String riskLevel) {
+    private String getRiskAccentClass(String riskLevel) {
         return switch (riskLevel.toLowerCase()) {
-            case "low" -> ACCENT_GREEN;
-            case "medium" -> ACCENT_PINK;
-            case "high" -> ACCENT_PURPLE;
-            default -> TEXT_MUTED;
+            case "low" -> "accent-green";
+            case "medium" -> "accent-pink";
+            case "high" -> "accent-purple";
+            default -> "accent-muted";
         };
     }
 
     // Thêm class này ở cuối file, trước dấu đóng ngoặc cuối
-    private static class TransactionItem {
+    private static class TransactionItem implements LedgerRecord {
+        private int id;
         private String title;
         private double amount;
         private LocalDate date;
@@ -2512,9 +2286,11 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         private String category;
         private String description;
         private LocalDateTime createdAt;
+        private String searchText;
         
-        public TransactionItem(String title, double amount, LocalDate date, boolean isIncome, 
-                              String category, String description, LocalDateTime createdAt) {
+        public TransactionItem(int id, String title, double amount, LocalDate date, boolean isIncome, 
+                              String category, String description, LocalDateTime createdAt, String searchText) {
+            this.id = id;
             this.title = title;
             this.amount = amount;
             this.date = date;
@@ -2522,6 +2298,7 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
             this.category = category;
             this.description = description;
             this.createdAt = createdAt;
+            this.searchText = searchText;
         }
         
         // Getters
@@ -2532,173 +2309,163 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         public String getCategory() { return category; }
         public String getDescription() { return description; }
         public LocalDateTime getCreatedAt() { return createdAt; }
-    }
 
-    private String createEnhancedTextFieldStyle() {
-        return "-fx-background-color: " + ThemeManager.toHexString(BG_SECONDARY) + ";" +
-               "-fx-text-fill: " + ThemeManager.toHexString(TEXT_PRIMARY) + ";" +
-               "-fx-border-color: " + ThemeManager.toRgbaString(ACCENT_PURPLE, 0.3) + ";" +
-               "-fx-border-radius: 6px;" +
-               "-fx-background-radius: 6px;" +
-               "-fx-padding: 8 12 8 12;";
-    }
+        @Override
+        public int getId() { return id; }
 
-    private void styleFilterLabels(VBox container) {
-        container.getChildren().forEach(node -> {
-            if (node instanceof HBox) {
-                ((HBox) node).getChildren().forEach(child -> {
-                    if (child instanceof Label) {
-                        ((Label) child).setTextFill(TEXT_SECONDARY);
-                        ((Label) child).setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 12));
-                    }
-                    if (child instanceof ComboBox || child instanceof TextField) {
-                        child.setStyle(
-                            "-fx-background-color: " + ThemeManager.toHexString(BG_SECONDARY) + ";" +
-                            "-fx-text-fill: " + ThemeManager.toHexString(TEXT_PRIMARY) + ";" +
-                            "-fx-border-color: " + ThemeManager.toRgbaString(ACCENT_PURPLE, 0.3) + ";" +
-                            "-fx-border-radius: 6px;" +
-                            "-fx-background-radius: 6px;"
-                        );
-                    }
-                });
-            }
-        });
+        @Override
+        public LedgerType getLedgerType() { return isIncome ? LedgerType.INCOME : LedgerType.OUTCOME; }
+
+        // Lấy từ record gốc (đã fold khi ghi vào database)
+        @Override
+        public String getSearchText() { return searchText; }
     }
 
-    // Thêm method tìm kiếm realtime
+    // Tìm kiếm realtime
     private void filterTransactionsBySearch(String searchText) {
-        if (searchText == null || searchText.trim().isEmpty()) {
-            loadAllTransactions(); // Load lại tất cả
-            return;
-        }
-        
-        // Apply search filter
-        applyAllTransactionFilters("All Transactions", "All Time", "All Categories", 
+        applyAllTransactionFilters("All Transactions", FilterManager.ALL_TIME, "All Categories",
                                   "", "", "Date (Newest First)", searchText);
     }
 
-    // Thêm method áp dụng tất cả filter
+    /**
+     * Áp dụng tất cả filter ở background: Filter dùng chung và điều kiện có cấu trúc của search chạy trong
+     * database, text tự do chạy trong một lượt trên kết quả. Sắp xếp là duyệt hoán vị của RecordSortIndex,
+     * nên đổi kiểu sắp xếp với cùng bộ lọc chỉ duyệt lại kết quả đã có
+     */
     private void applyAllTransactionFilters(String type, String dateRange, String category,
                                            String minAmount, String maxAmount, String sort, String search) {
-        
-        List<TransactionItem> allTransactions = getAllTransactions();
-        List<TransactionItem> filteredTransactions = new ArrayList<>(allTransactions);
-        
-        // 1. Text search filter
-        if (search != null && !search.trim().isEmpty()) {
-            filteredTransactions = filteredTransactions.stream()
-                .filter(t -> matchesTransactionSearch(t, search.toLowerCase()))
-                .collect(Collectors.toList());
+        FilterManager.Filter filter = FilterManager.period(dateRange, LocalDate.now())
+            .and(parseTransactionAmountFilter(minAmount, maxAmount));
+        if ("Income Only".equals(type)) {
+            filter = filter.and(FilterManager.ledger(LedgerType.INCOME));
+        } else if ("Expenses Only".equals(type)) {
+            filter = filter.and(FilterManager.ledger(LedgerType.OUTCOME));
         }
-        
-        // 2. Type filter
-        if (!"All Transactions".equals(type)) {
-            boolean showIncome = "Income Only".equals(type);
-            filteredTransactions = filteredTransactions.stream()
-                .filter(t -> t.isIncome() == showIncome)
-                .collect(Collectors.toList());
+        if (category != null && !"All Categories".equals(category)) {
+            filter = filter.and(FilterManager.category(category));
         }
-        
-        // 3. Category filter
-        if (!"All Categories".equals(category)) {
-            filteredTransactions = filteredTransactions.stream()
-                .filter(t -> t.getCategory().equals(category))
-                .collect(Collectors.toList());
+        FilterManager.Filter transactionFilter = filter;
+        SearchQuery query = SearchQuery.parse(search);
+        // Generation của sổ cái nằm trong key để mọi lần ghi đều làm kết quả cũ hết hiệu lực
+        String resultKey = dbManager.getEventBus().getGeneration() + "|" + transactionFilter.getKey() + "|" + search;
+        int requestGeneration = ++transactionFilterGeneration;
+
+        Task<List<TransactionItem>> filterTask = new Task<List<TransactionItem>>() {
+            @Override
+            protected List<TransactionItem> call() {
+                TransactionResult cached = lastTransactionResult;
+                if (cached == null || !cached.key.equals(resultKey)) {
+                    TransactionSearch textSearch = new TransactionSearch(query.getFreeText());
+                    List<TransactionItem> filtered = transactionFilter.apply(
+                        loadTransactions(query, transactionFilter), textSearch::matches);
+                    cached = new TransactionResult(resultKey,
+                        new RecordSortIndex<>(filtered, TransactionItem::getTitle));
+                    lastTransactionResult = cached;
+                }
+                return cached.sortIndex.walk(transactionSortKey(sort), isDescendingTransactionSort(sort),
+                    transaction -> true);
+            }
+
+            @Override
+            protected void succeeded() {
+                // Bỏ kết quả của truy vấn cũ nếu người dùng đã gõ tiếp
+                if (requestGeneration == transactionFilterGeneration) {
+                    updateTransactionDisplay(getValue());
+                }
+            }
+
+            @Override
+            protected void failed() {
+                logger.log(Level.SEVERE, "Failed to filter transactions", getException());
+            }
+        };
+
+        try {
+            TaskScheduler.getInstance().execute(TaskScheduler.Pool.IO, "transaction-filter", filterTask);
+        } catch (RejectedExecutionException e) {
+            logger.log(Level.WARNING, "Transaction filter was rejected", e);
         }
-        
-        // 4. Amount filter
-        filteredTransactions = applyTransactionAmountFilter(filteredTransactions, minAmount, maxAmount);
-        
-        // 5. Date filter
-        filteredTransactions = applyTransactionDateFilter(filteredTransactions, dateRange);
-        
-        // 6. Sort
-        filteredTransactions = applyTransactionSort(filteredTransactions, sort);
-        
-        // Update UI
-        updateTransactionDisplay(filteredTransactions);
     }
 
-    private boolean matchesTransactionSearch(TransactionItem transaction, String search) {
-        // Tìm kiếm trong tất cả field
-        String[] searchTerms = search.split("\\s+");
-        
-        for (String term : searchTerms) {
-            boolean found = false;
-            
-            // Tìm trong title
-            if (transaction.getTitle() != null && 
-                transaction.getTitle().toLowerCase().contains(term)) {
-                found = true;
+    /**
+     * Text tự do của ô tìm kiếm: mọi từ phải xuất hiện trong title, danh mục, ghi chú, ngày, hoặc bằng số tiền.
+     * Chỉ fold và parse số cho truy vấn, một lần; giao dịch so với text tìm kiếm đã fold sẵn trong database.
+     */
+    private static final class TransactionSearch {
+        private final String[] terms;
+        private final Double[] amounts;
+
+        TransactionSearch(String text) {
+            String trimmed = text.trim();
+            terms = trimmed.isEmpty() ? new String[0] : SearchText.fold(trimmed).split("\\s+");
+            amounts = new Double[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                amounts[i] = parseAmountTerm(terms[i]);
             }
-            
-            // Tìm trong category
-            if (transaction.getCategory() != null && 
-                transaction.getCategory().toLowerCase().contains(term)) {
-                found = true;
+        }
+
+        boolean matches(TransactionItem transaction) {
+            String text = transaction.getSearchText();
+            for (int i = 0; i < terms.length; i++) {
+                String term = terms[i];
+                boolean found = text.contains(term)
+                    || (amounts[i] != null && Math.abs(transaction.getAmount() - amounts[i]) < 0.01);
+                if (!found) {
+                    return false; // Phải tìm thấy tất cả term
+                }
             }
-            
-            // Tìm trong description
-            if (transaction.getDescription() != null && 
-                transaction.getDescription().toLowerCase().contains(term)) {
-                found = true;
+            return true;
+        }
+
+        private static Double parseAmountTerm(String term) {
+            if (!Character.isDigit(term.charAt(term.length() - 1))) {
+                return null;
             }
-            
-            // Tìm theo amount
             try {
-                double searchAmount = Double.parseDouble(term);
-                if (Math.abs(transaction.getAmount() - searchAmount) < 0.01) {
-                    found = true;
-                }
+                return Double.parseDouble(term);
             } catch (NumberFormatException e) {
-                // Không phải số
-            }
-            
-            // Tìm theo date
-            if (transaction.getDate().toString().toLowerCase().contains(term)) {
-                found = true;
-            }
-            
-            if (!found) {
-                return false; // Phải tìm thấy tất cả term
+                return null;
             }
         }
-        
-        return true;
     }
 
-    private List<TransactionItem> getAllTransactions() {
-        List<TransactionItem> allTransactions = new ArrayList<>();
-        
-        // Load Income
-        List<IncomeRecord> incomes = dbManager.getIncomeRecords(200); // Tăng limit
-        for (IncomeRecord income : incomes) {
-            allTransactions.add(new TransactionItem(
-                income.getSource(),
-                income.getAmount(),
-                income.getDate(),
-                true,
-                income.getCategory(),
-                income.getDescription(),
-                income.getCreatedAt()
-            ));
+    // Chỉ đọc bảng mà filter có thể khớp; chạy ở background
+    private List<TransactionItem> loadTransactions(SearchQuery query, FilterManager.Filter filter) {
+        List<TransactionItem> transactions = new ArrayList<>();
+
+        if (filter.includes(LedgerType.INCOME)) {
+            for (IncomeRecord income : dbManager.searchIncomeRecords(query, filter, TRANSACTION_LOAD_LIMIT)) {
+                transactions.add(new TransactionItem(
+                    income.getId(),
+                    income.getSource(),
+                    income.getAmount(),
+                    income.getDate(),
+                    true,
+                    income.getCategory(),
+                    income.getDescription(),
+                    income.getCreatedAt(),
+                    income.getSearchText()
+                ));
+            }
         }
-        
-        // Load Outcome
-        List<OutcomeRecord> outcomes = dbManager.getOutcomeRecords(200); // Tăng limit
-        for (OutcomeRecord outcome : outcomes) {
-            allTransactions.add(new TransactionItem(
-                outcome.getTitle(),
-                outcome.getAmount(),
-                outcome.getDate(),
-                false,
-                outcome.getCategory(),
-                outcome.getDescription(),
-                outcome.getCreatedAt()
-            ));
+
+        if (filter.includes(LedgerType.OUTCOME)) {
+            for (OutcomeRecord outcome : dbManager.searchOutcomeRecords(query, filter, TRANSACTION_LOAD_LIMIT)) {
+                transactions.add(new TransactionItem(
+                    outcome.getId(),
+                    outcome.getTitle(),
+                    outcome.getAmount(),
+                    outcome.getDate(),
+                    false,
+                    outcome.getCategory(),
+                    outcome.getDescription(),
+                    outcome.getCreatedAt(),
+                    outcome.getSearchText()
+                ));
+            }
         }
-        
-        return allTransactions;
+
+        return transactions;
     }
 
     private void clearAllTransactionFilters(ComboBox<String> typeFilter, ComboBox<String> dateFilter,
@@ -2716,93 +2483,58 @@ public class ModernCashflowApp extends Application implements ThemeManager.Theme
         loadAllTransactions();
     }
 
-    private List<TransactionItem> applyTransactionAmountFilter(List<TransactionItem> transactions, String minAmount, String maxAmount) {
+    // Giống logic cũ: giá trị không hợp lệ thì bỏ qua khoảng số tiền
+    private static FilterManager.Filter parseTransactionAmountFilter(String minAmount, String maxAmount) {
         try {
             double min = minAmount.isEmpty() ? 0 : Double.parseDouble(minAmount);
             double max = maxAmount.isEmpty() ? Double.MAX_VALUE : Double.parseDouble(maxAmount);
-            
-            return transactions.stream()
-                .filter(t -> t.getAmount() >= min && t.getAmount() <= max)
-                .collect(Collectors.toList());
+            return FilterManager.amountBetween(min, max);
         } catch (NumberFormatException e) {
-            return transactions;
+            return FilterManager.Filter.ALL;
         }
     }
 
-    private List<TransactionItem> applyTransactionDateFilter(List<TransactionItem> transactions, String dateRange) {
-        LocalDate now = LocalDate.now();
-        
-        return transactions.stream().filter(t -> {
-            switch (dateRange) {
-                case "Today":
-                    return t.getDate().equals(now);
-                case "This Week":
-                    LocalDate weekStart = now.minusDays(now.getDayOfWeek().getValue() - 1);
-                    LocalDate weekEnd = weekStart.plusDays(6);
-                    return !t.getDate().isBefore(weekStart) && !t.getDate().isAfter(weekEnd);
-                case "This Month":
-                    return t.getDate().getYear() == now.getYear() && 
-                           t.getDate().getMonth() == now.getMonth();
-                case "This Year":
-                    return t.getDate().getYear() == now.getYear();
-                case "Last 30 Days":
-                    return t.getDate().isAfter(now.minusDays(30));
-                case "Last 90 Days":
-                    return t.getDate().isAfter(now.minusDays(90));
-                default: // "All Time"
-                    return true;
-            }
-        }).collect(Collectors.toList());
-    }
-
-    private List<TransactionItem> applyTransactionSort(List<TransactionItem> transactions, String sort) {
-        return transactions.stream().sorted((t1, t2) -> {
-            switch (sort) {
-                case "Date (Oldest First)":
-                    return t1.getDate().compareTo(t2.getDate());
-                case "Amount (Highest First)":
-                    return Double.compare(t2.getAmount(), t1.getAmount());
-                case "Amount (Lowest First)":
-                    return Double.compare(t1.getAmount(), t2.getAmount());
-                case "Title (A-Z)":
-                    return t1.getTitle().compareToIgnoreCase(t2.getTitle());
-                case "Title (Z-A)":
-                    return t2.getTitle().compareToIgnoreCase(t1.getTitle());
-                case "Category (A-Z)":
-                    return t1.getCategory().compareToIgnoreCase(t2.getCategory());
-                default: // "Date (Newest First)"
-                    return t2.getDate().compareTo(t1.getDate());
-            }
-        }).collect(Collectors.toList());
+    private static RecordSortIndex.SortKey transactionSortKey(String sort) {
+        switch (sort) {
+            case "Amount (Highest First)":
+            case "Amount (Lowest First)":
+                return RecordSortIndex.SortKey.AMOUNT;
+            case "Title (A-Z)":
+            case "Title (Z-A)":
+                return RecordSortIndex.SortKey.TITLE;
+            case "Category (A-Z)":
+                return RecordSortIndex.SortKey.CATEGORY;
+            default: // "Date (Newest First)", "Date (Oldest First)"
+                return RecordSortIndex.SortKey.DATE;
+        }
+    }
+
+    private static boolean isDescendingTransactionSort(String sort) {
+        return sort.equals("Date (Newest First)") || sort.equals("Amount (Highest First)") || sort.equals("Title (Z-A)");
+    }
+
+    private static final class TransactionResult {
+        private final String key;
+        private final RecordSortIndex<TransactionItem> sortIndex;
+
+        TransactionResult(String key, RecordSortIndex<TransactionItem> sortIndex) {
+            this.key = key;
+            this.sortIndex = sortIndex;
+        }
     }
 
     private void loadAllTransactions() {
-        // Implementation để load và hiển thị tất cả transactions
-        List<TransactionItem> allTransactions = getAllTransactions();
-        
-        // Sort theo ngày gần nhất
-        allTransactions.sort((t1, t2) -> t2.getDate().compareTo(t1.getDate()));
-        
-        updateTransactionDisplay(allTransactions);
+        applyAllTransactionFilters("All Transactions", FilterManager.ALL_TIME, "All Categories",
+                                  "", "", "Date (Newest First)", "");
     }
 
     private void updateTransactionDisplay(List<TransactionItem> transactions) {
         Platform.runLater(() -> {
-            VBox container = (VBox) contentArea.lookup("#transactionItemsContainer");
+            @SuppressWarnings("unchecked")
+            RecordListView<TransactionItem> container =
+                (RecordListView<TransactionItem>) contentArea.lookup("#transactionItemsContainer");
             if (container != null) {
-                container.getChildren().clear();
-                
-                for (TransactionItem transaction : transactions) {
-                    HBox item = createEnhancedTransactionItem(
-                        transaction.getTitle(),
-                        transaction.getAmount(),
-                        transaction.getDate(),
-                        transaction.isIncome(),
-                        transaction.getCategory(),
-                        transaction.getDescription()
-                    );
-                    container.getChildren().add(item);
-                }
+                container.setRecords(transactions);
                 
                 // Update summary
                 updateTransactionSummary(transactions.size());
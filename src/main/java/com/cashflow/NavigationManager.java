@@ -1,5 +1,6 @@
 package com.cashflow;
 
+import javafx.scene.Node;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.layout.HBox;
@@ -201,11 +202,9 @@ public class NavigationManager {
         title.setFont(Font.font("System", FontWeight.BOLD, 24));
         
         // Get income records from database
-        VBox recordsList = new VBox(10);
-        for (IncomeRecord record : dbManager.getIncomeRecords()) {
-            HBox recordItem = createIncomeRecordItem(record);
-            recordsList.getChildren().add(recordItem);
-        }
+        RecordListView<IncomeRecord> recordsList = new RecordListView<>(IncomeRecordRow::new, 10);
+        recordsList.setPrefHeight(500);
+        recordsList.setRecords(dbManager.getIncomeRecords());
         
         incomeContent.getChildren().addAll(title, recordsList);
         mainContent.getChildren().addAll(header, incomeContent);
@@ -230,11 +229,9 @@ public class NavigationManager {
         title.setFont(Font.font("System", FontWeight.BOLD, 24));
         
         // Get outcome records from database
-        VBox recordsList = new VBox(10);
-        for (OutcomeRecord record : dbManager.getOutcomeRecords()) {
-            HBox recordItem = createOutcomeRecordItem(record);
-            recordsList.getChildren().add(recordItem);
-        }
+        RecordListView<OutcomeRecord> recordsList = new RecordListView<>(OutcomeRecordRow::new, 10);
+        recordsList.setPrefHeight(500);
+        recordsList.setRecords(dbManager.getOutcomeRecords());
         
         outcomeContent.getChildren().addAll(title, recordsList);
         mainContent.getChildren().addAll(header, outcomeContent);
@@ -351,74 +348,104 @@ public class NavigationManager {
         return header;
     }
 
-    private HBox createIncomeRecordItem(IncomeRecord record) {
-        HBox item = new HBox(15);
-        item.setAlignment(Pos.CENTER_LEFT);
-        item.setPadding(new Insets(12, 15, 12, 15));
-        item.setStyle("-fx-background-color: rgba(255, 255, 255, 0.05); -fx-background-radius: 10px;");
+    // Dòng record dựng một lần, chỉ gắn lại dữ liệu khi RecordListView tái sử dụng cell
+    private static class IncomeRecordRow implements RecordListView.RecordRow<IncomeRecord> {
+        private final HBox item = new HBox(15);
+        private final Label sourceLabel = new Label();
+        private final Label dateLabel = new Label();
+        private final Label amountLabel = new Label();
 
-        Circle iconBg = new Circle(20);
-        iconBg.setFill(Color.web("#4ECDC4"));
-        
-        Label iconLabel = new Label("💰");
-        iconLabel.setFont(Font.font(14));
-        iconLabel.setTextFill(Color.WHITE);
-        
-        VBox details = new VBox(3);
-        Label sourceLabel = new Label(record.getSource());
-        sourceLabel.setTextFill(Color.WHITE);
-        sourceLabel.setFont(Font.font("System", FontWeight.NORMAL, 13));
-        
-        Label dateLabel = new Label(record.getDate().toString());
-        dateLabel.setTextFill(Color.web("#8892b0"));
-        dateLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
-        
-        details.getChildren().addAll(sourceLabel, dateLabel);
+        IncomeRecordRow() {
+            item.setAlignment(Pos.CENTER_LEFT);
+            item.setPadding(new Insets(12, 15, 12, 15));
+            item.setStyle("-fx-background-color: rgba(255, 255, 255, 0.05); -fx-background-radius: 10px;");
 
-        Region spacer = new Region();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
+            Circle iconBg = new Circle(20);
+            iconBg.setFill(Color.web("#4ECDC4"));
+
+            Label iconLabel = new Label("💰");
+            iconLabel.setFont(Font.font(14));
+            iconLabel.setTextFill(Color.WHITE);
 
-        Label amountLabel = new Label("$" + String.format("%.0f", record.getAmount()));
-        amountLabel.setTextFill(Color.web("#4ECDC4"));
-        amountLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
+            VBox details = new VBox(3);
+            sourceLabel.setTextFill(Color.WHITE);
+            sourceLabel.setFont(Font.font("System", FontWeight.NORMAL, 13));
+
+            dateLabel.setTextFill(Color.web("#8892b0"));
+            dateLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
+
+            details.getChildren().addAll(sourceLabel, dateLabel);
+
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+
+            amountLabel.setTextFill(Color.web("#4ECDC4"));
+            amountLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
+
+            item.getChildren().addAll(iconBg, iconLabel, details, spacer, amountLabel);
+        }
+
+        @Override
+        public Node getNode() {
+            return item;
+        }
 
-        item.getChildren().addAll(iconBg, iconLabel, details, spacer, amountLabel);
-        return item;
+        @Override
+        public void bind(IncomeRecord record) {
+            sourceLabel.setText(record.getSource());
+            dateLabel.setText(record.getDate().toString());
+            amountLabel.setText("$" + String.format("%.0f", record.getAmount()));
+        }
     }
 
-    private HBox createOutcomeRecordItem(OutcomeRecord record) {
-        HBox item = new HBox(15);
-        item.setAlignment(Pos.CENTER_LEFT);
-        item.setPadding(new Insets(12, 15, 12, 15));
-        item.setStyle("-fx-background-color: rgba(255, 255, 255, 0.05); -fx-background-radius: 10px;");
+    // Dòng record dựng một lần, chỉ gắn lại dữ liệu khi RecordListView tái sử dụng cell
+    private static class OutcomeRecordRow implements RecordListView.RecordRow<OutcomeRecord> {
+        private final HBox item = new HBox(15);
+        private final Label titleLabel = new Label();
+        private final Label dateLabel = new Label();
+        private final Label amountLabel = new Label();
 
-        Circle iconBg = new Circle(20);
-        iconBg.setFill(Color.web("#FF6B6B"));
-        
-        Label iconLabel = new Label("📤");
-        iconLabel.setFont(Font.font(14));
-        iconLabel.setTextFill(Color.WHITE);
-        
-        VBox details = new VBox(3);
-        Label titleLabel = new Label(record.getTitle());
-        titleLabel.setTextFill(Color.WHITE);
-        titleLabel.setFont(Font.font("System", FontWeight.NORMAL, 13));
-        
-        Label dateLabel = new Label(record.getDate().toString());
-        dateLabel.setTextFill(Color.web("#8892b0"));
-        dateLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
-        
-        details.getChildren().addAll(titleLabel, dateLabel);
+        OutcomeRecordRow() {
+            item.setAlignment(Pos.CENTER_LEFT);
+            item.setPadding(new Insets(12, 15, 12, 15));
+            item.setStyle("-fx-background-color: rgba(255, 255, 255, 0.05); -fx-background-radius: 10px;");
 
-        Region spacer = new Region();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
+            Circle iconBg = new Circle(20);
+            iconBg.setFill(Color.web("#FF6B6B"));
+
+            Label iconLabel = new Label("📤");
+            iconLabel.setFont(Font.font(14));
+            iconLabel.setTextFill(Color.WHITE);
+
+            VBox details = new VBox(3);
+            titleLabel.setTextFill(Color.WHITE);
+            titleLabel.setFont(Font.font("System", FontWeight.NORMAL, 13));
 
-        Label amountLabel = new Label("-$" + String.format("%.0f", record.getAmount()));
-        amountLabel.setTextFill(Color.web("#FF6B6B"));
-        amountLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
+            dateLabel.setTextFill(Color.web("#8892b0"));
+            dateLabel.setFont(Font.font("System", FontWeight.NORMAL, 11));
 
-        item.getChildren().addAll(iconBg, iconLabel, details, spacer, amountLabel);
-        return item;
+            details.getChildren().addAll(titleLabel, dateLabel);
+
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+
+            amountLabel.setTextFill(Color.web("#FF6B6B"));
+            amountLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
+
+            item.getChildren().addAll(iconBg, iconLabel, details, spacer, amountLabel);
+        }
+
+        @Override
+        public Node getNode() {
+            return item;
+        }
+
+        @Override
+        public void bind(OutcomeRecord record) {
+            titleLabel.setText(record.getTitle());
+            dateLabel.setText(record.getDate().toString());
+            amountLabel.setText("-$" + String.format("%.0f", record.getAmount()));
+        }
     }
 
     // These methods need to be implemented to match the CashflowApp interface
@@ -4,7 +4,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 // Enhanced Outcome Record Model
-public class OutcomeRecord {
+public class OutcomeRecord implements LedgerRecord {
     private int id;
     private double amount;
     private String title;
@@ -13,6 +13,8 @@ public class OutcomeRecord {
     private String description;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Text tìm kiếm đã fold, đọc từ các cột search_* hoặc tính lại khi field text thay đổi
+    private String searchText;
     private String paymentMethod;
     private boolean isRecurring;
 
@@ -40,6 +42,9 @@ public class OutcomeRecord {
         this.isRecurring = isRecurring;
     }
 
+    @Override
+    public LedgerType getLedgerType() { return LedgerType.OUTCOME; }
+
     // Getters and Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
@@ -53,27 +58,43 @@ public class OutcomeRecord {
     public String getTitle() { return title; }
     public void setTitle(String title) { 
         this.title = title; 
+        this.searchText = null;
         this.updatedAt = LocalDateTime.now();
     }
     
     public String getCategory() { return category; }
     public void setCategory(String category) { 
         this.category = category; 
+        this.searchText = null;
         this.updatedAt = LocalDateTime.now();
     }
     
     public LocalDate getDate() { return date; }
     public void setDate(LocalDate date) { 
         this.date = date; 
+        this.searchText = null;
         this.updatedAt = LocalDateTime.now();
     }
     
     public String getDescription() { return description; }
     public void setDescription(String description) { 
         this.description = description; 
+        this.searchText = null;
         this.updatedAt = LocalDateTime.now();
     }
     
+    @Override
+    public String getSearchText() {
+        if (searchText == null) {
+            searchText = SearchText.join(SearchText.fold(title), SearchText.fold(category),
+                SearchText.fold(description), SearchText.fold(paymentMethod), date != null ? date.toString() : null);
+        }
+        return searchText;
+    }
+
+    // Dùng text đã tính sẵn trong database thay vì fold lại
+    void setSearchText(String searchText) { this.searchText = searchText; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
@@ -83,6 +104,7 @@ public class OutcomeRecord {
     public String getPaymentMethod() { return paymentMethod; }
     public void setPaymentMethod(String paymentMethod) { 
         this.paymentMethod = paymentMethod; 
+        this.searchText = null;
         this.updatedAt = LocalDateTime.now();
     }
     
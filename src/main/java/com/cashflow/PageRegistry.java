@@ -0,0 +1,230 @@
+package com.cashflow;
+
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.ScrollPane;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Giữ các trang đã dựng trong bộ nhớ để chuyển tab không phải đọc lại database và dựng lại node.
+ *
+ * Trang được bỏ theo LRU khi vượt số trang tối đa hoặc vượt ngân sách bộ nhớ (ước lượng theo số node).
+ * Khi quay lại một trang, trang chỉ được làm mới nếu generation dữ liệu của nó đã đổi kể từ lúc bị ẩn.
+ * Mọi method phải gọi trên FX thread.
+ */
+public class PageRegistry {
+    private static final Logger logger = Logger.getLogger(PageRegistry.class.getName());
+    // Ước lượng thô cho một node JavaFX kèm skin, style và listener
+    private static final long BYTES_PER_NODE = 2 * 1024;
+    // Heap dùng quá ngưỡng này thì chỉ giữ lại trang đang hiển thị
+    private static final double HEAP_PRESSURE_RATIO = 0.85;
+
+    public interface Page {
+        Node getView();
+
+        /**
+         * Cập nhật trang sau khi dữ liệu đổi trong lúc trang bị ẩn.
+         * Trả về false nếu trang không tự cập nhật được và cần dựng lại từ đầu.
+         */
+        default boolean refresh() {
+            return false;
+        }
+
+        // Giải phóng tài nguyên khi trang bị bỏ khỏi cache
+        default void dispose() {
+        }
+    }
+
+    private static class PageType {
+        private final Supplier<? extends Page> factory;
+        private final LongSupplier dataGeneration;
+
+        PageType(Supplier<? extends Page> factory, LongSupplier dataGeneration) {
+            this.factory = factory;
+            this.dataGeneration = dataGeneration;
+        }
+    }
+
+    private static class CachedPage {
+        private final Page page;
+        private long generation;
+        private long estimatedBytes;
+
+        CachedPage(Page page, long generation) {
+            this.page = page;
+            this.generation = generation;
+        }
+    }
+
+    private final int maxPages;
+    private final long memoryBudgetBytes;
+    private final Map<String, PageType> types = new HashMap<>();
+    // accessOrder = true: phần tử đầu là trang lâu nhất chưa dùng
+    private final LinkedHashMap<String, CachedPage> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private String currentId;
+
+    public PageRegistry(int maxPages, long memoryBudgetBytes) {
+        this.maxPages = Math.max(1, maxPages);
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    /**
+     * @param dataGeneration generation của dữ liệu trang hiển thị (vd. LedgerEventBus.getGeneration)
+     */
+    public void register(String id, Supplier<? extends Page> factory, LongSupplier dataGeneration) {
+        types.put(id, new PageType(factory, dataGeneration));
+    }
+
+    public boolean isRegistered(String id) {
+        return types.containsKey(id);
+    }
+
+    /**
+     * Trả về view của trang, dựng mới nếu chưa có trong cache hoặc làm mới nếu dữ liệu đã đổi
+     */
+    public Node show(String id) {
+        PageType type = types.get(id);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown page: " + id);
+        }
+        leaveCurrent();
+
+        CachedPage cached = pages.get(id);
+        if (cached != null) {
+            long generation = type.dataGeneration.getAsLong();
+            if (cached.generation != generation) {
+                if (cached.page.refresh()) {
+                    cached.generation = generation;
+                } else {
+                    remove(id);
+                    cached = null;
+                }
+            }
+        }
+        if (cached == null) {
+            cached = new CachedPage(type.factory.get(), type.dataGeneration.getAsLong());
+            cached.estimatedBytes = estimateBytes(cached.page.getView());
+            pages.put(id, cached);
+        }
+
+        currentId = id;
+        evictIfNeeded();
+        return cached.page.getView();
+    }
+
+    /**
+     * Gọi khi chuyển sang nội dung không do registry quản lý (vd. dashboard)
+     */
+    public void hideCurrent() {
+        leaveCurrent();
+        currentId = null;
+    }
+
+    // Bỏ trang khỏi cache, lần hiển thị sau sẽ dựng lại
+    public void invalidate(String id) {
+        if (id.equals(currentId)) {
+            currentId = null;
+        }
+        remove(id);
+    }
+
+    // Trang đang hiển thị, null nếu đang ở nội dung ngoài registry
+    public String getCurrentId() {
+        return currentId;
+    }
+
+    public long getEstimatedBytes() {
+        long total = 0;
+        for (CachedPage cached : pages.values()) {
+            total += cached.estimatedBytes;
+        }
+        return total;
+    }
+
+    private void leaveCurrent() {
+        if (currentId == null) {
+            return;
+        }
+        CachedPage current = pages.get(currentId);
+        PageType type = types.get(currentId);
+        if (current != null && type != null) {
+            // Trang đang hiển thị tự theo dõi thay đổi; mốc so sánh bắt đầu từ lúc bị ẩn.
+            // Đo lại kích thước lúc này vì skin và cell chỉ được tạo sau khi trang lên scene.
+            current.generation = type.dataGeneration.getAsLong();
+            current.estimatedBytes = estimateBytes(current.page.getView());
+        }
+    }
+
+    private void evictIfNeeded() {
+        boolean heapPressure = isHeapUnderPressure();
+        Iterator<Map.Entry<String, CachedPage>> it = pages.entrySet().iterator();
+        while (it.hasNext() && (pages.size() > maxPages || getEstimatedBytes() > memoryBudgetBytes
+                || (heapPressure && pages.size() > 1))) {
+            Map.Entry<String, CachedPage> eldest = it.next();
+            if (eldest.getKey().equals(currentId)) {
+                continue;
+            }
+            it.remove();
+            disposeQuietly(eldest.getValue().page);
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Evicted page " + eldest.getKey() + " (~" + eldest.getValue().estimatedBytes / 1024 + " KB)");
+            }
+        }
+    }
+
+    private void remove(String id) {
+        CachedPage removed = pages.remove(id);
+        if (removed != null) {
+            disposeQuietly(removed.page);
+        }
+    }
+
+    private static void disposeQuietly(Page page) {
+        try {
+            page.dispose();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Failed to dispose page", e);
+        }
+    }
+
+    private static boolean isHeapUnderPressure() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return used > runtime.maxMemory() * HEAP_PRESSURE_RATIO;
+    }
+
+    private static long estimateBytes(Node root) {
+        if (root == null) {
+            return 0;
+        }
+        long nodes = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            nodes++;
+            // ScrollPane chưa có skin thì content chưa nằm trong children
+            if (node instanceof ScrollPane && ((ScrollPane) node).getSkin() == null) {
+                Node content = ((ScrollPane) node).getContent();
+                if (content != null) {
+                    stack.push(content);
+                }
+            }
+            if (node instanceof Parent) {
+                for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                    stack.push(child);
+                }
+            }
+        }
+        return nodes * BYTES_PER_NODE;
+    }
+}
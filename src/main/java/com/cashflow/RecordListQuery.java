@@ -0,0 +1,171 @@
+package com.cashflow;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Ảnh chụp bất biến của các control filter trên trang danh sách, để filter chạy ở background
+ * mà không đọc trực tiếp control JavaFX.
+ */
+public class RecordListQuery {
+    public static final String ALL_TIME = "All Time";
+    public static final String ALL_CATEGORIES = "All Categories";
+    public static final String ALL_METHODS = "All Methods";
+
+    private final String searchText;
+    private final SearchQuery search;
+    private final String dateFilter;
+    private final String category;
+    private final String paymentMethod;
+    private final boolean includeRecurring;
+    private final double minAmount;
+    private final double maxAmount;
+    private final String sortType;
+    // Phần tự do của search text hiểu như số tiền, null nếu không phải số; parse một lần cho cả truy vấn
+    private final Double searchAmount;
+    // Các combo filter dưới dạng Filter dùng chung, đẩy xuống SQL khi tải nguồn
+    private final FilterManager.Filter filter;
+    private final String databaseKey;
+
+    public RecordListQuery(String searchText, String dateFilter, String category, String paymentMethod,
+                           boolean includeRecurring, String minAmountText, String maxAmountText, String sortType) {
+        this.searchText = searchText == null ? "" : searchText.trim();
+        this.search = SearchQuery.parse(this.searchText);
+        this.dateFilter = dateFilter;
+        this.category = category;
+        this.paymentMethod = paymentMethod;
+        this.includeRecurring = includeRecurring;
+        this.sortType = sortType;
+        this.searchAmount = parseAmount(search.getFreeText());
+
+        // Giống logic cũ: giá trị không hợp lệ thì bỏ qua khoảng số tiền
+        double min = 0;
+        double max = Double.MAX_VALUE;
+        try {
+            String minText = minAmountText == null ? "" : minAmountText.trim();
+            String maxText = maxAmountText == null ? "" : maxAmountText.trim();
+            min = minText.isEmpty() ? 0 : Double.parseDouble(minText);
+            max = maxText.isEmpty() ? Double.MAX_VALUE : Double.parseDouble(maxText);
+        } catch (NumberFormatException e) {
+            min = 0;
+            max = Double.MAX_VALUE;
+        }
+        this.minAmount = min;
+        this.maxAmount = max;
+
+        FilterManager.Filter combined = FilterManager.period(dateFilter, LocalDate.now())
+            .and(FilterManager.amountBetween(min, max));
+        if (hasCategoryFilter()) {
+            combined = combined.and(FilterManager.category(category));
+        }
+        if (hasPaymentMethodFilter()) {
+            combined = combined.and(FilterManager.paymentMethod(paymentMethod));
+        }
+        if (!includeRecurring) {
+            combined = combined.and(FilterManager.excludeRecurring());
+        }
+        this.filter = combined;
+
+        String searchKey = search.getDatabaseKey();
+        this.databaseKey = searchKey == null && filter.isEmpty() ? null
+            : (searchKey == null ? "" : searchKey) + "|" + (filter.isEmpty() ? "" : filter.getKey());
+    }
+
+    public String getSearchText() {
+        return searchText;
+    }
+
+    /**
+     * Search text đã parse: điều kiện có cấu trúc chạy trong database, phần tự do lọc trong bộ nhớ
+     */
+    public SearchQuery getSearch() {
+        return search;
+    }
+
+    public String getFreeText() {
+        return search.getFreeText();
+    }
+
+    public FilterManager.Filter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Key của phần truy vấn chạy trong database (điều kiện có cấu trúc của search text và các combo filter),
+     * dùng làm source key của SearchPipeline; null nếu không có điều kiện nào
+     */
+    public String getDatabaseKey() {
+        return databaseKey;
+    }
+
+    public Double getSearchAmount() {
+        return searchAmount;
+    }
+
+    public boolean matchesSearchAmount(double amount) {
+        return searchAmount != null && Math.abs(amount - searchAmount) < 0.01;
+    }
+
+    public String getDateFilter() {
+        return dateFilter;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public boolean isIncludeRecurring() {
+        return includeRecurring;
+    }
+
+    public double getMinAmount() {
+        return minAmount;
+    }
+
+    public double getMaxAmount() {
+        return maxAmount;
+    }
+
+    public boolean hasAmountRange() {
+        return minAmount > 0 || maxAmount < Double.MAX_VALUE;
+    }
+
+    public String getSortType() {
+        return sortType;
+    }
+
+    public boolean hasCategoryFilter() {
+        return category != null && !ALL_CATEGORIES.equals(category);
+    }
+
+    public boolean hasPaymentMethodFilter() {
+        return paymentMethod != null && !ALL_METHODS.equals(paymentMethod);
+    }
+
+    private static Double parseAmount(String text) {
+        if (text.isEmpty() || !Character.isDigit(text.charAt(text.length() - 1))) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * True nếu mọi record khớp truy vấn này chắc chắn cũng khớp truy vấn trước.
+     * Phần database phải giống hệt vì nguồn được tải lại khi nó đổi. Text tự do chỉ được coi là thu hẹp
+     * khi giống hệt hoặc truy vấn trước chưa có text, vì tìm theo số tiền và fuzzy match không đơn điệu
+     * khi gõ thêm ký tự.
+     */
+    public boolean narrows(RecordListQuery previous) {
+        String previousFreeText = previous.getFreeText();
+        return Objects.equals(previous.databaseKey, databaseKey)
+            && (previousFreeText.isEmpty() || previousFreeText.equals(getFreeText()));
+    }
+}
@@ -0,0 +1,114 @@
+package com.cashflow;
+
+import javafx.animation.FadeTransition;
+import javafx.animation.ParallelTransition;
+import javafx.animation.TranslateTransition;
+import javafx.scene.Node;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.Region;
+import javafx.util.Duration;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * ListView ảo hoá cho danh sách giao dịch: chỉ các dòng đang hiển thị có node,
+ * mỗi cell giữ một RecordRow dựng sẵn và chỉ gắn lại dữ liệu khi cuộn.
+ */
+public class RecordListView<T> extends ListView<T> {
+    // Chỉ các dòng đầu (màn hình đầu tiên) có hiệu ứng xuất hiện sau mỗi lần setRecords
+    private static final int ENTRANCE_ROWS = 12;
+
+    private final BitSet animatedRows = new BitSet(ENTRANCE_ROWS);
+    private boolean animateEntrance;
+
+    // Một dòng dạng card, dựng node một lần và bind lại record khi cell được tái sử dụng
+    public interface RecordRow<T> {
+        Node getNode();
+        void bind(T record);
+    }
+
+    public RecordListView(Supplier<? extends RecordRow<T>> rowFactory, double rowSpacing) {
+        setStyle(
+            "-fx-background-color: transparent;" +
+            "-fx-control-inner-background: transparent;" +
+            "-fx-background-insets: 0;" +
+            "-fx-padding: 0;"
+        );
+        setFocusTraversable(false);
+        setCellFactory(list -> new RecordCell<>(rowFactory.get(), rowSpacing));
+    }
+
+    public void setRecords(List<T> records) {
+        // Danh sách lớn thì bỏ hiệu ứng theo dòng
+        animateEntrance = AnimationGovernor.getInstance().allowsRowAnimation(records.size());
+        animatedRows.clear();
+        getItems().setAll(records);
+        if (!records.isEmpty()) {
+            scrollTo(0);
+        }
+    }
+
+    // Thay dữ liệu nhưng giữ vị trí cuộn, dùng cho cập nhật nhỏ sau khi sửa/xoá
+    public void updateRecords(List<T> records) {
+        animateEntrance = false;
+        getItems().setAll(records);
+    }
+
+    private boolean claimEntrance(int index) {
+        if (!animateEntrance || index < 0 || index >= ENTRANCE_ROWS || animatedRows.get(index)) {
+            return false;
+        }
+        animatedRows.set(index);
+        return true;
+    }
+
+    private static class RecordCell<T> extends ListCell<T> {
+        private final RecordRow<T> row;
+
+        RecordCell(RecordRow<T> row, double rowSpacing) {
+            this.row = row;
+            setStyle("-fx-background-color: transparent; -fx-padding: 0 4 " + rowSpacing + " 0;");
+            setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+            // Không để độ rộng card đẩy ra thanh cuộn ngang; card giãn theo độ rộng cell
+            setPrefWidth(0);
+            if (row.getNode() instanceof Region) {
+                Region region = (Region) row.getNode();
+                region.prefWidthProperty().bind(widthProperty().subtract(4));
+            }
+        }
+
+        @Override
+        protected void updateItem(T item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setGraphic(null);
+            } else {
+                row.bind(item);
+                setGraphic(row.getNode());
+                // Cell chỉ được tạo cho các dòng trong viewport nên chỉ các dòng đang thấy được animate
+                ListView<T> list = getListView();
+                if (list instanceof RecordListView && ((RecordListView<T>) list).claimEntrance(getIndex())) {
+                    playEntrance(row.getNode(), getIndex());
+                }
+            }
+        }
+
+        private static void playEntrance(Node node, int index) {
+            node.setOpacity(0);
+            node.setTranslateY(12);
+
+            FadeTransition fade = new FadeTransition(Duration.millis(250), node);
+            fade.setToValue(1);
+
+            TranslateTransition slide = new TranslateTransition(Duration.millis(250), node);
+            slide.setToY(0);
+
+            ParallelTransition entrance = new ParallelTransition(fade, slide);
+            entrance.setDelay(Duration.millis(index * 40));
+            AnimationGovernor.getInstance().play(entrance);
+        }
+    }
+}
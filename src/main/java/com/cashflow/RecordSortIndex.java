@@ -0,0 +1,257 @@
+package com.cashflow;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Các hoán vị đã sắp xếp sẵn của một danh sách record theo ngày, số tiền, tên và danh mục.
+ *
+ * Đổi kiểu sắp xếp chỉ là duyệt một mảng int theo chiều xuôi hoặc ngược (O(n)); lọc trong lúc duyệt
+ * nên kết quả giữ nguyên thứ tự mà không phải sắp xếp lại. Tên và danh mục so sánh bằng CollationKey
+ * (tiếng Việt, không phân biệt hoa thường) tính một lần cho mỗi record.
+ *
+ * Chỉ mục bất biến: LedgerEvent tạo ra chỉ mục mới bằng cách chèn / xoá từng phần tử vào các hoán vị
+ * (tìm nhị phân + sao chép mảng) thay vì sắp xếp lại, nên có thể đọc ở background trong khi FX thread cập nhật.
+ */
+public final class RecordSortIndex<T extends LedgerRecord> {
+    public enum SortKey { DATE, AMOUNT, TITLE, CATEGORY }
+
+    private static final Locale COLLATION_LOCALE = new Locale("vi", "VN");
+    // Khi số slot đã xoá vượt quá số record còn lại thì dựng lại cho gọn
+    private static final int MIN_COMPACT_SLOTS = 64;
+
+    private final List<T> source;
+    private final Function<? super T, String> title;
+    private final Collator collator;
+    // Slot -> record; slot của record đã xoá là null, hoán vị không còn trỏ tới nó
+    private final Object[] slots;
+    private final CollationKey[] titleKeys;
+    private final CollationKey[] categoryKeys;
+    private final int[][] permutations;
+    private final int liveCount;
+
+    /**
+     * @param title tên dùng cho SortKey.TITLE (vd. source của khoản thu, title của khoản chi)
+     */
+    public RecordSortIndex(List<T> records, Function<? super T, String> title) {
+        this.source = records;
+        this.title = title;
+        this.collator = newCollator();
+        int size = records.size();
+        this.slots = records.toArray();
+        this.titleKeys = new CollationKey[size];
+        this.categoryKeys = new CollationKey[size];
+        for (int i = 0; i < size; i++) {
+            titleKeys[i] = collationKey(collator, title.apply(records.get(i)));
+            categoryKeys[i] = collationKey(collator, records.get(i).getCategory());
+        }
+        this.liveCount = size;
+
+        this.permutations = new int[SortKey.values().length][];
+        Integer[] order = new Integer[size];
+        for (SortKey key : SortKey.values()) {
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, slotComparator(key));
+            int[] permutation = new int[size];
+            for (int i = 0; i < size; i++) {
+                permutation[i] = order[i];
+            }
+            permutations[key.ordinal()] = permutation;
+        }
+    }
+
+    private RecordSortIndex(List<T> source, Function<? super T, String> title, Collator collator, Object[] slots,
+                            CollationKey[] titleKeys, CollationKey[] categoryKeys, int[][] permutations, int liveCount) {
+        this.source = source;
+        this.title = title;
+        this.collator = collator;
+        this.slots = slots;
+        this.titleKeys = titleKeys;
+        this.categoryKeys = categoryKeys;
+        this.permutations = permutations;
+        this.liveCount = liveCount;
+    }
+
+    /**
+     * Chỉ mục có được dựng (hoặc cập nhật) cho đúng danh sách này không (so sánh theo identity)
+     */
+    public boolean covers(List<T> records) {
+        return source == records;
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * Chỉ mục sau khi áp dụng event; updatedSource là danh sách nguồn sau event (event.applyTo).
+     * LedgerReset không cập nhật từng phần được nên dựng lại từ updatedSource.
+     */
+    public RecordSortIndex<T> withEvent(LedgerEvent event, Class<T> recordType, List<T> updatedSource) {
+        if (event instanceof LedgerEvent.RecordAdded) {
+            LedgerRecord record = ((LedgerEvent.RecordAdded) event).getRecord();
+            return recordType.isInstance(record) ? inserted(recordType.cast(record), updatedSource) : retarget(updatedSource);
+        }
+        if (event instanceof LedgerEvent.RecordUpdated) {
+            LedgerRecord record = ((LedgerEvent.RecordUpdated) event).getRecord();
+            if (!recordType.isInstance(record)) {
+                return retarget(updatedSource);
+            }
+            return removed(record.getId(), updatedSource).inserted(recordType.cast(record), updatedSource);
+        }
+        if (event instanceof LedgerEvent.RecordDeleted) {
+            return removed(((LedgerEvent.RecordDeleted) event).getRecord().getId(), updatedSource);
+        }
+        return new RecordSortIndex<>(updatedSource, title);
+    }
+
+    /**
+     * Duyệt record theo thứ tự của key, chỉ lấy record thoả filter
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> walk(SortKey key, boolean descending, Predicate<? super T> filter) {
+        int[] permutation = permutations[key.ordinal()];
+        List<T> result = new ArrayList<>();
+        if (descending) {
+            for (int i = permutation.length - 1; i >= 0; i--) {
+                T record = (T) slots[permutation[i]];
+                if (filter.test(record)) {
+                    result.add(record);
+                }
+            }
+        } else {
+            for (int slot : permutation) {
+                T record = (T) slots[slot];
+                if (filter.test(record)) {
+                    result.add(record);
+                }
+            }
+        }
+        return result;
+    }
+
+    private RecordSortIndex<T> retarget(List<T> updatedSource) {
+        return new RecordSortIndex<>(updatedSource, title, collator, slots, titleKeys, categoryKeys,
+            permutations, liveCount);
+    }
+
+    private RecordSortIndex<T> inserted(T record, List<T> updatedSource) {
+        int slot = slots.length;
+        Object[] newSlots = Arrays.copyOf(slots, slot + 1);
+        CollationKey[] newTitleKeys = Arrays.copyOf(titleKeys, slot + 1);
+        CollationKey[] newCategoryKeys = Arrays.copyOf(categoryKeys, slot + 1);
+        newSlots[slot] = record;
+        newTitleKeys[slot] = collationKey(collator, title.apply(record));
+        newCategoryKeys[slot] = collationKey(collator, record.getCategory());
+
+        RecordSortIndex<T> next = new RecordSortIndex<>(updatedSource, title, collator, newSlots,
+            newTitleKeys, newCategoryKeys, new int[permutations.length][], liveCount + 1);
+        for (SortKey key : SortKey.values()) {
+            int[] permutation = permutations[key.ordinal()];
+            Comparator<Integer> comparator = next.slotComparator(key);
+            // Vị trí đầu tiên có phần tử lớn hơn record mới
+            int low = 0;
+            int high = permutation.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparator.compare(permutation[mid], slot) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int[] updated = new int[permutation.length + 1];
+            System.arraycopy(permutation, 0, updated, 0, low);
+            updated[low] = slot;
+            System.arraycopy(permutation, low, updated, low + 1, permutation.length - low);
+            next.permutations[key.ordinal()] = updated;
+        }
+        return next;
+    }
+
+    private RecordSortIndex<T> removed(int id, List<T> updatedSource) {
+        int slot = -1;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null && ((LedgerRecord) slots[i]).getId() == id) {
+                slot = i;
+                break;
+            }
+        }
+        if (slot < 0) {
+            return retarget(updatedSource);
+        }
+        int remaining = liveCount - 1;
+        if (slots.length - remaining > Math.max(MIN_COMPACT_SLOTS, remaining)) {
+            // Quá nhiều slot trống: dựng lại từ các slot còn lại
+            List<T> live = new ArrayList<>(remaining);
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null && i != slot) {
+                    @SuppressWarnings("unchecked")
+                    T record = (T) slots[i];
+                    live.add(record);
+                }
+            }
+            return new RecordSortIndex<>(live, title).retarget(updatedSource);
+        }
+
+        Object[] newSlots = slots.clone();
+        newSlots[slot] = null;
+        int[][] newPermutations = new int[permutations.length][];
+        for (int k = 0; k < permutations.length; k++) {
+            int[] permutation = permutations[k];
+            int[] updated = new int[permutation.length - 1];
+            int j = 0;
+            for (int value : permutation) {
+                if (value != slot) {
+                    updated[j++] = value;
+                }
+            }
+            newPermutations[k] = updated;
+        }
+        return new RecordSortIndex<>(updatedSource, title, collator, newSlots, titleKeys, categoryKeys,
+            newPermutations, remaining);
+    }
+
+    // Thứ tự toàn phần: giá trị của key rồi tới id để bằng nhau vẫn có thứ tự xác định
+    private Comparator<Integer> slotComparator(SortKey key) {
+        Comparator<Integer> byKey;
+        switch (key) {
+            case AMOUNT:
+                byKey = (a, b) -> Double.compare(record(a).getAmount(), record(b).getAmount());
+                break;
+            case TITLE:
+                byKey = (a, b) -> titleKeys[a].compareTo(titleKeys[b]);
+                break;
+            case CATEGORY:
+                byKey = (a, b) -> categoryKeys[a].compareTo(categoryKeys[b]);
+                break;
+            default:
+                byKey = (a, b) -> record(a).getDate().compareTo(record(b).getDate());
+        }
+        return byKey.thenComparing((a, b) -> Integer.compare(record(a).getId(), record(b).getId()));
+    }
+
+    private LedgerRecord record(int slot) {
+        return (LedgerRecord) slots[slot];
+    }
+
+    private static Collator newCollator() {
+        Collator collator = Collator.getInstance(COLLATION_LOCALE);
+        // SECONDARY: phân biệt dấu nhưng không phân biệt hoa thường
+        collator.setStrength(Collator.SECONDARY);
+        return collator;
+    }
+
+    private static CollationKey collationKey(Collator collator, String text) {
+        return collator.getCollationKey(text == null ? "" : text);
+    }
+}
@@ -0,0 +1,204 @@
+package com.cashflow;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tổng, số lượng và trung bình trượt 7/30/90/365 ngày cho từng sổ cái và category.
+ * Mỗi series là một ring buffer 365 bucket theo ngày; ghi mới và đọc đều O(1),
+ * cửa sổ tự trượt khi sang ngày mới.
+ */
+public class RollingWindowAggregator {
+    public static final int[] WINDOWS = { 7, 30, 90, 365 };
+    private static final int RING_SIZE = 365;
+
+    private final Map<LedgerType, DayRing> ledgerRings = new EnumMap<>(LedgerType.class);
+    private final Map<LedgerType, Map<String, DayRing>> categoryRings = new EnumMap<>(LedgerType.class);
+    private LocalDate currentDay;
+
+    public RollingWindowAggregator() {
+        clear();
+    }
+
+    public synchronized void clear() {
+        currentDay = LocalDate.now();
+        for (LedgerType type : LedgerType.values()) {
+            ledgerRings.put(type, new DayRing(currentDay));
+            categoryRings.put(type, new HashMap<>());
+        }
+    }
+
+    /**
+     * Ngày đầu tiên của cửa sổ "N ngày gần nhất" (tính cả hôm nay)
+     */
+    public static LocalDate windowStart(LocalDate today, int windowDays) {
+        return today.minusDays(windowDays - 1);
+    }
+
+    /**
+     * Số ngày của bộ lọc "Last N Days" trên các trang, 0 nếu không phải rolling window
+     */
+    public static int windowDaysForFilter(String dateFilter) {
+        if (dateFilter == null) {
+            return 0;
+        }
+        switch (dateFilter) {
+            case "Last 7 Days":
+                return 7;
+            case "Last 30 Days":
+                return 30;
+            case "Last 90 Days":
+                return 90;
+            default:
+                return 0;
+        }
+    }
+
+    public synchronized void record(LedgerType type, String category, LocalDate date, double amount, int countDelta) {
+        advanceToToday();
+        long cents = Math.round(amount * 100);
+        ledgerRings.get(type).add(date, cents, countDelta);
+        categoryRings.get(type)
+            .computeIfAbsent(category, key -> new DayRing(currentDay))
+            .add(date, cents, countDelta);
+    }
+
+    public synchronized double getSum(LedgerType type, int windowDays) {
+        advanceToToday();
+        return ledgerRings.get(type).windowCents[windowIndex(windowDays)] / 100.0;
+    }
+
+    public synchronized int getCount(LedgerType type, int windowDays) {
+        advanceToToday();
+        return ledgerRings.get(type).windowCounts[windowIndex(windowDays)];
+    }
+
+    // Trung bình mỗi ngày trong cửa sổ
+    public synchronized double getDailyAverage(LedgerType type, int windowDays) {
+        return getSum(type, windowDays) / windowDays;
+    }
+
+    public synchronized double getCategorySum(LedgerType type, String category, int windowDays) {
+        advanceToToday();
+        DayRing ring = categoryRings.get(type).get(category);
+        return ring != null ? ring.windowCents[windowIndex(windowDays)] / 100.0 : 0.0;
+    }
+
+    public synchronized Map<String, Double> getCategorySums(LedgerType type, int windowDays) {
+        advanceToToday();
+        int index = windowIndex(windowDays);
+        Map<String, Double> sums = new HashMap<>();
+        categoryRings.get(type).forEach((category, ring) -> {
+            if (ring.windowCounts[index] > 0) {
+                sums.put(category, ring.windowCents[index] / 100.0);
+            }
+        });
+        return sums;
+    }
+
+    // Tốc độ chi tiêu trung bình mỗi ngày (burn rate)
+    public synchronized double getBurnRate(int windowDays) {
+        return getDailyAverage(LedgerType.OUTCOME, windowDays);
+    }
+
+    private void advanceToToday() {
+        LocalDate today = LocalDate.now();
+        if (!today.isAfter(currentDay)) {
+            return;
+        }
+        currentDay = today;
+        for (LedgerType type : LedgerType.values()) {
+            ledgerRings.get(type).advanceTo(today);
+            for (DayRing ring : categoryRings.get(type).values()) {
+                ring.advanceTo(today);
+            }
+        }
+    }
+
+    private static int windowIndex(int windowDays) {
+        for (int i = 0; i < WINDOWS.length; i++) {
+            if (WINDOWS[i] == windowDays) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported rolling window: " + windowDays + " days");
+    }
+
+    /**
+     * Ring buffer 365 ngày kết thúc tại lastDay, kèm tổng chạy cho từng cửa sổ.
+     * Giao dịch có ngày trong tương lai được giữ riêng và đưa vào khi tới ngày.
+     */
+    private static class DayRing {
+        final long[] dayCents = new long[RING_SIZE];
+        final int[] dayCounts = new int[RING_SIZE];
+        final long[] windowCents = new long[WINDOWS.length];
+        final int[] windowCounts = new int[WINDOWS.length];
+        final TreeMap<LocalDate, long[]> futureDays = new TreeMap<>();
+        LocalDate lastDay;
+
+        DayRing(LocalDate today) {
+            this.lastDay = today;
+        }
+
+        void add(LocalDate date, long cents, int countDelta) {
+            long age = ChronoUnit.DAYS.between(date, lastDay);
+            if (age < 0) {
+                long[] pending = futureDays.computeIfAbsent(date, key -> new long[2]);
+                pending[0] += cents;
+                pending[1] += countDelta;
+                return;
+            }
+            if (age >= RING_SIZE) {
+                return;
+            }
+            int slot = slotOf(date);
+            dayCents[slot] += cents;
+            dayCounts[slot] += countDelta;
+            for (int i = 0; i < WINDOWS.length; i++) {
+                if (age < WINDOWS[i]) {
+                    windowCents[i] += cents;
+                    windowCounts[i] += countDelta;
+                }
+            }
+        }
+
+        void advanceTo(LocalDate today) {
+            long steps = ChronoUnit.DAYS.between(lastDay, today);
+            if (steps >= RING_SIZE) {
+                Arrays.fill(dayCents, 0);
+                Arrays.fill(dayCounts, 0);
+                Arrays.fill(windowCents, 0);
+                Arrays.fill(windowCounts, 0);
+                lastDay = today;
+            } else {
+                for (long step = 0; step < steps; step++) {
+                    lastDay = lastDay.plusDays(1);
+                    // Ngày rơi ra khỏi mỗi cửa sổ
+                    for (int i = 0; i < WINDOWS.length; i++) {
+                        int leaving = slotOf(lastDay.minusDays(WINDOWS[i]));
+                        windowCents[i] -= dayCents[leaving];
+                        windowCounts[i] -= dayCounts[leaving];
+                    }
+                    // Slot của ngày mới chính là slot của ngày cách đây 365 ngày
+                    int slot = slotOf(lastDay);
+                    dayCents[slot] = 0;
+                    dayCounts[slot] = 0;
+                }
+            }
+
+            while (!futureDays.isEmpty() && !futureDays.firstKey().isAfter(lastDay)) {
+                Map.Entry<LocalDate, long[]> due = futureDays.pollFirstEntry();
+                add(due.getKey(), due.getValue()[0], (int) due.getValue()[1]);
+            }
+        }
+
+        private static int slotOf(LocalDate date) {
+            return (int) Math.floorMod(date.toEpochDay(), (long) RING_SIZE);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.cashflow;
+
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.util.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pipeline tìm kiếm cho các trang danh sách: debounce input, huỷ truy vấn cũ khi có truy vấn mới,
+ * và lọc lại trên dữ liệu đã tải thay vì đọc lại database mỗi lần gõ phím.
+ *
+ * Mọi method public phải gọi trên FX thread; chỉ loader và filter chạy ở background.
+ */
+public class SearchPipeline<Q, T> {
+    private static final Logger logger = Logger.getLogger(SearchPipeline.class.getName());
+
+    private final String name;
+    private final PauseTransition debounce;
+    private final Supplier<Q> querySupplier;
+    private final Loader<Q, T> loader;
+    private final Function<Q, ?> sourceKey;
+    private final BiFunction<List<T>, Q, List<T>> filter;
+    private final BiPredicate<Q, Q> narrows;
+
+    private Runnable onLoading = () -> { };
+    private Consumer<List<T>> onResults = records -> { };
+    private Consumer<List<T>> onUpdated;
+    private Consumer<Throwable> onError = error -> { };
+    private Consumer<List<T>> indexer;
+
+    // Danh sách nguồn mà indexer đã dựng chỉ mục gần nhất (so sánh theo identity)
+    private final Object indexLock = new Object();
+    private List<T> indexedSource;
+
+    // Dữ liệu nguồn đã tải, key của truy vấn đã dùng để tải, và kết quả của truy vấn gần nhất
+    private List<T> source;
+    private Object loadedKey;
+    private Q lastQuery;
+    private List<T> lastResult;
+
+    private Task<SearchResult<T>> runningTask;
+    private int generation;
+
+    /**
+     * Tải dữ liệu nguồn cho một truy vấn (chạy ở background)
+     */
+    public interface Loader<Q, T> {
+        List<T> load(Q query) throws Exception;
+    }
+
+    /**
+     * @param querySupplier chụp lại trạng thái các control filter (gọi trên FX thread)
+     * @param loader tải dữ liệu nguồn từ database
+     * @param filter áp dụng truy vấn lên một danh sách record
+     * @param narrows (truy vấn mới, truy vấn cũ) -> true nếu kết quả mới chắc chắn là tập con của kết quả cũ
+     */
+    public SearchPipeline(String name, Duration debounceDelay, Supplier<Q> querySupplier,
+                          Callable<List<T>> loader, BiFunction<List<T>, Q, List<T>> filter,
+                          BiPredicate<Q, Q> narrows) {
+        this(name, debounceDelay, querySupplier, query -> loader.call(), query -> null, filter, narrows);
+    }
+
+    /**
+     * Dữ liệu nguồn phụ thuộc truy vấn: phần truy vấn chạy trong database được đại diện bởi sourceKey,
+     * nguồn chỉ được tải lại khi key đổi; phần còn lại vẫn lọc trong bộ nhớ bằng filter.
+     *
+     * @param sourceKey key của phần truy vấn mà loader dùng (null = không có điều kiện database)
+     */
+    public SearchPipeline(String name, Duration debounceDelay, Supplier<Q> querySupplier,
+                          Loader<Q, T> loader, Function<Q, ?> sourceKey,
+                          BiFunction<List<T>, Q, List<T>> filter, BiPredicate<Q, Q> narrows) {
+        this.name = name;
+        this.querySupplier = querySupplier;
+        this.loader = loader;
+        this.sourceKey = sourceKey;
+        this.filter = filter;
+        this.narrows = narrows;
+        this.debounce = new PauseTransition(debounceDelay);
+        this.debounce.setOnFinished(e -> run(false, false));
+    }
+
+    public void setOnLoading(Runnable onLoading) {
+        this.onLoading = onLoading;
+    }
+
+    public void setOnResults(Consumer<List<T>> onResults) {
+        this.onResults = onResults;
+    }
+
+    /**
+     * Nhận kết quả sau updateSource (thay đổi nhỏ từ LedgerEvent); mặc định dùng onResults
+     */
+    public void setOnUpdated(Consumer<List<T>> onUpdated) {
+        this.onUpdated = onUpdated;
+    }
+
+    public void setOnError(Consumer<Throwable> onError) {
+        this.onError = onError;
+    }
+
+    /**
+     * Dựng chỉ mục tìm kiếm ở background mỗi khi dữ liệu nguồn đổi (tải lại hoặc updateSource),
+     * trước khi filter chạy trên nguồn đó
+     */
+    public void setIndexer(Consumer<List<T>> indexer) {
+        this.indexer = indexer;
+    }
+
+    /**
+     * Gọi mỗi khi input thay đổi; chỉ chạy truy vấn khi người dùng ngừng gõ
+     */
+    public void search() {
+        debounce.playFromStart();
+    }
+
+    /**
+     * Chạy ngay truy vấn hiện tại (dùng cho combo box, sort...), vẫn tái sử dụng dữ liệu đã tải
+     */
+    public void searchNow() {
+        debounce.stop();
+        run(false, false);
+    }
+
+    /**
+     * Bỏ dữ liệu đã tải và đọc lại từ database, dùng sau khi thêm/sửa/xoá record
+     */
+    public void reload() {
+        debounce.stop();
+        run(true, false);
+    }
+
+    /**
+     * Áp dụng một thay đổi lên dữ liệu đã tải rồi lọc lại, không đọc database.
+     * Nếu chưa có dữ liệu nhưng đang tải thì tải lại để không mất thay đổi.
+     */
+    public void updateSource(UnaryOperator<List<T>> change) {
+        if (source == null) {
+            if (runningTask != null) {
+                reload();
+            }
+            return;
+        }
+        if (loadedKey != null) {
+            // Nguồn đã được database lọc: record mới chưa chắc thoả điều kiện nên đọc lại
+            reload();
+            return;
+        }
+        source = change.apply(source);
+        lastQuery = null;
+        lastResult = null;
+        debounce.stop();
+        run(false, true);
+    }
+
+    public void cancel() {
+        debounce.stop();
+        generation++;
+        cancelRunningTask();
+    }
+
+    private void run(boolean reload, boolean sourceUpdate) {
+        cancelRunningTask();
+        int requestGeneration = ++generation;
+
+        Q query = querySupplier.get();
+        Object key = sourceKey.apply(query);
+        if (!Objects.equals(key, loadedKey)) {
+            reload = true;
+        }
+        if (reload) {
+            source = null;
+            lastQuery = null;
+            lastResult = null;
+        }
+        List<T> cachedSource = source;
+        List<T> base = cachedSource;
+        if (cachedSource != null && lastQuery != null && narrows.test(query, lastQuery)) {
+            base = lastResult;
+        }
+        List<T> filterBase = base;
+
+        // Chỉ hiện trạng thái loading khi thực sự phải đọc database
+        if (cachedSource == null) {
+            onLoading.run();
+        }
+
+        Task<SearchResult<T>> task = new Task<SearchResult<T>>() {
+            @Override
+            protected SearchResult<T> call() throws Exception {
+                List<T> loaded = cachedSource != null ? cachedSource : loader.load(query);
+                if (isCancelled()) {
+                    return new SearchResult<>(loaded, Collections.emptyList());
+                }
+                indexIfChanged(loaded);
+                return new SearchResult<>(loaded, filter.apply(filterBase != null ? filterBase : loaded, query));
+            }
+
+            @Override
+            protected void succeeded() {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                runningTask = null;
+                SearchResult<T> result = getValue();
+                source = result.source;
+                loadedKey = key;
+                lastQuery = query;
+                lastResult = result.records;
+                if (sourceUpdate && onUpdated != null) {
+                    onUpdated.accept(result.records);
+                } else {
+                    onResults.accept(result.records);
+                }
+            }
+
+            @Override
+            protected void failed() {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                runningTask = null;
+                logger.log(Level.SEVERE, "Failed to run " + name + " search", getException());
+                onError.accept(getException());
+            }
+        };
+        runningTask = task;
+
+        try {
+            TaskScheduler.getInstance().execute(TaskScheduler.Pool.IO, name + "-search", task);
+        } catch (RejectedExecutionException e) {
+            runningTask = null;
+            onError.accept(e);
+        }
+    }
+
+    private void indexIfChanged(List<T> loaded) {
+        if (indexer == null) {
+            return;
+        }
+        synchronized (indexLock) {
+            if (indexedSource != loaded) {
+                indexer.accept(loaded);
+                indexedSource = loaded;
+            }
+        }
+    }
+
+    private void cancelRunningTask() {
+        if (runningTask != null) {
+            runningTask.cancel(true);
+            runningTask = null;
+        }
+    }
+
+    private static class SearchResult<T> {
+        private final List<T> source;
+        private final List<T> records;
+
+        SearchResult(List<T> source, List<T> records) {
+            this.source = source;
+            this.records = records;
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package com.cashflow;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Truy vấn của ô tìm kiếm, parse một lần rồi dịch sang điều kiện SQL.
+ *
+ * Cú pháp (các term cách nhau bởi khoảng trắng, mọi term phải khớp):
+ * <pre>
+ *   category:Food          danh mục bắt đầu bằng "Food" (không phân biệt hoa thường)
+ *   title:netflix          tên khoản chi / nguồn thu chứa chuỗi (alias: source, name)
+ *   desc:tet               ghi chú chứa chuỗi (alias: note)
+ *   method:card            phương thức thanh toán bắt đầu bằng chuỗi (chỉ khoản chi)
+ *   amount>100             so sánh số tiền: = : > >= < <=, hoặc khoảng amount:100..500
+ *   date:2024-12           ngày theo năm / tháng / ngày, hoặc khoảng date:2024-12..2025-02
+ *   date>=2025-01-15       so sánh ngày
+ *   "rent"                 cụm từ chính xác trong các field text
+ *   food                   từ tự do: tìm trong chỉ mục đã tải (chuỗi con, sai chính tả, số tiền)
+ * </pre>
+ * Term có tên field hợp lệ nhưng giá trị chưa gõ xong (vd. "amount>") được bỏ qua.
+ * Text không phân biệt dấu ("tien nha" khớp "Tiền nhà"): giá trị được fold bằng SearchText và so với
+ * các cột search_* đã fold sẵn lúc ghi.
+ * Field không biết (vd. "foo:bar") được coi là từ tự do.
+ */
+public final class SearchQuery {
+    private enum Field { CATEGORY, NAME, DESCRIPTION, METHOD, AMOUNT, DATE }
+
+    private static final Map<String, Field> FIELD_NAMES = Map.ofEntries(
+        Map.entry("category", Field.CATEGORY),
+        Map.entry("cat", Field.CATEGORY),
+        Map.entry("title", Field.NAME),
+        Map.entry("source", Field.NAME),
+        Map.entry("name", Field.NAME),
+        Map.entry("desc", Field.DESCRIPTION),
+        Map.entry("description", Field.DESCRIPTION),
+        Map.entry("note", Field.DESCRIPTION),
+        Map.entry("method", Field.METHOD),
+        Map.entry("payment", Field.METHOD),
+        Map.entry("amount", Field.AMOUNT),
+        Map.entry("date", Field.DATE)
+    );
+    // Sai số khi so bằng số tiền, giống tìm kiếm theo số tiền trước đây
+    private static final double AMOUNT_TOLERANCE = 0.01;
+    // Term được nhận ra nhưng chưa đủ giá trị
+    private static final Term INCOMPLETE = new Term(null, null, null, null, null, null);
+
+    public static final SearchQuery EMPTY = parse("");
+
+    private final List<Term> terms;
+    private final String freeText;
+    private final String databaseKey;
+
+    private SearchQuery(List<Term> terms, String freeText) {
+        this.terms = Collections.unmodifiableList(terms);
+        this.freeText = freeText;
+
+        StringBuilder key = new StringBuilder();
+        for (Term term : terms) {
+            key.append(term.key()).append(';');
+        }
+        this.databaseKey = key.length() == 0 ? null : key.toString();
+    }
+
+    public static SearchQuery parse(String input) {
+        List<Term> terms = new ArrayList<>();
+        StringBuilder freeText = new StringBuilder();
+        for (Token token : tokenize(input == null ? "" : input)) {
+            if (token.phrase) {
+                if (!token.text.isEmpty()) {
+                    terms.add(Term.phrase(token.text));
+                }
+                continue;
+            }
+            Term term = parseFieldTerm(token.text);
+            if (term == INCOMPLETE) {
+                continue;
+            }
+            if (term != null) {
+                terms.add(term);
+            } else {
+                if (freeText.length() > 0) {
+                    freeText.append(' ');
+                }
+                freeText.append(token.text);
+            }
+        }
+        return new SearchQuery(terms, freeText.toString());
+    }
+
+    /**
+     * Phần tìm kiếm tự do, lọc trong bộ nhớ trên các record đã tải
+     */
+    public String getFreeText() {
+        return freeText;
+    }
+
+    public boolean hasDatabasePredicates() {
+        return databaseKey != null;
+    }
+
+    /**
+     * Dạng chuẩn của các điều kiện chạy trong database; hai truy vấn cùng key cho cùng tập record.
+     * Null nếu truy vấn không có điều kiện nào cho database.
+     */
+    public String getDatabaseKey() {
+        return databaseKey;
+    }
+
+    /**
+     * Dịch các term có cấu trúc sang mệnh đề WHERE (không gồm từ khoá WHERE) cho bảng của type,
+     * tham số được thêm vào params theo thứ tự. Trả về "1" nếu không có điều kiện.
+     */
+    public String toSql(LedgerType type, List<Object> params) {
+        if (terms.isEmpty()) {
+            return "1";
+        }
+        StringBuilder sql = new StringBuilder();
+        for (Term term : terms) {
+            if (sql.length() > 0) {
+                sql.append(" AND ");
+            }
+            term.appendSql(type, sql, params);
+        }
+        return sql.toString();
+    }
+
+    @Override
+    public String toString() {
+        return (databaseKey == null ? "" : databaseKey) + freeText;
+    }
+
+    private static Term parseFieldTerm(String token) {
+        int nameEnd = 0;
+        while (nameEnd < token.length() && Character.isLetter(token.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        if (nameEnd == 0 || nameEnd == token.length()) {
+            return null;
+        }
+        Field field = FIELD_NAMES.get(token.substring(0, nameEnd).toLowerCase(Locale.ROOT));
+        if (field == null) {
+            return null;
+        }
+
+        String op;
+        char c = token.charAt(nameEnd);
+        if (c == ':' || c == '=') {
+            op = "=";
+        } else if (c == '>' || c == '<') {
+            op = token.startsWith("=", nameEnd + 1) ? c + "=" : String.valueOf(c);
+        } else {
+            return null;
+        }
+        int valueStart = nameEnd + (op.length() == 2 ? 2 : 1);
+        String value = unquote(token.substring(valueStart));
+        if (value.isEmpty()) {
+            return INCOMPLETE;
+        }
+
+        switch (field) {
+            case AMOUNT:
+                return parseAmountTerm(op, value);
+            case DATE:
+                return parseDateTerm(op, value);
+            default:
+                // Field text chỉ hỗ trợ so khớp
+                return op.equals("=") ? Term.text(field, value) : INCOMPLETE;
+        }
+    }
+
+    private static Term parseAmountTerm(String op, String value) {
+        if (op.equals("=") && value.contains("..")) {
+            int dots = value.indexOf("..");
+            String from = value.substring(0, dots);
+            String to = value.substring(dots + 2);
+            Double min = from.isEmpty() ? null : parseNumber(from);
+            Double max = to.isEmpty() ? null : parseNumber(to);
+            if ((min == null && !from.isEmpty()) || (max == null && !to.isEmpty()) || (min == null && max == null)) {
+                return INCOMPLETE;
+            }
+            return Term.amount(min, max, true);
+        }
+        Double number = parseNumber(value);
+        if (number == null) {
+            return INCOMPLETE;
+        }
+        switch (op) {
+            case ">":
+                return Term.amount(number, null, false);
+            case ">=":
+                return Term.amount(number, null, true);
+            case "<":
+                return Term.amount(null, number, false);
+            case "<=":
+                return Term.amount(null, number, true);
+            default:
+                return Term.amount(number - AMOUNT_TOLERANCE, number + AMOUNT_TOLERANCE, false);
+        }
+    }
+
+    private static Term parseDateTerm(String op, String value) {
+        if (op.equals("=") && value.contains("..")) {
+            int dots = value.indexOf("..");
+            String from = value.substring(0, dots);
+            String to = value.substring(dots + 2);
+            LocalDate[] start = from.isEmpty() ? null : parseDatePeriod(from);
+            LocalDate[] end = to.isEmpty() ? null : parseDatePeriod(to);
+            if ((start == null && !from.isEmpty()) || (end == null && !to.isEmpty()) || (start == null && end == null)) {
+                return INCOMPLETE;
+            }
+            return Term.date(start == null ? null : start[0], end == null ? null : end[1]);
+        }
+        LocalDate[] period = parseDatePeriod(value);
+        if (period == null) {
+            return INCOMPLETE;
+        }
+        switch (op) {
+            case ">":
+                return Term.date(period[1], null);
+            case ">=":
+                return Term.date(period[0], null);
+            case "<":
+                return Term.date(null, period[0]);
+            case "<=":
+                return Term.date(null, period[1]);
+            default:
+                return Term.date(period[0], period[1]);
+        }
+    }
+
+    // Số thập phân không dấu; kiểm tra trước để không phải bắt NumberFormatException
+    private static Double parseNumber(String text) {
+        int dots = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                dots++;
+            } else if (!Character.isDigit(c)) {
+                return null;
+            }
+        }
+        if (dots > 1 || text.startsWith(".") || text.endsWith(".")) {
+            return null;
+        }
+        return Double.valueOf(text);
+    }
+
+    /**
+     * "2024", "2024-12" hoặc "2024-12-05" -> [ngày đầu, ngày sau ngày cuối) của khoảng đó
+     */
+    private static LocalDate[] parseDatePeriod(String text) {
+        String[] parts = text.split("-", -1);
+        if (parts.length > 3) {
+            return null;
+        }
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            int maxLength = i == 0 ? 4 : 2;
+            if (part.isEmpty() || part.length() > maxLength || (i == 0 && part.length() != 4)) {
+                return null;
+            }
+            for (int j = 0; j < part.length(); j++) {
+                if (!Character.isDigit(part.charAt(j))) {
+                    return null;
+                }
+            }
+            values[i] = Integer.parseInt(part);
+        }
+
+        int year = values[0];
+        if (values.length == 1) {
+            LocalDate start = LocalDate.of(year, 1, 1);
+            return new LocalDate[] { start, start.plusYears(1) };
+        }
+        int month = values[1];
+        if (month < 1 || month > 12) {
+            return null;
+        }
+        YearMonth yearMonth = YearMonth.of(year, month);
+        if (values.length == 2) {
+            return new LocalDate[] { yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1) };
+        }
+        int day = values[2];
+        if (!yearMonth.isValidDay(day)) {
+            return null;
+        }
+        LocalDate date = yearMonth.atDay(day);
+        return new LocalDate[] { date, date.plusDays(1) };
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 1 && value.charAt(0) == '"') {
+            int end = value.endsWith("\"") && value.length() > 1 ? value.length() - 1 : value.length();
+            return value.substring(1, end);
+        }
+        return value;
+    }
+
+    // Tách theo khoảng trắng, giữ nguyên khoảng trắng trong dấu ngoặc kép
+    private static List<Token> tokenize(String input) {
+        List<Token> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        boolean startedWithQuote = false;
+        for (int i = 0; i <= input.length(); i++) {
+            char c = i < input.length() ? input.charAt(i) : ' ';
+            if (c == '"') {
+                if (current.length() == 0 && !inQuotes) {
+                    startedWithQuote = true;
+                }
+                inQuotes = !inQuotes;
+                current.append(c);
+            } else if (Character.isWhitespace(c) && (!inQuotes || i == input.length())) {
+                if (current.length() > 0) {
+                    String text = current.toString();
+                    tokens.add(startedWithQuote ? new Token(unquote(text).trim(), true) : new Token(text, false));
+                }
+                current.setLength(0);
+                startedWithQuote = false;
+                inQuotes = false;
+            } else {
+                current.append(c);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Token {
+        private final String text;
+        private final boolean phrase;
+
+        Token(String text, boolean phrase) {
+            this.text = text;
+            this.phrase = phrase;
+        }
+    }
+
+    /**
+     * Một điều kiện: text (field == null là cụm từ trong mọi field text), khoảng số tiền hoặc khoảng ngày
+     */
+    private static final class Term {
+        private final Field field;
+        private final String text;
+        private final Double min;
+        private final Double max;
+        private final Boolean inclusive;
+        private final LocalDate[] dates;
+
+        private Term(Field field, String text, Double min, Double max, Boolean inclusive, LocalDate[] dates) {
+            this.field = field;
+            this.text = text;
+            this.min = min;
+            this.max = max;
+            this.inclusive = inclusive;
+            this.dates = dates;
+        }
+
+        static Term phrase(String text) {
+            return new Term(null, SearchText.fold(text), null, null, null, null);
+        }
+
+        static Term text(Field field, String text) {
+            return new Term(field, SearchText.fold(text), null, null, null, null);
+        }
+
+        static Term amount(Double min, Double max, boolean inclusive) {
+            return new Term(Field.AMOUNT, null, min, max, inclusive, null);
+        }
+
+        // [from, to), một trong hai đầu có thể null
+        static Term date(LocalDate from, LocalDate to) {
+            return new Term(Field.DATE, null, null, null, null, new LocalDate[] { from, to });
+        }
+
+        String key() {
+            if (field == Field.AMOUNT) {
+                return "amount" + (inclusive ? "[" : "(") + min + "," + max;
+            }
+            if (field == Field.DATE) {
+                return "date[" + dates[0] + "," + dates[1];
+            }
+            return (field == null ? "phrase" : field.name()) + "=" + text;
+        }
+
+        void appendSql(LedgerType type, StringBuilder sql, List<Object> params) {
+            if (field == null) {
+                // Cụm từ: khớp trong bất kỳ field text nào
+                List<String> columns = new ArrayList<>(List.of(nameColumn(type), "search_category", "search_description"));
+                if (type == LedgerType.OUTCOME) {
+                    columns.add("search_method");
+                }
+                sql.append('(');
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) {
+                        sql.append(" OR ");
+                    }
+                    appendLike(sql, params, columns.get(i), "%" + escapeLike(text) + "%");
+                }
+                sql.append(')');
+                return;
+            }
+
+            switch (field) {
+                case CATEGORY:
+                    // Tiền tố để dùng được index search_category COLLATE NOCASE
+                    appendLike(sql, params, "search_category", escapeLike(text) + "%");
+                    break;
+                case METHOD:
+                    if (type == LedgerType.OUTCOME) {
+                        appendLike(sql, params, "search_method", escapeLike(text) + "%");
+                    } else {
+                        // Khoản thu không có phương thức thanh toán
+                        sql.append("0");
+                    }
+                    break;
+                case NAME:
+                    appendLike(sql, params, nameColumn(type), "%" + escapeLike(text) + "%");
+                    break;
+                case DESCRIPTION:
+                    appendLike(sql, params, "search_description", "%" + escapeLike(text) + "%");
+                    break;
+                case AMOUNT:
+                    appendRange(sql, params, "amount", min, max, inclusive);
+                    break;
+                case DATE:
+                    // Ngày lưu dạng ISO nên so sánh chuỗi đúng thứ tự và dùng được index date
+                    appendRange(sql, params, "date",
+                        dates[0] == null ? null : dates[0].toString(),
+                        dates[1] == null ? null : dates[1].toString(), false);
+                    break;
+                default:
+                    sql.append("1");
+            }
+        }
+
+        private static void appendLike(StringBuilder sql, List<Object> params, String column, String pattern) {
+            sql.append(column).append(" LIKE ? ESCAPE '\\'");
+            params.add(pattern);
+        }
+
+        // Khoảng ngày luôn là [from, to); khoảng số tiền mở hoặc đóng theo inclusive
+        private static void appendRange(StringBuilder sql, List<Object> params, String column,
+                                        Object from, Object to, boolean inclusive) {
+            boolean isDate = column.equals("date");
+            if (from != null) {
+                sql.append(column).append(inclusive || isDate ? " >= ?" : " > ?");
+                params.add(from);
+            }
+            if (to != null) {
+                if (from != null) {
+                    sql.append(" AND ");
+                }
+                sql.append(column).append(inclusive && !isDate ? " <= ?" : " < ?");
+                params.add(to);
+            }
+        }
+
+        private static String nameColumn(LedgerType type) {
+            return type == LedgerType.INCOME ? "search_source" : "search_title";
+        }
+
+        private static String escapeLike(String text) {
+            return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        }
+    }
+}
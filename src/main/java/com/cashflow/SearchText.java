@@ -0,0 +1,89 @@
+package com.cashflow;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Dạng tìm kiếm của text: bỏ dấu, chữ thường, chuyển tự các chữ không tách dấu được (đ -> d).
+ * "Tiền nhà" và "tien nha" có cùng dạng "tien nha".
+ *
+ * Được tính khi ghi record (các cột search_* của DatabaseManager) nên lúc tìm chỉ cần fold chuỗi truy vấn.
+ */
+public final class SearchText {
+    // Ngăn cách các field trong text tìm kiếm ghép của một record để chuỗi con không khớp vắt qua hai field
+    public static final char FIELD_SEPARATOR = '\u0001';
+
+    private SearchText() {
+    }
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        if (isAscii(text)) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            String transliterated = transliterate(c);
+            if (transliterated != null) {
+                folded.append(transliterated);
+            } else {
+                folded.append(Character.toLowerCase(c));
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Ghép các field đã fold thành text tìm kiếm của một record
+     */
+    public static String join(String... foldedFields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : foldedFields) {
+            if (field != null && !field.isEmpty()) {
+                text.append(field).append(FIELD_SEPARATOR);
+            }
+        }
+        return text.toString();
+    }
+
+    // Chữ cái có nét riêng (không phải dấu kết hợp) nên NFD không tách được
+    private static String transliterate(char c) {
+        switch (c) {
+            case 'đ':
+            case 'Đ':
+                return "d";
+            case 'ø':
+            case 'Ø':
+                return "o";
+            case 'ł':
+            case 'Ł':
+                return "l";
+            case 'æ':
+            case 'Æ':
+                return "ae";
+            case 'œ':
+            case 'Œ':
+                return "oe";
+            case 'ß':
+                return "ss";
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
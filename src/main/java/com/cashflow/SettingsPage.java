@@ -14,7 +14,6 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
-import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
@@ -40,16 +39,6 @@ public class SettingsPage {
     
     private static final Logger logger = Logger.getLogger(SettingsPage.class.getName());
     
-    // Colors matching the app theme
-    private final Color BACKGROUND_COLOR = Color.web("#0f0f23");
-    private final Color CARD_COLOR = Color.web("#1e2749");
-    private final Color ACCENT_COLOR = Color.web("#4ECDC4");
-    private final Color TEXT_PRIMARY = Color.WHITE;
-    private final Color TEXT_SECONDARY = Color.web("#8892b0");
-    private final Color TEXT_MUTED = Color.web("#64748b");
-    private final Color SUCCESS_COLOR = Color.web("#4CAF50");
-    private final Color WARNING_COLOR = Color.web("#FF9800");
-    
     private LanguageManager languageManager;
     private DatabaseManager dbManager;
     
@@ -61,7 +50,8 @@ public class SettingsPage {
     public VBox createSettingsPageContent() {
         VBox mainContent = new VBox(25);
         mainContent.setPadding(new Insets(30));
-        mainContent.setStyle("-fx-background-color: " + toHexString(BACKGROUND_COLOR) + ";");
+        // Nền và màu nhấn của trang lấy từ stylesheet
+        mainContent.getStyleClass().addAll("content-area", "accent-teal");
         
         // Header
         HBox header = createSettingsHeader();
@@ -94,11 +84,11 @@ public class SettingsPage {
         VBox titleSection = new VBox(5);
         
         Label title = new Label(languageManager.translate("settings"));
-        title.setTextFill(TEXT_PRIMARY);
+        title.getStyleClass().add("text-primary");
         title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 32));
         
         Label subtitle = new Label("Customize your application preferences");
-        subtitle.setTextFill(TEXT_SECONDARY);
+        subtitle.getStyleClass().add("text-secondary");
         subtitle.setFont(Font.font("Segoe UI", 14));
         
         titleSection.getChildren().addAll(title, subtitle);
@@ -117,7 +107,7 @@ public class SettingsPage {
     private VBox createLanguageSettingsSection() {
         VBox section = new VBox(20);
         section.setPadding(new Insets(25));
-        section.setStyle(createCardStyle());
+        section.getStyleClass().add("dashboard-card");
         
         // Section header
         HBox sectionHeader = new HBox(15);
@@ -128,11 +118,11 @@ public class SettingsPage {
         
         VBox headerText = new VBox(3);
         Label sectionTitle = new Label("Language & Region");
-        sectionTitle.setTextFill(TEXT_PRIMARY);
+        sectionTitle.getStyleClass().add("text-primary");
         sectionTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
         
         Label sectionDesc = new Label("Choose your preferred language");
-        sectionDesc.setTextFill(TEXT_SECONDARY);
+        sectionDesc.getStyleClass().add("text-secondary");
         sectionDesc.setFont(Font.font("Segoe UI", 12));
         
         headerText.getChildren().addAll(sectionTitle, sectionDesc);
@@ -143,7 +133,7 @@ public class SettingsPage {
         languageRow.setAlignment(Pos.CENTER_LEFT);
         
         Label languageLabel = new Label("Application Language:");
-        languageLabel.setTextFill(TEXT_SECONDARY);
+        languageLabel.getStyleClass().add("text-secondary");
         languageLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
         
         ComboBox<String> languageCombo = new ComboBox<>();
@@ -157,7 +147,7 @@ public class SettingsPage {
             languageCombo.setValue("English");
         }
         
-        languageCombo.setStyle(createComboBoxStyle());
+        languageCombo.getStyleClass().add("form-field");
         languageCombo.setPrefWidth(200);
         
         languageCombo.setOnAction(e -> {
@@ -169,7 +159,7 @@ public class SettingsPage {
         });
         
         Button testButton = new Button("🔄 Apply Changes");
-        testButton.setStyle(createPrimaryButtonStyle());
+        testButton.getStyleClass().add("button-accent");
         testButton.setOnAction(e -> {
             showSuccessMessage("Language settings applied successfully!");
         });
@@ -180,12 +170,12 @@ public class SettingsPage {
         VBox additionalOptions = new VBox(10);
         
         CheckBox rtlCheckBox = new CheckBox("Right-to-left text direction");
-        rtlCheckBox.setTextFill(TEXT_SECONDARY);
+        rtlCheckBox.getStyleClass().add("text-secondary");
         rtlCheckBox.setFont(Font.font("Segoe UI", 12));
         rtlCheckBox.setDisable(true); // Not implemented yet
         
         CheckBox dateFormatCheckBox = new CheckBox("Use local date format");
-        dateFormatCheckBox.setTextFill(TEXT_SECONDARY);
+        dateFormatCheckBox.getStyleClass().add("text-secondary");
         dateFormatCheckBox.setFont(Font.font("Segoe UI", 12));
         dateFormatCheckBox.setSelected(true);
         
@@ -198,7 +188,7 @@ public class SettingsPage {
     private VBox createAppSettingsSection() {
         VBox section = new VBox(20);
         section.setPadding(new Insets(25));
-        section.setStyle(createCardStyle());
+        section.getStyleClass().add("dashboard-card");
         
         // Section header
         HBox sectionHeader = new HBox(15);
@@ -209,11 +199,11 @@ public class SettingsPage {
         
         VBox headerText = new VBox(3);
         Label sectionTitle = new Label("Appearance & Behavior");
-        sectionTitle.setTextFill(TEXT_PRIMARY);
+        sectionTitle.getStyleClass().add("text-primary");
         sectionTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
         
         Label sectionDesc = new Label("Customize how the application looks and behaves");
-        sectionDesc.setTextFill(TEXT_SECONDARY);
+        sectionDesc.getStyleClass().add("text-secondary");
         sectionDesc.setFont(Font.font("Segoe UI", 12));
         
         headerText.getChildren().addAll(sectionTitle, sectionDesc);
@@ -224,13 +214,13 @@ public class SettingsPage {
         themeRow.setAlignment(Pos.CENTER_LEFT);
         
         Label themeLabel = new Label("Theme:");
-        themeLabel.setTextFill(TEXT_SECONDARY);
+        themeLabel.getStyleClass().add("text-secondary");
         themeLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
         
         ComboBox<String> themeCombo = new ComboBox<>();
         themeCombo.getItems().addAll("Dark Theme", "Light Theme", "Auto");
         themeCombo.setValue("Dark Theme");
-        themeCombo.setStyle(createComboBoxStyle());
+        themeCombo.getStyleClass().add("form-field");
         themeCombo.setPrefWidth(150);
         
         themeRow.getChildren().addAll(themeLabel, themeCombo);
@@ -240,13 +230,13 @@ public class SettingsPage {
         currencyRow.setAlignment(Pos.CENTER_LEFT);
         
         Label currencyLabel = new Label("Currency:");
-        currencyLabel.setTextFill(TEXT_SECONDARY);
+        currencyLabel.getStyleClass().add("text-secondary");
         currencyLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
         
         ComboBox<String> currencyCombo = new ComboBox<>();
         currencyCombo.getItems().addAll("USD ($)", "VND (₫)", "EUR (€)", "GBP (£)");
         currencyCombo.setValue("USD ($)");
-        currencyCombo.setStyle(createComboBoxStyle());
+        currencyCombo.getStyleClass().add("form-field");
         currencyCombo.setPrefWidth(150);
         
         currencyRow.getChildren().addAll(currencyLabel, currencyCombo);
@@ -254,19 +244,19 @@ public class SettingsPage {
         // Notification settings
         VBox notificationSettings = new VBox(10);
         Label notifLabel = new Label("Notifications:");
-        notifLabel.setTextFill(TEXT_SECONDARY);
+        notifLabel.getStyleClass().add("text-secondary");
         notifLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
         
         CheckBox budgetAlerts = new CheckBox("Budget limit alerts");
-        budgetAlerts.setTextFill(TEXT_SECONDARY);
+        budgetAlerts.getStyleClass().add("text-secondary");
         budgetAlerts.setSelected(true);
         
         CheckBox transactionNotifs = new CheckBox("Transaction notifications");
-        transactionNotifs.setTextFill(TEXT_SECONDARY);
+        transactionNotifs.getStyleClass().add("text-secondary");
         transactionNotifs.setSelected(false);
         
         CheckBox monthlyReports = new CheckBox("Monthly financial reports");
-        monthlyReports.setTextFill(TEXT_SECONDARY);
+        monthlyReports.getStyleClass().add("text-secondary");
         monthlyReports.setSelected(true);
         
         notificationSettings.getChildren().addAll(notifLabel, budgetAlerts, transactionNotifs, monthlyReports);
@@ -281,7 +271,7 @@ public class SettingsPage {
     private VBox createDataManagementSection() {
         VBox section = new VBox(20);
         section.setPadding(new Insets(25));
-        section.setStyle(createCardStyle());
+        section.getStyleClass().add("dashboard-card");
         
         // Section header
         HBox sectionHeader = new HBox(15);
@@ -292,11 +282,11 @@ public class SettingsPage {
         
         VBox headerText = new VBox(3);
         Label sectionTitle = new Label("Data Management");
-        sectionTitle.setTextFill(TEXT_PRIMARY);
+        sectionTitle.getStyleClass().add("text-primary");
         sectionTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
         
         Label sectionDesc = new Label("Backup, export, and manage your financial data");
-        sectionDesc.setTextFill(TEXT_SECONDARY);
+        sectionDesc.getStyleClass().add("text-secondary");
         sectionDesc.setFont(Font.font("Segoe UI", 12));
         
         headerText.getChildren().addAll(sectionTitle, sectionDesc);
@@ -307,15 +297,15 @@ public class SettingsPage {
         dataActions.setAlignment(Pos.CENTER_LEFT);
         
         Button exportButton = new Button("📤 Export Data");
-        exportButton.setStyle(createSecondaryButtonStyle());
+        exportButton.getStyleClass().add("button-secondary");
         exportButton.setOnAction(e -> exportAllData());
         
         Button importButton = new Button("📥 Import Data");
-        importButton.setStyle(createSecondaryButtonStyle());
+        importButton.getStyleClass().add("button-secondary");
         importButton.setOnAction(e -> importData());
         
         Button backupButton = new Button("💾 Create Backup");
-        backupButton.setStyle(createPrimaryButtonStyle());
+        backupButton.getStyleClass().add("button-accent");
         backupButton.setOnAction(e -> createBackup());
         
         dataActions.getChildren().addAll(exportButton, importButton, backupButton);
@@ -323,15 +313,15 @@ public class SettingsPage {
         // Database info
         VBox dbInfo = new VBox(10);
         Label dbInfoLabel = new Label("Database Information:");
-        dbInfoLabel.setTextFill(TEXT_SECONDARY);
+        dbInfoLabel.getStyleClass().add("text-secondary");
         dbInfoLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
         
         Label recordsInfo = new Label("Total Records: " + getTotalRecordsCount());
-        recordsInfo.setTextFill(TEXT_MUTED);
+        recordsInfo.getStyleClass().add("text-muted");
         recordsInfo.setFont(Font.font("Segoe UI", 12));
         
         Label dbSizeInfo = new Label("Database Size: ~2.3 MB");
-        dbSizeInfo.setTextFill(TEXT_MUTED);
+        dbSizeInfo.getStyleClass().add("text-muted");
         dbSizeInfo.setFont(Font.font("Segoe UI", 12));
         
         dbInfo.getChildren().addAll(dbInfoLabel, recordsInfo, dbSizeInfo);
@@ -339,20 +329,14 @@ public class SettingsPage {
         // Dangerous actions
         VBox dangerZone = new VBox(15);
         dangerZone.setPadding(new Insets(15));
-        dangerZone.setStyle(
-            "-fx-background-color: " + toRgbaString(Color.web("#FF6B6B"), 0.1) + ";" +
-            "-fx-background-radius: 10px;" +
-            "-fx-border-color: " + toRgbaString(Color.web("#FF6B6B"), 0.3) + ";" +
-            "-fx-border-width: 1px;" +
-            "-fx-border-radius: 10px;"
-        );
+        dangerZone.getStyleClass().addAll("tinted-card", "accent-error");
         
         Label dangerLabel = new Label("⚠️ Danger Zone");
-        dangerLabel.setTextFill(Color.web("#FF6B6B"));
+        dangerLabel.getStyleClass().add("text-error");
         dangerLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 14));
         
         Button clearDataButton = new Button("🗑️ Clear All Data");
-        clearDataButton.setStyle(createDangerButtonStyle());
+        clearDataButton.getStyleClass().addAll("button-accent", "accent-error");
         clearDataButton.setOnAction(e -> confirmClearAllData());
         
         dangerZone.getChildren().addAll(dangerLabel, clearDataButton);
@@ -367,7 +351,7 @@ public class SettingsPage {
     private VBox createAboutSection() {
         VBox section = new VBox(20);
         section.setPadding(new Insets(25));
-        section.setStyle(createCardStyle());
+        section.getStyleClass().add("dashboard-card");
         
         // Section header
         HBox sectionHeader = new HBox(15);
@@ -378,11 +362,11 @@ public class SettingsPage {
         
         VBox headerText = new VBox(3);
         Label sectionTitle = new Label("About Cashflow");
-        sectionTitle.setTextFill(TEXT_PRIMARY);
+        sectionTitle.getStyleClass().add("text-primary");
         sectionTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
         
         Label sectionDesc = new Label("Application information and support");
-        sectionDesc.setTextFill(TEXT_SECONDARY);
+        sectionDesc.getStyleClass().add("text-secondary");
         sectionDesc.setFont(Font.font("Segoe UI", 12));
         
         headerText.getChildren().addAll(sectionTitle, sectionDesc);
@@ -392,15 +376,15 @@ public class SettingsPage {
         VBox appInfo = new VBox(10);
         
         Label versionLabel = new Label("Version: 2.1.0");
-        versionLabel.setTextFill(TEXT_SECONDARY);
+        versionLabel.getStyleClass().add("text-secondary");
         versionLabel.setFont(Font.font("Segoe UI", FontWeight.MEDIUM, 14));
         
         Label buildLabel = new Label("Build: 2025.06.22");
-        buildLabel.setTextFill(TEXT_MUTED);
+        buildLabel.getStyleClass().add("text-muted");
         buildLabel.setFont(Font.font("Segoe UI", 12));
         
         Label authorLabel = new Label("Developed with ❤️ by Nguyễn Tâm");
-        authorLabel.setTextFill(TEXT_MUTED);
+        authorLabel.getStyleClass().add("text-muted");
         authorLabel.setFont(Font.font("Segoe UI", 12));
         
         appInfo.getChildren().addAll(versionLabel, buildLabel, authorLabel);
@@ -410,15 +394,15 @@ public class SettingsPage {
         aboutActions.setAlignment(Pos.CENTER_LEFT);
         
         Button checkUpdatesButton = new Button("🔄 Check Updates");
-        checkUpdatesButton.setStyle(createSecondaryButtonStyle());
+        checkUpdatesButton.getStyleClass().add("button-secondary");
         checkUpdatesButton.setOnAction(e -> checkForUpdates());
         
         Button supportButton = new Button("💬 Support");
-        supportButton.setStyle(createSecondaryButtonStyle());
+        supportButton.getStyleClass().add("button-secondary");
         supportButton.setOnAction(e -> openSupport());
         
         Button licenseButton = new Button("📄 License");
-        licenseButton.setStyle(createSecondaryButtonStyle());
+        licenseButton.getStyleClass().add("button-secondary");
         licenseButton.setOnAction(e -> showLicense());
         
         aboutActions.getChildren().addAll(checkUpdatesButton, supportButton, licenseButton);
@@ -497,7 +481,8 @@ public class SettingsPage {
                 }
             };
 
-            new Thread(quickBackupTask).start();
+            TaskScheduler.getInstance().executeCoalesced(
+                TaskScheduler.Pool.IO, TaskScheduler.TaskPriority.VISIBLE, "quick-backup", quickBackupTask);
             
         } catch (Exception e) {
             showErrorMessage("Quick backup error: " + e.getMessage());
@@ -542,69 +527,6 @@ public class SettingsPage {
         return dbManager.getIncomeRecordsCount() + dbManager.getOutcomeRecordsCount();
     }
     
-    // Styling methods
-    private String createCardStyle() {
-        return "-fx-background-color: " + toHexString(CARD_COLOR) + ";" +
-               "-fx-background-radius: 20px;" +
-               "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.3), 15, 0, 0, 5);";
-    }
-    
-    private String createComboBoxStyle() {
-        return "-fx-background-color: " + toHexString(BACKGROUND_COLOR) + ";" +
-               "-fx-text-fill: " + toHexString(TEXT_PRIMARY) + ";" +
-               "-fx-background-radius: 10px;" +
-               "-fx-border-color: " + toRgbaString(ACCENT_COLOR, 0.3) + ";" +
-               "-fx-border-width: 1px;" +
-               "-fx-border-radius: 10px;";
-    }
-    
-    private String createPrimaryButtonStyle() {
-        return "-fx-background-color: " + toHexString(ACCENT_COLOR) + ";" +
-               "-fx-text-fill: white;" +
-               "-fx-background-radius: 10px;" +
-               "-fx-padding: 10 20 10 20;" +
-               "-fx-font-size: 13px;" +
-               "-fx-font-weight: bold;" +
-               "-fx-cursor: hand;" +
-               "-fx-effect: dropshadow(three-pass-box, " + toRgbaString(ACCENT_COLOR, 0.4) + ", 10, 0, 0, 3);";
-    }
-    
-    private String createSecondaryButtonStyle() {
-        return "-fx-background-color: " + toRgbaString(TEXT_PRIMARY, 0.1) + ";" +
-               "-fx-text-fill: " + toHexString(TEXT_PRIMARY) + ";" +
-               "-fx-background-radius: 10px;" +
-               "-fx-padding: 10 20 10 20;" +
-               "-fx-font-size: 13px;" +
-               "-fx-font-weight: 500;" +
-               "-fx-cursor: hand;" +
-               "-fx-border-color: " + toRgbaString(TEXT_PRIMARY, 0.2) + ";" +
-               "-fx-border-width: 1px;" +
-               "-fx-border-radius: 10px;";
-    }
-    
-    private String createDangerButtonStyle() {
-        return "-fx-background-color: " + toHexString(Color.web("#FF6B6B")) + ";" +
-               "-fx-text-fill: white;" +
-               "-fx-background-radius: 10px;" +
-               "-fx-padding: 10 20 10 20;" +
-               "-fx-font-size: 13px;" +
-               "-fx-font-weight: bold;" +
-               "-fx-cursor: hand;";
-    }
-    
-    // Utility methods
-    private String toHexString(Color color) {
-        return String.format("#%02X%02X%02X",
-                (int)(color.getRed() * 255),
-                (int)(color.getGreen() * 255),
-                (int)(color.getBlue() * 255));
-    }
-    
-    private String toRgbaString(Color color, double alpha) {
-        return String.format("rgba(%.0f, %.0f, %.0f, %.2f)",
-                color.getRed() * 255, color.getGreen() * 255, color.getBlue() * 255, alpha);
-    }
-    
     // Message methods
     private void showSuccessMessage(String message) {
         showMessage(message, Alert.AlertType.INFORMATION);
@@ -0,0 +1,184 @@
+package com.cashflow;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Calendar heatmap vẽ trên một Canvas duy nhất (cột = tuần, hàng = thứ trong tuần).
+ * Ngưỡng cường độ được tính một lần từ phân vị của các ngày có chi tiêu.
+ */
+public class SpendingHeatmapCanvas extends Canvas {
+    private static final double CELL_SIZE = 12;
+    private static final double CELL_GAP = 3;
+    private static final double LEFT_MARGIN = 30;
+    private static final double TOP_MARGIN = 18;
+    private static final double LEGEND_HEIGHT = 24;
+    private static final double[] LEVEL_ALPHAS = { 0.08, 0.25, 0.4, 0.55, 0.75, 0.95 };
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMM", Locale.ENGLISH);
+    private static final DateTimeFormatter TOOLTIP_FORMAT = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy", Locale.ENGLISH);
+
+    private final LocalDate gridStart;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final double[] dailyAmounts;
+    private final double[] thresholds;
+    private ThemeManager.Theme theme;
+    // Canvas vẽ bằng Color nên phải vẽ lại khi đổi theme
+    private final ChangeListener<ThemeManager.Theme> themeListener = (obs, oldTheme, newTheme) -> {
+        theme = newTheme;
+        draw();
+    };
+    private final int weekCount;
+    private Tooltip tooltip;
+
+    public SpendingHeatmapCanvas(Map<LocalDate, Double> dailyTotals, LocalDate startDate, LocalDate endDate,
+                                 ThemeManager.Theme theme) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.theme = theme;
+        this.gridStart = startDate.with(DayOfWeek.MONDAY);
+
+        int dayCount = (int) ChronoUnit.DAYS.between(gridStart, endDate) + 1;
+        this.weekCount = (dayCount + 6) / 7;
+        this.dailyAmounts = new double[weekCount * 7];
+        for (Map.Entry<LocalDate, Double> entry : dailyTotals.entrySet()) {
+            int index = (int) ChronoUnit.DAYS.between(gridStart, entry.getKey());
+            if (index >= 0 && index < dailyAmounts.length) {
+                dailyAmounts[index] += entry.getValue();
+            }
+        }
+        this.thresholds = computeThresholds(dailyTotals);
+
+        setWidth(LEFT_MARGIN + weekCount * (CELL_SIZE + CELL_GAP));
+        setHeight(TOP_MARGIN + 7 * (CELL_SIZE + CELL_GAP) + LEGEND_HEIGHT);
+        draw();
+        setOnMouseMoved(e -> updateTooltip(e.getX(), e.getY()));
+        ThemeManager.getInstance().themeProperty().addListener(new WeakChangeListener<>(themeListener));
+    }
+
+    /**
+     * Phân vị 25/50/75/90 của các ngày có chi tiêu, dùng làm ranh giới giữa các mức màu
+     */
+    private static double[] computeThresholds(Map<LocalDate, Double> dailyTotals) {
+        double[] values = dailyTotals.values().stream()
+            .mapToDouble(Double::doubleValue)
+            .filter(v -> v > 0)
+            .sorted()
+            .toArray();
+        if (values.length == 0) {
+            return new double[] { 0, 0, 0, 0 };
+        }
+        return new double[] {
+            percentile(values, 0.25),
+            percentile(values, 0.50),
+            percentile(values, 0.75),
+            percentile(values, 0.90)
+        };
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+
+    private int levelFor(double amount) {
+        if (amount <= 0) return 0;
+        if (amount <= thresholds[0]) return 1;
+        if (amount <= thresholds[1]) return 2;
+        if (amount <= thresholds[2]) return 3;
+        if (amount <= thresholds[3]) return 4;
+        return 5;
+    }
+
+    private void draw() {
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.clearRect(0, 0, getWidth(), getHeight());
+
+        Color base = theme.getAccentPurple();
+        Color[] levelColors = new Color[LEVEL_ALPHAS.length];
+        for (int i = 0; i < LEVEL_ALPHAS.length; i++) {
+            levelColors[i] = ThemeManager.toRgbaColor(base, LEVEL_ALPHAS[i]);
+        }
+
+        gc.setFont(Font.font("Segoe UI", 9));
+        gc.setFill(theme.getTextMuted());
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.fillText("Mon", 0, cellY(0) + CELL_SIZE - 2);
+        gc.fillText("Wed", 0, cellY(2) + CELL_SIZE - 2);
+        gc.fillText("Fri", 0, cellY(4) + CELL_SIZE - 2);
+
+        int lastLabelledMonth = -1;
+        for (int week = 0; week < weekCount; week++) {
+            LocalDate weekStart = gridStart.plusWeeks(week);
+            if (weekStart.getMonthValue() != lastLabelledMonth) {
+                gc.setFill(theme.getTextMuted());
+                gc.fillText(weekStart.format(MONTH_FORMAT), cellX(week), TOP_MARGIN - 6);
+                lastLabelledMonth = weekStart.getMonthValue();
+            }
+
+            for (int day = 0; day < 7; day++) {
+                LocalDate date = weekStart.plusDays(day);
+                if (date.isBefore(startDate) || date.isAfter(endDate)) {
+                    continue;
+                }
+                gc.setFill(levelColors[levelFor(dailyAmounts[week * 7 + day])]);
+                gc.fillRoundRect(cellX(week), cellY(day), CELL_SIZE, CELL_SIZE, 3, 3);
+            }
+        }
+
+        // Legend: Less ■■■■■ More
+        double legendY = cellY(7) + 6;
+        double legendX = getWidth() - (LEVEL_ALPHAS.length * (CELL_SIZE + CELL_GAP)) - 30;
+        gc.setFill(theme.getTextMuted());
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.fillText("Less", legendX - 4, legendY + CELL_SIZE - 2);
+        for (int i = 0; i < levelColors.length; i++) {
+            gc.setFill(levelColors[i]);
+            gc.fillRoundRect(legendX + i * (CELL_SIZE + CELL_GAP), legendY, CELL_SIZE, CELL_SIZE, 3, 3);
+        }
+        gc.setFill(theme.getTextMuted());
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.fillText("More", legendX + levelColors.length * (CELL_SIZE + CELL_GAP) + 2, legendY + CELL_SIZE - 2);
+    }
+
+    // Tooltip được tạo khi chuột vào lần đầu (trên FX thread), canvas có thể được dựng ở background
+    private void updateTooltip(double x, double y) {
+        if (tooltip == null) {
+            tooltip = new Tooltip();
+            Tooltip.install(this, tooltip);
+        }
+
+        int week = (int) ((x - LEFT_MARGIN) / (CELL_SIZE + CELL_GAP));
+        int day = (int) ((y - TOP_MARGIN) / (CELL_SIZE + CELL_GAP));
+        if (x < LEFT_MARGIN || y < TOP_MARGIN || week >= weekCount || day >= 7) {
+            tooltip.setText("");
+            return;
+        }
+        LocalDate date = gridStart.plusDays(week * 7L + day);
+        if (date.isBefore(startDate) || date.isAfter(endDate)) {
+            tooltip.setText("");
+            return;
+        }
+        tooltip.setText(String.format("%s: $%.2f", date.format(TOOLTIP_FORMAT), dailyAmounts[week * 7 + day]));
+    }
+
+    private static double cellX(int week) {
+        return LEFT_MARGIN + week * (CELL_SIZE + CELL_GAP);
+    }
+
+    private static double cellY(int day) {
+        return TOP_MARGIN + day * (CELL_SIZE + CELL_GAP);
+    }
+}
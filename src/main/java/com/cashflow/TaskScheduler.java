@@ -0,0 +1,302 @@
+package com.cashflow;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Scheduler dùng chung cho mọi công việc nền của ứng dụng, thay cho các lệnh new Thread rải rác.
+ *
+ * Mỗi loại công việc có pool riêng, số thread và hàng đợi đều giới hạn, thread là daemon có tên.
+ * Task trong hàng đợi được sắp theo độ ưu tiên (trang đang hiển thị trước prefetch), task cùng key
+ * đang chờ sẽ được gộp lại, và thời gian chờ/chạy của từng task được ghi log.
+ */
+public class TaskScheduler {
+    private static final Logger logger = Logger.getLogger(TaskScheduler.class.getName());
+    private static final long SLOW_TASK_MS = 2000;
+    private static TaskScheduler instance;
+
+    public enum Pool {
+        // Database và file (SQLite chỉ cho một writer, nên giữ ít thread)
+        IO("io", 2, 64),
+        // Tính toán nặng: forecast, mô phỏng rủi ro...
+        CPU("cpu", Math.max(2, Runtime.getRuntime().availableProcessors() - 1), 64),
+        // Chuẩn bị nội dung cho component đang hiển thị (card analytics, chart)
+        UI("ui", 2, 32);
+
+        private final String threadPrefix;
+        private final int threads;
+        private final int queueCapacity;
+
+        Pool(String threadPrefix, int threads, int queueCapacity) {
+            this.threadPrefix = threadPrefix;
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public enum TaskPriority {
+        VISIBLE,
+        PREFETCH
+    }
+
+    private final Map<Pool, ThreadPoolExecutor> executors = new LinkedHashMap<>();
+    private final Map<String, ScheduledTask<?>> pendingByKey = new ConcurrentHashMap<>();
+    private final Map<String, TaskTiming> timings = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean shutdown;
+
+    private TaskScheduler() {
+        for (Pool pool : Pool.values()) {
+            executors.put(pool, createExecutor(pool));
+        }
+    }
+
+    public static synchronized TaskScheduler getInstance() {
+        if (instance == null) {
+            instance = new TaskScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Chạy một Runnable (thường là javafx.concurrent.Task) với độ ưu tiên VISIBLE
+     */
+    public Future<?> execute(Pool pool, String name, Runnable task) {
+        return execute(pool, TaskPriority.VISIBLE, name, task);
+    }
+
+    public Future<?> execute(Pool pool, TaskPriority priority, String name, Runnable task) {
+        return schedule(pool, priority, name, null, Executors.callable(task));
+    }
+
+    public <T> Future<T> submit(Pool pool, TaskPriority priority, String name, Callable<T> work) {
+        return schedule(pool, priority, name, null, work);
+    }
+
+    /**
+     * Như execute, nhưng nếu một task cùng key vẫn đang chờ trong hàng đợi thì không thêm task mới
+     * mà trả về task đang chờ. Task đã bắt đầu chạy thì không được gộp, để không trả về dữ liệu cũ.
+     */
+    public Future<?> executeCoalesced(Pool pool, TaskPriority priority, String key, Runnable task) {
+        return schedule(pool, priority, key, key, Executors.callable(task));
+    }
+
+    /**
+     * Executor cho CompletableFuture và các API nhận Executor
+     */
+    public Executor executor(Pool pool) {
+        return task -> execute(pool, TaskPriority.VISIBLE, pool.threadPrefix + "-async", task);
+    }
+
+    /**
+     * Bỏ các task đã bị huỷ khỏi hàng đợi để không chiếm chỗ
+     */
+    public void purge() {
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.purge();
+        }
+    }
+
+    /**
+     * Thống kê thời gian theo tên task: số lần chạy, tổng và lớn nhất (ms)
+     */
+    public Map<String, TaskTiming> getTimings() {
+        return Collections.unmodifiableMap(timings);
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.shutdownNow();
+        }
+        for (Map.Entry<Pool, ThreadPoolExecutor> entry : executors.entrySet()) {
+            try {
+                if (!entry.getValue().awaitTermination(2, TimeUnit.SECONDS)) {
+                    logger.warning("Pool " + entry.getKey() + " did not stop within 2 seconds");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        pendingByKey.clear();
+    }
+
+    private synchronized <T> Future<T> schedule(Pool pool, TaskPriority priority, String name, String key,
+                                                Callable<T> work) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Task scheduler is shut down");
+        }
+        if (key != null) {
+            ScheduledTask<?> pending = pendingByKey.get(key);
+            if (pending != null && !pending.isDone() && !pending.started) {
+                @SuppressWarnings("unchecked")
+                Future<T> existing = (Future<T>) pending;
+                return existing;
+            }
+        }
+
+        ScheduledTask<T> task = new ScheduledTask<>(work, pool, priority, name, key, sequence.incrementAndGet());
+        if (key != null) {
+            pendingByKey.put(key, task);
+        }
+        try {
+            executors.get(pool).execute(task);
+        } catch (RejectedExecutionException e) {
+            if (key != null) {
+                pendingByKey.remove(key, task);
+            }
+            logger.log(Level.WARNING, "Queue for pool " + pool + " is full, rejected " + name, e);
+            throw e;
+        }
+        return task;
+    }
+
+    private void recordTiming(ScheduledTask<?> task, long waitNanos, long runNanos) {
+        long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        long runMs = TimeUnit.NANOSECONDS.toMillis(runNanos);
+        timings.computeIfAbsent(task.name, name -> new TaskTiming()).record(runMs);
+
+        if (runMs >= SLOW_TASK_MS) {
+            logger.warning(String.format("Slow task %s on %s pool: waited %d ms, ran %d ms",
+                task.name, task.pool, waitMs, runMs));
+        } else if (logger.isLoggable(Level.FINE)) {
+            logger.fine(String.format("Task %s on %s pool: waited %d ms, ran %d ms",
+                task.name, task.pool, waitMs, runMs));
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor(Pool pool) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            pool.threads, pool.threads,
+            30, TimeUnit.SECONDS,
+            new BoundedPriorityQueue(pool.queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, pool.threadPrefix + "-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Task trong hàng đợi: so sánh theo độ ưu tiên rồi theo thứ tự submit
+     */
+    private class ScheduledTask<T> extends FutureTask<T> implements Comparable<ScheduledTask<?>> {
+        private final Pool pool;
+        private final TaskPriority priority;
+        private final String name;
+        private final String key;
+        private final long order;
+        private final long submittedAt = System.nanoTime();
+        private volatile boolean started;
+
+        ScheduledTask(Callable<T> work, Pool pool, TaskPriority priority, String name, String key, long order) {
+            super(work);
+            this.pool = pool;
+            this.priority = priority;
+            this.name = name;
+            this.key = key;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            if (isCancelled()) {
+                return;
+            }
+            started = true;
+            if (key != null) {
+                pendingByKey.remove(key, this);
+            }
+            long startedAt = System.nanoTime();
+            super.run();
+            recordTiming(this, startedAt - submittedAt, System.nanoTime() - startedAt);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (key != null) {
+                pendingByKey.remove(key, this);
+            }
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public int compareTo(ScheduledTask<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+
+    /**
+     * PriorityBlockingQueue có giới hạn: offer trả về false khi đầy để executor từ chối task
+     */
+    private static class BoundedPriorityQueue extends PriorityBlockingQueue<Runnable> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+
+        BoundedPriorityQueue(int capacity) {
+            super(capacity);
+            this.capacity = capacity;
+        }
+
+        @Override
+        public synchronized boolean offer(Runnable runnable) {
+            if (size() >= capacity) {
+                return false;
+            }
+            return super.offer(runnable);
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return Math.max(0, capacity - size());
+        }
+    }
+
+    public static class TaskTiming {
+        private long count;
+        private long totalMs;
+        private long maxMs;
+
+        private synchronized void record(long runMs) {
+            count++;
+            totalMs += runMs;
+            maxMs = Math.max(maxMs, runMs);
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized long getTotalMs() {
+            return totalMs;
+        }
+
+        public synchronized long getMaxMs() {
+            return maxMs;
+        }
+
+        public synchronized double getAverageMs() {
+            return count == 0 ? 0 : (double) totalMs / count;
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package com.cashflow;
 
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.scene.Parent;
+import javafx.scene.control.DialogPane;
 import javafx.scene.paint.Color;
 import java.util.prefs.Preferences;
 import java.util.ArrayList;
 import java.util.List;
 
 public class ThemeManager {
+    public static final String DARK_STYLE_CLASS = "dark-theme";
+    public static final String LIGHT_STYLE_CLASS = "light-theme";
     private static ThemeManager instance;
     private Preferences prefs;
     private Theme currentTheme;
     private List<ThemeChangeListener> listeners = new ArrayList<>();
+    private final ReadOnlyObjectWrapper<Theme> theme = new ReadOnlyObjectWrapper<>(this, "theme");
     
     // Theme interface
     public interface Theme {
@@ -30,6 +37,8 @@ public class ThemeManager {
         Color getWarning();
         Color getShadowColor();
         String getName();
+        // Style class đặt trên scene root, chọn bảng looked-up color trong modern-styles.css
+        String getStyleClass();
     }
     
     // Theme change listener interface
@@ -78,6 +87,8 @@ public class ThemeManager {
         public Color getShadowColor() { return Color.BLACK; }
         @Override
         public String getName() { return "Dark"; }
+        @Override
+        public String getStyleClass() { return DARK_STYLE_CLASS; }
     }
     
     // Light Theme implementation
@@ -116,6 +127,8 @@ public class ThemeManager {
         public Color getShadowColor() { return Color.web("#000000"); }
         @Override
         public String getName() { return "Light"; }
+        @Override
+        public String getStyleClass() { return LIGHT_STYLE_CLASS; }
     }
     
     private ThemeManager() {
@@ -149,6 +162,7 @@ public class ThemeManager {
         
         if (currentTheme != newTheme) {
             currentTheme = newTheme;
+            theme.set(newTheme);
             prefs.put("themeType", themeType.name());
             notifyThemeChange();
         }
@@ -170,6 +184,14 @@ public class ThemeManager {
         }
     }
     
+    /**
+     * Theme hiện tại dạng observable, cho các node vẽ bằng Color (canvas) tự vẽ lại khi đổi theme.
+     * Node nên đăng ký qua WeakChangeListener để trang bị bỏ khỏi cache vẫn được thu hồi.
+     */
+    public ReadOnlyObjectProperty<Theme> themeProperty() {
+        return theme.getReadOnlyProperty();
+    }
+    
     public void addThemeChangeListener(ThemeChangeListener listener) {
         if (!listeners.contains(listener)) {
             listeners.add(listener);
@@ -186,6 +208,23 @@ public class ThemeManager {
         }
     }
     
+    /**
+     * Đổi theme cho cả cây node: chỉ thay style class trên root, các node dùng looked-up color
+     * trong stylesheet sẽ được CSS cập nhật ở pulse kế tiếp
+     */
+    public static void applyThemeClass(Parent root, Theme theme) {
+        root.getStyleClass().removeAll(DARK_STYLE_CLASS, LIGHT_STYLE_CLASS);
+        root.getStyleClass().add(theme.getStyleClass());
+    }
+    
+    /**
+     * Dialog có scene riêng nên không thừa hưởng stylesheet và theme class của cửa sổ chính
+     */
+    public static void styleDialog(DialogPane dialogPane) {
+        dialogPane.getStylesheets().add(ThemeManager.class.getResource("/modern-styles.css").toExternalForm());
+        applyThemeClass(dialogPane, getInstance().getCurrentTheme());
+    }
+
     // Utility methods
     public static String toHexString(Color color) {
         return String.format("#%02X%02X%02X",
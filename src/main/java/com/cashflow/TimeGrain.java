@@ -0,0 +1,59 @@
+package com.cashflow;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Các cấp thời gian của rollup cube: day → week → month → quarter → year
+public enum TimeGrain {
+    DAY, WEEK, MONTH, QUARTER, YEAR;
+
+    /**
+     * Ngày bắt đầu của bucket chứa date (tuần bắt đầu từ thứ Hai)
+     */
+    public LocalDate bucketStart(LocalDate date) {
+        switch (this) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            case QUARTER:
+                int firstMonthOfQuarter = ((date.getMonthValue() - 1) / 3) * 3 + 1;
+                return LocalDate.of(date.getYear(), firstMonthOfQuarter, 1);
+            case YEAR:
+                return date.withDayOfYear(1);
+            case DAY:
+            default:
+                return date;
+        }
+    }
+
+    public LocalDate nextBucket(LocalDate bucketStart) {
+        switch (this) {
+            case WEEK:
+                return bucketStart.plusWeeks(1);
+            case MONTH:
+                return bucketStart.plusMonths(1);
+            case QUARTER:
+                return bucketStart.plusMonths(3);
+            case YEAR:
+                return bucketStart.plusYears(1);
+            case DAY:
+            default:
+                return bucketStart.plusDays(1);
+        }
+    }
+
+    // Ngày cuối cùng của bucket bắt đầu tại bucketStart
+    public LocalDate bucketEnd(LocalDate bucketStart) {
+        return nextBucket(bucketStart).minusDays(1);
+    }
+
+    public TimeGrain finer() {
+        return this == DAY ? null : values()[ordinal() - 1];
+    }
+
+    public TimeGrain coarser() {
+        return this == YEAR ? null : values()[ordinal() + 1];
+    }
+}
@@ -0,0 +1,168 @@
+package com.cashflow;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cube tổng hợp theo thời gian (day → week → month → quarter → year) cho từng sổ cái và category.
+ * Được cập nhật dần mỗi lần ghi, nên mọi câu hỏi "tổng theo tháng/tuần/năm" đều trả lời
+ * từ bộ nhớ mà không cần SQL mới.
+ */
+public class TimeRollupCube {
+    private final Map<LedgerType, Map<TimeGrain, TreeMap<LocalDate, Bucket>>> cube = new EnumMap<>(LedgerType.class);
+
+    public TimeRollupCube() {
+        clear();
+    }
+
+    public synchronized void clear() {
+        for (LedgerType type : LedgerType.values()) {
+            Map<TimeGrain, TreeMap<LocalDate, Bucket>> grains = new EnumMap<>(TimeGrain.class);
+            for (TimeGrain grain : TimeGrain.values()) {
+                grains.put(grain, new TreeMap<>());
+            }
+            cube.put(type, grains);
+        }
+    }
+
+    /**
+     * Cộng (hoặc trừ, khi amount và countDelta âm) một thay đổi vào mọi cấp thời gian
+     */
+    public synchronized void record(LedgerType type, String category, LocalDate date, double amount, int countDelta) {
+        long cents = Math.round(amount * 100);
+        for (TimeGrain grain : TimeGrain.values()) {
+            TreeMap<LocalDate, Bucket> buckets = cube.get(type).get(grain);
+            LocalDate start = grain.bucketStart(date);
+            Bucket bucket = buckets.computeIfAbsent(start, key -> new Bucket());
+            bucket.add(category, cents, countDelta);
+            if (bucket.count <= 0) {
+                buckets.remove(start);
+            }
+        }
+    }
+
+    // Tổng của bucket chứa date
+    public synchronized double getTotal(LedgerType type, TimeGrain grain, LocalDate date) {
+        Bucket bucket = cube.get(type).get(grain).get(grain.bucketStart(date));
+        return bucket != null ? fromCents(bucket.cents) : 0.0;
+    }
+
+    public synchronized int getCount(LedgerType type, TimeGrain grain, LocalDate date) {
+        Bucket bucket = cube.get(type).get(grain).get(grain.bucketStart(date));
+        return bucket != null ? bucket.count : 0;
+    }
+
+    public synchronized double getCategoryTotal(LedgerType type, String category, TimeGrain grain, LocalDate date) {
+        Bucket bucket = cube.get(type).get(grain).get(grain.bucketStart(date));
+        if (bucket == null || !bucket.categoryCents.containsKey(category)) {
+            return 0.0;
+        }
+        return fromCents(bucket.categoryCents.get(category));
+    }
+
+    public synchronized Map<String, Double> getCategoryBreakdown(LedgerType type, TimeGrain grain, LocalDate date) {
+        Map<String, Double> breakdown = new HashMap<>();
+        Bucket bucket = cube.get(type).get(grain).get(grain.bucketStart(date));
+        if (bucket != null) {
+            bucket.categoryCents.forEach((category, cents) -> breakdown.put(category, fromCents(cents)));
+        }
+        return breakdown;
+    }
+
+    /**
+     * Chuỗi tổng theo grain cho mọi bucket từ from đến to (kể cả bucket rỗng = 0)
+     */
+    public synchronized Map<LocalDate, Double> getSeries(LedgerType type, TimeGrain grain, LocalDate from, LocalDate to) {
+        Map<LocalDate, Double> series = new LinkedHashMap<>();
+        TreeMap<LocalDate, Bucket> buckets = cube.get(type).get(grain);
+        for (LocalDate start = grain.bucketStart(from); !start.isAfter(to); start = grain.nextBucket(start)) {
+            Bucket bucket = buckets.get(start);
+            series.put(start, bucket != null ? fromCents(bucket.cents) : 0.0);
+        }
+        return series;
+    }
+
+    // Tổng theo ngày trong đoạn [from, to]
+    public synchronized double getRangeTotal(LedgerType type, LocalDate from, LocalDate to) {
+        long cents = 0;
+        for (Bucket bucket : cube.get(type).get(TimeGrain.DAY).subMap(from, true, to, true).values()) {
+            cents += bucket.cents;
+        }
+        return fromCents(cents);
+    }
+
+    /**
+     * Drill-down: tách bucket (grain, date) thành các bucket ở cấp nhỏ hơn.
+     * Bucket con bị cắt theo biên của bucket cha (ví dụ tuần vắt qua hai tháng).
+     */
+    public synchronized Map<LocalDate, Double> drillDown(LedgerType type, TimeGrain grain, LocalDate date) {
+        TimeGrain finer = grain.finer();
+        if (finer == null) {
+            return getSeries(type, TimeGrain.DAY, date, date);
+        }
+        LocalDate parentStart = grain.bucketStart(date);
+        LocalDate parentEnd = grain.bucketEnd(parentStart);
+
+        Map<LocalDate, Double> children = new LinkedHashMap<>();
+        for (LocalDate start = finer.bucketStart(parentStart); !start.isAfter(parentEnd); start = finer.nextBucket(start)) {
+            LocalDate end = finer.bucketEnd(start);
+            if (start.isBefore(parentStart) || end.isAfter(parentEnd)) {
+                LocalDate clippedStart = start.isBefore(parentStart) ? parentStart : start;
+                LocalDate clippedEnd = end.isAfter(parentEnd) ? parentEnd : end;
+                children.put(clippedStart, getRangeTotal(type, clippedStart, clippedEnd));
+            } else {
+                Bucket bucket = cube.get(type).get(finer).get(start);
+                children.put(start, bucket != null ? fromCents(bucket.cents) : 0.0);
+            }
+        }
+        return children;
+    }
+
+    // Roll-up: tổng của bucket cấp lớn hơn chứa date
+    public synchronized double rollUp(LedgerType type, TimeGrain grain, LocalDate date) {
+        TimeGrain coarser = grain.coarser();
+        return getTotal(type, coarser != null ? coarser : grain, date);
+    }
+
+    // Bucket gần nhất có dữ liệu, null nếu sổ cái rỗng
+    public synchronized LocalDate getLatestBucket(LedgerType type, TimeGrain grain) {
+        TreeMap<LocalDate, Bucket> buckets = cube.get(type).get(grain);
+        return buckets.isEmpty() ? null : buckets.lastKey();
+    }
+
+    // Trung bình tổng của các bucket có dữ liệu
+    public synchronized double getAverageBucketTotal(LedgerType type, TimeGrain grain) {
+        TreeMap<LocalDate, Bucket> buckets = cube.get(type).get(grain);
+        if (buckets.isEmpty()) {
+            return 0.0;
+        }
+        long cents = 0;
+        for (Bucket bucket : buckets.values()) {
+            cents += bucket.cents;
+        }
+        return fromCents(cents) / buckets.size();
+    }
+
+    private static double fromCents(long cents) {
+        return cents / 100.0;
+    }
+
+    private static class Bucket {
+        long cents;
+        int count;
+        final Map<String, Long> categoryCents = new HashMap<>();
+
+        void add(String category, long deltaCents, int countDelta) {
+            cents += deltaCents;
+            count += countDelta;
+            categoryCents.merge(category, deltaCents, Long::sum);
+            if (categoryCents.get(category) == 0) {
+                categoryCents.remove(category);
+            }
+        }
+    }
+}